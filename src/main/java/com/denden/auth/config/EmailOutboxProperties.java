@@ -0,0 +1,54 @@
+package com.denden.auth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 待發送郵件（email_outbox）背景發送配置屬性
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.mail.outbox")
+public class EmailOutboxProperties {
+
+    /**
+     * 是否啟用本節點的背景發送（停用時郵件仍寫入 email_outbox，由其他節點發送）
+     */
+    private boolean dispatcherEnabled = true;
+
+    /**
+     * 沒有到期郵件時的輪詢間隔（毫秒）
+     */
+    private long pollIntervalMs = 1000;
+
+    /**
+     * 每次認領的郵件數
+     */
+    private int batchSize = 50;
+
+    /**
+     * 認領逾時（毫秒）：節點在發送途中停止時，郵件於逾時後由其他節點重新發送
+     */
+    private long claimTimeoutMs = 60000;
+
+    /**
+     * 發送次數上限，超過後標記為 FAILED
+     */
+    private int maxAttempts = 8;
+
+    /**
+     * 第一次重試的等待時間（毫秒），之後每次加倍
+     */
+    private long initialBackoffMs = 2000;
+
+    /**
+     * 重試等待時間上限（毫秒）
+     */
+    private long maxBackoffMs = 600000;
+}
@@ -0,0 +1,65 @@
+package com.denden.auth.config;
+
+import com.denden.auth.service.otp.DegradedOtpSessionStore;
+import com.denden.auth.service.otp.InMemoryOtpSessionStore;
+import com.denden.auth.service.otp.JpaOtpSessionStore;
+import com.denden.auth.service.otp.OtpSessionStore;
+import com.denden.auth.service.otp.RedisOtpSessionStore;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * OTP 會話儲存配置
+ *
+ * <p>依 app.security.otp.store 選擇主要的 {@link OtpSessionStore}；{@link JpaOtpSessionStore} 一律存在。
+ * 主要儲存無法使用時改用 otpFallbackStore：主要儲存為 redis 且啟用降級時為 {@link DegradedOtpSessionStore}，
+ * 未啟用降級時為資料庫；主要儲存為 jpa 或 memory 時即為自身，沒有備援，memory 模式的驗證與查詢不會落到資料庫。
+ * memory 與降級儲存在應用程式關閉時停止背景執行緒。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Configuration
+public class OtpSessionStoreConfig {
+
+    public static final String FALLBACK_STORE = "otpFallbackStore";
+
+    private static final String STORE_REDIS = "redis";
+    private static final String STORE_JPA = "jpa";
+    public static final String STORE_MEMORY = "memory";
+
+    @Bean
+    @Primary
+    public OtpSessionStore otpSessionStore(SecurityProperties securityProperties,
+                                           RedisOtpSessionStore redisOtpSessionStore,
+                                           JpaOtpSessionStore jpaOtpSessionStore) {
+        String store = securityProperties.getOtp().getStore();
+        return switch (store) {
+            case STORE_REDIS -> redisOtpSessionStore;
+            case STORE_JPA -> jpaOtpSessionStore;
+            case STORE_MEMORY -> new InMemoryOtpSessionStore(securityProperties.getOtp());
+            default -> throw new IllegalStateException("不支援的 OTP 會話儲存: " + store);
+        };
+    }
+
+    @Bean(FALLBACK_STORE)
+    public OtpSessionStore otpFallbackStore(SecurityProperties securityProperties,
+                                            OtpSessionStore otpSessionStore,
+                                            RedisOtpSessionStore redisOtpSessionStore,
+                                            JpaOtpSessionStore jpaOtpSessionStore,
+                                            RedisCircuitBreaker redisCircuitBreaker,
+                                            MeterRegistry meterRegistry) {
+        SecurityProperties.Otp otp = securityProperties.getOtp();
+        if (STORE_MEMORY.equals(otp.getStore())) {
+            return otpSessionStore;
+        }
+        if (STORE_REDIS.equals(otp.getStore()) && otp.getDegraded().isEnabled()) {
+            return new DegradedOtpSessionStore(securityProperties, redisOtpSessionStore, jpaOtpSessionStore,
+                    redisCircuitBreaker, meterRegistry);
+        }
+        return jpaOtpSessionStore;
+    }
+}
@@ -1,18 +1,111 @@
 package com.denden.auth.config;
 
+import com.denden.auth.service.password.PasswordCostCalibrator;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * 密碼編碼器配置
+ *
+ * <p>以 {@link DelegatingPasswordEncoder} 支援多種演算法，雜湊值帶有 {bcrypt}、{argon2}、{pbkdf2} 前綴；
+ * 沒有前綴的舊 BCrypt 雜湊仍可驗證，並在登入成功時重新雜湊為目前的演算法與成本。
+ * 目前演算法的成本參數未設定時，啟動時依 target-millis 校準。</p>
+ *
+ * <p>重新雜湊不降低成本：同為 BCrypt 時只有原雜湊成本較低才重新雜湊，沒有前綴的舊雜湊也一樣
+ * （成本較高的舊雜湊保留原樣，不為了加上前綴而降低成本）。</p>
  */
+@Slf4j
 @Configuration
 public class PasswordEncoderConfig {
 
+    private static final String BCRYPT = "bcrypt";
+    private static final String ARGON2 = "argon2";
+    private static final String PBKDF2 = "pbkdf2";
+
+    /**
+     * 沒有前綴的舊 BCrypt 雜湊（$2a$、$2b$、$2y$ 或 $2$ 後接兩位數成本）
+     */
+    private static final Pattern LEGACY_BCRYPT = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(SecurityProperties securityProperties) {
+        SecurityProperties.PasswordHashing config = securityProperties.getPasswordHashing();
+        String algorithm = config.getAlgorithm();
+
+        int bcryptStrength = config.getBcryptStrength();
+        if (bcryptStrength <= 0) {
+            bcryptStrength = BCRYPT.equals(algorithm) && config.getTargetMillis() > 0
+                    ? PasswordCostCalibrator.bcryptStrength(config.getTargetMillis(),
+                            config.getMinBcryptStrength(), config.getMaxBcryptStrength())
+                    : config.getMinBcryptStrength();
+        }
+
+        int pbkdf2Iterations = config.getPbkdf2Iterations();
+        if (pbkdf2Iterations <= 0) {
+            pbkdf2Iterations = PBKDF2.equals(algorithm) && config.getTargetMillis() > 0
+                    ? PasswordCostCalibrator.pbkdf2Iterations(config.getTargetMillis(), config.getMinPbkdf2Iterations())
+                    : config.getMinPbkdf2Iterations();
+        }
+
+        int argon2Iterations = config.getArgon2Iterations();
+        if (argon2Iterations <= 0) {
+            argon2Iterations = ARGON2.equals(algorithm) && config.getTargetMillis() > 0
+                    ? PasswordCostCalibrator.argon2Iterations(config.getTargetMillis(),
+                            config.getArgon2MemoryKib(), config.getArgon2Parallelism())
+                    : PasswordCostCalibrator.MIN_ARGON2_ITERATIONS;
+        }
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(PBKDF2, PasswordCostCalibrator.pbkdf2(pbkdf2Iterations));
+        encoders.put(ARGON2, PasswordCostCalibrator.argon2(
+                config.getArgon2MemoryKib(), argon2Iterations, config.getArgon2Parallelism()));
+
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("不支援的密碼雜湊演算法: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder delegating = BCRYPT.equals(algorithm)
+                ? new CostPreservingPasswordEncoder(encoders, bcryptStrength)
+                : new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        log.info("密碼編碼器設定完成，演算法: {}, BCrypt 成本: {}, PBKDF2 迭代: {}, Argon2 迭代: {} (記憶體 {} KiB)",
+                algorithm, bcryptStrength, pbkdf2Iterations, argon2Iterations, config.getArgon2MemoryKib());
+        return delegating;
+    }
+
+    /**
+     * 目前演算法為 BCrypt 時，沒有前綴的舊雜湊成本高於目前設定則不重新雜湊
+     */
+    private static final class CostPreservingPasswordEncoder extends DelegatingPasswordEncoder {
+
+        private final int bcryptStrength;
+
+        private CostPreservingPasswordEncoder(Map<String, PasswordEncoder> encoders, int bcryptStrength) {
+            super(BCRYPT, encoders);
+            this.bcryptStrength = bcryptStrength;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String prefixEncodedPassword) {
+            if (prefixEncodedPassword != null) {
+                Matcher legacy = LEGACY_BCRYPT.matcher(prefixEncodedPassword);
+                if (legacy.find()) {
+                    return Integer.parseInt(legacy.group(1)) <= bcryptStrength;
+                }
+            }
+            return super.upgradeEncoding(prefixEncodedPassword);
+        }
     }
 }
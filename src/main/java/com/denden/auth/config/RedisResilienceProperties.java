@@ -0,0 +1,37 @@
+package com.denden.auth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Redis 斷路器配置屬性
+ *
+ * <p>單次命令的逾時由 {@code spring.data.redis.timeout} 控制，應設為毫秒等級，
+ * 讓 Redis 變慢時呼叫端能很快累積失敗並開啟斷路器。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.redis.circuit-breaker")
+public class RedisResilienceProperties {
+
+    /**
+     * 連續失敗幾次後開啟斷路器
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * 斷路器開啟後，等待多久才放行半開探測（毫秒）
+     */
+    private long openDurationMs = 5000;
+
+    /**
+     * 背景探測的檢查間隔（毫秒），沒有流量時也能自動恢復
+     */
+    private long probeIntervalMs = 1000;
+}
@@ -5,6 +5,9 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 安全相關配置屬性
  */
@@ -16,9 +19,18 @@ public class SecurityProperties {
     
     private Jwt jwt = new Jwt();
     private RateLimit rateLimit = new RateLimit();
+    private ClientIp clientIp = new ClientIp();
+    private HeavyHitters heavyHitters = new HeavyHitters();
+    private PasswordHashing passwordHashing = new PasswordHashing();
     private Otp otp = new Otp();
     private VerificationToken verificationToken = new VerificationToken();
     private AccountLock accountLock = new AccountLock();
+    private LoginAttempts loginAttempts = new LoginAttempts();
+    
+    /**
+     * 管理者 email（不分大小寫），授予 ROLE_ADMIN，可存取 health 以外的 actuator 端點
+     */
+    private List<String> adminEmails = new ArrayList<>();
     
     @Getter
     @Setter
@@ -26,6 +38,90 @@ public class SecurityProperties {
         private String secret;
         private Long expirationMs;
         private String issuer;
+        
+        /**
+         * 簽章演算法：HS256（共享密鑰）、ES256 或 EdDSA（非對稱，公鑰經 JWKS 發布）
+         */
+        private String algorithm = "HS256";
+        
+        /**
+         * 非對稱演算法的私鑰（PKCS#8 PEM）
+         */
+        private String privateKey;
+        
+        /**
+         * 非對稱演算法的公鑰（X.509 PEM）
+         */
+        private String publicKey;
+        
+        /**
+         * JWKS 端點的 Cache-Control max-age（秒）
+         */
+        private long jwksMaxAgeSeconds = 300;
+        
+        /**
+         * 主要簽章金鑰 ID，寫入 Token header 的 kid
+         */
+        private String keyId = "primary";
+        
+        /**
+         * 僅用於驗證的金鑰（輪替期間保留舊金鑰，直到其簽發的 Token 全數過期）
+         */
+        private List<VerificationKey> verificationKeys = new ArrayList<>();
+        
+        /**
+         * 金鑰環檔案（.yml / .yaml / .properties），內容為 app.security.jwt 底下的金鑰設定，
+         * 優先於本設定；檔案內容變更後於下次檢查時輪替，空白表示不從檔案載入
+         */
+        private String keyRingFile;
+        
+        /**
+         * 檢查金鑰環檔案是否變更的間隔（毫秒）
+         */
+        private long keyRingReloadIntervalMs = 60000;
+        
+        /**
+         * Token 編解碼實作：jjwt（預設）或 fast（HS256 專用快速路徑，其他演算法自動使用 jjwt）
+         */
+        private String codec = "jjwt";
+        
+        private ClaimsCache claimsCache = new ClaimsCache();
+        
+        private Revocation revocation = new Revocation();
+    }
+    
+    @Getter
+    @Setter
+    public static class VerificationKey {
+        private String keyId;
+        private String secret;
+        private String publicKey;
+        private String algorithm;
+    }
+    
+    @Getter
+    @Setter
+    public static class ClaimsCache {
+        private boolean enabled = true;
+        private int maxEntries = 10000;
+        private long maxMemoryBytes = 16L * 1024 * 1024;
+    }
+    
+    @Getter
+    @Setter
+    public static class Revocation {
+        
+        /**
+         * Bloom filter 預期容納的撤銷數，實際數量超過時重建會自動放大
+         */
+        private long expectedInsertions = 100000;
+        
+        private double falsePositiveRate = 0.01;
+        
+        /**
+         * 清除過期紀錄並重建 Bloom filter 的間隔（毫秒）
+         */
+        private long rebuildIntervalMs = 300000;
     }
     
     @Getter
@@ -33,6 +129,211 @@ public class SecurityProperties {
     public static class RateLimit {
         private Integer maxRequests;
         private Integer windowSeconds;
+        private LocalRateLimit local = new LocalRateLimit();
+
+        /**
+         * 依端點與身分的限流規則，在全域 IP 限流之外額外套用，依設定順序判定
+         */
+        private List<RateLimitPolicy> policies = new ArrayList<>();
+    }
+
+    /**
+     * 限流規則：符合 paths（與 methods）的請求，依 identity 取得的身分各自計算額度
+     */
+    @Getter
+    @Setter
+    public static class RateLimitPolicy {
+
+        /**
+         * 規則名稱，作為 Redis key 的一部分，需唯一
+         */
+        private String name;
+
+        /**
+         * 路徑樣式（PathPattern 語法，例如 /api/v1/users/**）
+         */
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * 限定的 HTTP 方法，空白表示不限
+         */
+        private List<String> methods = new ArrayList<>();
+
+        private RateLimitIdentity identity = RateLimitIdentity.IP;
+        private Integer maxRequests;
+        private Integer windowSeconds;
+    }
+
+    /**
+     * 限流身分來源
+     */
+    public enum RateLimitIdentity {
+
+        /**
+         * 客戶端 IP
+         */
+        IP,
+
+        /**
+         * 請求 body（JSON）或參數中的 email，無法取得時該規則不套用
+         */
+        EMAIL,
+
+        /**
+         * JWT 中的 userId，未帶有效 Token 時該規則不套用
+         */
+        USER_ID
+    }
+
+    /**
+     * 客戶端 IP 解析設定
+     */
+    @Getter
+    @Setter
+    public static class ClientIp {
+
+        /**
+         * 受信任的反向代理 CIDR，只有來自這些位址的連線才採用 X-Forwarded-For / X-Real-IP
+         */
+        private List<String> trustedProxies = new ArrayList<>();
+
+        /**
+         * 不受限流的網段（例如內部監控）
+         */
+        private List<String> allow = new ArrayList<>();
+
+        /**
+         * 直接拒絕的網段
+         */
+        private List<String> deny = new ArrayList<>();
+
+        /**
+         * IPv6 客戶端以此前綴長度合併為同一個限流身分
+         */
+        private int ipv6PrefixLength = 64;
+    }
+
+    /**
+     * 熱點 IP / email 偵測設定（Count-Min sketch + Space-Saving）
+     */
+    @Getter
+    @Setter
+    public static class HeavyHitters {
+
+        private boolean enabled = true;
+
+        /**
+         * 每個資料流追蹤的 key 數
+         */
+        private int capacity = 256;
+
+        /**
+         * Count-Min sketch 的雜湊列數與每列計數器數
+         */
+        private int depth = 4;
+        private int width = 4096;
+
+        /**
+         * 計數減半的間隔（毫秒），計數約反映最近兩個間隔內的流量
+         */
+        private long decayIntervalMs = 60000;
+
+        /**
+         * 發布本節點摘要到 Redis 的間隔（毫秒），供跨節點合併
+         */
+        private long publishIntervalMs = 10000;
+
+        /**
+         * actuator 端點預設返回筆數
+         */
+        private int defaultLimit = 20;
+    }
+
+    /**
+     * 密碼雜湊執行緒池設定，雜湊不在 Tomcat 請求執行緒上執行
+     */
+    @Getter
+    @Setter
+    public static class PasswordHashing {
+
+        /**
+         * 執行緒數，0 表示 CPU 核心數
+         */
+        private int threads = 0;
+
+        /**
+         * 等待佇列上限，佇列已滿時直接回傳 503
+         */
+        private int queueCapacity = 64;
+
+        /**
+         * 在佇列中等待超過此時間（毫秒）的工作不再執行，直接回傳 503
+         */
+        private long maxQueueWaitMs = 2000;
+
+        /**
+         * 回傳 503 時的 Retry-After（秒）
+         */
+        private long retryAfterSeconds = 2;
+
+        /**
+         * 新雜湊使用的演算法：bcrypt、argon2 或 pbkdf2；雜湊值帶有 {id} 前綴，舊演算法的雜湊仍可驗證
+         */
+        private String algorithm = "bcrypt";
+
+        /**
+         * 單次雜湊的目標耗時（毫秒），啟動時依此校準成本參數；0 表示不校準
+         */
+        private long targetMillis = 100;
+
+        /**
+         * BCrypt 成本，0 表示依 target-millis 校準（校準結果介於 min 與 max 之間）
+         */
+        private int bcryptStrength = 0;
+        private int minBcryptStrength = 10;
+        private int maxBcryptStrength = 16;
+
+        /**
+         * PBKDF2-HMAC-SHA256 迭代次數，0 表示依 target-millis 校準（不低於 min）
+         */
+        private int pbkdf2Iterations = 0;
+        private int minPbkdf2Iterations = 310000;
+
+        /**
+         * Argon2id 參數，iterations 為 0 時依 target-millis 校準
+         */
+        private int argon2MemoryKib = 19456;
+        private int argon2Iterations = 0;
+        private int argon2Parallelism = 1;
+    }
+
+    /**
+     * 本地租借額度層設定，額度以批次向 Redis 租借後在本地扣減
+     */
+    @Getter
+    @Setter
+    public static class LocalRateLimit {
+
+        private boolean enabled = true;
+
+        /**
+         * 每次租借佔 limit 的比例，越大 Redis 往返越少、節點間偏差越大
+         */
+        private double leaseFraction = 0.1;
+
+        private int maxLeaseSize = 50;
+
+        /**
+         * 租約有效期（毫秒），到期未用完的額度直接丟棄
+         */
+        private long leaseTtlMs = 1000;
+
+        /**
+         * 本地最多保留的限流 key 數，超過時新 key 直接向 Redis 判定
+         */
+        private int maxKeys = 100000;
+
+        private long cleanupIntervalMs = 10000;
     }
     
     @Getter
@@ -41,6 +342,63 @@ public class SecurityProperties {
         private Integer length;
         private Integer expirationSeconds;
         private Integer maxAttempts;
+
+        /**
+         * 每個 email 在 issue-window-seconds 內最多發送的 OTP 數（登入與重新發送合計）
+         */
+        private Integer maxIssuesPerWindow = 10;
+        private Integer issueWindowSeconds = 900;
+
+        /**
+         * OTP 會話儲存：redis、jpa 或 memory（僅限單節點）
+         */
+        private String store = "redis";
+
+        /**
+         * memory 儲存的時間輪 tick（毫秒）
+         */
+        private Long memoryTickMs = 100L;
+
+        /**
+         * OTP 會話提示 cookie 是否只在 HTTPS 傳送；本機以 HTTP 開發時設為 false
+         */
+        private boolean sessionHintCookieSecure = true;
+
+        private Degraded degraded = new Degraded();
+    }
+
+    /**
+     * Redis 無法使用時的 OTP 降級儲存（本節點快取 + 資料庫背景寫入）
+     */
+    @Getter
+    @Setter
+    public static class Degraded {
+
+        /**
+         * 關閉時 Redis 無法使用即同步讀寫資料庫
+         */
+        private boolean enabled = true;
+
+        /**
+         * 本節點快取的會話數上限，滿時新的會話同步寫入資料庫
+         */
+        private int maxSessions = 100000;
+
+        /**
+         * 背景寫入資料庫的間隔（毫秒），間隔內同一個 email 的多次變更合併為一次寫入
+         */
+        private long writeBehindIntervalMs = 500;
+
+        /**
+         * 單一交易最多寫入的會話數
+         */
+        private int writeBatchSize = 500;
+
+        /**
+         * Redis 恢復後將會話寫回 Redis 的檢查間隔（毫秒）與每批筆數
+         */
+        private long reconcileIntervalMs = 5000;
+        private int reconcileBatchSize = 500;
     }
     
     @Getter
@@ -54,5 +412,58 @@ public class SecurityProperties {
     public static class AccountLock {
         private Integer maxFailedAttempts;
         private Integer lockDurationMinutes;
+
+        /**
+         * 計算失敗次數的滑動視窗（分鐘）
+         */
+        private Integer failureWindowMinutes = 30;
+
+        /**
+         * Redis 失敗計數的時間桶大小（秒），視窗邊界的誤差不超過一個桶
+         */
+        private Integer bucketSeconds = 60;
+
+        /**
+         * 啟動後檢查舊格式鎖定 key（account_lock:&lt;email&gt;）的期限（分鐘），0 表示不檢查；
+         * 應大於鎖定時間加上滾動部署所需時間
+         */
+        private long legacyKeyFallbackMinutes = 60;
+    }
+
+    /**
+     * 登入嘗試紀錄的寫入設定
+     */
+    @Getter
+    @Setter
+    public static class LoginAttempts {
+
+        /**
+         * 是否以背景批次寫入；關閉時每次登入同步寫入一筆
+         */
+        private boolean writeBehind = true;
+
+        private int queueCapacity = 10000;
+
+        /**
+         * 單一 INSERT 陳述式最多寫入的筆數
+         */
+        private int batchSize = 500;
+
+        /**
+         * 收到第一筆後最多等待多久（毫秒）湊批次
+         */
+        private long flushIntervalMs = 200;
+
+        /**
+         * 資料庫無法寫入或佇列已滿時的暫存檔（JSON lines），恢復後自動補寫
+         */
+        private String spillFile = "data/login-attempts.spill";
+
+        private long spillReplayIntervalMs = 30000;
+
+        /**
+         * 關閉時等待佇列寫完的時間（毫秒），逾時的紀錄寫入暫存檔
+         */
+        private long shutdownTimeoutMs = 10000;
     }
 }
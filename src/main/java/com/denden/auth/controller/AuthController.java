@@ -1,5 +1,6 @@
 package com.denden.auth.controller;
 
+import com.denden.auth.config.SecurityProperties;
 import com.denden.auth.dto.AuthResponse;
 import com.denden.auth.dto.ErrorResponse;
 import com.denden.auth.dto.LoginRequest;
@@ -7,7 +8,10 @@ import com.denden.auth.dto.OtpResponse;
 import com.denden.auth.dto.RegisterRequest;
 import com.denden.auth.dto.ResendVerificationRequest;
 import com.denden.auth.dto.VerifyOtpRequest;
+import com.denden.auth.exception.BusinessException;
+import com.denden.auth.exception.ErrorCode;
 import com.denden.auth.service.AuthService;
+import com.denden.auth.service.jwt.JwtPrincipal;
 import com.denden.auth.util.RequestUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,8 +23,11 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -33,7 +40,13 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class AuthController {
     
+    /**
+     * OTP 會話提示 cookie：Redis 降級時 OTP 只存在發出的節點，負載平衡器依此 cookie 將驗證導回同一節點
+     */
+    static final String OTP_SESSION_HINT_COOKIE = "otp_session_hint";
+    
     private final AuthService authService;
+    private final SecurityProperties securityProperties;
     
     @PostMapping("/register")
     @Operation(
@@ -201,7 +214,7 @@ public class AuthController {
         OtpResponse response = authService.login(request, ipAddress);
         
         log.info("會員登入請求處理完成");
-        return ResponseEntity.ok(response);
+        return withSessionHint(response);
     }
     
     @PostMapping("/verify-otp")
@@ -246,13 +259,20 @@ public class AuthController {
             content = @Content(schema = @Schema(implementation = ErrorResponse.class))
         )
     })
-    public ResponseEntity<AuthResponse> verifyOtp(@Valid @RequestBody VerifyOtpRequest request) {
+    public ResponseEntity<AuthResponse> verifyOtp(
+            @Valid @RequestBody VerifyOtpRequest request,
+            @CookieValue(name = OTP_SESSION_HINT_COOKIE, required = false) String sessionHint) {
         log.info("收到 OTP 驗證請求");
         
-        AuthResponse response = authService.verifyOtp(request);
+        AuthResponse response = authService.verifyOtp(request, sessionHint);
         
         log.info("OTP 驗證請求處理完成");
-        return ResponseEntity.ok(response);
+        if (sessionHint == null) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, sessionHintCookie("", 0).toString())
+                .body(response);
     }
     
     @PostMapping("/resend-otp")
@@ -293,7 +313,63 @@ public class AuthController {
         OtpResponse response = authService.resendOtp(email);
         
         log.info("重新發送 OTP 請求處理完成");
-        return ResponseEntity.ok(response);
+        return withSessionHint(response);
+    }
+    
+    /**
+     * 有會話提示時以 cookie 返回，有效期限與 OTP 相同
+     */
+    private ResponseEntity<OtpResponse> withSessionHint(OtpResponse response) {
+        if (response.sessionHint() == null) {
+            return ResponseEntity.ok(response);
+        }
+        ResponseCookie cookie = sessionHintCookie(response.sessionHint(), response.expiresIn());
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                .body(response);
+    }
+    
+    private ResponseCookie sessionHintCookie(String value, long maxAgeSeconds) {
+        return ResponseCookie.from(OTP_SESSION_HINT_COOKIE, value)
+                .httpOnly(true)
+                .secure(securityProperties.getOtp().isSessionHintCookieSecure())
+                .sameSite("Strict")
+                .path("/api/v1/auth")
+                .maxAge(maxAgeSeconds)
+                .build();
+    }
+    
+    @PostMapping("/logout")
+    @Operation(
+        summary = "登出",
+        description = "撤銷目前使用的 JWT Token，撤銷後以同一 Token 發出的請求皆視為未認證"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "204",
+            description = "登出成功，Token 已撤銷"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "未提供 JWT Token 或 Token 無效",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "快取服務錯誤，撤銷未完成",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal JwtPrincipal principal) {
+        if (principal == null) {
+            throw new BusinessException(ErrorCode.UNAUTHORIZED);
+        }
+        
+        log.info("收到登出請求");
+        
+        authService.logout(principal);
+        
+        return ResponseEntity.noContent().build();
     }
     
 }
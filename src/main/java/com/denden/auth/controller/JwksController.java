@@ -0,0 +1,64 @@
+package com.denden.auth.controller;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.service.TokenService;
+import com.denden.auth.service.jwt.PublicJwkSet;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * JWKS 公鑰發布控制器
+ *
+ * <p>下游服務可取得公鑰後在本地驗證 Token，不需回呼本服務。
+ * 回應帶有 ETag 與 Cache-Control，條件請求（If-None-Match）命中時返回 304。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Slf4j
+@RestController
+@Tag(name = "JWKS API", description = "JWT 驗證公鑰發布")
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final TokenService tokenService;
+    private final SecurityProperties securityProperties;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "取得 JWT 驗證公鑰",
+        description = "以 JWK Set 格式返回目前可用於驗證 Token 的公鑰（僅非對稱演算法）"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "成功取得 JWK Set"
+        ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "JWK Set 未變更"
+        )
+    })
+    public ResponseEntity<String> getJwks() {
+        PublicJwkSet jwkSet = tokenService.getPublicJwkSet();
+        long maxAgeSeconds = securityProperties.getJwt().getJwksMaxAgeSeconds();
+
+        log.debug("JWKS 請求，ETag: {}", jwkSet.etag());
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic())
+                .eTag(jwkSet.etag())
+                .body(jwkSet.json());
+    }
+}
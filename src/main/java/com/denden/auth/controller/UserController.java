@@ -3,6 +3,7 @@ package com.denden.auth.controller;
 import com.denden.auth.dto.ErrorResponse;
 import com.denden.auth.dto.UserInfo;
 import com.denden.auth.service.UserService;
+import com.denden.auth.service.jwt.JwtPrincipal;
 import com.denden.auth.util.MaskingUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,8 +15,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -47,6 +47,7 @@ public class UserController {
      * 
      * <p>從 JWT Token 提取使用者身份，查詢並返回使用者的基本資訊</p>
      * 
+     * @param principal 已驗證的 JWT 主體
      * @return ResponseEntity 包含 UserInfo 的響應
      * 
      */
@@ -77,11 +78,11 @@ public class UserController {
             content = @Content(schema = @Schema(implementation = ErrorResponse.class))
         )
     })
-    public ResponseEntity<UserInfo> getCurrentUser() {
-        String email = getCurrentUserEmail();
-        log.info("使用者資訊請求來自: {}", MaskingUtils.maskEmail(email));
+    public ResponseEntity<UserInfo> getCurrentUser(@AuthenticationPrincipal JwtPrincipal principal) {
+        requireAuthenticated(principal);
+        log.info("使用者資訊請求來自: {}", MaskingUtils.maskEmail(principal.email()));
         
-        UserInfo userInfo = userService.getCurrentUserInfo(email);
+        UserInfo userInfo = userService.getCurrentUserInfo(principal.userId());
         
         log.info("成功取得使用者資訊，使用者 ID: {}", userInfo.id());
         return ResponseEntity.ok(userInfo);
@@ -92,6 +93,7 @@ public class UserController {
      * 
      * <p>從 JWT Token 提取使用者身份，查詢並返回最後登入時間</p>
      * 
+     * @param principal 已驗證的 JWT 主體
      * @return ResponseEntity 包含最後登入時間的響應
      * 
      */
@@ -121,11 +123,11 @@ public class UserController {
             content = @Content(schema = @Schema(implementation = ErrorResponse.class))
         )
     })
-    public ResponseEntity<Map<String, LocalDateTime>> getLastLoginTime() {
-        String email = getCurrentUserEmail();
-        log.info("最後登入時間請求來自: {}", MaskingUtils.maskEmail(email));
+    public ResponseEntity<Map<String, LocalDateTime>> getLastLoginTime(@AuthenticationPrincipal JwtPrincipal principal) {
+        requireAuthenticated(principal);
+        log.info("最後登入時間請求來自: {}", MaskingUtils.maskEmail(principal.email()));
         
-        LocalDateTime lastLoginAt = userService.getLastLoginTime(email);
+        LocalDateTime lastLoginAt = userService.getLastLoginTime(principal.userId());
         
         Map<String, LocalDateTime> response = new HashMap<>();
         response.put("lastLoginAt", lastLoginAt);
@@ -140,22 +142,17 @@ public class UserController {
     }
 
     /**
-     * 從 SecurityContext 提取當前認證使用者的 Email
+     * 確認 SecurityContext 中存在由 JWT 過濾器寫入的主體
+     * 
+     * <p>主體已在過濾器中解析一次，此處直接取用 userId，不再解析 Token 或以 Email 查詢</p>
      *      
-     * @return 當前使用者的 Email 地址
+     * @param principal 當前認證使用者的 JWT 主體
      * @throws IllegalStateException 當無法取得認證資訊時
      */
-    private String getCurrentUserEmail() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (authentication == null || !authentication.isAuthenticated()) {
-            log.error("SecurityContext 中找不到認證資訊");
+    private void requireAuthenticated(JwtPrincipal principal) {
+        if (principal == null) {
+            log.error("SecurityContext 中找不到 JWT 主體");
             throw new IllegalStateException("使用者未認證");
         }
-        
-        String email = authentication.getName();
-        log.debug("從 SecurityContext 提取 Email: {}", MaskingUtils.maskEmail(email));
-        
-        return email;
     }
 }
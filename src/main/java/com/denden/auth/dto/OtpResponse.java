@@ -1,5 +1,6 @@
 package com.denden.auth.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 /**
@@ -8,6 +9,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
  * @param message 提示訊息
  * @param expiresIn OTP 有效期限（秒）
  * @param maskedEmail 遮罩後的 Email 地址
+ * @param sessionHint OTP 會話提示（Redis 降級時以 cookie 返回，不在回應本文中）
  */
 @Schema(description = "OTP 發送響應")
 public record OtpResponse(
@@ -18,7 +20,11 @@ public record OtpResponse(
     Long expiresIn,
     
     @Schema(description = "遮罩後的 Email 地址", example = "u***@example.com")
-    String maskedEmail
+    String maskedEmail,
+    
+    @JsonIgnore
+    @Schema(hidden = true)
+    String sessionHint
 ) {
     /**
      * 建立 OTP 響應
@@ -31,7 +37,18 @@ public record OtpResponse(
         return new OtpResponse(
             "OTP 已發送至您的 Email，請查收",
             expiresIn,
-            maskedEmail
+            maskedEmail,
+            null
         );
     }
+    
+    /**
+     * 附上 OTP 會話提示
+     * 
+     * @param sessionHint 會話提示，可為 null
+     * @return OTP 響應物件
+     */
+    public OtpResponse withSessionHint(String sessionHint) {
+        return new OtpResponse(message, expiresIn, maskedEmail, sessionHint);
+    }
 }
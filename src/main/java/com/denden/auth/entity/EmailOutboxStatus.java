@@ -0,0 +1,19 @@
+package com.denden.auth.entity;
+
+/**
+ * 待發送郵件狀態列舉
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public enum EmailOutboxStatus {
+    /**
+     * 待發送（包含已認領、發送中與等待重試）
+     */
+    PENDING,
+
+    /**
+     * 超過重試次數上限，不再發送
+     */
+    FAILED
+}
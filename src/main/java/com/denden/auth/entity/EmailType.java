@@ -0,0 +1,29 @@
+package com.denden.auth.entity;
+
+/**
+ * 郵件類型列舉
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public enum EmailType {
+    /**
+     * 帳號驗證郵件，payload 為驗證 Token
+     */
+    VERIFICATION,
+
+    /**
+     * OTP 驗證碼郵件，payload 為 OTP
+     */
+    OTP,
+
+    /**
+     * 帳號鎖定通知郵件，無 payload
+     */
+    ACCOUNT_LOCKED,
+
+    /**
+     * 歡迎郵件，payload 為使用者名稱
+     */
+    WELCOME
+}
@@ -17,10 +17,9 @@ import java.time.LocalDateTime;
  * @since 2.0.0
  */
 @Entity
-@Table(name = "otp_sessions", indexes = {
-    @Index(name = "idx_otp_email", columnList = "email"),
-    @Index(name = "idx_otp_expires_at", columnList = "expiresAt")
-})
+@Table(name = "otp_sessions",
+    uniqueConstraints = @UniqueConstraint(name = "uk_otp_sessions_email", columnNames = "email"),
+    indexes = @Index(name = "idx_otp_expires_at", columnList = "expiresAt"))
 @Data
 @Builder
 @NoArgsConstructor
@@ -37,6 +36,9 @@ public class OtpSession implements Serializable {
     @Column(nullable = false, length = 255)
     private String email;
     
+    @Column(name = "user_id")
+    private Long userId;
+    
     @Column(nullable = false, length = 6)
     private String otp;
     
@@ -54,6 +56,9 @@ public class OtpSession implements Serializable {
     @Builder.Default
     private Boolean used = false;
     
+    @Column(name = "owner_node", length = 36)
+    private String ownerNode;
+    
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
@@ -7,7 +7,6 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * 驗證 Token 實體
@@ -53,22 +52,22 @@ public class VerificationToken {
     @Column(nullable = false, updatable = false, name = "created_at")
     private LocalDateTime createdAt;
 
-    public VerificationToken(User user, TokenType type, LocalDateTime expiresAt) {
-        this.token = UUID.randomUUID().toString();
+    public VerificationToken(String token, User user, TokenType type, LocalDateTime expiresAt) {
+        this.token = token;
         this.user = user;
         this.type = type;
         this.expiresAt = expiresAt;
         this.used = false;
     }
 
-    public static VerificationToken createEmailVerificationToken(User user) {
+    public static VerificationToken createEmailVerificationToken(User user, String token) {
         LocalDateTime expiresAt = LocalDateTime.now().plusHours(24);
-        return new VerificationToken(user, TokenType.EMAIL_VERIFICATION, expiresAt);
+        return new VerificationToken(token, user, TokenType.EMAIL_VERIFICATION, expiresAt);
     }
 
-    public static VerificationToken createPasswordResetToken(User user) {
+    public static VerificationToken createPasswordResetToken(User user, String token) {
         LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
-        return new VerificationToken(user, TokenType.PASSWORD_RESET, expiresAt);
+        return new VerificationToken(token, user, TokenType.PASSWORD_RESET, expiresAt);
     }
 
     public void markAsUsed() {
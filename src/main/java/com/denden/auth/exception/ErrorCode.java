@@ -126,6 +126,11 @@ public enum ErrorCode {
      */
     TOO_MANY_LOGIN_ATTEMPTS(5002, "登入失敗次數過多，帳號已被暫時鎖定"),
     
+    /**
+     * OTP 發送次數超過限制
+     */
+    OTP_ISSUE_LIMIT_EXCEEDED(5003, "驗證碼發送次數過多，請稍後再試"),
+    
     // ==================== 外部服務錯誤 (6xxx) ====================
     
     /**
@@ -148,6 +153,11 @@ public enum ErrorCode {
      */
     DATABASE_SERVICE_ERROR(6004, "資料庫服務錯誤"),
     
+    /**
+     * 密碼雜湊佇列已滿，暫時無法處理登入或註冊
+     */
+    PASSWORD_HASHING_OVERLOADED(6005, "目前登入人數過多，請稍後再試"),
+    
     // ==================== 系統錯誤 (9xxx) ====================
     
     /**
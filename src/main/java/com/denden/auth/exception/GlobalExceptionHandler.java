@@ -4,6 +4,7 @@ import com.denden.auth.dto.ErrorResponse;
 import com.denden.auth.util.RequestUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -55,6 +56,37 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(errorResponse);
     }
     
+    /**
+     * 處理服務過載異常
+     * 
+     * <p>過載期間會大量發生，只記 DEBUG 日誌（次數見對應指標），並以 Retry-After 告知客戶端重試時間</p>
+     * 
+     * @param ex 服務過載異常
+     * @param request HTTP 請求
+     * @return 錯誤響應
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloadedException(
+            ServiceOverloadedException ex,
+            HttpServletRequest request) {
+        
+        ErrorCode errorCode = ex.getErrorCode();
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            errorCode.getCode(),
+            ex.getMessage(),
+            LocalDateTime.now(),
+            request.getRequestURI()
+        );
+        
+        log.debug("服務過載，拒絕請求: code={}, path={}, retryAfter={}s", 
+                errorCode.getCode(), request.getRequestURI(), ex.getRetryAfterSeconds());
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+    
     /**
      * 處理自訂認證異常
      * 
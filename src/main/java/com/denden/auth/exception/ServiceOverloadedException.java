@@ -0,0 +1,34 @@
+package com.denden.auth.exception;
+
+/**
+ * 服務過載異常
+ * 
+ * <p>有界資源（例如密碼雜湊執行緒池）已滿時拋出，對應 HTTP 503 並帶有 Retry-After</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public class ServiceOverloadedException extends BusinessException {
+    
+    private final long retryAfterSeconds;
+    
+    /**
+     * 建構服務過載異常
+     * 
+     * @param errorCode 錯誤碼
+     * @param retryAfterSeconds 建議客戶端等待的秒數
+     */
+    public ServiceOverloadedException(ErrorCode errorCode, long retryAfterSeconds) {
+        super(errorCode);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    /**
+     * 取得建議客戶端等待的秒數
+     * 
+     * @return 秒數
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,163 @@
+package com.denden.auth.filter;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 預先讀取請求 body 的包裝器
+ *
+ * <p>過濾器需要在 Controller 之前讀取 body（例如取出 email 作為限流身分），
+ * 讀取後由此包裝器重播給後續的過濾器與 Controller。</p>
+ *
+ * <p>最多只預讀 maxBytes。完整讀入時每次 {@link #getInputStream()} 都從頭重播；
+ * 超過時保留已讀部分並接續原始串流，{@link #isComplete()} 返回 false，
+ * 此時原始串流只能讀一次，重複呼叫返回同一個串流（與 Servlet 規範一致），不會遺失未讀的部分。
+ * 呼叫端不應解析不完整的內容。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final byte[] cachedBody;
+    private final boolean complete;
+
+    /**
+     * body 不完整時唯一的重播串流（已讀部分 + 原始串流的剩餘部分），完整時為 null
+     */
+    private final ReplayInputStream partialStream;
+    private BufferedReader partialReader;
+
+    public CachedBodyHttpServletRequest(HttpServletRequest request, int maxBytes) throws IOException {
+        super(request);
+        InputStream original = request.getInputStream();
+        this.cachedBody = original.readNBytes(maxBytes + 1);
+        this.complete = cachedBody.length <= maxBytes;
+        this.partialStream = complete
+                ? null
+                : new ReplayInputStream(new SequenceInputStream(new ByteArrayInputStream(cachedBody), original), -1);
+    }
+
+    /**
+     * 已預讀的 body 內容
+     */
+    public byte[] getCachedBody() {
+        return cachedBody;
+    }
+
+    /**
+     * body 是否已完整讀入
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        if (partialStream != null) {
+            return partialStream;
+        }
+        return new ReplayInputStream(new ByteArrayInputStream(cachedBody), cachedBody.length);
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        if (partialStream == null) {
+            return newReader(getInputStream());
+        }
+
+        synchronized (partialStream) {
+            if (partialReader == null) {
+                partialReader = newReader(partialStream);
+            }
+            return partialReader;
+        }
+    }
+
+    private BufferedReader newReader(InputStream inputStream) {
+        String encoding = getCharacterEncoding();
+        Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(inputStream, charset));
+    }
+
+    private static final class ReplayInputStream extends ServletInputStream {
+
+        private final InputStream delegate;
+
+        /**
+         * 內容總長度，未知（接續原始串流）時為 -1，只能以讀到 EOF 判斷結束
+         */
+        private final long length;
+        private long position;
+        private boolean finished;
+
+        private ReplayInputStream(InputStream delegate, long length) {
+            this.delegate = delegate;
+            this.length = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b == -1) {
+                finished = true;
+            } else {
+                position++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = delegate.read(buffer, offset, length);
+            if (n == -1) {
+                finished = true;
+            } else {
+                position += n;
+            }
+            return n;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished || position == length;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        /**
+         * 內容已在記憶體中（或以阻塞方式接續原始串流），註冊時立即通知可讀，讀完後通知結束
+         */
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            if (readListener == null) {
+                throw new NullPointerException("ReadListener 不可為 null");
+            }
+
+            try {
+                if (!isFinished()) {
+                    readListener.onDataAvailable();
+                }
+                if (isFinished()) {
+                    readListener.onAllDataRead();
+                }
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.denden.auth.filter;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.util.CidrTrie;
+import com.denden.auth.util.IpAddress;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 客戶端 IP 解析器
+ *
+ * <p>只有直接連線的對端位於受信任代理網段時，才採用轉發標頭：</p>
+ * <ul>
+ *   <li>X-Forwarded-For 由右往左解析，跳過受信任的代理，第一個不受信任的位址即為客戶端；
+ *       遇到無法解析的項目時停止，採用最後一個受信任代理回報的位址</li>
+ *   <li>沒有 X-Forwarded-For 時採用 X-Real-IP</li>
+ *   <li>對端不受信任時忽略所有轉發標頭，客戶端無法以偽造標頭取得新的限流額度</li>
+ * </ul>
+ *
+ * <p>受信任代理、allow、deny 網段共用同一棵 {@link CidrTrie}，每次判定為 O(前綴長度)。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Slf4j
+@Component
+public class ClientIpResolver {
+
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+    private static final String X_REAL_IP = "X-Real-IP";
+
+    /**
+     * X-Forwarded-For 最多解析的項目數，避免超長標頭造成額外成本
+     */
+    private static final int MAX_FORWARDED_HOPS = 16;
+
+    /**
+     * 網段存取判定
+     */
+    public enum NetworkAccess {
+        NONE,
+        ALLOW,
+        DENY
+    }
+
+    private final CidrTrie networks = new CidrTrie();
+    private final int ipv6PrefixLength;
+
+    public ClientIpResolver(SecurityProperties securityProperties) {
+        SecurityProperties.ClientIp config = securityProperties.getClientIp();
+        if (config.getIpv6PrefixLength() < 1 || config.getIpv6PrefixLength() > 128) {
+            throw new IllegalStateException("IPv6 前綴長度必須介於 1 與 128 之間: " + config.getIpv6PrefixLength());
+        }
+        this.ipv6PrefixLength = config.getIpv6PrefixLength();
+
+        insertAll(config.getTrustedProxies(), CidrTrie.TRUSTED_PROXY);
+        insertAll(config.getAllow(), CidrTrie.ALLOW);
+        insertAll(config.getDeny(), CidrTrie.DENY);
+
+        log.info("客戶端 IP 解析設定完成，受信任代理: {}，allow: {}，deny: {}，前綴樹節點數: {}",
+                config.getTrustedProxies().size(), config.getAllow().size(), config.getDeny().size(),
+                networks.nodeCount());
+    }
+
+    /**
+     * 解析客戶端位址
+     *
+     * @param request HTTP 請求
+     * @return 客戶端位址；對端位址無法解析時返回 null
+     */
+    public IpAddress resolve(HttpServletRequest request) {
+        IpAddress peer = IpAddress.parse(request.getRemoteAddr());
+        if (!isTrustedProxy(peer)) {
+            return peer;
+        }
+
+        List<String> forwarded = headerValues(request);
+        if (forwarded.isEmpty()) {
+            IpAddress realIp = IpAddress.parse(request.getHeader(X_REAL_IP));
+            return realIp != null ? realIp : peer;
+        }
+
+        IpAddress current = peer;
+        int hops = 0;
+        for (int h = forwarded.size() - 1; h >= 0; h--) {
+            String value = forwarded.get(h);
+            int end = value.length();
+            while (end >= 0 && hops++ < MAX_FORWARDED_HOPS) {
+                int start = value.lastIndexOf(',', end - 1);
+                IpAddress hop = IpAddress.parse(value.substring(start + 1, end));
+                if (hop == null) {
+                    return current;
+                }
+                if (!isTrustedProxy(hop)) {
+                    return hop;
+                }
+                current = hop;
+                end = start;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 限流用的身分字串；IPv6 依設定的前綴長度合併（例如 2001:db8:1:2::/64）
+     */
+    public String rateLimitKey(IpAddress address) {
+        if (address.ipv6() && ipv6PrefixLength < 128) {
+            return address.mask(ipv6PrefixLength) + "/" + ipv6PrefixLength;
+        }
+        return address.toString();
+    }
+
+    /**
+     * 判定位址是否位於 allow 或 deny 網段
+     */
+    public NetworkAccess access(IpAddress address) {
+        int flags = networks.lookup(address);
+        if ((flags & CidrTrie.DENY) != 0) {
+            return NetworkAccess.DENY;
+        }
+        if ((flags & CidrTrie.ALLOW) != 0) {
+            return NetworkAccess.ALLOW;
+        }
+        return NetworkAccess.NONE;
+    }
+
+    private boolean isTrustedProxy(IpAddress address) {
+        return address != null && (networks.lookup(address) & CidrTrie.TRUSTED_PROXY) != 0;
+    }
+
+    private static List<String> headerValues(HttpServletRequest request) {
+        var headers = request.getHeaders(X_FORWARDED_FOR);
+        if (headers == null || !headers.hasMoreElements()) {
+            return Collections.emptyList();
+        }
+        String first = headers.nextElement();
+        if (!headers.hasMoreElements()) {
+            return Collections.singletonList(first);
+        }
+        List<String> values = new ArrayList<>();
+        values.add(first);
+        while (headers.hasMoreElements()) {
+            values.add(headers.nextElement());
+        }
+        return values;
+    }
+
+    private void insertAll(List<String> cidrs, int flag) {
+        for (String cidr : cidrs) {
+            if (cidr == null || cidr.isBlank()) {
+                continue;
+            }
+            try {
+                networks.insert(cidr, flag);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("客戶端 IP 網段設定錯誤: " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.denden.auth.filter;
 
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.service.TokenRevocationService;
 import com.denden.auth.service.TokenService;
+import com.denden.auth.service.jwt.JwtPrincipal;
+import com.denden.auth.service.jwt.JwtPrincipalCache;
 import com.denden.auth.util.MaskingUtils;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
@@ -11,9 +15,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -21,6 +25,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * JWT 認證過濾器
@@ -34,8 +40,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
     private static final int BEARER_PREFIX_LENGTH = 7;
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
 
     private final TokenService tokenService;
+    private final JwtPrincipalCache jwtPrincipalCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final SecurityProperties securityProperties;
 
     @Override
     protected void doFilterInternal(
@@ -63,6 +74,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * app.security.admin-emails 中的帳號授予 ROLE_ADMIN，其餘帳號沒有任何權限
+     */
+    private List<GrantedAuthority> authorities(JwtPrincipal principal) {
+        List<String> adminEmails = securityProperties.getAdminEmails();
+        if (adminEmails.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String email = principal.email().toLowerCase(Locale.ROOT);
+        for (String adminEmail : adminEmails) {
+            if (adminEmail != null && email.equals(adminEmail.trim().toLowerCase(Locale.ROOT))) {
+                return ADMIN_AUTHORITIES;
+            }
+        }
+        return Collections.emptyList();
+    }
+
     private String extractJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader(AUTHORIZATION_HEADER);
 
@@ -77,26 +106,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     private void authenticateUser(String jwt, HttpServletRequest request) {
-        String email = tokenService.extractEmail(jwt);
+        JwtPrincipal principal = jwtPrincipalCache.get(jwt);
+        if (principal == null) {
+            principal = tokenService.parsePrincipal(jwt);
+            jwtPrincipalCache.put(jwt, principal);
+        }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = User.builder()
-                    .username(email)
-                    .password("")
-                    .authorities(Collections.emptyList())
-                    .build();
+        if (tokenRevocationService.isRevoked(principal.tokenId())) {
+            log.warn("Token 已被撤銷，請求: {}，使用者 ID: {}", request.getRequestURI(), principal.userId());
+            return;
+        }
 
+        if (principal.email() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities()
+                            authorities(principal)
                     );
 
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            authentication.setDetails(DETAILS_SOURCE.buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            log.debug("使用者認證成功: {}", MaskingUtils.maskEmail(email));
+            log.debug("使用者認證成功: {} (ID: {})", MaskingUtils.maskEmail(principal.email()), principal.userId());
         }
     }
 
@@ -1,6 +1,7 @@
 package com.denden.auth.filter;
 
 import com.denden.auth.util.MaskingUtils;
+import com.denden.auth.util.RequestUtils;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -69,7 +70,7 @@ public class LoggingFilter extends OncePerRequestFilter {
         String method = request.getMethod();
         String uri = request.getRequestURI();
         String queryString = request.getQueryString();
-        String clientIp = request.getRemoteAddr();
+        String clientIp = RequestUtils.getClientIp(request);
 
         StringBuilder logMessage = new StringBuilder();
         logMessage.append("HTTP Request: ")
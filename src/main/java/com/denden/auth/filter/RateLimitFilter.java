@@ -1,103 +1,383 @@
 package com.denden.auth.filter;
 
 import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.config.SecurityProperties.RateLimitIdentity;
+import com.denden.auth.config.SecurityProperties.RateLimitPolicy;
 import com.denden.auth.exception.ErrorCode;
+import com.denden.auth.service.TokenService;
+import com.denden.auth.service.abuse.HeavyHitterTracker;
+import com.denden.auth.service.jwt.JwtPrincipal;
+import com.denden.auth.service.jwt.JwtPrincipalCache;
+import com.denden.auth.service.ratelimit.LeasedRateLimiter;
+import com.denden.auth.service.ratelimit.RateLimitDecision;
+import com.denden.auth.util.IpAddress;
 import com.denden.auth.util.RequestUtils;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 
 /**
  * Rate Limiting 過濾器
- * 
- * <p>超過限制時回傳 429 Too Many Requests
+ *
+ * <p>以本地租借額度 + Redis GCRA 腳本限流，多數請求在本地判定、不需 Redis 往返：</p>
+ * <ul>
+ *   <li>客戶端 IP 由 {@link ClientIpResolver} 依受信任代理解析，IPv6 以前綴（預設 /64）合併為同一身分</li>
+ *   <li>位於 deny 網段直接回傳 403、位於 allow 網段不限流，兩者皆不需 Redis</li>
+ *   <li>其餘請求計入 {@link HeavyHitterTracker} 熱點統計，並先套用全域 IP 額度</li>
+ *   <li>再依設定順序套用符合路徑的規則，每條規則依身分（IP、email、userId）各自計算額度</li>
+ *   <li>任一規則拒絕即回傳 429，後續規則不再扣額度</li>
+ * </ul>
+ * <p>回應帶有 X-RateLimit-* 標頭（取剩餘額度最少的規則），超過限制時回傳 429 Too Many Requests 與 Retry-After。</p>
+ *
+ * <p>以 Servlet filter 註冊在 Spring Security 過濾鏈之前（不加入安全過濾鏈），
+ * 被拒絕的請求不經過安全過濾鏈與 {@link LoggingFilter} 的 body 快取，
+ * 429 回應由 {@link RateLimitRejectionWriter} 直接寫出預先編碼的 bytes。</p>
  */
 @Slf4j
-@Order(1)
+@Order(RateLimitFilter.ORDER)
 @Component
-@RequiredArgsConstructor
 public class RateLimitFilter extends OncePerRequestFilter {
 
+    /**
+     * 早於 Spring Security 過濾鏈（DEFAULT_FILTER_ORDER = -100）
+     */
+    public static final int ORDER =
+            org.springframework.boot.autoconfigure.security.SecurityProperties.DEFAULT_FILTER_ORDER - 10;
+
+    private static final String JSON_UTF8 = "application/json;charset=UTF-8";
     private static final String RATE_LIMIT_KEY_PREFIX = "rate_limit:";
-    
-    private final StringRedisTemplate stringRedisTemplate;
+    private static final String HEADER_LIMIT = "X-RateLimit-Limit";
+    private static final String HEADER_REMAINING = "X-RateLimit-Remaining";
+    private static final String HEADER_RESET = "X-RateLimit-Reset";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String EMAIL_FIELD = "email";
+
+    /**
+     * 為取得 email 預讀 body 的上限，登入類請求的 body 遠小於此值
+     */
+    private static final int MAX_IDENTITY_BODY_BYTES = 8192;
+
+    private final LeasedRateLimiter rateLimiter;
     private final SecurityProperties securityProperties;
     private final ObjectMapper objectMapper;
+    private final TokenService tokenService;
+    private final JwtPrincipalCache jwtPrincipalCache;
+    private final ClientIpResolver clientIpResolver;
+    private final HeavyHitterTracker heavyHitterTracker;
+    private final List<CompiledPolicy> policies;
+    private final RateLimitRejectionWriter rejectionWriter = new RateLimitRejectionWriter(ErrorCode.RATE_LIMIT_EXCEEDED);
+    private final RateLimitRejectionWriter forbiddenWriter = new RateLimitRejectionWriter(ErrorCode.FORBIDDEN);
+
+    public RateLimitFilter(LeasedRateLimiter rateLimiter,
+                           SecurityProperties securityProperties,
+                           ObjectMapper objectMapper,
+                           TokenService tokenService,
+                           JwtPrincipalCache jwtPrincipalCache,
+                           ClientIpResolver clientIpResolver,
+                           HeavyHitterTracker heavyHitterTracker) {
+        this.rateLimiter = rateLimiter;
+        this.securityProperties = securityProperties;
+        this.objectMapper = objectMapper;
+        this.tokenService = tokenService;
+        this.jwtPrincipalCache = jwtPrincipalCache;
+        this.clientIpResolver = clientIpResolver;
+        this.heavyHitterTracker = heavyHitterTracker;
+        this.policies = securityProperties.getRateLimit().getPolicies().stream()
+                .map(CompiledPolicy::compile)
+                .toList();
+    }
 
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
-        
-        String clientIp = RequestUtils.getClientIp(request);
-        String key = RATE_LIMIT_KEY_PREFIX + clientIp;
-        
-        try {
-            String countStr = stringRedisTemplate.opsForValue().get(key);
-            int currentCount = countStr != null ? Integer.parseInt(countStr) : 0;
-            
-            int maxRequests = securityProperties.getRateLimit().getMaxRequests();
-            int windowSeconds = securityProperties.getRateLimit().getWindowSeconds();
-            
-            if (currentCount >= maxRequests) {
-                log.warn("IP 請求頻率超過限制: {}, 當前次數: {}", clientIp, currentCount);
-                handleRateLimitExceeded(response);
+
+        IpAddress client = clientIpResolver.resolve(request);
+        String clientIp = client != null ? client.toString() : RequestUtils.getClientIp(request);
+        request.setAttribute(RequestUtils.CLIENT_IP_ATTRIBUTE, clientIp);
+
+        switch (clientIpResolver.access(client)) {
+            case DENY -> {
+                log.debug("請求來自拒絕網段: {}", clientIp);
+                handleDenied(response);
+                return;
+            }
+            case ALLOW -> {
+                filterChain.doFilter(request, response);
                 return;
             }
-            
-            Long newCount = stringRedisTemplate.opsForValue().increment(key);
-            
-            if (newCount != null && newCount == 1) {
-                stringRedisTemplate.expire(key, windowSeconds, TimeUnit.SECONDS);
+            default -> {
+            }
+        }
+
+        String ipIdentity = client != null ? clientIpResolver.rateLimitKey(client) : clientIp;
+        heavyHitterTracker.recordRequest(ipIdentity);
+
+        int maxRequests = securityProperties.getRateLimit().getMaxRequests();
+        int windowSeconds = securityProperties.getRateLimit().getWindowSeconds();
+
+        RateLimitDecision tightest = acquire(RATE_LIMIT_KEY_PREFIX + ipIdentity, maxRequests, windowSeconds, ipIdentity);
+        if (tightest != null && !tightest.allowed()) {
+            log.debug("IP 請求頻率超過限制: {}, 需等待: {} ms", clientIp, tightest.retryAfterMillis());
+            handleRateLimitExceeded(response, tightest);
+            return;
+        }
+
+        HttpServletRequest chainRequest = request;
+        if (!policies.isEmpty()) {
+            PathContainer path = PathContainer.parsePath(
+                    request.getRequestURI().substring(request.getContextPath().length()));
+            IdentityResolver identities = new IdentityResolver(request, ipIdentity);
+
+            for (CompiledPolicy policy : policies) {
+                if (!policy.matches(path, request.getMethod())) {
+                    continue;
+                }
+
+                String identity = identities.resolve(policy.identity());
+                if (identity == null) {
+                    log.debug("無法取得限流身分，略過規則: {}, 身分類型: {}", policy.name(), policy.identity());
+                    continue;
+                }
+
+                RateLimitDecision decision = acquire(policy.keyPrefix() + identity,
+                        policy.maxRequests(), policy.windowSeconds(), identity);
+                if (decision == null) {
+                    continue;
+                }
+                if (!decision.allowed()) {
+                    log.debug("請求頻率超過規則限制: {}, 身分類型: {}, IP: {}, 需等待: {} ms",
+                            policy.name(), policy.identity(), clientIp, decision.retryAfterMillis());
+                    handleRateLimitExceeded(response, decision);
+                    return;
+                }
+                if (tightest == null || decision.remaining() < tightest.remaining()) {
+                    tightest = decision;
+                }
             }
-            
-            log.debug("IP 請求頻率檢查通過: {}, 次數: {}/{}", 
-                    clientIp, newCount, maxRequests);
-            
-            filterChain.doFilter(request, response);
-            
+            chainRequest = identities.request();
+        }
+
+        if (tightest != null) {
+            writeRateLimitHeaders(response, tightest);
+            log.debug("請求頻率檢查通過: {}, 剩餘: {}/{}", clientIp, tightest.remaining(), tightest.limit());
+        }
+
+        filterChain.doFilter(chainRequest, response);
+    }
+
+    /**
+     * 取得一次額度；Redis 無法使用時放行（fail open）並返回 null
+     */
+    private RateLimitDecision acquire(String key, int limit, int windowSeconds, String identity) {
+        try {
+            return rateLimiter.tryAcquire(key, limit, windowSeconds);
         } catch (Exception e) {
-            log.error("IP 請求頻率檢查失敗: {}, 錯誤: {}", clientIp, e.getMessage());
-            filterChain.doFilter(request, response);
+            log.error("請求頻率檢查失敗: {}, 錯誤: {}", identity, e.getMessage());
+            return null;
         }
     }
 
+    private void writeRateLimitHeaders(HttpServletResponse response, RateLimitDecision decision) {
+        response.setHeader(HEADER_LIMIT, RateLimitRejectionWriter.headerValue(decision.limit()));
+        response.setHeader(HEADER_REMAINING, RateLimitRejectionWriter.headerValue(decision.remaining()));
+        response.setHeader(HEADER_RESET, RateLimitRejectionWriter.headerValue(decision.resetAfterSeconds()));
+    }
+
     /**
      * 處理超過限流的請求
-     * 
+     *
+     * <p>大量請求被拒絕時這是主要路徑：不記 WARN 日誌（拒絕次數見 rate_limit.* 指標），
+     * body 為預先編碼的 bytes，Retry-After 取自限流器狀態</p>
+     *
      * @param response HTTP 響應
+     * @param decision 限流判定結果
      * @throws IOException IO 異常
      */
-    private void handleRateLimitExceeded(HttpServletResponse response) throws IOException {
+    private void handleRateLimitExceeded(HttpServletResponse response, RateLimitDecision decision) throws IOException {
         response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.setCharacterEncoding("UTF-8");
-        
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("code", ErrorCode.RATE_LIMIT_EXCEEDED.getCode());
-        errorResponse.put("message", ErrorCode.RATE_LIMIT_EXCEEDED.getMessage());
-        errorResponse.put("timestamp", LocalDateTime.now());
-        errorResponse.put("path", null);
-        
-        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+        writeRateLimitHeaders(response, decision);
+        response.setHeader(HttpHeaders.RETRY_AFTER, RateLimitRejectionWriter.headerValue(decision.retryAfterSeconds()));
+        response.setContentType(JSON_UTF8);
+        rejectionWriter.write(response, System.currentTimeMillis());
+    }
+
+    /**
+     * 處理來自拒絕網段的請求
+     */
+    private void handleDenied(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.FORBIDDEN.value());
+        response.setContentType(JSON_UTF8);
+        forbiddenWriter.write(response, System.currentTimeMillis());
+    }
+
+    /**
+     * 單一請求內的身分解析，email 與 userId 只在有規則需要時才解析，且最多解析一次
+     */
+    private final class IdentityResolver {
+
+        private final String ipIdentity;
+        private HttpServletRequest request;
+        private String email;
+        private String userId;
+        private boolean emailResolved;
+        private boolean userIdResolved;
+
+        private IdentityResolver(HttpServletRequest request, String ipIdentity) {
+            this.request = request;
+            this.ipIdentity = ipIdentity;
+        }
+
+        private HttpServletRequest request() {
+            return request;
+        }
+
+        private String resolve(RateLimitIdentity identity) throws IOException {
+            return switch (identity) {
+                case IP -> ipIdentity;
+                case EMAIL -> email();
+                case USER_ID -> userId();
+            };
+        }
+
+        private String email() throws IOException {
+            if (!emailResolved) {
+                emailResolved = true;
+                String value = readEmail();
+                email = StringUtils.hasText(value) ? value.trim().toLowerCase(Locale.ROOT) : null;
+            }
+            return email;
+        }
+
+        private String readEmail() throws IOException {
+            if (!isJson(request.getContentType())) {
+                return request.getParameter(EMAIL_FIELD);
+            }
+
+            CachedBodyHttpServletRequest cached = new CachedBodyHttpServletRequest(request, MAX_IDENTITY_BODY_BYTES);
+            request = cached;
+            if (!cached.isComplete()) {
+                return null;
+            }
+
+            try (JsonParser parser = objectMapper.getFactory().createParser(cached.getCachedBody())) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    return null;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if (EMAIL_FIELD.equals(field) && value == JsonToken.VALUE_STRING) {
+                        return parser.getText();
+                    }
+                    parser.skipChildren();
+                }
+            } catch (IOException e) {
+                log.debug("無法從請求 body 解析 email: {}", e.getMessage());
+            }
+            return null;
+        }
+
+        private String userId() {
+            if (!userIdResolved) {
+                userIdResolved = true;
+                String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+                if (header != null && header.startsWith(BEARER_PREFIX) && header.length() > BEARER_PREFIX.length()) {
+                    JwtPrincipal principal = parse(header.substring(BEARER_PREFIX.length()));
+                    if (principal != null && principal.userId() != null) {
+                        userId = principal.userId().toString();
+                    }
+                }
+            }
+            return userId;
+        }
+
+        /**
+         * 與 {@link JwtAuthenticationFilter} 共用已驗證 Claims 快取，後續認證不需重複驗章
+         */
+        private JwtPrincipal parse(String jwt) {
+            JwtPrincipal principal = jwtPrincipalCache.get(jwt);
+            if (principal != null) {
+                return principal;
+            }
+            try {
+                principal = tokenService.parsePrincipal(jwt);
+                jwtPrincipalCache.put(jwt, principal);
+                return principal;
+            } catch (JwtException | IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private static boolean isJson(String contentType) {
+            return contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json");
+        }
+    }
+
+    /**
+     * 預先編譯的限流規則
+     */
+    private record CompiledPolicy(String name,
+                                  List<PathPattern> paths,
+                                  Set<String> methods,
+                                  RateLimitIdentity identity,
+                                  int maxRequests,
+                                  int windowSeconds,
+                                  String keyPrefix) {
+
+        private static CompiledPolicy compile(RateLimitPolicy policy) {
+            if (!StringUtils.hasText(policy.getName()) || policy.getPaths().isEmpty()
+                    || policy.getMaxRequests() == null || policy.getWindowSeconds() == null) {
+                throw new IllegalStateException("限流規則設定不完整: " + policy.getName());
+            }
+
+            List<PathPattern> paths = policy.getPaths().stream()
+                    .map(PathPatternParser.defaultInstance::parse)
+                    .toList();
+            Set<String> methods = policy.getMethods().stream()
+                    .map(method -> method.toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toUnmodifiableSet());
+            String keyPrefix = RATE_LIMIT_KEY_PREFIX + policy.getName() + ":"
+                    + policy.getIdentity().name().toLowerCase(Locale.ROOT) + ":";
+
+            return new CompiledPolicy(policy.getName(), paths, methods, policy.getIdentity(),
+                    policy.getMaxRequests(), policy.getWindowSeconds(), keyPrefix);
+        }
+
+        private boolean matches(PathContainer path, String method) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return false;
+            }
+            for (PathPattern pattern : paths) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 }
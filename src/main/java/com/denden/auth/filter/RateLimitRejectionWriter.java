@@ -0,0 +1,149 @@
+package com.denden.auth.filter;
+
+import com.denden.auth.exception.ErrorCode;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 限流拒絕回應的預先編碼寫出器
+ *
+ * <p>429 回應 body 除了時間戳記外都是固定內容，啟動時編碼成 bytes 樣板，
+ * 每次拒絕只把時間戳記寫進執行緒專屬的緩衝區再整塊寫出：</p>
+ * <ul>
+ *   <li>不建立 Map、不經過 ObjectMapper，也不每次格式化 LocalDateTime</li>
+ *   <li>「年月日時分秒」部分每秒只格式化一次，所有執行緒共用；毫秒以數字直接寫入</li>
+ *   <li>輸出格式與 {@link com.denden.auth.dto.ErrorResponse} 相同，時間固定為毫秒精度</li>
+ * </ul>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public final class RateLimitRejectionWriter {
+
+    /**
+     * yyyy-MM-ddTHH:mm:ss 的長度
+     */
+    private static final int SECONDS_LENGTH = 19;
+
+    /**
+     * yyyy-MM-ddTHH:mm:ss.SSS 的長度
+     */
+    private static final int TIMESTAMP_LENGTH = SECONDS_LENGTH + 4;
+
+    private static final DateTimeFormatter SECONDS_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    /**
+     * 快取的標頭數值上限（秒），涵蓋常見的限流週期
+     */
+    private static final int CACHED_NUMBERS = 3600;
+    private static final String[] NUMBERS = new String[CACHED_NUMBERS + 1];
+
+    static {
+        for (int i = 0; i <= CACHED_NUMBERS; i++) {
+            NUMBERS[i] = Integer.toString(i);
+        }
+    }
+
+    private final byte[] template;
+    private final int timestampOffset;
+    private final ZoneId zone;
+    private final ThreadLocal<byte[]> buffers;
+    private volatile CachedSecond cachedSecond = new CachedSecond(Long.MIN_VALUE, null);
+
+    public RateLimitRejectionWriter(ErrorCode errorCode) {
+        String prefix = "{\"code\":" + errorCode.getCode()
+                + ",\"message\":\"" + escapeJson(errorCode.getMessage())
+                + "\",\"timestamp\":\"";
+        String suffix = "\",\"path\":null}";
+
+        byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+        byte[] suffixBytes = suffix.getBytes(StandardCharsets.UTF_8);
+
+        this.template = new byte[prefixBytes.length + TIMESTAMP_LENGTH + suffixBytes.length];
+        System.arraycopy(prefixBytes, 0, template, 0, prefixBytes.length);
+        System.arraycopy(suffixBytes, 0, template, prefixBytes.length + TIMESTAMP_LENGTH, suffixBytes.length);
+        this.timestampOffset = prefixBytes.length;
+        this.zone = ZoneId.systemDefault();
+        this.buffers = ThreadLocal.withInitial(template::clone);
+    }
+
+    /**
+     * 寫出 429 回應 body
+     *
+     * <p>狀態碼與標頭由呼叫端設定；返回後緩衝區即可重用，寫出是同步完成的</p>
+     *
+     * @param response  HTTP 響應
+     * @param nowMillis 目前時間（epoch 毫秒）
+     * @throws IOException IO 異常
+     */
+    public void write(HttpServletResponse response, long nowMillis) throws IOException {
+        byte[] body = render(nowMillis);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * 將時間戳記寫入執行緒專屬緩衝區並返回
+     */
+    public byte[] render(long nowMillis) {
+        long epochSecond = Math.floorDiv(nowMillis, 1000);
+        CachedSecond second = cachedSecond;
+        if (second.epochSecond != epochSecond) {
+            second = formatSecond(epochSecond);
+            cachedSecond = second;
+        }
+
+        byte[] buffer = buffers.get();
+        int offset = timestampOffset;
+        System.arraycopy(second.bytes, 0, buffer, offset, SECONDS_LENGTH);
+
+        int millis = (int) Math.floorMod(nowMillis, 1000);
+        buffer[offset + SECONDS_LENGTH] = '.';
+        buffer[offset + SECONDS_LENGTH + 1] = (byte) ('0' + millis / 100);
+        buffer[offset + SECONDS_LENGTH + 2] = (byte) ('0' + millis / 10 % 10);
+        buffer[offset + SECONDS_LENGTH + 3] = (byte) ('0' + millis % 10);
+        return buffer;
+    }
+
+    /**
+     * 標頭用的數值字串，常見範圍內不配置新字串
+     */
+    public static String headerValue(long value) {
+        return value >= 0 && value <= CACHED_NUMBERS ? NUMBERS[(int) value] : Long.toString(value);
+    }
+
+    private CachedSecond formatSecond(long epochSecond) {
+        ZoneOffset offset = zone.getRules().getOffset(Instant.ofEpochSecond(epochSecond));
+        String formatted = SECONDS_FORMAT.format(LocalDateTime.ofEpochSecond(epochSecond, 0, offset));
+        return new CachedSecond(epochSecond, formatted.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String escapeJson(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private record CachedSecond(long epochSecond, byte[] bytes) {
+    }
+}
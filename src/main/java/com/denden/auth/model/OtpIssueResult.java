@@ -0,0 +1,35 @@
+package com.denden.auth.model;
+
+/**
+ * OTP 發送結果
+ *
+ * @param status           發送狀態
+ * @param retryAfterMillis 鎖定或額度剩餘時間（毫秒），僅在未發送時有意義
+ * @author Timmy
+ * @since 1.1.0
+ */
+public record OtpIssueResult(Status status, long retryAfterMillis) {
+
+    public boolean issued() {
+        return status == Status.ISSUED;
+    }
+
+    public enum Status {
+        /**
+         * 已寫入 OTP 會話
+         */
+        ISSUED,
+        /**
+         * 帳號鎖定中
+         */
+        ACCOUNT_LOCKED,
+        /**
+         * 超過每個 email 的發送額度
+         */
+        QUOTA_EXCEEDED,
+        /**
+         * 重新發送時已無有效的 OTP 會話
+         */
+        NO_ACTIVE_SESSION
+    }
+}
@@ -0,0 +1,73 @@
+package com.denden.auth.repository;
+
+import com.denden.auth.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 待發送郵件資料存取介面
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * 認領到期的待發送郵件（單一陳述式）
+     *
+     * <p>以 FOR UPDATE SKIP LOCKED 選取，多個節點同時認領時各自取得不同的列而不互相等待；
+     * 認領後將下次可發送時間延後到 leaseUntil 並遞增次數，陳述式結束即提交，發送期間不持有列鎖。
+     * 節點在發送途中停止時，郵件於 leaseUntil 後由其他節點重新認領（至少一次）。</p>
+     *
+     * @param now        目前時間
+     * @param leaseUntil 認領逾時時間
+     * @param limit      最多認領筆數
+     * @return 已認領的郵件（attempts 為遞增後的次數）
+     */
+    @Transactional
+    @Query(value = "UPDATE email_outbox SET attempts = attempts + 1, next_attempt_at = :leaseUntil " +
+                   "WHERE id IN (SELECT id FROM email_outbox " +
+                   "             WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+                   "             ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING *",
+           nativeQuery = true)
+    List<EmailOutbox> claim(@Param("now") LocalDateTime now,
+                            @Param("leaseUntil") LocalDateTime leaseUntil,
+                            @Param("limit") int limit);
+
+    /**
+     * 發送失敗，於 nextAttemptAt 重新發送
+     *
+     * @param id            郵件 ID
+     * @param nextAttemptAt 下次可發送時間
+     * @param lastError     錯誤訊息
+     * @return 更新的筆數
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.nextAttemptAt = :nextAttemptAt, e.lastError = :lastError WHERE e.id = :id")
+    int reschedule(@Param("id") Long id,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("lastError") String lastError);
+
+    /**
+     * 超過重試次數上限，標記為 FAILED 不再發送；清除 payload，不保留驗證 Token 或 OTP
+     *
+     * @param id        郵件 ID
+     * @param lastError 錯誤訊息
+     * @return 更新的筆數
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = com.denden.auth.entity.EmailOutboxStatus.FAILED, " +
+           "e.payload = NULL, e.lastError = :lastError WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("lastError") String lastError);
+}
@@ -12,6 +12,11 @@ import java.util.Optional;
 /**
  * OTP Session Repository
  * 
+ * <p>otp_sessions 每個 Email 最多一筆（V7），寫入與遞增驗證次數各為單一陳述式
+ * 
+ * <p>降級儲存的會話（V10）：owner_node 為持有本地快取副本的節點，其他節點不驗證這些會話；
+ * 已驗證或用完次數的會話標記 used 而不刪除，到期後才由清理排程刪除，較舊的寫回不會讓它復活
+ * 
  * @author Timmy
  * @since 2.0.0
  */
@@ -19,12 +24,86 @@ import java.util.Optional;
 public interface OtpSessionRepository extends JpaRepository<OtpSession, Long> {
     
     /**
-     * 根據 Email 查找最新的有效 OTP Session
+     * 是否有有效的 OTP Session
+     */
+    boolean existsByEmailAndUsedFalseAndExpiresAtAfter(String email, LocalDateTime now);
+    
+    /**
+     * 寫入新的 OTP Session，取代該 Email 既有的會話（單一陳述式）；userId 為 null 時保留既有會話的使用者 ID。
+     * 新會話不屬於任何節點
+     */
+    @Modifying
+    @Query(value = "INSERT INTO otp_sessions (email, user_id, otp, attempts, created_at, expires_at, used) " +
+                   "VALUES (:email, :userId, :otp, :attempts, :createdAt, :expiresAt, false) " +
+                   "ON CONFLICT (email) DO UPDATE SET user_id = COALESCE(EXCLUDED.user_id, otp_sessions.user_id), " +
+                   "otp = EXCLUDED.otp, attempts = EXCLUDED.attempts, " +
+                   "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at, used = false, owner_node = NULL",
+           nativeQuery = true)
+    int upsert(String email, Long userId, String otp, int attempts, LocalDateTime createdAt, LocalDateTime expiresAt);
+    
+    /**
+     * 寫回降級儲存快取中的會話（以 created_at 識別同一個會話）
+     * 
+     * <p>資料庫中是較舊的會話時整列取代；是同一個會話時驗證次數取較大者，已標記 used 則不寫入；
+     * 資料庫中已有較新的會話時不寫入
+     */
+    @Modifying
+    @Query(value = "INSERT INTO otp_sessions (email, user_id, otp, attempts, created_at, expires_at, used, owner_node) " +
+                   "VALUES (:email, :userId, :otp, :attempts, :createdAt, :expiresAt, false, :owner) " +
+                   "ON CONFLICT (email) DO UPDATE SET user_id = EXCLUDED.user_id, otp = EXCLUDED.otp, " +
+                   "attempts = CASE WHEN otp_sessions.created_at = EXCLUDED.created_at " +
+                   "THEN GREATEST(otp_sessions.attempts, EXCLUDED.attempts) ELSE EXCLUDED.attempts END, " +
+                   "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at, used = false, " +
+                   "owner_node = EXCLUDED.owner_node " +
+                   "WHERE otp_sessions.created_at < EXCLUDED.created_at " +
+                   "OR (otp_sessions.created_at = EXCLUDED.created_at AND otp_sessions.used = false)",
+           nativeQuery = true)
+    int merge(String email, Long userId, String otp, int attempts, LocalDateTime createdAt, LocalDateTime expiresAt,
+              String owner);
+    
+    /**
+     * 確認並標記本地快取中驗證成功的會話為已使用；資料庫中沒有副本時寫入已使用的紀錄
+     * 
+     * @return 0 表示資料庫中已有較新的會話，或同一個會話已標記 used
+     */
+    @Modifying
+    @Query(value = "INSERT INTO otp_sessions (email, user_id, otp, attempts, created_at, expires_at, used, owner_node) " +
+                   "VALUES (:email, :userId, :otp, :attempts, :createdAt, :expiresAt, true, :owner) " +
+                   "ON CONFLICT (email) DO UPDATE SET user_id = EXCLUDED.user_id, otp = EXCLUDED.otp, " +
+                   "attempts = GREATEST(otp_sessions.attempts, EXCLUDED.attempts), " +
+                   "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at, used = true, " +
+                   "owner_node = EXCLUDED.owner_node " +
+                   "WHERE otp_sessions.created_at < EXCLUDED.created_at " +
+                   "OR (otp_sessions.created_at = EXCLUDED.created_at AND otp_sessions.used = false)",
+           nativeQuery = true)
+    int claim(String email, Long userId, String otp, int attempts, LocalDateTime createdAt, LocalDateTime expiresAt,
+              String owner);
+    
+    /**
+     * 遞增不屬於任何節點的有效會話的驗證次數，並返回遞增後的次數、OTP 與使用者 ID
+     * （單一陳述式，並行的驗證依列鎖依序取得不同的次數）
+     */
+    @Query(value = "UPDATE otp_sessions SET attempts = attempts + 1 " +
+                   "WHERE email = :email AND used = false AND owner_node IS NULL AND expires_at > :now " +
+                   "RETURNING otp, attempts, user_id AS userId",
+           nativeQuery = true)
+    Optional<OtpAttempt> incrementAttempts(String email, LocalDateTime now);
+    
+    /**
+     * 將 Email 的會話標記為已使用（驗證成功或用完次數）
+     */
+    @Modifying
+    @Query("UPDATE OtpSession o SET o.used = true WHERE o.email = :email")
+    int markUsed(String email);
+    
+    /**
+     * 將指定的會話標記為已使用，驗證次數取較大者；不存在或已被取代時不影響任何列
      */
-    @Query("SELECT o FROM OtpSession o WHERE o.email = :email " +
-           "AND o.used = false AND o.expiresAt > :now " +
-           "ORDER BY o.createdAt DESC")
-    Optional<OtpSession> findLatestValidByEmail(String email, LocalDateTime now);
+    @Modifying
+    @Query("UPDATE OtpSession o SET o.used = true, " +
+           "o.attempts = CASE WHEN o.attempts > :attempts THEN o.attempts ELSE :attempts END " +
+           "WHERE o.email = :email AND o.createdAt = :createdAt")
+    int markUsed(String email, LocalDateTime createdAt, int attempts);
     
     /**
      * 刪除過期的 OTP Sessions
@@ -34,9 +113,29 @@ public interface OtpSessionRepository extends JpaRepository<OtpSession, Long> {
     int deleteExpiredSessions(LocalDateTime now);
     
     /**
-     * 刪除指定 Email 的所有 OTP Sessions
+     * 清除節點持有的未使用會話的 owner_node
+     */
+    @Modifying
+    @Query("UPDATE OtpSession o SET o.ownerNode = NULL WHERE o.ownerNode = :owner AND o.used = false")
+    int releaseOwner(String owner);
+    
+    /**
+     * 刪除節點持有的指定會話（已搬移到 Redis）；已被取代或標記 used 的列不刪除
      */
     @Modifying
-    @Query("DELETE FROM OtpSession o WHERE o.email = :email")
-    int deleteByEmail(String email);
+    @Query("DELETE FROM OtpSession o WHERE o.email = :email AND o.createdAt = :createdAt " +
+           "AND o.ownerNode = :owner AND o.used = false")
+    int deleteOwned(String email, LocalDateTime createdAt, String owner);
+    
+    /**
+     * {@link #incrementAttempts} 的結果
+     */
+    interface OtpAttempt {
+        
+        String getOtp();
+        
+        Integer getAttempts();
+        
+        Long getUserId();
+    }
 }
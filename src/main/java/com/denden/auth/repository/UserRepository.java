@@ -3,8 +3,13 @@ package com.denden.auth.repository;
 import com.denden.auth.entity.AccountStatus;
 import com.denden.auth.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +30,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * 根據 Email 查詢使用者 ID（只讀取主鍵，不載入實體）
+     *
+     * @param email 使用者 Email 地址
+     * @return Optional 包裝的使用者 ID，如果不存在則為 empty
+     */
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
     /**
      * 檢查 Email 是否已存在
      *
@@ -49,4 +63,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return Optional 包裝的使用者，如果不存在則為 empty
      */
     Optional<User> findByEmailAndStatus(String email, AccountStatus status);
+
+    /**
+     * 更新密碼雜湊值（僅在目前雜湊值仍為 oldHash 時更新，避免覆蓋同時間的密碼變更）
+     *
+     * @param id        使用者 ID
+     * @param oldHash   預期的目前雜湊值
+     * @param newHash   新雜湊值
+     * @param updatedAt 更新時間
+     * @return 更新的筆數
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :newHash, u.updatedAt = :updatedAt "
+            + "WHERE u.id = :id AND u.passwordHash = :oldHash")
+    int updatePasswordHash(@Param("id") Long id,
+                           @Param("oldHash") String oldHash,
+                           @Param("newHash") String newHash,
+                           @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * 更新最後登入時間與更新時間（不需要先載入使用者）
+     *
+     * @param id          使用者 ID
+     * @param lastLoginAt 登入時間
+     * @return 更新的筆數，使用者不存在時為 0
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.lastLoginAt = :lastLoginAt, u.updatedAt = :lastLoginAt WHERE u.id = :id")
+    int updateLastLoginAt(@Param("id") Long id, @Param("lastLoginAt") LocalDateTime lastLoginAt);
 }
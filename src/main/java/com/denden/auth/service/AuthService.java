@@ -5,6 +5,7 @@ import com.denden.auth.dto.LoginRequest;
 import com.denden.auth.dto.OtpResponse;
 import com.denden.auth.dto.RegisterRequest;
 import com.denden.auth.dto.VerifyOtpRequest;
+import com.denden.auth.service.jwt.JwtPrincipal;
 
 /**
  * 認證服務介面
@@ -53,10 +54,11 @@ public interface AuthService {
      * 
      * 
      * @param request OTP 驗證請求，包含 email 與 OTP
+     * @param sessionHint 登入時取得的 OTP 會話提示，可為 null
      * @return 認證響應，包含 JWT Token 與使用者資訊
      * @throws BusinessException 當 OTP 驗證失敗時拋出
      */
-    AuthResponse verifyOtp(VerifyOtpRequest request);
+    AuthResponse verifyOtp(VerifyOtpRequest request, String sessionHint);
     
     /**
      * 重新發送 OTP
@@ -66,4 +68,13 @@ public interface AuthService {
      * @throws BusinessException 當 email 無效或無活躍會話時拋出
      */
     OtpResponse resendOtp(String email);
+    
+    /**
+     * 登出
+     * 
+     * <p>撤銷目前使用的 JWT，之後以同一 Token 發出的請求一律視為未認證</p>
+     * 
+     * @param principal 目前請求的 JWT 主體
+     */
+    void logout(JwtPrincipal principal);
 }
@@ -3,6 +3,9 @@ package com.denden.auth.service;
 /**
  * Email 發送服務介面
  * 
+ * <p>郵件寫入待發送佇列（email_outbox），在呼叫端有交易時一同提交，由背景排程發送與重試；
+ * 方法返回時郵件尚未發送</p>
+ * 
  * @author Timmy
  * @since 1.0.0
  */
@@ -15,7 +18,7 @@ public interface EmailService {
      * 
      * @param to 收件者 Email 地址
      * @param token 驗證 Token，用於生成驗證連結
-     * @throws BusinessException 當郵件發送失敗時拋出
+     * @throws org.springframework.dao.DataAccessException 當郵件無法寫入待發送佇列時拋出
      */
     void sendVerificationEmail(String to, String token);
     
@@ -26,7 +29,7 @@ public interface EmailService {
      * 
      * @param to 收件者 Email 地址
      * @param otp 6 位數字的一次性密碼
-     * @throws BusinessException 當郵件發送失敗時拋出
+     * @throws org.springframework.dao.DataAccessException 當郵件無法寫入待發送佇列時拋出
      */
     void sendOtpEmail(String to, String otp);
     
@@ -36,7 +39,7 @@ public interface EmailService {
      * <p>當使用者帳號因連續登入失敗而被鎖定時，發送通知郵件告知使用者
      * 
      * @param to 收件者 Email 地址
-     * @throws BusinessException 當郵件發送失敗時拋出
+     * @throws org.springframework.dao.DataAccessException 當郵件無法寫入待發送佇列時拋出
      */
     void sendAccountLockedEmail(String to);
     
@@ -47,7 +50,7 @@ public interface EmailService {
      * 
      * @param to 收件者 Email 地址
      * @param username 使用者名稱
-     * @throws BusinessException 當郵件發送失敗時拋出
+     * @throws org.springframework.dao.DataAccessException 當郵件無法寫入待發送佇列時拋出
      */
     void sendWelcomeEmail(String to, String username);
 }
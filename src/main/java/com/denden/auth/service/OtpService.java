@@ -1,5 +1,8 @@
 package com.denden.auth.service;
 
+import com.denden.auth.model.OtpIssueResult;
+import com.denden.auth.service.otp.OtpVerification;
+
 /**
  * OTP (One-Time Password) 服務介面
  *  
@@ -19,9 +22,10 @@ public interface OtpService {
      * 建立 OTP 會話並儲存至 Redis
      *      
      * @param email 使用者 Email
+     * @param userId 使用者 ID（驗證成功後用於簽發 JWT），null 表示保留既有會話的使用者 ID
      * @param otp OTP 驗證碼
      */
-    void createOtpSession(String email, String otp);
+    void createOtpSession(String email, Long userId, String otp);
     
     /**
      * 根據 Email 驗證 OTP
@@ -30,7 +34,27 @@ public interface OtpService {
      * @param otp 使用者輸入的 OTP
      * @return 驗證是否成功
      */
-    boolean verifyOtpByEmail(String email, String otp);
+    default boolean verifyOtpByEmail(String email, String otp) {
+        return verifyOtpSession(email, otp, null).isVerified();
+    }
+    
+    /**
+     * 根據 Email 驗證 OTP，帶登入時取得的會話提示（Redis 無法使用時用於導回發出 OTP 的節點）
+     *      
+     * @param email 使用者 Email
+     * @param otp 使用者輸入的 OTP
+     * @param sessionHint 會話提示，可為 null
+     * @return 驗證結果，成功時帶會話記錄的使用者 ID（舊會話可能沒有）
+     */
+    OtpVerification verifyOtpSession(String email, String otp, String sessionHint);
+    
+    /**
+     * 取得 OTP 會話提示
+     * 
+     * @param email 使用者 Email
+     * @return 會話只存在本節點（Redis 降級）時的簽章提示，否則為 null
+     */
+    String sessionHint(String email);
     
     /**
      * 檢查是否有活躍的 OTP 會話
@@ -47,4 +71,16 @@ public interface OtpService {
      * @param newOtp 新的 OTP
      */
     void updateOtpSessionByEmail(String email, String newOtp);
+    
+    /**
+     * 以單次 Redis 往返發送 OTP：檢查帳號鎖定與每個 email 的發送額度後寫入 OTP 會話
+     * 
+     * @param email 使用者 Email
+     * @param userId 使用者 ID，null 表示保留既有會話的使用者 ID（重新發送）
+     * @param otp OTP 驗證碼
+     * @param reissue 是否為重新發送（會話必須仍存在）
+     * @return 發送結果
+     * @throws org.springframework.dao.DataAccessException 當 Redis 無法使用時，由呼叫端改走資料庫備援
+     */
+    OtpIssueResult issueOtpSession(String email, Long userId, String otp, boolean reissue);
 }
@@ -0,0 +1,39 @@
+package com.denden.auth.service;
+
+import com.denden.auth.service.jwt.JwtPrincipal;
+
+/**
+ * JWT 撤銷服務介面
+ *
+ * <p>以 Token 的 jti 記錄撤銷狀態，撤銷紀錄保留至 Token 原本的過期時間。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public interface TokenRevocationService {
+
+    /**
+     * 撤銷 Token
+     *
+     * <p>寫入 Redis 並廣播給所有節點；未帶 jti 的舊 Token 無法個別撤銷，只能等待過期</p>
+     *
+     * @param principal 要撤銷的 Token 主體
+     */
+    void revoke(JwtPrincipal principal);
+
+    /**
+     * 檢查 Token 是否已被撤銷
+     *
+     * <p>先查本地 Bloom filter，只有命中時才向 Redis 精確確認；
+     * Redis 無法連線時視為已撤銷（fail closed）</p>
+     *
+     * @param tokenId Token 的 jti，可為 null
+     * @return 是否已撤銷
+     */
+    boolean isRevoked(String tokenId);
+
+    /**
+     * 清除過期的撤銷紀錄並重建本地 Bloom filter
+     */
+    void rebuild();
+}
@@ -1,6 +1,8 @@
 package com.denden.auth.service;
 
 import com.denden.auth.entity.User;
+import com.denden.auth.service.jwt.JwtPrincipal;
+import com.denden.auth.service.jwt.PublicJwkSet;
 import io.jsonwebtoken.Claims;
 
 /**
@@ -20,6 +22,16 @@ public interface TokenService {
      */
     String generateJwtToken(User user);
 
+    /**
+     * 以使用者 ID 與 Email 生成 JWT Token（不需要載入使用者實體，例如 OTP 會話已記錄使用者 ID 時）
+     *
+     * @param userId 使用者 ID，不可為 null
+     * @param email  使用者 Email，不可為 null
+     * @return JWT Token 字串
+     * @throws IllegalArgumentException 如果 userId 或 email 為 null
+     */
+    String generateJwtToken(Long userId, String email);
+
     /**
      * 驗證 Token 並返回 Claims
      *
@@ -29,6 +41,17 @@ public interface TokenService {
      */
     Claims validateToken(String token);
 
+    /**
+     * 驗證 Token 並解析為認證主體
+     *
+     * <p>單次解析即取得 userId、Email、過期時間與簽發者</p>
+     *
+     * @param token JWT Token 字串
+     * @return 已驗證的 JWT 主體
+     * @throws JwtException 如果 Token 無效、過期或簽章錯誤
+     */
+    JwtPrincipal parsePrincipal(String token);
+
     /**
      * 從 Token 中提取 Email
      *
@@ -46,4 +69,13 @@ public interface TokenService {
      * @throws JwtException 如果 Token 格式錯誤
      */
     boolean isTokenExpired(String token);
+
+    /**
+     * 取得可公開發布的 JWK Set
+     *
+     * <p>僅包含非對稱演算法（ES256、EdDSA）的公鑰，使用 HS256 時 keys 為空陣列</p>
+     *
+     * @return JWKS 內容與 ETag
+     */
+    PublicJwkSet getPublicJwkSet();
 }
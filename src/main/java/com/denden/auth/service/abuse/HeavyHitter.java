@@ -0,0 +1,20 @@
+package com.denden.auth.service.abuse;
+
+/**
+ * 熱點項目
+ *
+ * @param key   IP（IPv6 為前綴）或 email
+ * @param count 衰減後的計數上限
+ * @param error 計數可能高估的量，count - error 為保證下限
+ * @author Timmy
+ * @since 1.1.0
+ */
+public record HeavyHitter(String key, long count, long error) {
+
+    /**
+     * 保證至少出現的次數
+     */
+    public long guaranteed() {
+        return count - error;
+    }
+}
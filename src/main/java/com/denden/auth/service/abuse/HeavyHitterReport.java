@@ -0,0 +1,20 @@
+package com.denden.auth.service.abuse;
+
+import java.util.List;
+
+/**
+ * 熱點查詢結果
+ *
+ * @param stream  資料流識別字
+ * @param scope   local（本節點）或 cluster（合併所有節點）
+ * @param nodes   參與合併的節點數
+ * @param floor   未列出的 key 的計數上限
+ * @param entries 依計數遞減排列的熱點
+ * @author Timmy
+ * @since 1.1.0
+ */
+public record HeavyHitterReport(String stream, String scope, int nodes, long floor, List<HeavyHitter> entries) {
+
+    public static final String SCOPE_LOCAL = "local";
+    public static final String SCOPE_CLUSTER = "cluster";
+}
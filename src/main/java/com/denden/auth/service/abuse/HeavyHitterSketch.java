@@ -0,0 +1,112 @@
+package com.denden.auth.service.abuse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 單一資料流的熱點 sketch：Count-Min sketch + 分段 Space-Saving 摘要
+ *
+ * <p>Count-Min sketch 無鎖更新，提供任意 key 的估計值並過濾摘要的替換；
+ * 摘要依 key 的雜湊分為 {@value #STRIPES} 段，各段獨立加鎖，降低請求路徑上的競爭。
+ * 各段的 key 互不重疊，合併時直接取聯集排序。</p>
+ *
+ * <p>記憶體固定為 depth × width 個 long 加上 capacity 個追蹤節點，與流量無關。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public final class HeavyHitterSketch {
+
+    private static final int STRIPES = 8;
+
+    private final CountMinSketch counts;
+    private final SpaceSavingSummary[] summaries = new SpaceSavingSummary[STRIPES];
+
+    /**
+     * @param capacity 追蹤的 key 總數
+     * @param depth    Count-Min 雜湊列數
+     * @param width    Count-Min 每列計數器數
+     */
+    public HeavyHitterSketch(int capacity, int depth, int width) {
+        this.counts = new CountMinSketch(depth, width);
+        int perStripe = Math.max(1, (capacity + STRIPES - 1) / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            summaries[i] = new SpaceSavingSummary(perStripe);
+        }
+    }
+
+    public void add(String key) {
+        long estimate = counts.add(key);
+        SpaceSavingSummary summary = summaries[stripe(key)];
+        synchronized (summary) {
+            summary.offer(key, estimate);
+        }
+    }
+
+    /**
+     * 任意 key 的計數估計值（不小於實際衰減後計數）
+     */
+    public long estimate(String key) {
+        return counts.estimate(key);
+    }
+
+    /**
+     * 計數最高的 key
+     *
+     * @param limit 最多返回筆數
+     */
+    public List<HeavyHitter> top(int limit) {
+        List<HeavyHitter> entries = new ArrayList<>();
+        for (SpaceSavingSummary summary : summaries) {
+            synchronized (summary) {
+                entries.addAll(summary.entries());
+            }
+        }
+        entries.sort(Comparator.comparingLong(HeavyHitter::count).reversed());
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    /**
+     * 不在摘要中的 key 的計數上限（跨節點合併時使用）
+     */
+    public long floor() {
+        long floor = 0;
+        for (SpaceSavingSummary summary : summaries) {
+            synchronized (summary) {
+                floor = Math.max(floor, summary.floor());
+            }
+        }
+        return floor;
+    }
+
+    /**
+     * 追蹤中的 key 數
+     */
+    public int size() {
+        int size = 0;
+        for (SpaceSavingSummary summary : summaries) {
+            synchronized (summary) {
+                size += summary.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 時間衰減：所有計數減半
+     */
+    public void decay() {
+        counts.halve();
+        for (SpaceSavingSummary summary : summaries) {
+            synchronized (summary) {
+                summary.halve();
+            }
+        }
+    }
+
+    private static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
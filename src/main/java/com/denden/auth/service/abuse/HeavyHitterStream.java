@@ -0,0 +1,61 @@
+package com.denden.auth.service.abuse;
+
+/**
+ * 熱點偵測的資料流
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public enum HeavyHitterStream {
+
+    /**
+     * 每個請求的客戶端 IP（IPv6 依前綴合併）
+     */
+    REQUEST_IP("request-ip", false),
+
+    /**
+     * 登入失敗的客戶端 IP
+     */
+    LOGIN_FAILURE_IP("login-failure-ip", false),
+
+    /**
+     * 登入失敗的 email
+     */
+    LOGIN_FAILURE_EMAIL("login-failure-email", true);
+
+    private final String id;
+    private final boolean email;
+
+    HeavyHitterStream(String id, boolean email) {
+        this.id = id;
+        this.email = email;
+    }
+
+    /**
+     * 用於 actuator selector 與 Redis key 的識別字
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * key 是否為 email（輸出時需遮罩）
+     */
+    public boolean isEmail() {
+        return email;
+    }
+
+    /**
+     * 依識別字取得資料流
+     *
+     * @return 資料流；不存在時返回 null
+     */
+    public static HeavyHitterStream fromId(String id) {
+        for (HeavyHitterStream stream : values()) {
+            if (stream.id.equals(id)) {
+                return stream;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,297 @@
+package com.denden.auth.service.abuse;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 熱點 IP / email 追蹤
+ *
+ * <p>每個節點在本地以 {@link HeavyHitterSketch} 記錄請求 IP 與登入失敗的 IP、email，
+ * 更新為 O(1) 且不需 Redis；計數定期減半，反映的是近期流量而非累計值。</p>
+ *
+ * <p>跨節點查詢時才合併：各節點定期將摘要寫入 Redis（{@code heavy_hitters:<資料流>:<節點>}），
+ * 查詢時讀取仍在發布的節點摘要，依 Space-Saving 的可合併性質加總 ——
+ * 某節點摘要中沒有的 key，以該節點的最小計數作為上限與誤差。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Slf4j
+@Component
+public class HeavyHitterTracker {
+
+    private static final String KEY_PREFIX = "heavy_hitters:";
+    private static final String NODES_KEY = KEY_PREFIX + "nodes";
+
+    /**
+     * 摘要 hash 中保存節點最小計數的欄位（IP 與 email 都不會以 @ 開頭）
+     */
+    private static final String FLOOR_FIELD = "@floor";
+
+    /**
+     * 節點超過幾個發布間隔未更新即視為離線
+     */
+    private static final int STALE_INTERVALS = 3;
+
+    private final SecurityProperties.HeavyHitters config;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final Map<HeavyHitterStream, HeavyHitterSketch> sketches = new EnumMap<>(HeavyHitterStream.class);
+    private final String nodeId;
+
+    public HeavyHitterTracker(SecurityProperties securityProperties,
+                              StringRedisTemplate redisTemplate,
+                              RedisCircuitBreaker redisCircuitBreaker,
+                              MeterRegistry meterRegistry) {
+        this.config = securityProperties.getHeavyHitters();
+        this.redisTemplate = redisTemplate;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.nodeId = resolveNodeId();
+
+        for (HeavyHitterStream stream : HeavyHitterStream.values()) {
+            HeavyHitterSketch sketch = new HeavyHitterSketch(config.getCapacity(), config.getDepth(), config.getWidth());
+            sketches.put(stream, sketch);
+            Gauge.builder("heavy_hitters.tracked", sketch, HeavyHitterSketch::size)
+                    .tag("stream", stream.id())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 記錄一次請求
+     *
+     * @param ipIdentity 客戶端 IP（IPv6 為前綴）
+     */
+    public void recordRequest(String ipIdentity) {
+        if (config.isEnabled() && ipIdentity != null) {
+            sketches.get(HeavyHitterStream.REQUEST_IP).add(ipIdentity);
+        }
+    }
+
+    /**
+     * 記錄一次登入失敗
+     */
+    public void recordLoginFailure(String ipAddress, String email) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (ipAddress != null) {
+            sketches.get(HeavyHitterStream.LOGIN_FAILURE_IP).add(ipAddress);
+        }
+        if (email != null) {
+            sketches.get(HeavyHitterStream.LOGIN_FAILURE_EMAIL).add(email.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * 本節點的計數估計值
+     */
+    public long estimate(HeavyHitterStream stream, String key) {
+        String normalized = stream.isEmail() ? key.trim().toLowerCase(Locale.ROOT) : key;
+        return sketches.get(stream).estimate(normalized);
+    }
+
+    /**
+     * 本節點的熱點
+     */
+    public HeavyHitterReport localTop(HeavyHitterStream stream, int limit) {
+        HeavyHitterSketch sketch = sketches.get(stream);
+        return new HeavyHitterReport(stream.id(), HeavyHitterReport.SCOPE_LOCAL, 1, sketch.floor(), sketch.top(limit));
+    }
+
+    /**
+     * 合併所有節點的熱點；Redis 無法使用時返回本節點結果
+     */
+    public HeavyHitterReport clusterTop(HeavyHitterStream stream, int limit) {
+        Map<String, Map<Object, Object>> snapshots;
+        try {
+            snapshots = redisCircuitBreaker.execute(() -> readSnapshots(stream));
+        } catch (DataAccessException e) {
+            log.warn("讀取熱點摘要失敗，改為返回本節點結果，資料流: {}, 錯誤: {}", stream.id(), e.getMessage());
+            return localTop(stream, limit);
+        }
+
+        HeavyHitterSketch local = sketches.get(stream);
+        List<Map<String, HeavyHitter>> nodes = new ArrayList<>();
+        List<Long> floors = new ArrayList<>();
+
+        nodes.add(toMap(local.top(Integer.MAX_VALUE)));
+        floors.add(local.floor());
+        for (Map<Object, Object> snapshot : snapshots.values()) {
+            Map<String, HeavyHitter> entries = new HashMap<>();
+            long floor = 0;
+            for (Map.Entry<Object, Object> field : snapshot.entrySet()) {
+                String key = (String) field.getKey();
+                String value = (String) field.getValue();
+                if (FLOOR_FIELD.equals(key)) {
+                    floor = Long.parseLong(value);
+                    continue;
+                }
+                int separator = value.indexOf(':');
+                entries.put(key, new HeavyHitter(key,
+                        Long.parseLong(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1))));
+            }
+            nodes.add(entries);
+            floors.add(floor);
+        }
+
+        return new HeavyHitterReport(stream.id(), HeavyHitterReport.SCOPE_CLUSTER, nodes.size(),
+                floors.stream().mapToLong(Long::longValue).sum(), merge(nodes, floors, limit));
+    }
+
+    /**
+     * 時間衰減
+     */
+    @Scheduled(fixedDelayString = "${app.security.heavy-hitters.decay-interval-ms:60000}")
+    public void decay() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        for (HeavyHitterSketch sketch : sketches.values()) {
+            sketch.decay();
+        }
+    }
+
+    /**
+     * 發布本節點摘要到 Redis
+     */
+    @Scheduled(fixedDelayString = "${app.security.heavy-hitters.publish-interval-ms:10000}")
+    public void publish() {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long ttlMillis = config.getPublishIntervalMs() * STALE_INTERVALS;
+        try {
+            redisCircuitBreaker.run(() -> {
+                for (HeavyHitterStream stream : HeavyHitterStream.values()) {
+                    writeSnapshot(stream, sketches.get(stream), ttlMillis);
+                }
+                redisTemplate.opsForZSet().add(NODES_KEY, nodeId, now);
+                redisTemplate.opsForZSet().removeRangeByScore(NODES_KEY, 0, now - ttlMillis);
+            });
+        } catch (DataAccessException e) {
+            log.debug("發布熱點摘要失敗: {}", e.getMessage());
+        }
+    }
+
+    private void writeSnapshot(HeavyHitterStream stream, HeavyHitterSketch sketch, long ttlMillis) {
+        Map<String, String> fields = new HashMap<>();
+        for (HeavyHitter entry : sketch.top(Integer.MAX_VALUE)) {
+            fields.put(entry.key(), entry.count() + ":" + entry.error());
+        }
+        fields.put(FLOOR_FIELD, Long.toString(sketch.floor()));
+        String key = snapshotKey(stream, nodeId);
+
+        redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<Object> execute(RedisOperations operations) {
+                operations.multi();
+                operations.delete(key);
+                operations.opsForHash().putAll(key, fields);
+                operations.expire(key, ttlMillis, TimeUnit.MILLISECONDS);
+                return operations.exec();
+            }
+        });
+    }
+
+    private Map<String, Map<Object, Object>> readSnapshots(HeavyHitterStream stream) {
+        long now = System.currentTimeMillis();
+        Set<String> nodes = redisTemplate.opsForZSet().rangeByScore(NODES_KEY,
+                now - config.getPublishIntervalMs() * STALE_INTERVALS, Double.POSITIVE_INFINITY);
+        if (nodes == null || nodes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Map<Object, Object>> snapshots = new HashMap<>();
+        for (String node : nodes) {
+            if (nodeId.equals(node)) {
+                continue;
+            }
+            Map<Object, Object> snapshot = redisTemplate.opsForHash().entries(snapshotKey(stream, node));
+            if (!snapshot.isEmpty()) {
+                snapshots.put(node, snapshot);
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * 合併各節點摘要：count 與 error 皆為各節點之和，節點中沒有的 key 以該節點的 floor 計
+     */
+    private static List<HeavyHitter> merge(List<Map<String, HeavyHitter>> nodes, List<Long> floors, int limit) {
+        Set<String> keys = new HashSet<>();
+        for (Map<String, HeavyHitter> node : nodes) {
+            keys.addAll(node.keySet());
+        }
+
+        List<HeavyHitter> merged = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            long count = 0;
+            long error = 0;
+            for (int i = 0; i < nodes.size(); i++) {
+                HeavyHitter entry = nodes.get(i).get(key);
+                if (entry != null) {
+                    count += entry.count();
+                    error += entry.error();
+                } else {
+                    count += floors.get(i);
+                    error += floors.get(i);
+                }
+            }
+            merged.add(new HeavyHitter(key, count, error));
+        }
+
+        merged.sort(Comparator.comparingLong(HeavyHitter::count).reversed()
+                .thenComparing(Comparator.comparingLong(HeavyHitter::guaranteed).reversed()));
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    private static Map<String, HeavyHitter> toMap(List<HeavyHitter> entries) {
+        Map<String, HeavyHitter> map = new HashMap<>(entries.size() * 2);
+        for (HeavyHitter entry : entries) {
+            map.put(entry.key(), entry);
+        }
+        return map;
+    }
+
+    private static String snapshotKey(HeavyHitterStream stream, String node) {
+        return KEY_PREFIX + stream.id() + ":" + node;
+    }
+
+    private static String resolveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+}
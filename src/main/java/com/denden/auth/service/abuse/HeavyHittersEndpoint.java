@@ -0,0 +1,68 @@
+package com.denden.auth.service.abuse;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.util.MaskingUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * 熱點 IP / email 查詢端點
+ *
+ * <ul>
+ *   <li>GET /actuator/heavyhitters：所有資料流</li>
+ *   <li>GET /actuator/heavyhitters/{stream}：單一資料流（request-ip、login-failure-ip、login-failure-email）</li>
+ * </ul>
+ * <p>參數 scope=cluster 時合併所有節點（預設 local 只查本節點），limit 為返回筆數。
+ * email 以 {@link MaskingUtils#maskEmail} 遮罩、IP 以 {@link MaskingUtils#maskIp} 截斷為網段後輸出；
+ * 端點僅限 ROLE_ADMIN 存取（見 SecurityConfig）。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Component
+@Endpoint(id = "heavyhitters")
+@RequiredArgsConstructor
+public class HeavyHittersEndpoint {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final HeavyHitterTracker tracker;
+    private final SecurityProperties securityProperties;
+
+    @ReadOperation
+    public Map<String, HeavyHitterReport> heavyHitters(String scope, Integer limit) {
+        Map<String, HeavyHitterReport> reports = new LinkedHashMap<>();
+        for (HeavyHitterStream stream : HeavyHitterStream.values()) {
+            reports.put(stream.id(), report(stream, scope, limit));
+        }
+        return reports;
+    }
+
+    @ReadOperation
+    public HeavyHitterReport stream(@Selector String stream, String scope, Integer limit) {
+        HeavyHitterStream selected = HeavyHitterStream.fromId(stream);
+        return selected != null ? report(selected, scope, limit) : null;
+    }
+
+    private HeavyHitterReport report(HeavyHitterStream stream, String scope, Integer limit) {
+        int size = limit != null
+                ? Math.max(1, Math.min(limit, MAX_LIMIT))
+                : securityProperties.getHeavyHitters().getDefaultLimit();
+        HeavyHitterReport report = HeavyHitterReport.SCOPE_CLUSTER.equals(scope)
+                ? tracker.clusterTop(stream, size)
+                : tracker.localTop(stream, size);
+
+        UnaryOperator<String> masking = stream.isEmail() ? MaskingUtils::maskEmail : MaskingUtils::maskIp;
+        return new HeavyHitterReport(report.stream(), report.scope(), report.nodes(), report.floor(),
+                report.entries().stream()
+                        .map(entry -> new HeavyHitter(masking.apply(entry.key()), entry.count(), entry.error()))
+                        .toList());
+    }
+}
@@ -0,0 +1,227 @@
+package com.denden.auth.service.abuse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving 熱點摘要（Stream-Summary 結構）
+ *
+ * <p>最多追蹤 capacity 個 key，計數相同的 key 歸在同一個 bucket，bucket 依計數遞增串成雙向鏈結，
+ * 遞增與替換皆為 O(1)：</p>
+ * <ul>
+ *   <li>已追蹤的 key：移到計數 + 1 的 bucket</li>
+ *   <li>未滿：以計數 1 加入</li>
+ *   <li>已滿：只有 Count-Min 估計值高於目前最小計數時才替換最小的 key，
+ *       新 key 繼承最小計數 + 1，並以最小計數作為誤差上限；大量只出現一次的 key 不會洗掉既有熱點</li>
+ * </ul>
+ *
+ * <p>非執行緒安全，由 {@link HeavyHitterSketch} 負責同步。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+final class SpaceSavingSummary {
+
+    private final int capacity;
+    private final Map<String, Node> nodes;
+
+    /**
+     * 計數最小的 bucket
+     */
+    private Bucket head;
+
+    SpaceSavingSummary(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity 必須大於 0");
+        }
+        this.capacity = capacity;
+        this.nodes = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * 記錄 key 出現一次
+     *
+     * @param key      key
+     * @param estimate 同一 key 在 Count-Min sketch 的估計值（已含本次）
+     */
+    void offer(String key, long estimate) {
+        Node node = nodes.get(key);
+        if (node != null) {
+            increment(node);
+            return;
+        }
+
+        if (nodes.size() < capacity) {
+            node = new Node(key);
+            nodes.put(key, node);
+            if (head == null || head.count != 1) {
+                Bucket bucket = new Bucket(1);
+                bucket.next = head;
+                if (head != null) {
+                    head.prev = bucket;
+                }
+                head = bucket;
+            }
+            head.add(node);
+            return;
+        }
+
+        long min = head.count;
+        if (estimate <= min) {
+            return;
+        }
+        Node victim = head.first;
+        nodes.remove(victim.key);
+        victim.key = key;
+        victim.error = min;
+        nodes.put(key, victim);
+        increment(victim);
+    }
+
+    /**
+     * 所有計數與誤差減半，計數歸零的 key 移除
+     */
+    void halve() {
+        Bucket previous = null;
+        Bucket bucket = head;
+        while (bucket != null) {
+            Bucket next = bucket.next;
+            bucket.count >>>= 1;
+            for (Node node = bucket.first; node != null; node = node.next) {
+                node.error >>>= 1;
+            }
+
+            if (bucket.count == 0) {
+                for (Node node = bucket.first; node != null; node = node.next) {
+                    nodes.remove(node.key);
+                }
+                unlink(bucket);
+            } else if (previous != null && previous.count == bucket.count) {
+                Node node = bucket.first;
+                while (node != null) {
+                    Node following = node.next;
+                    previous.add(node);
+                    node = following;
+                }
+                unlink(bucket);
+            } else {
+                previous = bucket;
+            }
+            bucket = next;
+        }
+    }
+
+    /**
+     * 追蹤中的 key 不在摘要內時，其計數上限
+     */
+    long floor() {
+        return nodes.size() < capacity || head == null ? 0 : head.count;
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * 依計數遞減排列的所有 key
+     */
+    List<HeavyHitter> entries() {
+        List<HeavyHitter> entries = new ArrayList<>(nodes.size());
+        for (Bucket bucket = head; bucket != null; bucket = bucket.next) {
+            for (Node node = bucket.first; node != null; node = node.next) {
+                entries.add(new HeavyHitter(node.key, bucket.count, node.error));
+            }
+        }
+        Collections.reverse(entries);
+        return entries;
+    }
+
+    private void increment(Node node) {
+        Bucket bucket = node.bucket;
+        long target = bucket.count + 1;
+        Bucket next = bucket.next;
+
+        if (next == null || next.count != target) {
+            if (bucket.first == node && node.next == null) {
+                bucket.count = target;
+                return;
+            }
+            Bucket created = new Bucket(target);
+            created.prev = bucket;
+            created.next = next;
+            if (next != null) {
+                next.prev = created;
+            }
+            bucket.next = created;
+            next = created;
+        }
+
+        bucket.remove(node);
+        next.add(node);
+        if (bucket.first == null) {
+            unlink(bucket);
+        }
+    }
+
+    private void unlink(Bucket bucket) {
+        if (bucket.prev != null) {
+            bucket.prev.next = bucket.next;
+        } else {
+            head = bucket.next;
+        }
+        if (bucket.next != null) {
+            bucket.next.prev = bucket.prev;
+        }
+    }
+
+    private static final class Bucket {
+
+        private long count;
+        private Bucket prev;
+        private Bucket next;
+        private Node first;
+
+        private Bucket(long count) {
+            this.count = count;
+        }
+
+        private void add(Node node) {
+            node.bucket = this;
+            node.prev = null;
+            node.next = first;
+            if (first != null) {
+                first.prev = node;
+            }
+            first = node;
+        }
+
+        private void remove(Node node) {
+            if (node.prev != null) {
+                node.prev.next = node.next;
+            } else {
+                first = node.next;
+            }
+            if (node.next != null) {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+    }
+
+    private static final class Node {
+
+        private String key;
+        private long error;
+        private Bucket bucket;
+        private Node prev;
+        private Node next;
+
+        private Node(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.denden.auth.service.email;
+
+import com.denden.auth.config.EmailOutboxProperties;
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.entity.EmailOutbox;
+import com.denden.auth.entity.EmailType;
+import com.denden.auth.repository.EmailOutboxRepository;
+import com.denden.auth.service.EmailTemplateService;
+import com.denden.auth.util.MaskingUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 待發送郵件的背景發送
+ *
+ * <p>單一背景執行緒每 poll-interval-ms 以 {@link EmailOutboxRepository#claim} 認領最多 batch-size 封到期的郵件，
+ * 依序發送後以一個 DELETE 刪除成功的郵件；認領滿一批時立即認領下一批。多個節點可同時執行，
+ * SKIP LOCKED 讓各節點認領不同的郵件。</p>
+ *
+ * <ul>
+ *   <li>發送失敗：等待 initial-backoff-ms × 2<sup>次數-1</sup>（最多 max-backoff-ms）後重試，
+ *       超過 max-attempts 次標記為 FAILED，
+ *       並清除內容參數（驗證 Token、OTP），只保留收件者與錯誤訊息供檢查</li>
+ *   <li>OTP 郵件在 OTP 過期後不再發送，直接刪除</li>
+ *   <li>節點在發送途中停止時，已認領的郵件於 claim-timeout-ms 後重新發送（至少一次）</li>
+ * </ul>
+ *
+ * <p>指標：email.outbox.dispatched（依 result 區分 sent / retry / failed / expired）。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Slf4j
+@Component
+public class EmailOutboxDispatcher implements DisposableBean {
+
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    private final EmailOutboxProperties config;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailSenderFactory emailSenderFactory;
+    private final EmailTemplateService emailTemplateService;
+    private final String baseUrl;
+    private final long otpExpirationSeconds;
+    private final ScheduledExecutorService executor;
+    private volatile boolean running = true;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter expired;
+
+    public EmailOutboxDispatcher(EmailOutboxProperties config,
+                                 EmailOutboxRepository emailOutboxRepository,
+                                 EmailSenderFactory emailSenderFactory,
+                                 EmailTemplateService emailTemplateService,
+                                 SecurityProperties securityProperties,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.base-url}") String baseUrl) {
+        this.config = config;
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailSenderFactory = emailSenderFactory;
+        this.emailTemplateService = emailTemplateService;
+        this.baseUrl = baseUrl;
+        this.otpExpirationSeconds = securityProperties.getOtp().getExpirationSeconds();
+
+        this.sent = dispatched(meterRegistry, "sent");
+        this.retried = dispatched(meterRegistry, "retry");
+        this.failed = dispatched(meterRegistry, "failed");
+        this.expired = dispatched(meterRegistry, "expired");
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("email-outbox-"));
+        if (config.isDispatcherEnabled()) {
+            this.executor.scheduleWithFixedDelay(this::dispatchSafely,
+                    config.getPollIntervalMs(), config.getPollIntervalMs(), TimeUnit.MILLISECONDS);
+            log.info("郵件背景發送已啟用，批次: {}, 輪詢間隔: {} ms", config.getBatchSize(), config.getPollIntervalMs());
+        }
+    }
+
+    /**
+     * 發送到期的郵件，直到沒有到期的郵件
+     *
+     * @return 本次處理的郵件數
+     */
+    int dispatch() {
+        int total = 0;
+        while (running) {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> batch = emailOutboxRepository.claim(
+                    now, now.plusNanos(TimeUnit.MILLISECONDS.toNanos(config.getClaimTimeoutMs())),
+                    config.getBatchSize());
+            if (batch.isEmpty()) {
+                return total;
+            }
+
+            List<Long> done = new ArrayList<>(batch.size());
+            for (EmailOutbox email : batch) {
+                if (deliver(email, now)) {
+                    done.add(email.getId());
+                }
+            }
+            if (!done.isEmpty()) {
+                emailOutboxRepository.deleteAllByIdInBatch(done);
+            }
+
+            total += batch.size();
+            if (batch.size() < config.getBatchSize()) {
+                return total;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 發送一封郵件
+     *
+     * @return true 表示已完成（發送成功或已過期），可以刪除
+     */
+    private boolean deliver(EmailOutbox email, LocalDateTime now) {
+        if (email.getType() == EmailType.OTP
+                && email.getCreatedAt().plusSeconds(otpExpirationSeconds).isBefore(now)) {
+            expired.increment();
+            log.warn("OTP 已過期，不再發送 OTP 郵件至: {}", MaskingUtils.maskEmail(email.getRecipient()));
+            return true;
+        }
+
+        try {
+            EmailSender sender = emailSenderFactory.getActiveSender();
+            sender.send(email.getRecipient(), subject(email.getType()), render(email));
+            sent.increment();
+            log.info("{} 郵件發送成功至: {} (使用: {})",
+                    email.getType(), MaskingUtils.maskEmail(email.getRecipient()), sender.getSenderType());
+            return true;
+        } catch (EmailSendException | RuntimeException e) {
+            onFailure(email, e);
+            return false;
+        }
+    }
+
+    private void onFailure(EmailOutbox email, Exception e) {
+        String error = truncate(e.getMessage());
+        if (email.getAttempts() >= config.getMaxAttempts()) {
+            emailOutboxRepository.markFailed(email.getId(), error);
+            failed.increment();
+            log.error("{} 郵件發送失敗且超過重試次數，不再發送，收件者: {}, 次數: {}, 錯誤: {}",
+                    email.getType(), MaskingUtils.maskEmail(email.getRecipient()), email.getAttempts(), error);
+            return;
+        }
+
+        long backoffMs = backoffMillis(email.getAttempts());
+        emailOutboxRepository.reschedule(email.getId(),
+                LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs)), error);
+        retried.increment();
+        log.warn("{} 郵件發送失敗，{} ms 後重試，收件者: {}, 次數: {}, 錯誤: {}",
+                email.getType(), backoffMs, MaskingUtils.maskEmail(email.getRecipient()), email.getAttempts(), error);
+    }
+
+    /**
+     * 第 n 次失敗後的等待時間：initial-backoff-ms × 2<sup>n-1</sup>，最多 max-backoff-ms
+     */
+    long backoffMillis(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        long backoff = config.getInitialBackoffMs() << shift;
+        return backoff <= 0 ? config.getMaxBackoffMs() : Math.min(backoff, config.getMaxBackoffMs());
+    }
+
+    private static String subject(EmailType type) {
+        return switch (type) {
+            case VERIFICATION -> "驗證您的帳號 - DenDen";
+            case OTP -> "您的登入驗證碼 - DenDen";
+            case ACCOUNT_LOCKED -> "帳號安全通知 - 帳號已被暫時鎖定";
+            case WELCOME -> "歡迎加入 DenDen！";
+        };
+    }
+
+    private String render(EmailOutbox email) {
+        return switch (email.getType()) {
+            case VERIFICATION -> emailTemplateService.buildVerificationEmail(
+                    baseUrl + "/api/v1/auth/verify-email?token=" + email.getPayload());
+            case OTP -> emailTemplateService.buildOtpEmail(email.getPayload());
+            case ACCOUNT_LOCKED -> emailTemplateService.buildAccountLockedEmail();
+            case WELCOME -> emailTemplateService.buildWelcomeEmail(email.getPayload());
+        };
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private void dispatchSafely() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            log.error("郵件背景發送發生錯誤: {}", e.getMessage(), e);
+        }
+    }
+
+    private static Counter dispatched(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("email.outbox.dispatched")
+                .description("背景發送的郵件，expired 為 OTP 過期而未發送")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -8,12 +8,13 @@ import com.denden.auth.dto.RegisterRequest;
 import com.denden.auth.dto.UserInfo;
 import com.denden.auth.dto.VerifyOtpRequest;
 import com.denden.auth.entity.AccountStatus;
-import com.denden.auth.entity.LoginAttempt;
 import com.denden.auth.entity.TokenType;
 import com.denden.auth.entity.User;
 import com.denden.auth.entity.VerificationToken;
 import com.denden.auth.exception.BusinessException;
 import com.denden.auth.exception.ErrorCode;
+import com.denden.auth.exception.ServiceOverloadedException;
+import com.denden.auth.model.OtpIssueResult;
 import com.denden.auth.repository.LoginAttemptRepository;
 import com.denden.auth.repository.UserRepository;
 import com.denden.auth.repository.VerificationTokenRepository;
@@ -21,18 +22,27 @@ import com.denden.auth.service.AuthService;
 import com.denden.auth.service.EmailService;
 import com.denden.auth.service.LoginHistoryService;
 import com.denden.auth.service.OtpService;
+import com.denden.auth.service.TokenRevocationService;
 import com.denden.auth.service.TokenService;
+import com.denden.auth.service.abuse.HeavyHitterTracker;
+import com.denden.auth.service.jwt.JwtPrincipal;
+import com.denden.auth.service.lockout.AccountLockoutService;
+import com.denden.auth.service.lockout.LoginFailureOutcome;
+import com.denden.auth.service.loginattempt.LoginAttemptRecorder;
+import com.denden.auth.service.otp.OtpVerification;
+import com.denden.auth.service.password.PasswordHasher;
+import com.denden.auth.service.token.SecureTokenFactory;
 import com.denden.auth.util.MaskingUtils;
 import com.denden.auth.util.PasswordValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.util.concurrent.TimeUnit;
 
 /**
  * 認證服務實作
@@ -45,16 +55,27 @@ public class AuthServiceImpl implements AuthService {
     private final UserRepository userRepository;
     private final VerificationTokenRepository verificationTokenRepository;
     private final LoginAttemptRepository loginAttemptRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final LoginAttemptRecorder loginAttemptRecorder;
+    private final AccountLockoutService accountLockoutService;
+    private final PasswordHasher passwordHasher;
     private final EmailService emailService;
     private final OtpService otpService;
     private final TokenService tokenService;
+    private final TokenRevocationService tokenRevocationService;
     private final LoginHistoryService loginHistoryService;
     private final SecurityProperties securityProperties;
-    private final StringRedisTemplate redisTemplate;
+    private final HeavyHitterTracker heavyHitterTracker;
+    private final SecureTokenFactory secureTokenFactory;
+    private final TransactionTemplate transactionTemplate;
     
+    /**
+     * {@inheritDoc}
+     *
+     * <p>密碼雜湊在交易開始前完成：雜湊可能在 {@link PasswordHasher} 的佇列中等待到 max-queue-wait-ms，
+     * 期間不佔用資料庫連線。使用者、驗證 Token 與驗證郵件（outbox）在同一個交易中寫入；
+     * 雜湊期間被其他請求搶先註冊時，由 email 唯一索引擋下並回傳 EMAIL_ALREADY_EXISTS。</p>
+     */
     @Override
-    @Transactional
     public void register(RegisterRequest request) {
         log.info("開始處理會員註冊請求，Email: {}", MaskingUtils.maskEmail(request.email()));
         
@@ -69,21 +90,31 @@ public class AuthServiceImpl implements AuthService {
             throw new BusinessException(ErrorCode.EMAIL_ALREADY_EXISTS);
         }
         
-        String passwordHash = passwordEncoder.encode(request.password());
+        String passwordHash = passwordHasher.encode(request.password());
         
-        User user = new User(request.email(), passwordHash);
-        user = userRepository.save(user);
+        User user;
+        try {
+            user = transactionTemplate.execute(status -> createPendingUser(request.email(), passwordHash));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Email 已被註冊，Email: {}", MaskingUtils.maskEmail(request.email()));
+            throw new BusinessException(ErrorCode.EMAIL_ALREADY_EXISTS);
+        }
+        
+        log.info("會員註冊流程完成，User ID: {}", user.getId());
+    }
+    
+    private User createPendingUser(String email, String passwordHash) {
+        User user = userRepository.saveAndFlush(new User(email, passwordHash));
         log.info("使用者建立成功，User ID: {}, Email: {}", user.getId(), MaskingUtils.maskEmail(user.getEmail()));
         
-        VerificationToken verificationToken = VerificationToken.createEmailVerificationToken(user);
+        VerificationToken verificationToken = VerificationToken.createEmailVerificationToken(user, secureTokenFactory.uuid());
         verificationToken = verificationTokenRepository.save(verificationToken);
         log.info("驗證 Token 建立成功，Token ID: {}, 過期時間: {}", 
                 verificationToken.getId(), verificationToken.getExpiresAt());
         
         emailService.sendVerificationEmail(user.getEmail(), verificationToken.getToken());
-        log.info("驗證郵件已發送，User ID: {}", user.getId());
-        
-        log.info("會員註冊流程完成，User ID: {}", user.getId());
+        log.info("驗證郵件已加入發送佇列，User ID: {}", user.getId());
+        return user;
     }
     
     @Override
@@ -123,7 +154,7 @@ public class AuthServiceImpl implements AuthService {
         log.info("驗證 Token 已標記為已使用，Token ID: {}", verificationToken.getId());
         
         emailService.sendWelcomeEmail(user.getEmail(), user.getEmail());
-        log.info("歡迎郵件已發送，User ID: {}", user.getId());
+        log.info("歡迎郵件已加入發送佇列，User ID: {}", user.getId());
         
         log.info("Email 驗證流程完成，User ID: {}", user.getId());
     }
@@ -146,14 +177,14 @@ public class AuthServiceImpl implements AuthService {
                     "帳號狀態不正確，無法重新發送驗證郵件");
         }
         
-        VerificationToken verificationToken = VerificationToken.createEmailVerificationToken(user);
+        VerificationToken verificationToken = VerificationToken.createEmailVerificationToken(user, secureTokenFactory.uuid());
         verificationToken = verificationTokenRepository.save(verificationToken);
         log.info("新的驗證 Token 建立成功，Token ID: {}, 過期時間: {}", 
                 verificationToken.getId(), verificationToken.getExpiresAt());
         
         try {
             emailService.sendVerificationEmail(user.getEmail(), verificationToken.getToken());
-            log.info("驗證郵件已重新發送，Email: {}", MaskingUtils.maskEmail(user.getEmail()));
+            log.info("驗證郵件已重新加入發送佇列，Email: {}", MaskingUtils.maskEmail(user.getEmail()));
         } catch (Exception e) {
             log.error("重新發送驗證郵件失敗，Email: {}, 錯誤: {}", 
                     MaskingUtils.maskEmail(user.getEmail()), e.getMessage(), e);
@@ -163,16 +194,22 @@ public class AuthServiceImpl implements AuthService {
         log.info("重新發送驗證郵件流程完成，User ID: {}", user.getId());
     }
     
+    /**
+     * 登入第一階段
+     *
+     * <p>不開啟交易：密碼驗證在 {@link PasswordHasher} 的執行緒池中排隊，期間不佔用資料庫連線；
+     * 各筆資料庫操作各自提交，失敗紀錄不會因拋出 INVALID_CREDENTIALS 而被回滾</p>
+     *
+     * <p>密碼驗證前先以一次 EXISTS 檢查帳號鎖定：鎖定中的帳號正是暴力破解的目標，
+     * 不應讓每次猜測都佔用一次 BCrypt 的執行緒池時間。此檢查只為省下雜湊，不是鎖定的依據：
+     * 密碼錯誤時由失敗計數腳本、密碼正確時由 OTP 發送腳本在同一次往返中再次檢查，
+     * 檢查後才被鎖定的帳號同樣取不到 OTP；Redis 無法使用時略過此檢查，改由後續的資料庫判斷。
+     * 鎖定中的帳號無論密碼是否正確都回傳 ACCOUNT_LOCKED，不會洩漏密碼是否正確。</p>
+     */
     @Override
-    @Transactional
     public OtpResponse login(LoginRequest request, String ipAddress) {
         log.info("開始處理登入請求，Email: {}, IP: {}", MaskingUtils.maskEmail(request.email()), ipAddress);
         
-        if (isAccountLocked(request.email())) {
-            log.warn("帳號已被鎖定，Email: {}", MaskingUtils.maskEmail(request.email()));
-            throw new BusinessException(ErrorCode.ACCOUNT_LOCKED);
-        }
-        
         User user = userRepository.findByEmail(request.email())
                 .orElseThrow(() -> {
                     recordLoginAttempt(request.email(), ipAddress, false);
@@ -193,25 +230,40 @@ public class AuthServiceImpl implements AuthService {
             throw new BusinessException(ErrorCode.INVALID_CREDENTIALS);
         }
         
-        if (!passwordEncoder.matches(request.password(), user.getPasswordHash())) {
+        if (isAccountLocked(request.email())) {
+            recordLoginAttempt(request.email(), ipAddress, false);
+            log.warn("帳號已被鎖定，略過密碼驗證，Email: {}", MaskingUtils.maskEmail(request.email()));
+            throw new BusinessException(ErrorCode.ACCOUNT_LOCKED);
+        }
+        
+        if (!passwordHasher.matches(request.password(), user.getPasswordHash())) {
             recordLoginAttempt(request.email(), ipAddress, false);
             log.warn("密碼驗證失敗，Email: {}", MaskingUtils.maskEmail(request.email()));
             
-            checkAndLockAccount(request.email());
+            if (checkAndLockAccount(request.email()).alreadyLocked()) {
+                log.warn("帳號已被鎖定，Email: {}", MaskingUtils.maskEmail(request.email()));
+                throw new BusinessException(ErrorCode.ACCOUNT_LOCKED);
+            }
             
             throw new BusinessException(ErrorCode.INVALID_CREDENTIALS);
         }
         
+        String otp = otpService.generateOtp();
+        if (!issueOtp(request.email(), user.getId(), otp, false)) {
+            heavyHitterTracker.recordLoginFailure(ipAddress, request.email());
+            log.warn("帳號已被鎖定，Email: {}", MaskingUtils.maskEmail(request.email()));
+            throw new BusinessException(ErrorCode.ACCOUNT_LOCKED);
+        }
+        log.info("OTP 已產生，Email: {}", MaskingUtils.maskEmail(request.email()));
+        
         recordLoginAttempt(request.email(), ipAddress, true);
         log.info("密碼驗證成功，Email: {}", MaskingUtils.maskEmail(request.email()));
         
-        String otp = otpService.generateOtp();
-        otpService.createOtpSession(request.email(), otp);
-        log.info("OTP 已產生，Email: {}", MaskingUtils.maskEmail(request.email()));
+        upgradePasswordHashIfNeeded(user, request.password());
         
         try {
             emailService.sendOtpEmail(request.email(), otp);
-            log.info("OTP 郵件已發送，Email: {}", MaskingUtils.maskEmail(request.email()));
+            log.info("OTP 郵件已加入發送佇列，Email: {}", MaskingUtils.maskEmail(request.email()));
         } catch (Exception e) {
             log.error("發送 OTP 郵件失敗，Email: {}, 錯誤: {}", 
                     MaskingUtils.maskEmail(request.email()), e.getMessage(), e);
@@ -222,53 +274,61 @@ public class AuthServiceImpl implements AuthService {
         return OtpResponse.of(
             (long) securityProperties.getOtp().getExpirationSeconds(),
             MaskingUtils.maskEmail(request.email())
-        );
+        ).withSessionHint(otpService.sessionHint(request.email()));
     }
     
+    /**
+     * {@inheritDoc}
+     *
+     * <p>使用者 ID 取自登入時寫入 OTP 會話的資料，JWT 以會話中的 ID 與 Email 簽發，
+     * 最後登入時間以單一 UPDATE 依主鍵更新，不需要查詢 users。
+     * 升級前建立、沒有使用者 ID 的會話改以 Email 查詢主鍵。</p>
+     */
     @Override
-    @Transactional
-    public AuthResponse verifyOtp(VerifyOtpRequest request) {
+    public AuthResponse verifyOtp(VerifyOtpRequest request, String sessionHint) {
         log.info("開始 OTP 驗證，Email: {}", MaskingUtils.maskEmail(request.email()));
         
         // 驗證 OTP（使用 email 而非 sessionId）
-        boolean isValid = otpService.verifyOtpByEmail(request.email(), request.otp());
-        if (!isValid) {
+        OtpVerification verification = otpService.verifyOtpSession(request.email(), request.otp(), sessionHint);
+        if (!verification.isVerified()) {
             log.warn("OTP 驗證失敗，Email: {}", MaskingUtils.maskEmail(request.email()));
             throw new BusinessException(ErrorCode.INVALID_OTP, "OTP 驗證失敗");
         }
         
         log.info("OTP 驗證成功，Email: {}", MaskingUtils.maskEmail(request.email()));
         
-        // 查找使用者
-        User user = userRepository.findByEmail(request.email())
-                .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND, "使用者不存在"));
+        Long userId = verification.userId() != null
+                ? verification.userId()
+                : userRepository.findIdByEmail(request.email())
+                        .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND, "使用者不存在"));
         
         // 更新最後登入時間
         LocalDateTime loginTime = LocalDateTime.now();
-        user.setLastLoginAt(loginTime);
-        userRepository.save(user);
+        if (userRepository.updateLastLoginAt(userId, loginTime) == 0) {
+            throw new BusinessException(ErrorCode.USER_NOT_FOUND, "使用者不存在");
+        }
         log.info("使用者最後登入時間已更新到資料庫，User ID: {}, Email: {}", 
-                user.getId(), MaskingUtils.maskEmail(user.getEmail()));
+                userId, MaskingUtils.maskEmail(request.email()));
         
         // 記錄登入時間到 Redis
-        loginHistoryService.recordLoginTime(user.getId(), loginTime);
-        log.info("使用者登入時間已記錄到 Redis ZSet，User ID: {}", user.getId());
+        loginHistoryService.recordLoginTime(userId, loginTime);
+        log.info("使用者登入時間已記錄到 Redis ZSet，User ID: {}", userId);
         
         // 產生 JWT Token
-        String jwtToken = tokenService.generateJwtToken(user);
+        String jwtToken = tokenService.generateJwtToken(userId, request.email());
         log.info("JWT Token 已產生，User ID: {}, Email: {}", 
-                user.getId(), MaskingUtils.maskEmail(user.getEmail()));
+                userId, MaskingUtils.maskEmail(request.email()));
         
         // 建立使用者資訊
         UserInfo userInfo = new UserInfo(
-                user.getId(),
-                user.getEmail(),
-                user.getLastLoginAt()
+                userId,
+                request.email(),
+                loginTime
         );
         
         Long expiresIn = securityProperties.getJwt().getExpirationMs() / 1000;
         
-        log.info("OTP 驗證流程完成，User ID: {}, Email: {}", user.getId(), MaskingUtils.maskEmail(user.getEmail()));
+        log.info("OTP 驗證流程完成，User ID: {}, Email: {}", userId, MaskingUtils.maskEmail(request.email()));
         
         return AuthResponse.bearer(jwtToken, expiresIn, userInfo);
     }
@@ -278,20 +338,17 @@ public class AuthServiceImpl implements AuthService {
     public OtpResponse resendOtp(String email) {
         log.info("開始重新發送 OTP，Email: {}", MaskingUtils.maskEmail(email));
         
-        // 檢查是否有活躍的 OTP 會話
-        if (!otpService.hasActiveSession(email)) {
-            log.warn("無活躍的 OTP 會話，Email: {}", MaskingUtils.maskEmail(email));
-            throw new BusinessException(ErrorCode.OTP_SESSION_NOT_FOUND, "無活躍的 OTP 會話");
-        }
-        
-        // 產生新的 OTP
+        // 產生新的 OTP，會話存在、帳號未鎖定且未超過發送額度時才取代舊 OTP
         String newOtp = otpService.generateOtp();
-        otpService.updateOtpSessionByEmail(email, newOtp);
+        if (!issueOtp(email, null, newOtp, true)) {
+            log.warn("帳號已被鎖定，Email: {}", MaskingUtils.maskEmail(email));
+            throw new BusinessException(ErrorCode.ACCOUNT_LOCKED);
+        }
         log.info("新 OTP 已產生，Email: {}", MaskingUtils.maskEmail(email));
         
         try {
             emailService.sendOtpEmail(email, newOtp);
-            log.info("OTP 郵件已重新發送，Email: {}", MaskingUtils.maskEmail(email));
+            log.info("OTP 郵件已重新加入發送佇列，Email: {}", MaskingUtils.maskEmail(email));
         } catch (Exception e) {
             log.error("重新發送 OTP 郵件失敗，Email: {}, 錯誤: {}", 
                     MaskingUtils.maskEmail(email), e.getMessage(), e);
@@ -302,65 +359,179 @@ public class AuthServiceImpl implements AuthService {
         return OtpResponse.of(
             (long) securityProperties.getOtp().getExpirationSeconds(),
             MaskingUtils.maskEmail(email)
-        );
+        ).withSessionHint(otpService.sessionHint(email));
+    }
+    
+    @Override
+    public void logout(JwtPrincipal principal) {
+        log.info("使用者登出，User ID: {}", principal.userId());
+        
+        tokenRevocationService.revoke(principal);
     }
     
     /**
-     * 記錄登入嘗試
+     * 記錄登入嘗試（背景批次寫入資料庫）
      */
     private void recordLoginAttempt(String email, String ipAddress, boolean successful) {
+        if (!successful) {
+            heavyHitterTracker.recordLoginFailure(ipAddress, email);
+        }
+        loginAttemptRecorder.record(email, ipAddress, successful);
+    }
+    
+    /**
+     * 發送 OTP：Redis 可用時以單一腳本檢查鎖定、發送額度並寫入會話；否則改以資料庫判斷鎖定並寫入備援儲存
+     *
+     * @return false 表示帳號鎖定中
+     * @throws BusinessException 超過發送額度，或重新發送時無有效會話
+     */
+    private boolean issueOtp(String email, Long userId, String otp, boolean reissue) {
+        OtpIssueResult result;
         try {
-            LoginAttempt attempt = new LoginAttempt(email, ipAddress, successful);
-            loginAttemptRepository.save(attempt);
-            log.debug("登入嘗試已記錄，Email: {}, IP: {}, 成功: {}", 
-                    MaskingUtils.maskEmail(email), ipAddress, successful);
-        } catch (Exception e) {
-            log.error("記錄登入嘗試失敗，Email: {}, 錯誤: {}", 
-                    MaskingUtils.maskEmail(email), e.getMessage(), e);
+            result = otpService.issueOtpSession(email, userId, otp, reissue);
+        } catch (DataAccessException e) {
+            log.warn("Redis 無法使用，改以資料庫發送 OTP，Email: {}, 錯誤: {}",
+                    MaskingUtils.maskEmail(email), e.getMessage());
+            return issueOtpWithDatabase(email, userId, otp, reissue);
+        }
+        
+        switch (result.status()) {
+            case ACCOUNT_LOCKED:
+                return false;
+            case QUOTA_EXCEEDED:
+                log.warn("OTP 發送次數超過限制，Email: {}, 剩餘: {} ms",
+                        MaskingUtils.maskEmail(email), result.retryAfterMillis());
+                throw new BusinessException(ErrorCode.OTP_ISSUE_LIMIT_EXCEEDED);
+            case NO_ACTIVE_SESSION:
+                log.warn("無活躍的 OTP 會話，Email: {}", MaskingUtils.maskEmail(email));
+                throw new BusinessException(ErrorCode.OTP_SESSION_NOT_FOUND, "無活躍的 OTP 會話");
+            default:
+                return true;
+        }
+    }
+    
+    /**
+     * Redis 無法使用時的 OTP 發送（不檢查發送額度），會話寫入備援儲存（降級時為本節點快取）
+     */
+    private boolean issueOtpWithDatabase(String email, Long userId, String otp, boolean reissue) {
+        if (isAccountLockedInDatabase(email)) {
+            return false;
+        }
+        if (!reissue) {
+            otpService.createOtpSession(email, userId, otp);
+            return true;
+        }
+        if (!otpService.hasActiveSession(email)) {
+            log.warn("無活躍的 OTP 會話，Email: {}", MaskingUtils.maskEmail(email));
+            throw new BusinessException(ErrorCode.OTP_SESSION_NOT_FOUND, "無活躍的 OTP 會話");
         }
+        otpService.updateOtpSessionByEmail(email, otp);
+        return true;
     }
     
     /**
-     * 檢查帳號是否被鎖定
+     * 雜湊值的演算法或成本低於目前設定時，以剛驗證過的明文重新雜湊
+     *
+     * <p>只影響效能不影響登入結果：雜湊佇列已滿或資料庫更新失敗時略過，下次登入再升級</p>
+     */
+    private void upgradePasswordHashIfNeeded(User user, String rawPassword) {
+        if (!passwordHasher.upgradeEncoding(user.getPasswordHash())) {
+            return;
+        }
+        try {
+            String upgraded = passwordHasher.encode(rawPassword);
+            int updated = userRepository.updatePasswordHash(
+                    user.getId(), user.getPasswordHash(), upgraded, LocalDateTime.now());
+            if (updated == 1) {
+                log.info("密碼雜湊已升級，User ID: {}", user.getId());
+            }
+        } catch (ServiceOverloadedException e) {
+            log.debug("密碼雜湊佇列已滿，略過雜湊升級，User ID: {}", user.getId());
+        } catch (DataAccessException e) {
+            log.warn("更新密碼雜湊失敗，User ID: {}, 錯誤: {}", user.getId(), e.getMessage());
+        }
+    }
+    
+    /**
+     * 密碼驗證前的鎖定檢查；Redis 無法使用時返回 false，由失敗計數或 OTP 發送時的資料庫判斷處理
      */
     private boolean isAccountLocked(String email) {
-        String lockKey = "account_lock:" + email;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(lockKey));
+        try {
+            return accountLockoutService.isLocked(email);
+        } catch (DataAccessException e) {
+            log.debug("Redis 無法使用，略過密碼驗證前的鎖定檢查，Email: {}, 錯誤: {}",
+                    MaskingUtils.maskEmail(email), e.getMessage());
+            return false;
+        }
     }
     
     /**
-     * 檢查並鎖定帳號
+     * 以資料庫中鎖定期間內的失敗次數判斷帳號是否鎖定（Redis 無法使用時）
      */
-    private void checkAndLockAccount(String email) {
-        int maxFailedAttempts = securityProperties.getAccountLock().getMaxFailedAttempts();
+    private boolean isAccountLockedInDatabase(String email) {
         int lockDurationMinutes = securityProperties.getAccountLock().getLockDurationMinutes();
-        
-        LocalDateTime thirtyMinutesAgo = LocalDateTime.now().minusMinutes(30);
         long failedAttempts = loginAttemptRepository.countByEmailAndSuccessfulAndAttemptedAtAfter(
-                email, false, thirtyMinutesAgo);
+                email, false, LocalDateTime.now().minusMinutes(lockDurationMinutes))
+                + loginAttemptRecorder.pendingFailures(email);
+        return failedAttempts >= securityProperties.getAccountLock().getMaxFailedAttempts();
+    }
+    
+    /**
+     * 檢查並鎖定帳號
+     *
+     * <p>失敗次數以 Redis 時間桶計數，計數與鎖定原子完成；Redis 無法使用時才查詢 login_attempts</p>
+     *
+     * @return 失敗次數與鎖定狀態
+     */
+    private LoginFailureOutcome checkAndLockAccount(String email) {
+        LoginFailureOutcome outcome;
+        try {
+            outcome = accountLockoutService.recordFailure(email);
+        } catch (DataAccessException e) {
+            log.warn("Redis 無法使用，改以資料庫計算失敗次數，Email: {}, 錯誤: {}",
+                    MaskingUtils.maskEmail(email), e.getMessage());
+            outcome = checkFailuresFromDatabase(email);
+        }
         
-        log.debug("最近 30 分鐘內失敗次數，Email: {}, 次數: {}", MaskingUtils.maskEmail(email), failedAttempts);
+        log.debug("視窗內失敗次數，Email: {}, 次數: {}", MaskingUtils.maskEmail(email), outcome.failures());
         
-        if (failedAttempts >= maxFailedAttempts) {
-            lockAccount(email, lockDurationMinutes);
-            log.warn("帳號已被鎖定，Email: {}, 失敗次數: {}", MaskingUtils.maskEmail(email), failedAttempts);
+        if (outcome.lockedNow()) {
+            log.warn("帳號已被鎖定，Email: {}, 失敗次數: {}", MaskingUtils.maskEmail(email), outcome.failures());
             
             try {
                 emailService.sendAccountLockedEmail(email);
-                log.info("帳號鎖定通知郵件已發送，Email: {}", MaskingUtils.maskEmail(email));
+                log.info("帳號鎖定通知郵件已加入發送佇列，Email: {}", MaskingUtils.maskEmail(email));
             } catch (Exception e) {
                 log.error("發送帳號鎖定通知郵件失敗，Email: {}, 錯誤: {}", 
                         MaskingUtils.maskEmail(email), e.getMessage(), e);
             }
         }
+        return outcome;
     }
     
     /**
-     * 鎖定帳號
+     * 以資料庫中視窗內的失敗次數判斷，達上限時嘗試寫入鎖定
+     *
+     * <p>本次失敗已先記錄，扣除本次後仍達上限表示帳號原本就已鎖定</p>
      */
-    private void lockAccount(String email, int durationMinutes) {
-        String lockKey = "account_lock:" + email;
-        redisTemplate.opsForValue().set(lockKey, "locked", durationMinutes, TimeUnit.MINUTES);
-        log.info("帳號已鎖定 {} 分鐘，Email: {}", durationMinutes, MaskingUtils.maskEmail(email));
+    private LoginFailureOutcome checkFailuresFromDatabase(String email) {
+        SecurityProperties.AccountLock config = securityProperties.getAccountLock();
+        long failedAttempts = loginAttemptRepository.countByEmailAndSuccessfulAndAttemptedAtAfter(
+                email, false, LocalDateTime.now().minusMinutes(config.getFailureWindowMinutes()))
+                + loginAttemptRecorder.pendingFailures(email);
+        
+        if (failedAttempts < config.getMaxFailedAttempts()) {
+            return new LoginFailureOutcome(failedAttempts, false, false);
+        }
+        if (failedAttempts - 1 >= config.getMaxFailedAttempts()) {
+            return new LoginFailureOutcome(failedAttempts, false, true);
+        }
+        try {
+            accountLockoutService.lock(email, config.getLockDurationMinutes());
+        } catch (DataAccessException e) {
+            log.error("寫入帳號鎖定狀態到 Redis 失敗，改由資料庫失敗紀錄判斷，Email: {}, 錯誤: {}",
+                    MaskingUtils.maskEmail(email), e.getMessage());
+        }
+        return new LoginFailureOutcome(failedAttempts, true, false);
     }
 }
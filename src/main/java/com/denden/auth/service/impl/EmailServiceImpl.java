@@ -1,27 +1,21 @@
 package com.denden.auth.service.impl;
 
-import com.denden.auth.exception.BusinessException;
-import com.denden.auth.exception.ErrorCode;
+import com.denden.auth.entity.EmailOutbox;
+import com.denden.auth.entity.EmailType;
+import com.denden.auth.repository.EmailOutboxRepository;
 import com.denden.auth.service.EmailService;
-import com.denden.auth.service.EmailTemplateService;
-import com.denden.auth.service.email.EmailSendException;
-import com.denden.auth.service.email.EmailSenderFactory;
-
+import com.denden.auth.service.email.EmailOutboxDispatcher;
 import com.denden.auth.util.MaskingUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-
-
 /**
  * Email 發送服務實作
  * 
- * 通過 EmailSenderFactory 獲取當前配置的發送器實現。
+ * <p>郵件寫入 email_outbox，在呼叫端有交易時與業務資料一同提交（交易回滾時郵件也不會發送），
+ * 由 {@link EmailOutboxDispatcher} 在背景發送與重試。請求的延遲不受郵件服務影響，
+ * 部署重啟也不會遺失尚未發送的郵件。</p>
  * 
  * @author Timmy
  * @since 1.0.0
@@ -31,106 +25,30 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class EmailServiceImpl implements EmailService {
     
-    private final EmailSenderFactory emailSenderFactory;
-    private final EmailTemplateService emailTemplateService;
-    
-    @Value("${app.base-url}")
-    private String baseUrl;
+    private final EmailOutboxRepository emailOutboxRepository;
     
     @Override
-    @Async
-    @Retryable(
-        retryFor = {EmailSendException.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 2000, multiplier = 2)
-    )
     public void sendVerificationEmail(String to, String token) {
-        log.info("準備發送驗證郵件至: {} (使用: {})", 
-            MaskingUtils.maskEmail(to), 
-            emailSenderFactory.getActiveSender().getSenderType());
-        
-        String verificationLink = baseUrl + "/api/v1/auth/verify-email?token=" + token;
-        String subject = "驗證您的帳號 - DenDen";
-        String htmlContent = emailTemplateService.buildVerificationEmail(verificationLink);
-        
-        try {
-            emailSenderFactory.getActiveSender().send(to, subject, htmlContent);
-            log.info("驗證郵件發送成功至: {}", MaskingUtils.maskEmail(to));
-        } catch (EmailSendException e) {
-            log.error("驗證郵件發送失敗至: {}, 錯誤: {}", MaskingUtils.maskEmail(to), e.getMessage(), e);
-            throw new BusinessException(ErrorCode.EMAIL_SERVICE_ERROR, "驗證郵件發送失敗", e);
-        }
+        enqueue(EmailType.VERIFICATION, to, token);
     }
     
     @Override
-    @Async
-    @Retryable(
-        retryFor = {EmailSendException.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 2000, multiplier = 2)
-    )
     public void sendOtpEmail(String to, String otp) {
-        log.info("準備發送 OTP 郵件至: {} (使用: {})", 
-            MaskingUtils.maskEmail(to),
-            emailSenderFactory.getActiveSender().getSenderType());
-        
-        String subject = "您的登入驗證碼 - DenDen";
-        String htmlContent = emailTemplateService.buildOtpEmail(otp);
-        
-        try {
-            emailSenderFactory.getActiveSender().send(to, subject, htmlContent);
-            log.info("OTP 郵件發送成功至: {}", MaskingUtils.maskEmail(to));
-        } catch (EmailSendException e) {
-            log.error("OTP 郵件發送失敗至: {}, 錯誤: {}", MaskingUtils.maskEmail(to), e.getMessage(), e);
-            throw new BusinessException(ErrorCode.EMAIL_SERVICE_ERROR, "OTP 郵件發送失敗", e);
-        }
+        enqueue(EmailType.OTP, to, otp);
     }
     
     @Override
-    @Async
-    @Retryable(
-        retryFor = {EmailSendException.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 2000, multiplier = 2)
-    )
     public void sendAccountLockedEmail(String to) {
-        log.info("準備發送帳號鎖定通知郵件至: {} (使用: {})", 
-            MaskingUtils.maskEmail(to),
-            emailSenderFactory.getActiveSender().getSenderType());
-        
-        String subject = "帳號安全通知 - 帳號已被暫時鎖定";
-        String htmlContent = emailTemplateService.buildAccountLockedEmail();
-        
-        try {
-            emailSenderFactory.getActiveSender().send(to, subject, htmlContent);
-            log.info("帳號鎖定通知郵件發送成功至: {}", MaskingUtils.maskEmail(to));
-        } catch (EmailSendException e) {
-            log.error("帳號鎖定通知郵件發送失敗至: {}, 錯誤: {}", MaskingUtils.maskEmail(to), e.getMessage(), e);
-            throw new BusinessException(ErrorCode.EMAIL_SERVICE_ERROR, "帳號鎖定通知郵件發送失敗", e);
-        }
+        enqueue(EmailType.ACCOUNT_LOCKED, to, null);
     }
     
     @Override
-    @Async
-    @Retryable(
-        retryFor = {EmailSendException.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 2000, multiplier = 2)
-    )
     public void sendWelcomeEmail(String to, String username) {
-        log.info("準備發送歡迎郵件至: {} (使用: {})", 
-            MaskingUtils.maskEmail(to),
-            emailSenderFactory.getActiveSender().getSenderType());
-        
-        String subject = "歡迎加入 DenDen！";
-        String htmlContent = emailTemplateService.buildWelcomeEmail(username);
-        
-        try {
-            emailSenderFactory.getActiveSender().send(to, subject, htmlContent);
-            log.info("歡迎郵件發送成功至: {}", MaskingUtils.maskEmail(to));
-        } catch (EmailSendException e) {
-            log.error("歡迎郵件發送失敗至: {}, 錯誤: {}", MaskingUtils.maskEmail(to), e.getMessage(), e);
-            throw new BusinessException(ErrorCode.EMAIL_SERVICE_ERROR, "歡迎郵件發送失敗", e);
-        }
+        enqueue(EmailType.WELCOME, to, username);
+    }
+    
+    private void enqueue(EmailType type, String to, String payload) {
+        emailOutboxRepository.save(new EmailOutbox(type, to, payload));
+        log.info("{} 郵件已加入發送佇列: {}", type, MaskingUtils.maskEmail(to));
     }
 }
@@ -1,6 +1,7 @@
 package com.denden.auth.service.impl;
 
 import com.denden.auth.service.LoginHistoryService;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
 import com.denden.auth.util.TimeUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,12 +27,13 @@ public class LoginHistoryServiceImpl implements LoginHistoryService {
     private static final String LOGIN_HISTORY_KEY = "login_history";
     
     private final RedisTemplate<String, String> redisTemplate;
+    private final RedisCircuitBreaker redisCircuitBreaker;
     
     @Override
     public void recordLoginTime(Long userId, LocalDateTime loginTime) {
         try {
             double score = TimeUtils.toTimestampAsDouble(loginTime);
-            redisTemplate.opsForZSet().add(LOGIN_HISTORY_KEY, userId.toString(), score);
+            redisCircuitBreaker.execute(() -> redisTemplate.opsForZSet().add(LOGIN_HISTORY_KEY, userId.toString(), score));
             
             log.debug("記錄使用者登入時間到 Redis ZSet，User ID: {}, 時間: {}, Score: {}", 
                     userId, loginTime, score);
@@ -44,7 +46,8 @@ public class LoginHistoryServiceImpl implements LoginHistoryService {
     @Override
     public LocalDateTime getLastLoginTime(Long userId) {
         try {
-            Double score = redisTemplate.opsForZSet().score(LOGIN_HISTORY_KEY, userId.toString());
+            Double score = redisCircuitBreaker.execute(
+                    () -> redisTemplate.opsForZSet().score(LOGIN_HISTORY_KEY, userId.toString()));
             
             if (score == null) {
                 log.debug("使用者登入記錄不存在，User ID: {}", userId);
@@ -66,8 +69,8 @@ public class LoginHistoryServiceImpl implements LoginHistoryService {
     @Override
     public List<Long> getRecentActiveUsers(int limit) {
         try {
-            Set<String> userIds = redisTemplate.opsForZSet()
-                    .reverseRange(LOGIN_HISTORY_KEY, 0, limit - 1);
+            Set<String> userIds = redisCircuitBreaker.execute(
+                    () -> redisTemplate.opsForZSet().reverseRange(LOGIN_HISTORY_KEY, 0, limit - 1));
             
             if (userIds == null || userIds.isEmpty()) {
                 log.debug("沒有找到活躍使用者記錄");
@@ -93,8 +96,8 @@ public class LoginHistoryServiceImpl implements LoginHistoryService {
             LocalDateTime cutoffTime = LocalDateTime.now().minusDays(daysAgo);
             double maxScore = TimeUtils.toTimestampAsDouble(cutoffTime);
             
-            Long removed = redisTemplate.opsForZSet()
-                    .removeRangeByScore(LOGIN_HISTORY_KEY, 0, maxScore);
+            Long removed = redisCircuitBreaker.execute(
+                    () -> redisTemplate.opsForZSet().removeRangeByScore(LOGIN_HISTORY_KEY, 0, maxScore));
             
             if (removed != null && removed > 0) {
                 log.info("清理舊的登入記錄，刪除數量: {}, 截止時間: {}", removed, cutoffTime);
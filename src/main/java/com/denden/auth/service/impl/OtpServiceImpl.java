@@ -1,294 +1,157 @@
 package com.denden.auth.service.impl;
 
-import com.denden.auth.entity.OtpSession;
-import com.denden.auth.repository.OtpSessionRepository;
+import com.denden.auth.config.OtpSessionStoreConfig;
+import com.denden.auth.model.OtpIssueResult;
 import com.denden.auth.service.OtpService;
+import com.denden.auth.service.lockout.AccountLockoutService;
+import com.denden.auth.service.otp.DegradedOtpSessionStore;
+import com.denden.auth.service.otp.OtpSessionStore;
+import com.denden.auth.service.otp.OtpVerification;
+import com.denden.auth.service.otp.OtpVerifyResult;
+import com.denden.auth.service.token.SecureTokenFactory;
 import com.denden.auth.util.MaskingUtils;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Primary;
-import org.springframework.data.redis.RedisConnectionFailureException;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.security.SecureRandom;
-import java.time.Duration;
-import java.time.LocalDateTime;
 
 /**
  * OTP 服務實作
- * 
+ *
+ * <p>會話儲存於 {@link OtpSessionStore}（依 app.security.otp.store 選擇）；
+ * 主要儲存無法使用時改用備援儲存（Redis 降級時為 {@link DegradedOtpSessionStore}，見 {@link OtpSessionStoreConfig}）。
+ * 交易由需要資料庫的儲存自行開啟，Redis 與本節點快取的路徑不佔用資料庫連線。</p>
+ *
  * @author Timmy
  * @since 2.0.0
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class OtpServiceImpl implements OtpService {
-    
-    private static final String OTP_EMAIL_KEY_PREFIX = "otp:email:";
-    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
-    
-    private final StringRedisTemplate redisTemplate;
-    private final ObjectMapper objectMapper;
-    private final OtpSessionRepository otpSessionRepository;
-    
+
+    private final OtpSessionStore otpSessionStore;
+    private final OtpSessionStore fallbackStore;
+    private final AccountLockoutService accountLockoutService;
+    private final SecureTokenFactory secureTokenFactory;
+
     @Value("${app.security.otp.length:6}")
     private int otpLength;
-    
-    @Value("${app.security.otp.expiration-seconds:300}")
-    private long otpExpirationSeconds;
-    
-    @Value("${app.security.otp.max-attempts:3}")
-    private int maxAttempts;
-    
+
+    public OtpServiceImpl(OtpSessionStore otpSessionStore,
+                          @Qualifier(OtpSessionStoreConfig.FALLBACK_STORE) OtpSessionStore fallbackStore,
+                          AccountLockoutService accountLockoutService,
+                          SecureTokenFactory secureTokenFactory) {
+        this.otpSessionStore = otpSessionStore;
+        this.fallbackStore = fallbackStore;
+        this.accountLockoutService = accountLockoutService;
+        this.secureTokenFactory = secureTokenFactory;
+    }
+
     @Override
     public String generateOtp() {
-        StringBuilder otp = new StringBuilder();
-        for (int i = 0; i < otpLength; i++) {
-            otp.append(SECURE_RANDOM.nextInt(10));
-        }
-        return otp.toString();
+        return secureTokenFactory.digits(otpLength);
     }
-    
+
     @Override
-    @Transactional
-    public void createOtpSession(String email, String otp) {
-        boolean redisSuccess = createOtpSessionInRedis(email, otp);
-        
-        if (!redisSuccess) {
-            log.warn("Redis 不可用，使用資料庫儲存 OTP，Email: {}", 
+    public void createOtpSession(String email, Long userId, String otp) {
+        try {
+            otpSessionStore.save(email, userId, otp);
+            log.info("OTP session 已儲存，Email: {}", MaskingUtils.maskEmail(email));
+            return;
+        } catch (DataAccessException e) {
+            if (!hasFallback()) {
+                throw e;
+            }
+            log.warn("OTP 會話儲存不可用，使用備援儲存 OTP，Email: {}",
                     MaskingUtils.maskEmail(email));
-            createOtpSessionInDatabase(email, otp);
         }
+        fallbackStore.save(email, userId, otp);
+        log.info("OTP session 已儲存到備援儲存，Email: {}", MaskingUtils.maskEmail(email));
     }
-    
+
     @Override
-    @Transactional  
-    public boolean verifyOtpByEmail(String email, String otp) {
+    public OtpVerification verifyOtpSession(String email, String otp, String sessionHint) {
+        OtpVerification verification;
         try {
-            Boolean redisResult = verifyOtpInRedis(email, otp);
-            if (redisResult != null) {
-                return redisResult;
+            verification = otpSessionStore.verify(email, otp);
+        } catch (DataAccessException e) {
+            if (!hasFallback()) {
+                throw e;
             }
-        } catch (Exception e) {
-            log.warn("Redis 驗證失敗，嘗試資料庫，Email: {}", 
-                    MaskingUtils.maskEmail(email), e);
+            log.warn("OTP 會話儲存驗證失敗，嘗試備援儲存，Email: {}", MaskingUtils.maskEmail(email));
+            verification = OtpVerification.of(OtpVerifyResult.NOT_FOUND);
         }
-        
-        return verifyOtpInDatabase(email, otp);
+
+        if (verification.result() == OtpVerifyResult.NOT_FOUND && hasFallback()) {
+            verification = fallbackStore.verify(email, otp, sessionHint);
+        }
+
+        switch (verification.result()) {
+            case VERIFIED -> log.info("OTP 驗證成功，Email: {}", MaskingUtils.maskEmail(email));
+            case EXHAUSTED -> log.warn("OTP 驗證次數超過限制，Email: {}", MaskingUtils.maskEmail(email));
+            case NOT_FOUND -> log.warn("OTP session 不存在或已過期，Email: {}", MaskingUtils.maskEmail(email));
+            default -> log.warn("OTP 驗證失敗，Email: {}", MaskingUtils.maskEmail(email));
+        }
+        return verification;
     }
-    
+
     @Override
     public boolean hasActiveSession(String email) {
         try {
-            String redisKey = OTP_EMAIL_KEY_PREFIX + email;
-            Boolean exists = redisTemplate.hasKey(redisKey);
-            if (Boolean.TRUE.equals(exists)) {
+            if (otpSessionStore.hasActiveSession(email)) {
                 return true;
             }
-        } catch (RedisConnectionFailureException e) {
-            log.warn("Redis 連接失敗，檢查資料庫，Email: {}", 
+        } catch (DataAccessException e) {
+            if (!hasFallback()) {
+                throw e;
+            }
+            log.warn("OTP 會話儲存連接失敗，檢查備援儲存，Email: {}",
                     MaskingUtils.maskEmail(email));
         }
-        
-        return otpSessionRepository.findLatestValidByEmail(email, LocalDateTime.now())
-                .isPresent();
+
+        return hasFallback() && fallbackStore.hasActiveSession(email);
     }
-    
+
     @Override
-    @Transactional
     public void updateOtpSessionByEmail(String email, String newOtp) {
-        boolean redisSuccess = updateOtpSessionInRedis(email, newOtp);
-        
-        if (!redisSuccess) {
-            log.warn("Redis 不可用，使用資料庫更新 OTP，Email: {}", 
-                    MaskingUtils.maskEmail(email));
-            updateOtpSessionInDatabase(email, newOtp);
-        }
-    }
-    
-    
-    private boolean createOtpSessionInRedis(String email, String otp) {
-        try {
-            String redisKey = OTP_EMAIL_KEY_PREFIX + email;
-            
-            OtpSession session = OtpSession.builder()
-                    .email(email)
-                    .otp(otp)
-                    .attempts(0)
-                    .createdAt(LocalDateTime.now())
-                    .expiresAt(LocalDateTime.now().plusSeconds(otpExpirationSeconds))
-                    .used(false)
-                    .build();
-            
-            String sessionJson = objectMapper.writeValueAsString(session);
-            redisTemplate.opsForValue().set(
-                    redisKey,
-                    sessionJson,
-                    Duration.ofSeconds(otpExpirationSeconds)
-            );
-            
-            log.info("OTP session 已儲存到 Redis，Email: {}，TTL: {} 秒",
-                    MaskingUtils.maskEmail(email), otpExpirationSeconds);
-            return true;
-            
-        } catch (RedisConnectionFailureException e) {
-            log.error("Redis 連接失敗，Email: {}", MaskingUtils.maskEmail(email), e);
-            return false;
-        } catch (JsonProcessingException e) {
-            log.error("序列化 OTP session 失敗，Email: {}", MaskingUtils.maskEmail(email), e);
-            return false;
-        }
-    }
-    
-    private Boolean verifyOtpInRedis(String email, String otp) {
         try {
-            String redisKey = OTP_EMAIL_KEY_PREFIX + email;
-            String sessionJson = redisTemplate.opsForValue().get(redisKey);
-            
-            if (sessionJson == null) {
-                return null; 
-            }
-            
-            OtpSession session = 
-                    objectMapper.readValue(sessionJson, OtpSession.class);
-            
-            if (session.getAttempts() >= maxAttempts) {
-                log.warn("OTP 驗證次數超過限制（Redis），Email: {}", 
-                        MaskingUtils.maskEmail(email));
-                redisTemplate.delete(redisKey);
-                return false;
-            }
-            
-            boolean isValid = otp != null && otp.equals(session.getOtp());
-            
-            if (isValid) {
-                log.info("OTP 驗證成功（Redis），Email: {}", MaskingUtils.maskEmail(email));
-                redisTemplate.delete(redisKey);
-            } else {
-                session.setAttempts(session.getAttempts() + 1);
-                String updatedJson = objectMapper.writeValueAsString(session);
-                Long ttl = redisTemplate.getExpire(redisKey);
-                redisTemplate.opsForValue().set(
-                        redisKey,
-                        updatedJson,
-                        Duration.ofSeconds(ttl != null && ttl > 0 ? ttl : otpExpirationSeconds)
-                );
+            otpSessionStore.save(email, null, newOtp);
+            log.info("OTP session 已更新，Email: {}", MaskingUtils.maskEmail(email));
+            return;
+        } catch (DataAccessException e) {
+            if (!hasFallback()) {
+                throw e;
             }
-            
-            return isValid;
-            
-        } catch (RedisConnectionFailureException e) {
-            log.warn("Redis 連接失敗，Email: {}", MaskingUtils.maskEmail(email));
-            return null; 
-        } catch (Exception e) {
-            log.error("Redis 驗證異常，Email: {}", MaskingUtils.maskEmail(email), e);
-            return null;
-        }
-    }
-    
-    private boolean updateOtpSessionInRedis(String email, String newOtp) {
-        try {
-            String redisKey = OTP_EMAIL_KEY_PREFIX + email;
-            
-            OtpSession session = OtpSession.builder()
-                    .email(email)
-                    .otp(newOtp)
-                    .attempts(0)
-                    .createdAt(LocalDateTime.now())
-                    .expiresAt(LocalDateTime.now().plusSeconds(otpExpirationSeconds))
-                    .used(false)
-                    .build();
-            
-            String sessionJson = objectMapper.writeValueAsString(session);
-            redisTemplate.opsForValue().set(
-                    redisKey,
-                    sessionJson,
-                    Duration.ofSeconds(otpExpirationSeconds)
-            );
-            
-            log.info("OTP session 已更新到 Redis，Email: {}", MaskingUtils.maskEmail(email));
-            return true;
-            
-        } catch (RedisConnectionFailureException e) {
-            log.error("Redis 連接失敗，Email: {}", MaskingUtils.maskEmail(email), e);
-            return false;
-        } catch (JsonProcessingException e) {
-            log.error("序列化 OTP session 失敗，Email: {}", MaskingUtils.maskEmail(email), e);
-            return false;
-        }
-    }
-    
-    private void createOtpSessionInDatabase(String email, String otp) {
-        otpSessionRepository.deleteByEmail(email);
-        
-        OtpSession session = OtpSession.builder()
-                .email(email)
-                .otp(otp)
-                .attempts(0)
-                .createdAt(LocalDateTime.now())
-                .expiresAt(LocalDateTime.now().plusSeconds(otpExpirationSeconds))
-                .used(false)
-                .build();
-        
-        otpSessionRepository.save(session);
-        log.info("OTP session 已儲存到資料庫（備援），Email: {}", 
-                MaskingUtils.maskEmail(email));
-    }
-    
-    private boolean verifyOtpInDatabase(String email, String otp) {
-        OtpSession session = otpSessionRepository
-                .findLatestValidByEmail(email, LocalDateTime.now())
-                .orElse(null);
-        
-        if (session == null) {
-            log.warn("OTP session 不存在或已過期（資料庫），Email: {}", 
+            log.warn("OTP 會話儲存不可用，使用備援儲存更新 OTP，Email: {}",
                     MaskingUtils.maskEmail(email));
-            return false;
         }
-        
-        if (session.getAttempts() >= maxAttempts) {
-            log.warn("OTP 驗證次數超過限制（資料庫），Email: {}", 
-                    MaskingUtils.maskEmail(email));
-            otpSessionRepository.delete(session);
-            return false;
+        fallbackStore.save(email, null, newOtp);
+        log.info("OTP session 已更新到備援儲存，Email: {}", MaskingUtils.maskEmail(email));
+    }
+
+    @Override
+    public OtpIssueResult issueOtpSession(String email, Long userId, String otp, boolean reissue) {
+        if (!otpSessionStore.checksAccountLock() && accountLockoutService.isLocked(email)) {
+            return new OtpIssueResult(OtpIssueResult.Status.ACCOUNT_LOCKED, 0);
         }
-        
-        boolean isValid = otp != null && otp.equals(session.getOtp());
-        
-        if (isValid) {
-            log.info("OTP 驗證成功（資料庫），Email: {}", MaskingUtils.maskEmail(email));
-            session.setUsed(true);
-            otpSessionRepository.save(session);
-        } else {
-            session.setAttempts(session.getAttempts() + 1);
-            otpSessionRepository.save(session);
-            log.warn("OTP 驗證失敗（資料庫），Email: {}，嘗試次數: {}", 
-                    MaskingUtils.maskEmail(email), session.getAttempts());
+
+        OtpIssueResult result = otpSessionStore.issue(email, userId, otp, reissue);
+        if (result.issued()) {
+            log.info("OTP session 已儲存，Email: {}", MaskingUtils.maskEmail(email));
         }
-        
-        return isValid;
+        return result;
     }
-    
-    private void updateOtpSessionInDatabase(String email, String newOtp) {
-        otpSessionRepository.deleteByEmail(email);
-        
-        OtpSession session = OtpSession.builder()
-                .email(email)
-                .otp(newOtp)
-                .attempts(0)
-                .createdAt(LocalDateTime.now())
-                .expiresAt(LocalDateTime.now().plusSeconds(otpExpirationSeconds))
-                .used(false)
-                .build();
-        
-        otpSessionRepository.save(session);
-        log.info("OTP session 已更新到資料庫（備援），Email: {}", 
-                MaskingUtils.maskEmail(email));
+
+    @Override
+    public String sessionHint(String email) {
+        return hasFallback() ? fallbackStore.sessionHint(email) : null;
+    }
+
+    /**
+     * 備援儲存與主要儲存不同時（主要儲存不是資料庫），才有備援
+     */
+    private boolean hasFallback() {
+        return otpSessionStore != fallbackStore;
     }
 }
@@ -0,0 +1,192 @@
+package com.denden.auth.service.impl;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.exception.BusinessException;
+import com.denden.auth.exception.ErrorCode;
+import com.denden.auth.service.TokenRevocationService;
+import com.denden.auth.service.jwt.JwtPrincipal;
+import com.denden.auth.service.jwt.RevokedTokenBloomFilter;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * JWT 撤銷服務實作
+ *
+ * <p>撤銷紀錄保存在 Redis ZSet（member 為 jti，score 為 Token 的 exp 秒數），
+ * 每個節點在記憶體中維護一份 Bloom filter：</p>
+ * <ul>
+ *   <li>撤銷時先寫入 ZSet，再透過 pub/sub 廣播 jti，各節點收到後加入本地 Bloom filter</li>
+ *   <li>查詢時 Bloom filter 未命中即確定未撤銷，不需網路往返；命中時才以 ZSCORE 精確確認</li>
+ *   <li>定期清除 ZSet 中已過期的紀錄並重建 Bloom filter，同時補上斷線期間漏收的廣播</li>
+ * </ul>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService, MessageListener {
+
+    private static final String REVOKED_TOKENS_KEY = "jwt:revoked";
+    private static final String REVOCATION_CHANNEL = "jwt:revoked:events";
+    private static final int SCAN_BATCH_SIZE = 1000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final SecurityProperties.Revocation config;
+    private final long defaultTtlSeconds;
+    private final AtomicReference<RevokedTokenBloomFilter> bloomFilter;
+
+    /**
+     * 重建期間同時寫入的新 Bloom filter，避免重建過程中收到的廣播遺失
+     */
+    private volatile RevokedTokenBloomFilter rebuilding;
+
+    private final Counter bloomMisses;
+    private final Counter revokedHits;
+    private final Counter falsePositives;
+    private final Counter redisErrors;
+
+    public TokenRevocationServiceImpl(StringRedisTemplate redisTemplate,
+                                      RedisCircuitBreaker redisCircuitBreaker,
+                                      RedisMessageListenerContainer listenerContainer,
+                                      SecurityProperties securityProperties,
+                                      MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.config = securityProperties.getJwt().getRevocation();
+        this.defaultTtlSeconds = securityProperties.getJwt().getExpirationMs() / 1000;
+        this.bloomFilter = new AtomicReference<>(
+                new RevokedTokenBloomFilter(config.getExpectedInsertions(), config.getFalsePositiveRate()));
+
+        this.bloomMisses = checkCounter(meterRegistry, "bloom_miss");
+        this.revokedHits = checkCounter(meterRegistry, "revoked");
+        this.falsePositives = checkCounter(meterRegistry, "false_positive");
+        this.redisErrors = checkCounter(meterRegistry, "error");
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(REVOCATION_CHANNEL));
+    }
+
+    @Override
+    public void revoke(JwtPrincipal principal) {
+        String tokenId = principal.tokenId();
+        if (tokenId == null) {
+            log.warn("Token 未帶 jti，無法個別撤銷，使用者 ID: {}", principal.userId());
+            return;
+        }
+
+        long expiresAt = principal.expiresAt() != null
+                ? principal.expiresAt().getEpochSecond()
+                : Instant.now().getEpochSecond() + defaultTtlSeconds;
+
+        try {
+            redisCircuitBreaker.run(() -> {
+                redisTemplate.opsForZSet().add(REVOKED_TOKENS_KEY, tokenId, expiresAt);
+                redisTemplate.convertAndSend(REVOCATION_CHANNEL, tokenId);
+            });
+        } catch (Exception e) {
+            log.error("寫入 Token 撤銷紀錄失敗，使用者 ID: {}，錯誤: {}", principal.userId(), e.getMessage(), e);
+            throw new BusinessException(ErrorCode.REDIS_SERVICE_ERROR);
+        }
+
+        addLocally(tokenId);
+        log.info("Token 已撤銷，使用者 ID: {}，jti: {}", principal.userId(), tokenId);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+
+        if (!bloomFilter.get().mightContain(tokenId)) {
+            bloomMisses.increment();
+            return false;
+        }
+
+        try {
+            Double score = redisCircuitBreaker.execute(
+                    () -> redisTemplate.opsForZSet().score(REVOKED_TOKENS_KEY, tokenId));
+            if (score != null) {
+                revokedHits.increment();
+                return true;
+            }
+            falsePositives.increment();
+            return false;
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.error("無法確認 Token 撤銷狀態，視為已撤銷，jti: {}，錯誤: {}", tokenId, e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.security.jwt.revocation.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        try {
+            ZSetOperations<String, String> zSet = redisTemplate.opsForZSet();
+            Long removed = redisCircuitBreaker.execute(
+                    () -> zSet.removeRangeByScore(REVOKED_TOKENS_KEY, 0, Instant.now().getEpochSecond()));
+            Long size = zSet.zCard(REVOKED_TOKENS_KEY);
+            long revokedCount = size != null ? size : 0;
+
+            RevokedTokenBloomFilter next = new RevokedTokenBloomFilter(
+                    Math.max(config.getExpectedInsertions(), revokedCount * 2),
+                    config.getFalsePositiveRate());
+            rebuilding = next;
+
+            try (Cursor<ZSetOperations.TypedTuple<String>> cursor = zSet.scan(REVOKED_TOKENS_KEY,
+                    ScanOptions.scanOptions().count(SCAN_BATCH_SIZE).build())) {
+                cursor.forEachRemaining(tuple -> next.put(tuple.getValue()));
+            }
+
+            bloomFilter.set(next);
+            log.info("Token 撤銷 Bloom filter 重建完成，撤銷數: {}，清除過期: {}，大小: {} bytes，雜湊數: {}",
+                    revokedCount, removed, next.sizeInBytes(), next.getHashCount());
+        } catch (Exception e) {
+            log.error("重建 Token 撤銷 Bloom filter 失敗，沿用現有資料，錯誤: {}", e.getMessage(), e);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    /**
+     * 接收其他節點廣播的撤銷事件
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String tokenId = new String(message.getBody(), StandardCharsets.UTF_8);
+        addLocally(tokenId);
+        log.debug("收到 Token 撤銷廣播，jti: {}", tokenId);
+    }
+
+    private void addLocally(String tokenId) {
+        bloomFilter.get().put(tokenId);
+        RevokedTokenBloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(tokenId);
+        }
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("jwt.revocation.checks")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -2,19 +2,23 @@ package com.denden.auth.service.impl;
 
 import com.denden.auth.entity.User;
 import com.denden.auth.service.TokenService;
+import com.denden.auth.service.jwt.FastHs256JwtCodec;
+import com.denden.auth.service.jwt.JwtKeyRing;
+import com.denden.auth.service.jwt.JwtKeySet;
+import com.denden.auth.service.jwt.JwtPrincipal;
+import com.denden.auth.service.jwt.PublicJwkSet;
+import com.denden.auth.service.token.SecureTokenFactory;
 import com.denden.auth.util.MaskingUtils;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -24,10 +28,11 @@ import java.util.Map;
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class TokenServiceImpl implements TokenService {
 
-    @Value("${app.security.jwt.secret}")
-    private String jwtSecret;
+    private final JwtKeyRing jwtKeyRing;
+    private final SecureTokenFactory secureTokenFactory;
 
     @Value("${app.security.jwt.expiration-ms}")
     private long jwtExpirationMs;
@@ -40,35 +45,50 @@ public class TokenServiceImpl implements TokenService {
         if (user == null) {
             throw new IllegalArgumentException("User cannot be null");
         }
+        return generateJwtToken(user.getId(), user.getEmail());
+    }
+
+    @Override
+    public String generateJwtToken(Long userId, String email) {
+        if (userId == null || email == null) {
+            throw new IllegalArgumentException("User ID and email cannot be null");
+        }
 
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", user.getId());
-
         log.debug("產生 JWT token，使用者: {} (ID: {})", 
-            MaskingUtils.maskEmail(user.getEmail()), user.getId());
-
-        String token = Jwts.builder()
-                .claims(claims)
-                .subject(user.getEmail())
-                .issuedAt(now)
-                .expiration(expiryDate)
-                .issuer(jwtIssuer)
-                .signWith(getSigningKey())
-                .compact();
-
-        log.info("成功產生 JWT token，使用者 ID: {}", user.getId());
+            MaskingUtils.maskEmail(email), userId);
+
+        JwtKeySet keySet = jwtKeyRing.current();
+        FastHs256JwtCodec fastCodec = keySet.getFastCodec();
+        String tokenId = secureTokenFactory.uuid();
+
+        String token = fastCodec != null
+                ? fastCodec.encode(userId, email, tokenId, now.getTime(), expiryDate.getTime())
+                : null;
+        if (token == null) {
+            Map<String, Object> claims = new HashMap<>();
+            claims.put("userId", userId);
+
+            token = keySet.sign(Jwts.builder()
+                            .claims(claims)
+                            .subject(email)
+                            .issuedAt(now)
+                            .expiration(expiryDate)
+                            .issuer(jwtIssuer)
+                            .id(tokenId))
+                    .compact();
+        }
+
+        log.info("成功產生 JWT token，使用者 ID: {}", userId);
         return token;
     }
 
     @Override
     public Claims validateToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            Claims claims = jwtKeyRing.current().getParser()
                     .parseSignedClaims(token)
                     .getPayload();
 
@@ -87,6 +107,23 @@ public class TokenServiceImpl implements TokenService {
         }
     }
 
+    @Override
+    public JwtPrincipal parsePrincipal(String token) {
+        FastHs256JwtCodec fastCodec = jwtKeyRing.current().getFastCodec();
+        if (fastCodec != null) {
+            try {
+                JwtPrincipal principal = fastCodec.decode(token, System.currentTimeMillis());
+                if (principal != null) {
+                    return principal;
+                }
+            } catch (SignatureException e) {
+                log.error("Token 簽章無效: {}", e.getMessage());
+                throw e;
+            }
+        }
+        return JwtPrincipal.from(validateToken(token));
+    }
+
     @Override
     public String extractEmail(String token) {
         Claims claims = validateToken(token);
@@ -98,9 +135,7 @@ public class TokenServiceImpl implements TokenService {
     @Override
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            Claims claims = jwtKeyRing.current().getParser()
                     .parseSignedClaims(token)
                     .getPayload();
 
@@ -121,9 +156,9 @@ public class TokenServiceImpl implements TokenService {
         }
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Override
+    public PublicJwkSet getPublicJwkSet() {
+        return jwtKeyRing.current().getPublicJwkSet();
     }
 
 }
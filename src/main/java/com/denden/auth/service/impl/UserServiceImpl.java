@@ -7,7 +7,6 @@ import com.denden.auth.exception.ErrorCode;
 import com.denden.auth.repository.UserRepository;
 import com.denden.auth.service.LoginHistoryService;
 import com.denden.auth.service.UserService;
-import com.denden.auth.util.MaskingUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -34,20 +33,16 @@ public class UserServiceImpl implements UserService {
      * 
      * <p>優先從 Redis ZSet 讀取最後登入時間，若 Redis 無資料則從資料庫讀取
      * 
-     * @param email 使用者 Email 地址
+     * @param userId 使用者 ID
      * @return UserInfo 使用者資訊 DTO
      * @throws BusinessException 當使用者不存在時拋出 USER_NOT_FOUND
      */
     @Override
     @Transactional(readOnly = true)
-    public UserInfo getCurrentUserInfo(String email) {
-        log.debug("取得使用者資訊，Email: {}", MaskingUtils.maskEmail(email));
+    public UserInfo getCurrentUserInfo(Long userId) {
+        log.debug("取得使用者資訊，User ID: {}", userId);
         
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    log.warn("找不到使用者，Email: {}", MaskingUtils.maskEmail(email));
-                    return new BusinessException(ErrorCode.USER_NOT_FOUND);
-                });
+        User user = findUser(userId);
         
         LocalDateTime lastLoginAt = loginHistoryService.getLastLoginTime(user.getId());
         
@@ -71,39 +66,47 @@ public class UserServiceImpl implements UserService {
     /**
      * 取得使用者最後登入時間
      * 
-     * <p>優先從 Redis ZSet 讀取，若 Redis 無資料則從資料庫讀取
+     * <p>優先從 Redis ZSet 讀取，命中時不需查詢資料庫；
+     * 若 Redis 無資料則從資料庫讀取，並同時確認使用者存在
      * 
-     * @param email 使用者 Email 地址
+     * @param userId 使用者 ID
      * @return LocalDateTime 最後登入時間，若從未登入則返回 null
      * @throws BusinessException 當使用者不存在時拋出 USER_NOT_FOUND
      */
     @Override
     @Transactional(readOnly = true)
-    public LocalDateTime getLastLoginTime(String email) {
-        log.debug("取得最後登入時間，Email: {}", MaskingUtils.maskEmail(email));
+    public LocalDateTime getLastLoginTime(Long userId) {
+        log.debug("取得最後登入時間，User ID: {}", userId);
         
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    log.warn("找不到使用者，Email: {}", MaskingUtils.maskEmail(email));
-                    return new BusinessException(ErrorCode.USER_NOT_FOUND);
-                });
-        
-        LocalDateTime lastLoginAt = loginHistoryService.getLastLoginTime(user.getId());
+        LocalDateTime lastLoginAt = loginHistoryService.getLastLoginTime(userId);
         
         if (lastLoginAt == null) {
-            lastLoginAt = user.getLastLoginAt();
-            log.debug("Redis 無登入記錄，使用資料庫值，User ID: {}", user.getId());
+            lastLoginAt = findUser(userId).getLastLoginAt();
+            log.debug("Redis 無登入記錄，使用資料庫值，User ID: {}", userId);
         } else {
-            log.debug("從 Redis ZSet 取得登入時間，User ID: {}", user.getId());
+            log.debug("從 Redis ZSet 取得登入時間，User ID: {}", userId);
         }
         
         if (lastLoginAt != null) {
             log.info("成功取得最後登入時間，使用者 ID {}: {}", 
-                    user.getId(), lastLoginAt);
+                    userId, lastLoginAt);
         } else {
-            log.info("使用者 ID {} 從未登入過", user.getId());
+            log.info("使用者 ID {} 從未登入過", userId);
         }
         
         return lastLoginAt;
     }
+
+    private User findUser(Long userId) {
+        if (userId == null) {
+            log.warn("JWT 主體未包含使用者 ID");
+            throw new BusinessException(ErrorCode.USER_NOT_FOUND);
+        }
+        
+        return userRepository.findById(userId)
+                .orElseThrow(() -> {
+                    log.warn("找不到使用者，User ID: {}", userId);
+                    return new BusinessException(ErrorCode.USER_NOT_FOUND);
+                });
+    }
 }
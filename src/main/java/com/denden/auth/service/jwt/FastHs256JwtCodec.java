@@ -0,0 +1,581 @@
+package com.denden.auth.service.jwt;
+
+import io.jsonwebtoken.security.SignatureException;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HS256 專用 JWT 編解碼器
+ *
+ * <p>只處理本服務固定的 claim 組合（userId、sub、iat、exp、iss、jti），產生的 Token 與 jjwt 逐位元組相同。
+ * 每個執行緒重用已初始化的 {@link Mac} 與暫存緩衝區，base64url 直接寫入預先計算大小的陣列，
+ * 略過 jjwt 通用 builder 與 Jackson Map 序列化的配置。</p>
+ *
+ * <p>不在固定格式內的輸入（需跳脫的字元、未知 kid 或演算法、額外 claim、已過期等）
+ * {@link #encode} 與 {@link #decode} 返回 null，由呼叫端退回 jjwt，
+ * 因此例外型別與錯誤訊息維持與 jjwt 一致；唯一例外是簽章不符時直接拋出 {@link SignatureException}。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public final class FastHs256JwtCodec {
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 32;
+    private static final int SIGNATURE_CHARS = 43;
+    private static final int MAX_LONG_CHARS = 20;
+
+    private static final byte[] BASE64_URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final int[] BASE64_URL_DECODE = new int[128];
+
+    private static final byte[] USER_ID_PREFIX = ascii("{\"userId\":");
+    private static final byte[] SUB_PREFIX = ascii(",\"sub\":\"");
+    private static final byte[] IAT_PREFIX = ascii("\",\"iat\":");
+    private static final byte[] EXP_PREFIX = ascii(",\"exp\":");
+    private static final byte[] JTI_PREFIX = ascii(",\"jti\":\"");
+    private static final byte[] JTI_SUFFIX = ascii("\"}");
+
+    private static final byte[] CLAIM_USER_ID = ascii("userId");
+    private static final byte[] CLAIM_SUB = ascii("sub");
+    private static final byte[] CLAIM_IAT = ascii("iat");
+    private static final byte[] CLAIM_EXP = ascii("exp");
+    private static final byte[] CLAIM_ISS = ascii("iss");
+    private static final byte[] CLAIM_JTI = ascii("jti");
+
+    /**
+     * exp 秒數上限，超過時換算毫秒會溢位，交由 jjwt 處理
+     */
+    private static final long MAX_EPOCH_SECONDS = Long.MAX_VALUE / 1000;
+
+    private static final String SIGNATURE_MISMATCH =
+            "JWT signature does not match locally computed signature. JWT validity cannot be asserted and should not be trusted.";
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    static {
+        Arrays.fill(BASE64_URL_DECODE, -1);
+        for (int i = 0; i < BASE64_URL.length; i++) {
+            BASE64_URL_DECODE[BASE64_URL[i]] = i;
+        }
+    }
+
+    private final byte[] signingHeader;
+    private final HmacKey signingKey;
+    private final List<HeaderBinding> headers;
+    private final String issuer;
+    private final byte[] issuerClaim;
+
+    /**
+     * @param primaryKeyId 主要金鑰 ID
+     * @param hmacKeys     kid 對應的 HMAC 金鑰（須包含主要金鑰）
+     * @param issuer       Token 簽發者，可為 null
+     * @throws IllegalArgumentException 當 kid 或 issuer 含有需 JSON 跳脫的字元時
+     */
+    FastHs256JwtCodec(String primaryKeyId, Map<String, SecretKey> hmacKeys, String issuer) {
+        SecretKey primaryKey = hmacKeys.get(primaryKeyId);
+        if (primaryKey == null) {
+            throw new IllegalArgumentException("HS256 快速編解碼器缺少主要金鑰: " + primaryKeyId);
+        }
+
+        List<HeaderBinding> bindings = new ArrayList<>();
+        HeaderBinding primary = null;
+        for (Map.Entry<String, SecretKey> entry : hmacKeys.entrySet()) {
+            requirePlainJson(entry.getKey(), "kid");
+            HeaderBinding binding = new HeaderBinding(
+                    encodeHeader("{\"kid\":\"" + entry.getKey() + "\",\"alg\":\"HS256\"}"),
+                    new HmacKey(entry.getValue()));
+            bindings.add(binding);
+            if (entry.getKey().equals(primaryKeyId)) {
+                primary = binding;
+            }
+        }
+        // 未帶 kid 的舊 Token 以主要金鑰驗證，與 JwtKeySet 的 KeyIdLocator 一致
+        bindings.add(new HeaderBinding(encodeHeader("{\"alg\":\"HS256\"}"), primary.key()));
+
+        this.signingKey = primary.key();
+        this.signingHeader = ascii(primary.encodedHeader());
+        this.headers = List.copyOf(bindings);
+        this.issuer = issuer;
+
+        if (issuer == null) {
+            this.issuerClaim = new byte[0];
+        } else {
+            requirePlainJson(issuer, "issuer");
+            this.issuerClaim = (",\"iss\":\"" + issuer + "\"").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 以主要金鑰產生 Token
+     *
+     * @param userId           使用者 ID
+     * @param subject          使用者 Email
+     * @param tokenId          Token ID（jti）
+     * @param issuedAtMillis   簽發時間（毫秒）
+     * @param expirationMillis 過期時間（毫秒）
+     * @return JWT 字串；輸入不在固定格式內時返回 null
+     */
+    public String encode(Long userId, String subject, String tokenId, long issuedAtMillis, long expirationMillis) {
+        if (userId == null || subject == null || tokenId == null) {
+            return null;
+        }
+
+        Scratch scratch = SCRATCH.get();
+        byte[] json = scratch.json(USER_ID_PREFIX.length + SUB_PREFIX.length + IAT_PREFIX.length + EXP_PREFIX.length
+                + issuerClaim.length + JTI_PREFIX.length + JTI_SUFFIX.length
+                + (subject.length() + tokenId.length()) * 3 + 3 * MAX_LONG_CHARS);
+
+        int p = put(json, 0, USER_ID_PREFIX);
+        p = putLong(json, p, userId);
+        p = put(json, p, SUB_PREFIX);
+        p = putPlainUtf8(json, p, subject);
+        if (p < 0) {
+            return null;
+        }
+        p = put(json, p, IAT_PREFIX);
+        p = putLong(json, p, issuedAtMillis / 1000);
+        p = put(json, p, EXP_PREFIX);
+        p = putLong(json, p, expirationMillis / 1000);
+        p = put(json, p, issuerClaim);
+        p = put(json, p, JTI_PREFIX);
+        p = putPlainUtf8(json, p, tokenId);
+        if (p < 0) {
+            return null;
+        }
+        p = put(json, p, JTI_SUFFIX);
+
+        int signedLength = signingHeader.length + 1 + encodedLength(p);
+        byte[] token = scratch.token(signedLength + 1 + SIGNATURE_CHARS);
+
+        int t = put(token, 0, signingHeader);
+        token[t++] = '.';
+        t = base64Url(json, p, token, t);
+
+        Mac mac = signingKey.mac();
+        mac.update(token, 0, signedLength);
+        doFinal(mac, scratch.signature);
+
+        token[t++] = '.';
+        t = base64Url(scratch.signature, SIGNATURE_BYTES, token, t);
+
+        return new String(token, 0, t, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 驗證並解析 Token
+     *
+     * @param token      JWT 字串
+     * @param nowMillis  目前時間（毫秒）
+     * @return 已驗證的主體；Token 不在固定格式內或已過期時返回 null，應交由 jjwt 處理
+     * @throws SignatureException 當 header 可辨識但簽章不符時
+     */
+    public JwtPrincipal decode(String token, long nowMillis) {
+        int first = token.indexOf('.');
+        if (first <= 0) {
+            return null;
+        }
+        int second = token.indexOf('.', first + 1);
+        if (second < 0 || token.length() - second - 1 != SIGNATURE_CHARS) {
+            return null;
+        }
+
+        HmacKey key = keyFor(token, first);
+        if (key == null) {
+            return null;
+        }
+
+        Scratch scratch = SCRATCH.get();
+        if (base64UrlDecode(token, second + 1, token.length(), scratch.signature) != SIGNATURE_BYTES) {
+            return null;
+        }
+
+        byte[] signed = scratch.token(second);
+        for (int i = 0; i < second; i++) {
+            char c = token.charAt(i);
+            if (c >= 128) {
+                return null;
+            }
+            signed[i] = (byte) c;
+        }
+
+        Mac mac = key.mac();
+        mac.update(signed, 0, second);
+        doFinal(mac, scratch.expected);
+        if (!MessageDigest.isEqual(scratch.expected, scratch.signature)) {
+            throw new SignatureException(SIGNATURE_MISMATCH);
+        }
+
+        byte[] json = scratch.json((second - first) / 4 * 3 + 3);
+        int length = base64UrlDecode(token, first + 1, second, json);
+        if (length < 0) {
+            return null;
+        }
+        return parsePayload(json, length, nowMillis);
+    }
+
+    private HmacKey keyFor(String token, int headerLength) {
+        for (HeaderBinding binding : headers) {
+            String header = binding.encodedHeader();
+            if (header.length() == headerLength && token.regionMatches(0, header, 0, headerLength)) {
+                return binding.key();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 解析固定格式的 payload，遇到任何非預期內容時返回 null
+     */
+    private JwtPrincipal parsePayload(byte[] json, int length, long nowMillis) {
+        PayloadReader reader = new PayloadReader(json, length);
+        if (!reader.consume('{')) {
+            return null;
+        }
+
+        Long userId = null;
+        String subject = null;
+        String tokenIssuer = null;
+        String tokenId = null;
+        long expiration = -1;
+
+        do {
+            int nameStart = reader.pos + 1;
+            int nameEnd = reader.skipString();
+            if (nameEnd < 0 || !reader.consume(':')) {
+                return null;
+            }
+
+            if (reader.equals(nameStart, nameEnd, CLAIM_USER_ID)) {
+                userId = reader.readLong();
+                if (userId == null) {
+                    return null;
+                }
+            } else if (reader.equals(nameStart, nameEnd, CLAIM_SUB)) {
+                subject = reader.readString(null);
+                if (subject == null) {
+                    return null;
+                }
+            } else if (reader.equals(nameStart, nameEnd, CLAIM_ISS)) {
+                tokenIssuer = reader.readString(issuer);
+                if (tokenIssuer == null) {
+                    return null;
+                }
+            } else if (reader.equals(nameStart, nameEnd, CLAIM_JTI)) {
+                tokenId = reader.readString(null);
+                if (tokenId == null) {
+                    return null;
+                }
+            } else if (reader.equals(nameStart, nameEnd, CLAIM_EXP)) {
+                Long value = reader.readLong();
+                if (value == null || value < 0 || value > MAX_EPOCH_SECONDS) {
+                    return null;
+                }
+                expiration = value;
+            } else if (reader.equals(nameStart, nameEnd, CLAIM_IAT)) {
+                if (reader.readLong() == null) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+        } while (reader.consume(','));
+
+        if (!reader.consume('}') || reader.pos != length) {
+            return null;
+        }
+
+        if (expiration >= 0 && nowMillis > expiration * 1000) {
+            return null;
+        }
+
+        return new JwtPrincipal(userId, subject,
+                expiration >= 0 ? Instant.ofEpochSecond(expiration) : null, tokenIssuer, tokenId);
+    }
+
+    private static String encodeHeader(String headerJson) {
+        byte[] bytes = ascii(headerJson);
+        byte[] encoded = new byte[encodedLength(bytes.length)];
+        base64Url(bytes, bytes.length, encoded, 0);
+        return new String(encoded, StandardCharsets.US_ASCII);
+    }
+
+    private static void requirePlainJson(String value, String name) {
+        if (putPlainUtf8(new byte[value.length() * 3], 0, value) < 0) {
+            throw new IllegalArgumentException("HS256 快速編解碼器不支援需 JSON 跳脫的 " + name + ": " + value);
+        }
+    }
+
+    private static void doFinal(Mac mac, byte[] output) {
+        try {
+            mac.doFinal(output, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException("HMAC 輸出緩衝區不足", e);
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static int put(byte[] dst, int p, byte[] src) {
+        System.arraycopy(src, 0, dst, p, src.length);
+        return p + src.length;
+    }
+
+    private static int putLong(byte[] dst, int p, long value) {
+        if (value == Long.MIN_VALUE) {
+            return put(dst, p, ascii(Long.toString(value)));
+        }
+        if (value < 0) {
+            dst[p++] = '-';
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        for (int i = p + digits - 1; i >= p; i--) {
+            dst[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return p + digits;
+    }
+
+    /**
+     * 以 UTF-8 寫入不需 JSON 跳脫的字串（與 Jackson 預設輸出相同）
+     *
+     * <p>Jackson 會把 BMP 以外的字元輸出為跳脫的 UTF-16 代理對，這類字串交由 jjwt 處理</p>
+     *
+     * @return 寫入後的位置；含引號、反斜線、控制字元或代理字元時返回 -1
+     */
+    private static int putPlainUtf8(byte[] dst, int p, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c < 0x20 || c == '"' || c == '\\') {
+                    return -1;
+                }
+                dst[p++] = (byte) c;
+            } else if (c < 0x800) {
+                dst[p++] = (byte) (0xC0 | (c >> 6));
+                dst[p++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                return -1;
+            } else {
+                dst[p++] = (byte) (0xE0 | (c >> 12));
+                dst[p++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                dst[p++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return p;
+    }
+
+    private static int encodedLength(int length) {
+        int remainder = length % 3;
+        return length / 3 * 4 + (remainder == 0 ? 0 : remainder + 1);
+    }
+
+    private static int base64Url(byte[] src, int length, byte[] dst, int p) {
+        int end = length - length % 3;
+        for (int i = 0; i < end; i += 3) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[p++] = BASE64_URL[bits >>> 18];
+            dst[p++] = BASE64_URL[(bits >>> 12) & 0x3F];
+            dst[p++] = BASE64_URL[(bits >>> 6) & 0x3F];
+            dst[p++] = BASE64_URL[bits & 0x3F];
+        }
+
+        int remainder = length - end;
+        if (remainder > 0) {
+            int bits = (src[end] & 0xFF) << 16 | (remainder == 2 ? (src[end + 1] & 0xFF) << 8 : 0);
+            dst[p++] = BASE64_URL[bits >>> 18];
+            dst[p++] = BASE64_URL[(bits >>> 12) & 0x3F];
+            if (remainder == 2) {
+                dst[p++] = BASE64_URL[(bits >>> 6) & 0x3F];
+            }
+        }
+        return p;
+    }
+
+    /**
+     * 嚴格的 base64url 解碼（不接受 padding 與非零的尾端位元）
+     *
+     * @return 解碼後的位元組數；格式不符時返回 -1
+     */
+    private static int base64UrlDecode(String src, int from, int to, byte[] dst) {
+        if ((to - from) % 4 == 1) {
+            return -1;
+        }
+
+        int p = 0;
+        int bits = 0;
+        int buffer = 0;
+        for (int i = from; i < to; i++) {
+            char c = src.charAt(i);
+            int value = c < 128 ? BASE64_URL_DECODE[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            buffer = buffer << 6 | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                dst[p++] = (byte) (buffer >>> bits);
+                buffer &= (1 << bits) - 1;
+            }
+        }
+        return buffer == 0 ? p : -1;
+    }
+
+    private record HeaderBinding(String encodedHeader, HmacKey key) {
+    }
+
+    /**
+     * 每個執行緒持有一個已以此金鑰初始化的 {@link Mac}
+     */
+    private static final class HmacKey {
+
+        private final ThreadLocal<Mac> mac;
+
+        private HmacKey(SecretKey key) {
+            this.mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac instance = Mac.getInstance(MAC_ALGORITHM);
+                    instance.init(key);
+                    return instance;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("無法初始化 " + MAC_ALGORITHM, e);
+                }
+            });
+        }
+
+        private Mac mac() {
+            return mac.get();
+        }
+    }
+
+    /**
+     * 每個執行緒重用的暫存緩衝區，只會成長不會縮小
+     */
+    private static final class Scratch {
+
+        private final byte[] signature = new byte[SIGNATURE_BYTES];
+        private final byte[] expected = new byte[SIGNATURE_BYTES];
+        private byte[] json = new byte[256];
+        private byte[] token = new byte[512];
+
+        private byte[] json(int capacity) {
+            if (json.length < capacity) {
+                json = new byte[Math.max(capacity, json.length * 2)];
+            }
+            return json;
+        }
+
+        private byte[] token(int capacity) {
+            if (token.length < capacity) {
+                token = new byte[Math.max(capacity, token.length * 2)];
+            }
+            return token;
+        }
+    }
+
+    /**
+     * 扁平 JSON 物件的游標，只接受無空白、無跳脫字元的字串與整數
+     */
+    private static final class PayloadReader {
+
+        private final byte[] json;
+        private final int limit;
+        private int pos;
+
+        private PayloadReader(byte[] json, int limit) {
+            this.json = json;
+            this.limit = limit;
+        }
+
+        private boolean consume(char expected) {
+            if (pos < limit && json[pos] == expected) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * 跳過一個字串值
+         *
+         * @return 結尾引號的位置；非字串或含跳脫字元時返回 -1
+         */
+        private int skipString() {
+            if (!consume('"')) {
+                return -1;
+            }
+            for (int i = pos; i < limit; i++) {
+                byte b = json[i];
+                if (b == '"') {
+                    pos = i + 1;
+                    return i;
+                }
+                if (b == '\\' || (b >= 0 && b < 0x20)) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        private String readString(String expected) {
+            int start = pos + 1;
+            int end = skipString();
+            if (end < 0) {
+                return null;
+            }
+            if (expected != null && expected.length() == end - start
+                    && equalsAscii(start, end, expected)) {
+                return expected;
+            }
+            return new String(json, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * 讀取整數，最多 18 位數以避免溢位
+         */
+        private Long readLong() {
+            boolean negative = consume('-');
+            int start = pos;
+            long value = 0;
+            while (pos < limit && json[pos] >= '0' && json[pos] <= '9') {
+                value = value * 10 + (json[pos++] - '0');
+            }
+            int digits = pos - start;
+            if (digits == 0 || digits > 18 || (digits > 1 && json[start] == '0')) {
+                return null;
+            }
+            return negative ? -value : value;
+        }
+
+        private boolean equals(int start, int end, byte[] name) {
+            return Arrays.equals(json, start, end, name, 0, name.length);
+        }
+
+        private boolean equalsAscii(int start, int end, String value) {
+            for (int i = start; i < end; i++) {
+                if (json[i] != value.charAt(i - start)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.denden.auth.service.jwt;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.PrivateKey;
+
+/**
+ * 支援的 JWT 簽章演算法
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public enum JwtAlgorithm {
+
+    /**
+     * HMAC-SHA256，共享密鑰
+     */
+    HS256("HS256", null),
+
+    /**
+     * ECDSA P-256，公鑰可經 JWKS 發布
+     */
+    ES256("ES256", "EC"),
+
+    /**
+     * Ed25519，公鑰可經 JWKS 發布
+     */
+    EdDSA("EdDSA", "Ed25519");
+
+    private final String jwaName;
+    private final String keyFactoryAlgorithm;
+
+    JwtAlgorithm(String jwaName, String keyFactoryAlgorithm) {
+        this.jwaName = jwaName;
+        this.keyFactoryAlgorithm = keyFactoryAlgorithm;
+    }
+
+    /**
+     * 依設定值取得演算法（不分大小寫）
+     *
+     * @param name 演算法名稱
+     * @return 對應的演算法
+     * @throws IllegalArgumentException 當演算法不支援時
+     */
+    public static JwtAlgorithm from(String name) {
+        for (JwtAlgorithm algorithm : values()) {
+            if (algorithm.jwaName.equalsIgnoreCase(name)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("不支援的 JWT 演算法: " + name);
+    }
+
+    /**
+     * JWA 標準名稱，即 Token header 的 alg
+     */
+    public String getJwaName() {
+        return jwaName;
+    }
+
+    /**
+     * 載入金鑰時使用的 KeyFactory 演算法，對稱演算法為 null
+     */
+    public String getKeyFactoryAlgorithm() {
+        return keyFactoryAlgorithm;
+    }
+
+    public boolean isAsymmetric() {
+        return keyFactoryAlgorithm != null;
+    }
+
+    /**
+     * 以此演算法簽章
+     *
+     * @param builder    JWT builder
+     * @param signingKey 簽章金鑰（HS256 為 SecretKey，其餘為 PrivateKey）
+     * @return 設定好簽章的 builder
+     */
+    JwtBuilder sign(JwtBuilder builder, Key signingKey) {
+        return switch (this) {
+            case HS256 -> builder.signWith((SecretKey) signingKey, Jwts.SIG.HS256);
+            case ES256 -> builder.signWith((PrivateKey) signingKey, Jwts.SIG.ES256);
+            case EdDSA -> builder.signWith((PrivateKey) signingKey, Jwts.SIG.EdDSA);
+        };
+    }
+}
@@ -0,0 +1,167 @@
+package com.denden.auth.service.jwt;
+
+import com.denden.auth.config.SecurityProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySource;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.boot.env.PropertySourceLoader;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * JWT 金鑰環
+ *
+ * <p>持有目前生效的 {@link JwtKeySet}，輪替時以原子操作整組替換，
+ * 進行中的請求仍使用替換前取得的快照，不需要加鎖。</p>
+ *
+ * <p>零停機輪替流程：
+ * <ol>
+ *   <li>將新金鑰加入所有節點的 verification-keys（此時仍以舊金鑰簽發）</li>
+ *   <li>將新金鑰設為主要金鑰，舊金鑰移至 verification-keys</li>
+ *   <li>等待 expiration-ms 後，移除舊金鑰</li>
+ * </ol>
+ *
+ * <p>設定 key-ring-file 時，金鑰設定由該檔案提供（例如掛載的 Kubernetes Secret），
+ * 每隔 key-ring-reload-interval-ms 檢查一次內容，變更後即輪替，不需重啟；
+ * 檔案內容無效時保留原金鑰組並記錄錯誤。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Slf4j
+@Component
+public class JwtKeyRing {
+
+    private static final String JWT_PREFIX = "app.security.jwt";
+
+    private final SecurityProperties securityProperties;
+    private final ConfigurableEnvironment environment;
+    private final AtomicReference<JwtKeySet> current = new AtomicReference<>();
+
+    /**
+     * 上次成功載入的金鑰環檔案內容，用於判斷檔案是否變更
+     */
+    private byte[] keyRingFileContent;
+
+    public JwtKeyRing(SecurityProperties securityProperties, ConfigurableEnvironment environment) {
+        this.securityProperties = securityProperties;
+        this.environment = environment;
+        reload();
+    }
+
+    /**
+     * 取得目前生效的金鑰組
+     *
+     * @return 金鑰組快照
+     */
+    public JwtKeySet current() {
+        return current.get();
+    }
+
+    /**
+     * 依目前的 {@link SecurityProperties} 與金鑰環檔案重新建立金鑰組
+     *
+     * @throws IllegalArgumentException 當金鑰設定或金鑰環檔案無效時，原金鑰組保持不變
+     * @throws UncheckedIOException     當金鑰環檔案無法讀取時
+     */
+    public synchronized void reload() {
+        String file = securityProperties.getJwt().getKeyRingFile();
+        if (!StringUtils.hasText(file)) {
+            rotate(securityProperties.getJwt());
+            return;
+        }
+
+        byte[] content = readKeyRingFile(Path.of(file));
+        rotate(bindKeyRingFile(file, content));
+        keyRingFileContent = content;
+    }
+
+    /**
+     * 金鑰環檔案內容變更時重新載入
+     *
+     * <p>只比對內容而非修改時間，Kubernetes 以 symlink 替換 Secret 時同樣可偵測。</p>
+     */
+    @Scheduled(fixedDelayString = "${app.security.jwt.key-ring-reload-interval-ms:60000}",
+            initialDelayString = "${app.security.jwt.key-ring-reload-interval-ms:60000}")
+    public synchronized void reloadIfChanged() {
+        String file = securityProperties.getJwt().getKeyRingFile();
+        if (!StringUtils.hasText(file)) {
+            return;
+        }
+
+        try {
+            byte[] content = readKeyRingFile(Path.of(file));
+            if (Arrays.equals(content, keyRingFileContent)) {
+                return;
+            }
+
+            rotate(bindKeyRingFile(file, content));
+            keyRingFileContent = content;
+        } catch (RuntimeException e) {
+            log.error("JWT 金鑰環檔案載入失敗，保留目前金鑰: {}，錯誤: {}", file, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 以新的設定建立金鑰組並原子替換
+     *
+     * @param jwt JWT 設定
+     * @throws IllegalArgumentException 當金鑰設定無效時，原金鑰組保持不變
+     */
+    public void rotate(SecurityProperties.Jwt jwt) {
+        JwtKeySet next = JwtKeySet.from(jwt);
+        JwtKeySet previous = current.getAndSet(next);
+
+        if (previous == null) {
+            log.info("JWT 金鑰環初始化完成，主要金鑰: {}, 可驗證金鑰: {}",
+                    next.getPrimaryKeyId(), next.getKeyIds());
+        } else {
+            log.info("JWT 金鑰已輪替，主要金鑰: {} -> {}, 可驗證金鑰: {}",
+                    previous.getPrimaryKeyId(), next.getPrimaryKeyId(), next.getKeyIds());
+        }
+    }
+
+    private SecurityProperties.Jwt bindKeyRingFile(String file, byte[] content) {
+        PropertySourceLoader loader = file.endsWith(".yml") || file.endsWith(".yaml")
+                ? new YamlPropertySourceLoader()
+                : new PropertiesPropertySourceLoader();
+
+        List<ConfigurationPropertySource> sources = new ArrayList<>();
+        try {
+            List<PropertySource<?>> fileSources = loader.load("jwtKeyRing", new ByteArrayResource(content, file));
+            ConfigurationPropertySources.from(fileSources).forEach(sources::add);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("無法解析 JWT 金鑰環檔案: " + file, e);
+        }
+        ConfigurationPropertySources.get(environment).forEach(sources::add);
+
+        Binder binder = new Binder(sources, new PropertySourcesPlaceholdersResolver(environment));
+        return binder.bind(JWT_PREFIX, SecurityProperties.Jwt.class)
+                .orElseThrow(() -> new IllegalArgumentException("JWT 金鑰環檔案未包含 " + JWT_PREFIX + " 設定: " + file));
+    }
+
+    private static byte[] readKeyRingFile(Path path) {
+        try {
+            return Files.readAllBytes(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("無法讀取 JWT 金鑰環檔案: " + path, e);
+        }
+    }
+}
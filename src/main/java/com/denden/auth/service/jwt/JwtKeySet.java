@@ -0,0 +1,267 @@
+package com.denden.auth.service.jwt;
+
+import com.denden.auth.config.SecurityProperties;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JWT 金鑰組快照
+ *
+ * <p>包含一把主要簽章金鑰與 N 把僅供驗證的金鑰，依 Token header 的 kid 選擇驗證金鑰。
+ * 建立後不可變，金鑰、{@link JwtParser} 與公開的 JWKS 只在建立時產生一次，可安全地跨執行緒共用。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Slf4j
+public final class JwtKeySet {
+
+    private final String primaryKeyId;
+    private final JwtAlgorithm algorithm;
+    private final Key signingKey;
+    private final Map<String, Key> verificationKeys;
+    private final JwtParser parser;
+    private final PublicJwkSet publicJwkSet;
+    private final FastHs256JwtCodec fastCodec;
+
+    private JwtKeySet(String primaryKeyId,
+                      JwtAlgorithm algorithm,
+                      Key signingKey,
+                      Map<String, Key> verificationKeys,
+                      List<PublicJwk<?>> publicJwks,
+                      FastHs256JwtCodec fastCodec) {
+        this.primaryKeyId = primaryKeyId;
+        this.algorithm = algorithm;
+        this.signingKey = signingKey;
+        this.verificationKeys = Collections.unmodifiableMap(verificationKeys);
+        this.parser = Jwts.parser()
+                .keyLocator(new KeyIdLocator())
+                .build();
+        this.publicJwkSet = toPublicJwkSet(publicJwks);
+        this.fastCodec = fastCodec;
+    }
+
+    /**
+     * 根據設定建立金鑰組
+     *
+     * @param jwt JWT 設定
+     * @return 金鑰組快照
+     * @throws IllegalArgumentException 當金鑰設定不完整、無法解析或 kid 重複時
+     * @throws io.jsonwebtoken.security.WeakKeyException 當 HMAC 金鑰長度不足 256 位元時
+     */
+    public static JwtKeySet from(SecurityProperties.Jwt jwt) {
+        if (!StringUtils.hasText(jwt.getKeyId())) {
+            throw new IllegalArgumentException("JWT 主要金鑰 ID 不可為空");
+        }
+
+        JwtAlgorithm algorithm = JwtAlgorithm.from(jwt.getAlgorithm());
+        Map<String, Key> keys = new LinkedHashMap<>();
+        List<PublicJwk<?>> publicJwks = new ArrayList<>();
+        Key signingKey;
+
+        if (algorithm.isAsymmetric()) {
+            KeyPair keyPair = loadKeyPair(jwt, algorithm);
+            signingKey = keyPair.getPrivate();
+            keys.put(jwt.getKeyId(), keyPair.getPublic());
+            publicJwks.add(toJwk(jwt.getKeyId(), algorithm, keyPair.getPublic()));
+        } else {
+            if (!StringUtils.hasText(jwt.getSecret())) {
+                throw new IllegalArgumentException("JWT 主要金鑰不可為空");
+            }
+            signingKey = Keys.hmacShaKeyFor(jwt.getSecret().getBytes(StandardCharsets.UTF_8));
+            keys.put(jwt.getKeyId(), signingKey);
+        }
+
+        for (SecurityProperties.VerificationKey verificationKey : jwt.getVerificationKeys()) {
+            String keyId = verificationKey.getKeyId();
+            if (!StringUtils.hasText(keyId)) {
+                throw new IllegalArgumentException("JWT 驗證金鑰的 key-id 不可為空");
+            }
+            if (keys.containsKey(keyId)) {
+                throw new IllegalArgumentException("JWT 金鑰 ID 重複: " + keyId);
+            }
+
+            if (StringUtils.hasText(verificationKey.getPublicKey())) {
+                JwtAlgorithm keyAlgorithm = StringUtils.hasText(verificationKey.getAlgorithm())
+                        ? JwtAlgorithm.from(verificationKey.getAlgorithm())
+                        : algorithm;
+                if (!keyAlgorithm.isAsymmetric()) {
+                    throw new IllegalArgumentException("JWT 驗證金鑰 " + keyId + " 的公鑰需搭配非對稱演算法");
+                }
+                PublicKey publicKey = PemKeys.publicKey(verificationKey.getPublicKey(), keyAlgorithm);
+                keys.put(keyId, publicKey);
+                publicJwks.add(toJwk(keyId, keyAlgorithm, publicKey));
+            } else if (StringUtils.hasText(verificationKey.getSecret())) {
+                keys.put(keyId, Keys.hmacShaKeyFor(verificationKey.getSecret().getBytes(StandardCharsets.UTF_8)));
+            } else {
+                throw new IllegalArgumentException("JWT 驗證金鑰 " + keyId + " 需設定 secret 或 public-key");
+            }
+        }
+
+        return new JwtKeySet(jwt.getKeyId(), algorithm, signingKey, keys, publicJwks,
+                createFastCodec(jwt, algorithm, keys));
+    }
+
+    private static FastHs256JwtCodec createFastCodec(SecurityProperties.Jwt jwt,
+                                                     JwtAlgorithm algorithm,
+                                                     Map<String, Key> keys) {
+        String codec = jwt.getCodec();
+        if (!StringUtils.hasText(codec) || "jjwt".equalsIgnoreCase(codec)) {
+            return null;
+        }
+        if (!"fast".equalsIgnoreCase(codec)) {
+            throw new IllegalArgumentException("不支援的 JWT codec: " + codec + "（可用值: jjwt, fast）");
+        }
+        if (algorithm != JwtAlgorithm.HS256) {
+            log.warn("JWT codec=fast 僅支援 HS256，目前演算法為 {}，改用 jjwt", algorithm.getJwaName());
+            return null;
+        }
+
+        Map<String, SecretKey> hmacKeys = new LinkedHashMap<>();
+        keys.forEach((keyId, key) -> {
+            if (key instanceof SecretKey secretKey) {
+                hmacKeys.put(keyId, secretKey);
+            }
+        });
+
+        log.info("JWT 使用 HS256 快速編解碼器，HMAC 金鑰: {}", hmacKeys.keySet());
+        return new FastHs256JwtCodec(jwt.getKeyId(), hmacKeys, jwt.getIssuer());
+    }
+
+    private static KeyPair loadKeyPair(SecurityProperties.Jwt jwt, JwtAlgorithm algorithm) {
+        boolean hasPrivateKey = StringUtils.hasText(jwt.getPrivateKey());
+        boolean hasPublicKey = StringUtils.hasText(jwt.getPublicKey());
+
+        if (hasPrivateKey && hasPublicKey) {
+            return new KeyPair(
+                    PemKeys.publicKey(jwt.getPublicKey(), algorithm),
+                    PemKeys.privateKey(jwt.getPrivateKey(), algorithm));
+        }
+        if (hasPrivateKey || hasPublicKey) {
+            throw new IllegalArgumentException("JWT " + algorithm.getJwaName() + " 需同時設定 private-key 與 public-key");
+        }
+
+        log.warn("未設定 JWT {} 金鑰對，使用暫時性金鑰（僅適用單節點開發環境，重啟後既有 Token 全部失效）",
+                algorithm.getJwaName());
+        return PemKeys.generate(algorithm);
+    }
+
+    private static PublicJwk<?> toJwk(String keyId, JwtAlgorithm algorithm, PublicKey publicKey) {
+        return Jwks.builder()
+                .key(publicKey)
+                .id(keyId)
+                .algorithm(algorithm.getJwaName())
+                .publicKeyUse("sig")
+                .build();
+    }
+
+    private static PublicJwkSet toPublicJwkSet(List<PublicJwk<?>> publicJwks) {
+        StringBuilder json = new StringBuilder("{\"keys\":[");
+        for (int i = 0; i < publicJwks.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(Jwks.json(publicJwks.get(i)));
+        }
+        json.append("]}");
+
+        String content = json.toString();
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            String etag = "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + "\"";
+            return new PublicJwkSet(content, etag);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM 不支援 SHA-256", e);
+        }
+    }
+
+    public String getPrimaryKeyId() {
+        return primaryKeyId;
+    }
+
+    public JwtAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public Key getSigningKey() {
+        return signingKey;
+    }
+
+    public JwtParser getParser() {
+        return parser;
+    }
+
+    public Set<String> getKeyIds() {
+        return verificationKeys.keySet();
+    }
+
+    /**
+     * HS256 快速編解碼器
+     *
+     * @return 編解碼器；未啟用（codec=jjwt）或演算法非 HS256 時返回 null
+     */
+    public FastHs256JwtCodec getFastCodec() {
+        return fastCodec;
+    }
+
+    /**
+     * 可公開發布的 JWKS（僅含非對稱公鑰，HMAC 密鑰不會出現）
+     */
+    public PublicJwkSet getPublicJwkSet() {
+        return publicJwkSet;
+    }
+
+    /**
+     * 以主要金鑰簽章，並於 header 寫入 kid
+     *
+     * @param builder 已設定 claims 的 JWT builder
+     * @return 已設定簽章的 builder
+     */
+    public JwtBuilder sign(JwtBuilder builder) {
+        return algorithm.sign(builder.header().keyId(primaryKeyId).and(), signingKey);
+    }
+
+    /**
+     * 依 kid 選擇驗證金鑰；未帶 kid 的舊 Token 使用主要金鑰驗證
+     */
+    private final class KeyIdLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String keyId = header.getKeyId();
+            if (keyId == null) {
+                return verificationKeys.get(primaryKeyId);
+            }
+
+            Key key = verificationKeys.get(keyId);
+            if (key == null) {
+                throw new UnsupportedJwtException("未知的 JWT 金鑰 ID: " + keyId);
+            }
+            return key;
+        }
+    }
+}
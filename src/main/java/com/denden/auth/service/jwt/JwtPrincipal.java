@@ -0,0 +1,56 @@
+package com.denden.auth.service.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.io.Serializable;
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * 已驗證的 JWT 主體
+ *
+ * <p>每個請求只解析一次 Token，結果作為 {@code Authentication} 的 principal，
+ * 控制器與服務可直接取用 userId，不需再解析 Token 或以 Email 查詢使用者。</p>
+ *
+ * @param userId    使用者 ID
+ * @param email     使用者 Email（Token subject）
+ * @param expiresAt Token 過期時間
+ * @param issuer    Token 簽發者
+ * @param tokenId   Token ID（jti），用於撤銷；舊 Token 可能為 null
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public record JwtPrincipal(
+        Long userId,
+        String email,
+        Instant expiresAt,
+        String issuer,
+        String tokenId
+) implements Principal, Serializable {
+
+    /**
+     * 由已驗證的 Claims 建立主體
+     *
+     * @param claims 已通過簽章驗證的 Claims
+     * @return JWT 主體
+     */
+    public static JwtPrincipal from(Claims claims) {
+        Object userId = claims.get("userId");
+        return new JwtPrincipal(
+                userId instanceof Number number ? number.longValue() : null,
+                claims.getSubject(),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                claims.getIssuer(),
+                claims.getId()
+        );
+    }
+
+    /**
+     * 以 Email 作為主體名稱，與 {@code Authentication#getName()} 一致
+     */
+    @Override
+    public String getName() {
+        return email;
+    }
+}
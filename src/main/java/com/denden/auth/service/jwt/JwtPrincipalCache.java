@@ -0,0 +1,265 @@
+package com.denden.auth.service.jwt;
+
+import com.denden.auth.config.SecurityProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 已驗證 JWT 主體快取
+ *
+ * <p>以 Token 的 SHA-256 摘要為鍵，保存已通過簽章驗證並解析完成的 {@link JwtPrincipal}，
+ * 同一個 Token 重複請求時可略過簽章驗證與 JSON 解析。快取不保存 Token 本身，
+ * 撤銷檢查由呼叫端在取得主體後另外進行。</p>
+ *
+ * <ul>
+ *   <li>依摘要分段，每段為獨立加鎖的 LRU，避免全域鎖競爭</li>
+ *   <li>同時受筆數與估算記憶體上限約束；每筆的估算值為固定開銷加上主體各字串欄位
+ *       （email、issuer、jti）的 UTF-16 大小，較長的 claim 會佔用較多額度</li>
+ *   <li>Token 的 exp 到期即失效；金鑰環輪替後舊項目一律視為未命中</li>
+ * </ul>
+ *
+ * <p>設定沿用 {@code app.security.jwt.claims-cache}，指標名稱沿用 {@code jwt.claims.cache.*}。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Slf4j
+@Component
+public class JwtPrincipalCache {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    /**
+     * 每筆項目的固定開銷估算（摘要鍵、Entry、LinkedHashMap 節點、JwtPrincipal 與其 Long / Instant 欄位、
+     * 三個 String 物件標頭），字串內容另依長度計算
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 320;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM 不支援 SHA-256", e);
+        }
+    });
+
+    private final JwtKeyRing jwtKeyRing;
+    private final boolean enabled;
+    private final int maxEntriesPerSegment;
+    private final long maxBytesPerSegment;
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    public JwtPrincipalCache(JwtKeyRing jwtKeyRing,
+                               SecurityProperties securityProperties,
+                               MeterRegistry meterRegistry) {
+        SecurityProperties.ClaimsCache config = securityProperties.getJwt().getClaimsCache();
+
+        this.jwtKeyRing = jwtKeyRing;
+        this.enabled = config.isEnabled();
+        this.maxEntriesPerSegment = Math.max(1, config.getMaxEntries() / SEGMENT_COUNT);
+        this.maxBytesPerSegment = Math.max(ENTRY_OVERHEAD_BYTES, config.getMaxMemoryBytes() / SEGMENT_COUNT);
+
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+
+        this.hits = Counter.builder("jwt.claims.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("jwt.claims.cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("jwt.claims.cache.evictions")
+                .tag("cause", "size")
+                .register(meterRegistry);
+        this.expiredEvictions = Counter.builder("jwt.claims.cache.evictions")
+                .tag("cause", "expired")
+                .register(meterRegistry);
+        Gauge.builder("jwt.claims.cache.size", this, JwtPrincipalCache::size)
+                .register(meterRegistry);
+        Gauge.builder("jwt.claims.cache.memory.bytes", this, JwtPrincipalCache::estimatedBytes)
+                .register(meterRegistry);
+
+        log.info("JWT 主體快取初始化完成，啟用: {}, 上限: {} 筆 / {} bytes",
+                enabled, config.getMaxEntries(), config.getMaxMemoryBytes());
+    }
+
+    /**
+     * 取得已驗證的 JWT 主體
+     *
+     * @param token JWT Token 字串
+     * @return 快取中的主體，未命中或已過期時返回 null
+     */
+    public JwtPrincipal get(String token) {
+        if (!enabled) {
+            return null;
+        }
+
+        TokenDigest key = digest(token);
+        Segment segment = segmentFor(key);
+        JwtKeySet keySet = jwtKeyRing.current();
+        long now = System.currentTimeMillis();
+
+        synchronized (segment) {
+            Entry entry = segment.map.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+
+            if (entry.expiresAtMillis <= now || entry.keySet != keySet) {
+                segment.remove(key, entry);
+                expiredEvictions.increment();
+                misses.increment();
+                return null;
+            }
+
+            hits.increment();
+            return entry.principal;
+        }
+    }
+
+    /**
+     * 快取已通過驗證的 JWT 主體
+     *
+     * @param token     JWT Token 字串
+     * @param principal 驗證後的主體，未含過期時間時不快取
+     */
+    public void put(String token, JwtPrincipal principal) {
+        if (!enabled) {
+            return;
+        }
+
+        Instant expiration = principal.expiresAt();
+        if (expiration == null) {
+            return;
+        }
+
+        TokenDigest key = digest(token);
+        Segment segment = segmentFor(key);
+        Entry entry = new Entry(principal, expiration.toEpochMilli(), jwtKeyRing.current(), weigh(principal));
+
+        synchronized (segment) {
+            Entry previous = segment.map.put(key, entry);
+            if (previous != null) {
+                segment.bytes -= previous.estimatedBytes;
+            }
+            segment.bytes += entry.estimatedBytes;
+            evictIfNecessary(segment);
+        }
+    }
+
+    /**
+     * 清空快取
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.map.clear();
+                segment.bytes = 0;
+            }
+        }
+    }
+
+    /**
+     * 目前快取筆數
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 目前估算佔用的記憶體（bytes）
+     */
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                bytes += segment.bytes;
+            }
+        }
+        return bytes;
+    }
+
+    private void evictIfNecessary(Segment segment) {
+        Iterator<Map.Entry<TokenDigest, Entry>> iterator = segment.map.entrySet().iterator();
+        while ((segment.map.size() > maxEntriesPerSegment || segment.bytes > maxBytesPerSegment)
+                && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            segment.bytes -= eldest.estimatedBytes;
+            sizeEvictions.increment();
+        }
+    }
+
+    /**
+     * 估算單筆項目佔用的記憶體
+     *
+     * @param principal 快取的主體
+     * @return 估算的 bytes
+     */
+    static long weigh(JwtPrincipal principal) {
+        return ENTRY_OVERHEAD_BYTES
+                + stringBytes(principal.email())
+                + stringBytes(principal.issuer())
+                + stringBytes(principal.tokenId());
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 2L * value.length();
+    }
+
+    private Segment segmentFor(TokenDigest key) {
+        return segments[(int) (key.h0 >>> 60) & (SEGMENT_COUNT - 1)];
+    }
+
+    private static TokenDigest digest(String token) {
+        MessageDigest messageDigest = SHA_256.get();
+        ByteBuffer hash = ByteBuffer.wrap(messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    /**
+     * Token 的 SHA-256 摘要，以四個 long 保存避免額外的陣列配置
+     */
+    private record TokenDigest(long h0, long h1, long h2, long h3) {
+    }
+
+    private record Entry(JwtPrincipal principal, long expiresAtMillis, JwtKeySet keySet, long estimatedBytes) {
+    }
+
+    private static final class Segment {
+
+        private final LinkedHashMap<TokenDigest, Entry> map = new LinkedHashMap<>(64, 0.75f, true);
+        private long bytes;
+
+        private void remove(TokenDigest key, Entry entry) {
+            if (map.remove(key, entry)) {
+                bytes -= entry.estimatedBytes;
+            }
+        }
+    }
+}
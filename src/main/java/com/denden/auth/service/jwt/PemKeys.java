@@ -0,0 +1,81 @@
+package com.denden.auth.service.jwt;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * PEM 金鑰載入工具
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+final class PemKeys {
+
+    private PemKeys() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * 載入 PKCS#8 PEM 私鑰
+     *
+     * @param pem       PEM 字串（可不含 BEGIN/END 標頭）
+     * @param algorithm 簽章演算法
+     * @return 私鑰
+     */
+    static PrivateKey privateKey(String pem, JwtAlgorithm algorithm) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(algorithm.getKeyFactoryAlgorithm());
+            return keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decode(pem)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("無法載入 " + algorithm.getJwaName() + " 私鑰", e);
+        }
+    }
+
+    /**
+     * 載入 X.509 PEM 公鑰
+     *
+     * @param pem       PEM 字串（可不含 BEGIN/END 標頭）
+     * @param algorithm 簽章演算法
+     * @return 公鑰
+     */
+    static PublicKey publicKey(String pem, JwtAlgorithm algorithm) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(algorithm.getKeyFactoryAlgorithm());
+            return keyFactory.generatePublic(new X509EncodedKeySpec(decode(pem)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("無法載入 " + algorithm.getJwaName() + " 公鑰", e);
+        }
+    }
+
+    /**
+     * 產生暫時性金鑰對（僅適用於單節點開發環境，重啟後失效）
+     *
+     * @param algorithm 簽章演算法
+     * @return 金鑰對
+     */
+    static KeyPair generate(JwtAlgorithm algorithm) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm.getKeyFactoryAlgorithm());
+            if (algorithm == JwtAlgorithm.ES256) {
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            }
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("無法產生 " + algorithm.getJwaName() + " 金鑰對", e);
+        }
+    }
+
+    private static byte[] decode(String pem) {
+        String base64 = pem.replaceAll("-----(BEGIN|END)[A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
@@ -0,0 +1,13 @@
+package com.denden.auth.service.jwt;
+
+/**
+ * 已序列化的公開 JWK Set
+ *
+ * @param json JWKS JSON 內容
+ * @param etag 依內容計算的強 ETag（含雙引號）
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public record PublicJwkSet(String json, String etag) {
+}
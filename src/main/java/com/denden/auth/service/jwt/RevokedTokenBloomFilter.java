@@ -0,0 +1,101 @@
+package com.denden.auth.service.jwt;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 已撤銷 Token（jti）的 Bloom filter
+ *
+ * <p>位元陣列以 {@link AtomicLongArray} 保存，可無鎖並行寫入與查詢。
+ * 只會有偽陽性、不會有偽陰性：{@link #mightContain} 返回 false 時 jti 一定未被撤銷，
+ * 返回 true 時需再向 Redis 確認。</p>
+ *
+ * <p>Bloom filter 無法刪除元素，過期的 jti 由定期重建清除。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public final class RevokedTokenBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions 預期元素數量
+     * @param falsePositiveRate  目標偽陽性率（0 &lt; rate &lt; 1）
+     */
+    public RevokedTokenBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions 必須大於 0");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate 必須介於 0 與 1 之間");
+        }
+
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int words = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (optimalBits + 63) / 64));
+
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * LN2));
+    }
+
+    public void put(String tokenId) {
+        long hash1 = hash(tokenId, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(tokenId, 0xC2B2AE3D27D4EB4FL) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String tokenId) {
+        long hash1 = hash(tokenId, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(tokenId, 0xC2B2AE3D27D4EB4FL) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 位元陣列大小（bytes）
+     */
+    public long sizeInBytes() {
+        return bitCount / 8;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * 64 位元字串雜湊（FNV-1a 逐字元累積，再以 SplitMix64 終結器擴散）
+     */
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 30;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 27;
+        h *= 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return h;
+    }
+}
@@ -0,0 +1,198 @@
+package com.denden.auth.service.lockout;
+
+import com.denden.auth.config.OtpSessionStoreConfig;
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 帳號鎖定狀態與登入失敗計數
+ *
+ * <p>每個 email 的失敗次數以 Redis hash 的時間桶保存，記錄失敗、加總視窗內的桶與寫入鎖定
+ * 在同一個 Lua 腳本中完成，每次失敗只需一次 Redis 往返，且成本與 login_attempts 資料量無關。
+ * login_attempts 只作為稽核紀錄，僅在 Redis 無法使用時才用於鎖定判斷。</p>
+ *
+ * <p>鎖定狀態通常不另外查詢：記錄失敗與發送 OTP 的腳本各自在同一次往返中檢查鎖定。
+ * 相關 key 皆以 email 作為 hash tag，在 Redis Cluster 中位於同一個 slot。</p>
+ *
+ * <p>1.1.0 之前的鎖定 key 沒有 hash tag（account_lock:&lt;email&gt;）。啟動後的一段時間內
+ * （{@code app.security.account-lock.legacy-key-fallback-minutes}），新格式 key 不存在時會再檢查同一個 email
+ * 的舊格式 key，存在則改寫為新格式並保留剩餘鎖定時間，部署時已鎖定的帳號不會因此解鎖。
+ * 只存取該 email 的 key，不掃描 keyspace，在 Redis Cluster 中同樣適用；期限過後不再有額外往返。</p>
+ *
+ * <p>OTP 會話儲存為 memory（單節點、邊緣部署）時，鎖定狀態與失敗計數改存在本節點記憶體
+ * （{@link InMemoryAccountLockout}），不存取 Redis。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Slf4j
+@Component
+public class AccountLockoutService {
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RECORD_FAILURE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/login_failure_record.lua"), List.class);
+
+    private static final String LOCK_KEY_PREFIX = "account_lock:";
+    private static final String FAILURES_KEY_PREFIX = "login_failures:";
+    private static final String LOCKED = "locked";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final SecurityProperties securityProperties;
+    private final InMemoryAccountLockout localLockout;
+    private final long startedAtMillis = System.currentTimeMillis();
+
+    public AccountLockoutService(StringRedisTemplate redisTemplate, RedisCircuitBreaker redisCircuitBreaker,
+                                 SecurityProperties securityProperties) {
+        this.redisTemplate = redisTemplate;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.securityProperties = securityProperties;
+        this.localLockout = OtpSessionStoreConfig.STORE_MEMORY.equals(securityProperties.getOtp().getStore())
+                ? new InMemoryAccountLockout() : null;
+    }
+
+    /**
+     * 帳號是否鎖定中（OTP 儲存無法在同一次往返中檢查鎖定時使用）
+     *
+     * @throws org.springframework.dao.DataAccessException 當 Redis 操作失敗時
+     */
+    public boolean isLocked(String email) {
+        if (localLockout != null) {
+            return localLockout.isLocked(email, System.currentTimeMillis());
+        }
+        if (Boolean.TRUE.equals(redisCircuitBreaker.execute(() -> redisTemplate.hasKey(lockKey(email))))) {
+            return true;
+        }
+        return legacyFallbackActive() && migrateLegacyLock(email);
+    }
+
+    /**
+     * 記錄一次登入失敗，視窗內失敗次數達上限時鎖定帳號；帳號已鎖定時不計數
+     *
+     * @param email 登入 email
+     * @return 失敗次數與鎖定狀態
+     * @throws org.springframework.dao.DataAccessException 當 Redis 操作失敗時
+     */
+    public LoginFailureOutcome recordFailure(String email) {
+        SecurityProperties.AccountLock config = securityProperties.getAccountLock();
+        if (localLockout != null) {
+            return localLockout.recordFailure(email, System.currentTimeMillis(),
+                    TimeUnit.SECONDS.toMillis(config.getBucketSeconds()),
+                    TimeUnit.MINUTES.toMillis(config.getFailureWindowMinutes()),
+                    config.getMaxFailedAttempts(),
+                    TimeUnit.MINUTES.toMillis(config.getLockDurationMinutes()));
+        }
+        if (legacyFallbackActive()) {
+            migrateLegacyLock(email);
+        }
+        List<?> result = redisCircuitBreaker.execute(() -> redisTemplate.execute(RECORD_FAILURE_SCRIPT,
+                List.of(failuresKey(email), lockKey(email)),
+                Long.toString(TimeUnit.SECONDS.toMillis(config.getBucketSeconds())),
+                Long.toString(TimeUnit.MINUTES.toMillis(config.getFailureWindowMinutes())),
+                Integer.toString(config.getMaxFailedAttempts()),
+                Long.toString(TimeUnit.MINUTES.toMillis(config.getLockDurationMinutes()))));
+
+        if (result == null || result.size() < 2) {
+            throw new IllegalStateException("登入失敗計數腳本返回格式錯誤: " + result);
+        }
+        long locked = toLong(result.get(1));
+        return new LoginFailureOutcome(toLong(result.get(0)), locked == 1, locked == 2);
+    }
+
+    /**
+     * 直接鎖定帳號（Redis 計數無法使用、改以資料庫判斷達上限時）
+     *
+     * @throws org.springframework.dao.DataAccessException 當 Redis 操作失敗時
+     */
+    public void lock(String email, int durationMinutes) {
+        if (localLockout != null) {
+            localLockout.lock(email, System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(durationMinutes));
+            return;
+        }
+        redisCircuitBreaker.run(
+                () -> redisTemplate.opsForValue().set(lockKey(email), LOCKED, durationMinutes, TimeUnit.MINUTES));
+    }
+
+    /**
+     * 回收本節點記憶體中鎖定已過期且沒有視窗內計數的項目（只在 memory 模式下有作用）
+     */
+    @Scheduled(fixedDelayString = "${app.security.account-lock.local-cleanup-interval-ms:60000}")
+    public void evictExpiredLocalEntries() {
+        if (localLockout == null) {
+            return;
+        }
+        SecurityProperties.AccountLock config = securityProperties.getAccountLock();
+        long now = System.currentTimeMillis();
+        long bucketMillis = TimeUnit.SECONDS.toMillis(config.getBucketSeconds());
+        long windowMillis = TimeUnit.MINUTES.toMillis(config.getFailureWindowMinutes());
+        long oldestBucket = now / bucketMillis - (windowMillis + bucketMillis - 1) / bucketMillis + 1;
+        int evicted = localLockout.evictExpired(now, oldestBucket);
+        if (evicted > 0) {
+            log.debug("清除本地帳號鎖定狀態: {}，剩餘: {}", evicted, localLockout.size());
+        }
+    }
+
+    /**
+     * 舊格式 key 的檢查期限內：所有節點升級前，舊版節點仍可能寫入舊格式
+     */
+    private boolean legacyFallbackActive() {
+        long fallbackMinutes = securityProperties.getAccountLock().getLegacyKeyFallbackMinutes();
+        return fallbackMinutes > 0
+                && System.currentTimeMillis() - startedAtMillis < TimeUnit.MINUTES.toMillis(fallbackMinutes);
+    }
+
+    /**
+     * 將該 email 舊格式的鎖定 key 改寫為 {@link #lockKey(String)}，保留剩餘鎖定時間
+     *
+     * <p>新舊 key 不在同一個 slot，無法以單一腳本搬移：先以 SET NX 寫入新 key 再刪除舊 key，
+     * 多個節點同時執行時結果相同。</p>
+     *
+     * @return 舊格式 key 存在並已改寫時為 true
+     */
+    private boolean migrateLegacyLock(String email) {
+        String legacyKey = LOCK_KEY_PREFIX + email;
+        boolean migrated = Boolean.TRUE.equals(redisCircuitBreaker.execute(() -> {
+            Long ttlMillis = redisTemplate.getExpire(legacyKey, TimeUnit.MILLISECONDS);
+            if (ttlMillis == null || ttlMillis == -2 || ttlMillis == 0) {
+                return false;
+            }
+            if (ttlMillis > 0) {
+                redisTemplate.opsForValue().setIfAbsent(lockKey(email), LOCKED, Duration.ofMillis(ttlMillis));
+            } else {
+                redisTemplate.opsForValue().setIfAbsent(lockKey(email), LOCKED);
+            }
+            redisTemplate.delete(legacyKey);
+            return true;
+        }));
+        if (migrated) {
+            log.info("已將舊格式的帳號鎖定 key 改寫為新格式: {}", legacyKey);
+        }
+        return migrated;
+    }
+
+    /**
+     * 帳號鎖定 key
+     */
+    public static String lockKey(String email) {
+        return LOCK_KEY_PREFIX + "{" + email + "}";
+    }
+
+    private static String failuresKey(String email) {
+        return FAILURES_KEY_PREFIX + "{" + email + "}";
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+    }
+}
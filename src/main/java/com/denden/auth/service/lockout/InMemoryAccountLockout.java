@@ -0,0 +1,96 @@
+package com.denden.auth.service.lockout;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 本節點記憶體中的帳號鎖定狀態與登入失敗計數（OTP 會話儲存為 memory 時使用）
+ *
+ * <p>與 login_failure_record.lua 相同的時間桶滑動視窗：帳號已鎖定時不計數，達上限時鎖定並清除計數。
+ * 同一個 email 的計數與鎖定在 {@link ConcurrentHashMap#compute} 中完成，與腳本同樣是原子的。
+ * 鎖定已過期且計數已移出視窗的項目由 {@link #evictExpired} 回收。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+final class InMemoryAccountLockout {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    boolean isLocked(String email, long now) {
+        Entry entry = entries.get(email);
+        return entry != null && entry.lockedUntil > now;
+    }
+
+    LoginFailureOutcome recordFailure(String email, long now, long bucketMillis, long windowMillis,
+                                      int maxFailures, long lockMillis) {
+        LoginFailureOutcome[] outcome = new LoginFailureOutcome[1];
+        entries.compute(email, (key, entry) -> {
+            Entry current = entry != null ? entry : new Entry();
+            if (current.lockedUntil > now) {
+                outcome[0] = new LoginFailureOutcome(0, false, true);
+                return current;
+            }
+
+            long bucket = now / bucketMillis;
+            long oldest = bucket - (windowMillis + bucketMillis - 1) / bucketMillis + 1;
+            current.buckets.merge(bucket, 1, Integer::sum);
+            current.buckets.keySet().removeIf(b -> b < oldest);
+            long failures = current.buckets.values().stream().mapToLong(Integer::longValue).sum();
+
+            if (failures >= maxFailures) {
+                current.lockedUntil = now + lockMillis;
+                current.buckets.clear();
+                outcome[0] = new LoginFailureOutcome(failures, true, false);
+            } else {
+                outcome[0] = new LoginFailureOutcome(failures, false, false);
+            }
+            return current;
+        });
+        return outcome[0];
+    }
+
+    void lock(String email, long lockedUntil) {
+        entries.compute(email, (key, entry) -> {
+            Entry current = entry != null ? entry : new Entry();
+            current.lockedUntil = lockedUntil;
+            return current;
+        });
+    }
+
+    /**
+     * 回收鎖定已過期且沒有視窗內計數的項目
+     *
+     * @param oldestBucket 視窗內最舊的時間桶編號
+     * @return 回收的項目數
+     */
+    int evictExpired(long now, long oldestBucket) {
+        int evicted = 0;
+        for (String email : entries.keySet()) {
+            boolean[] removed = new boolean[1];
+            entries.computeIfPresent(email, (key, entry) -> {
+                entry.buckets.keySet().removeIf(b -> b < oldestBucket);
+                removed[0] = entry.lockedUntil <= now && entry.buckets.isEmpty();
+                return removed[0] ? null : entry;
+            });
+            if (removed[0]) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * 單一 email 的狀態，只在 compute 中修改
+     */
+    private static final class Entry {
+
+        private final Map<Long, Integer> buckets = new HashMap<>();
+        private volatile long lockedUntil;
+    }
+}
@@ -0,0 +1,13 @@
+package com.denden.auth.service.lockout;
+
+/**
+ * 記錄登入失敗的結果
+ *
+ * @param failures      視窗內的失敗次數（含本次）；帳號已鎖定時不計數，為 0
+ * @param lockedNow     本次失敗觸發鎖定
+ * @param alreadyLocked 帳號在本次失敗前已鎖定
+ * @author Timmy
+ * @since 1.1.0
+ */
+public record LoginFailureOutcome(long failures, boolean lockedNow, boolean alreadyLocked) {
+}
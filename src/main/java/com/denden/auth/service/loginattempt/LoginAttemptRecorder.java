@@ -0,0 +1,522 @@
+package com.denden.auth.service.loginattempt;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.entity.LoginAttempt;
+import com.denden.auth.repository.LoginAttemptRepository;
+import com.denden.auth.util.MaskingUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登入嘗試的背景批次寫入
+ *
+ * <p>登入請求只把紀錄放入有界佇列；單一背景執行緒在收到第一筆後最多等待 flush-interval-ms，
+ * 或湊滿 batch-size 筆時，以一個多列 INSERT 寫入，取代每次登入一次 IDENTITY INSERT 的來回與提交。</p>
+ *
+ * <p>持久性：</p>
+ * <ul>
+ *   <li>資料庫無法寫入、佇列已滿或關閉逾時的紀錄以 JSON lines 附加到暫存檔，每次附加一整批、只 fsync 一次</li>
+ *   <li>佇列已滿時紀錄先放入同樣大小的溢出佇列，由背景執行緒在每次批次寫入後一併附加到暫存檔，
+ *       請求執行緒不做檔案 I/O；溢出佇列也滿時才丟棄（login_attempts.dropped）</li>
+ *   <li>背景執行緒每 spill-replay-interval-ms（以及啟動時）將暫存檔補寫回資料庫；
+ *       補寫中途當機時可能重複寫入部分紀錄（至少一次）</li>
+ *   <li>關閉時等待佇列寫完，最多 shutdown-timeout-ms</li>
+ * </ul>
+ *
+ * <p>尚未寫入的失敗次數以 {@link #pendingFailures(String)} 提供，帳號鎖定判斷將其與資料庫計數相加，
+ * 批次延遲不會讓暴力破解多出嘗試次數。寫入暫存檔的失敗在補寫成功前持續計入，啟動時也從暫存檔重建，
+ * 資料庫中斷期間的失敗不會因為改寫入暫存檔而不再計數。</p>
+ *
+ * <p>指標：login_attempts.queue.size、login_attempts.overflow.size、login_attempts.flush（Timer，依 result 區分）、
+ * login_attempts.batch.size、login_attempts.written（依 source 區分 queue / spill）、
+ * login_attempts.spilled（依 reason 區分）、login_attempts.dropped。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Slf4j
+@Component
+public class LoginAttemptRecorder implements DisposableBean {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO login_attempts (email, ip_address, successful, attempted_at) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?)";
+
+    /**
+     * PostgreSQL 單一陳述式最多 65535 個參數，每列 4 個
+     */
+    private static final int MAX_BATCH_SIZE = 65535 / 4;
+
+    private final SecurityProperties.LoginAttempts config;
+    private final LoginAttemptRepository loginAttemptRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TimeZone jdbcTimeZone;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<PendingLoginAttempt> queue;
+    private final BlockingQueue<PendingLoginAttempt> overflow;
+    private final Map<String, Integer> pendingFailures = new ConcurrentHashMap<>();
+    private final Path spillFile;
+    private final Path replayFile;
+    private final Object spillLock = new Object();
+    private final Thread flusher;
+    private volatile boolean running;
+
+    private final Timer flushSuccess;
+    private final Timer flushFailure;
+    private final DistributionSummary batchSizes;
+    private final Counter writtenFromQueue;
+    private final Counter writtenFromSpill;
+    private final Counter spilledDbUnavailable;
+    private final Counter spilledQueueFull;
+    private final Counter spilledShutdown;
+    private final Counter dropped;
+
+    @Autowired
+    public LoginAttemptRecorder(SecurityProperties securityProperties,
+                                LoginAttemptRepository loginAttemptRepository,
+                                JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${spring.jpa.properties.hibernate.jdbc.time_zone:}") String jdbcTimeZone) {
+        this(securityProperties, loginAttemptRepository, jdbcTemplate, objectMapper, meterRegistry, jdbcTimeZone, true);
+    }
+
+    /**
+     * @param startFlusher 是否啟動背景執行緒；false 時由呼叫端以 {@link #flushQueued(long)}、
+     *                     {@link #spillOverflow()} 與 {@link #replaySpill()} 依序驅動
+     */
+    LoginAttemptRecorder(SecurityProperties securityProperties,
+                         LoginAttemptRepository loginAttemptRepository,
+                         JdbcTemplate jdbcTemplate,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         String jdbcTimeZone,
+                         boolean startFlusher) {
+        this.config = securityProperties.getLoginAttempts();
+        this.loginAttemptRepository = loginAttemptRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.jdbcTimeZone = jdbcTimeZone.isBlank() ? null : TimeZone.getTimeZone(jdbcTimeZone);
+        this.batchSize = Math.max(1, Math.min(config.getBatchSize(), MAX_BATCH_SIZE));
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getFlushIntervalMs());
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.overflow = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.spillFile = Path.of(config.getSpillFile());
+        this.replayFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+
+        Gauge.builder("login_attempts.queue.size", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        Gauge.builder("login_attempts.overflow.size", overflow, BlockingQueue::size)
+                .register(meterRegistry);
+        this.flushSuccess = flushTimer("success", meterRegistry);
+        this.flushFailure = flushTimer("failure", meterRegistry);
+        this.batchSizes = DistributionSummary.builder("login_attempts.batch.size")
+                .register(meterRegistry);
+        this.writtenFromQueue = Counter.builder("login_attempts.written").tag("source", "queue")
+                .register(meterRegistry);
+        this.writtenFromSpill = Counter.builder("login_attempts.written").tag("source", "spill")
+                .register(meterRegistry);
+        this.spilledDbUnavailable = Counter.builder("login_attempts.spilled").tag("reason", "db_unavailable")
+                .register(meterRegistry);
+        this.spilledQueueFull = Counter.builder("login_attempts.spilled").tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.spilledShutdown = Counter.builder("login_attempts.spilled").tag("reason", "shutdown")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("login_attempts.dropped")
+                .register(meterRegistry);
+
+        this.flusher = new Thread(this::runFlusher, "login-attempt-flusher");
+        this.flusher.setDaemon(true);
+        if (config.isWriteBehind()) {
+            restoreSpilledFailures();
+            this.running = true;
+            if (startFlusher) {
+                this.flusher.start();
+            }
+            log.info("登入嘗試背景寫入已啟用，佇列上限: {}, 批次: {}, 暫存檔: {}",
+                    config.getQueueCapacity(), batchSize, spillFile.toAbsolutePath());
+        }
+    }
+
+    /**
+     * 記錄一次登入嘗試（不等待寫入資料庫）
+     *
+     * @param email      登入 email
+     * @param ipAddress  客戶端 IP
+     * @param successful 是否成功
+     */
+    public void record(String email, String ipAddress, boolean successful) {
+        if (!config.isWriteBehind()) {
+            saveDirectly(email, ipAddress, successful);
+            return;
+        }
+
+        PendingLoginAttempt attempt = new PendingLoginAttempt(email, ipAddress, successful, LocalDateTime.now());
+        if (!successful) {
+            pendingFailures.merge(email, 1, Integer::sum);
+        }
+        if (!running) {
+            spill(List.of(attempt), spilledShutdown);
+            return;
+        }
+        if (!queue.offer(attempt) && !overflow.offer(attempt)) {
+            dropped.increment();
+            release(List.of(attempt));
+            return;
+        }
+        if (!running && (queue.remove(attempt) || overflow.remove(attempt))) {
+            // 放入佇列前 destroy() 已取出剩餘紀錄：自行寫入暫存檔；已被取出的由 destroy() 或背景執行緒處理
+            spill(List.of(attempt), spilledShutdown);
+        }
+    }
+
+    /**
+     * 已記錄但尚未寫入資料庫的失敗次數（包含暫存檔中尚未補寫的紀錄）
+     *
+     * <p>批次寫入或補寫提交後才扣除，兩者短暫重疊時寧可多計而不少計</p>
+     */
+    public int pendingFailures(String email) {
+        return pendingFailures.getOrDefault(email, 0);
+    }
+
+    private void saveDirectly(String email, String ipAddress, boolean successful) {
+        try {
+            loginAttemptRepository.save(new LoginAttempt(email, ipAddress, successful));
+            log.debug("登入嘗試已記錄，Email: {}, IP: {}, 成功: {}",
+                    MaskingUtils.maskEmail(email), ipAddress, successful);
+        } catch (Exception e) {
+            log.error("記錄登入嘗試失敗，Email: {}, 錯誤: {}",
+                    MaskingUtils.maskEmail(email), e.getMessage(), e);
+        }
+    }
+
+    private void runFlusher() {
+        long nextReplay = System.currentTimeMillis();
+        while (running || !queue.isEmpty() || !overflow.isEmpty()) {
+            try {
+                flushQueued(flushIntervalNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            spillOverflow();
+
+            if (running && System.currentTimeMillis() >= nextReplay) {
+                replaySpill();
+                nextReplay = System.currentTimeMillis() + config.getSpillReplayIntervalMs();
+            }
+        }
+    }
+
+    /**
+     * 寫入佇列中的一批紀錄，最多等待 timeoutNanos 取得第一筆
+     *
+     * @return 本批筆數
+     */
+    int flushQueued(long timeoutNanos) throws InterruptedException {
+        PendingLoginAttempt first = queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return 0;
+        }
+        List<PendingLoginAttempt> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        fillBatch(batch);
+        flush(batch);
+        return batch.size();
+    }
+
+    /**
+     * 從第一筆起最多等待 flush-interval-ms，或湊滿 batch-size 筆
+     */
+    private void fillBatch(List<PendingLoginAttempt> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            PendingLoginAttempt next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingLoginAttempt> batch) {
+        long start = System.nanoTime();
+        try {
+            insert(batch);
+            flushSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+            writtenFromQueue.increment(batch.size());
+            release(batch);
+        } catch (RuntimeException e) {
+            flushFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.warn("批次寫入登入嘗試失敗，改寫入暫存檔，筆數: {}, 錯誤: {}", batch.size(), e.getMessage());
+            spill(batch, spilledDbUnavailable);
+        }
+    }
+
+    void spillOverflow() {
+        if (overflow.isEmpty()) {
+            return;
+        }
+        List<PendingLoginAttempt> attempts = new ArrayList<>(overflow.size());
+        overflow.drainTo(attempts);
+        log.warn("登入嘗試佇列已滿，{} 筆改寫入暫存檔", attempts.size());
+        spill(attempts, spilledQueueFull);
+    }
+
+    private void insert(List<PendingLoginAttempt> batch) {
+        String sql = INSERT_PREFIX + String.join(", ", Collections.nCopies(batch.size(), ROW_PLACEHOLDER));
+        jdbcTemplate.update(sql, ps -> {
+            int index = 1;
+            for (PendingLoginAttempt attempt : batch) {
+                ps.setString(index++, attempt.email());
+                ps.setString(index++, attempt.ipAddress());
+                ps.setBoolean(index++, attempt.successful());
+                bindTimestamp(ps, index++, attempt.attemptedAt());
+            }
+        });
+    }
+
+    /**
+     * 與 Hibernate 寫入 LocalDateTime 的方式一致（hibernate.jdbc.time_zone），
+     * 鎖定判斷的時間範圍查詢才能同時涵蓋兩種寫入路徑的紀錄
+     */
+    private void bindTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        Timestamp timestamp = Timestamp.valueOf(value);
+        if (jdbcTimeZone != null) {
+            ps.setTimestamp(index, timestamp, Calendar.getInstance(jdbcTimeZone));
+        } else {
+            ps.setTimestamp(index, timestamp);
+        }
+    }
+
+    private void release(List<PendingLoginAttempt> batch) {
+        for (PendingLoginAttempt attempt : batch) {
+            if (!attempt.successful()) {
+                pendingFailures.computeIfPresent(attempt.email(), (email, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+    }
+
+    /**
+     * 將整批紀錄一次附加到暫存檔並 fsync 一次；寫入成功的失敗紀錄在補寫前仍計入 pendingFailures
+     */
+    private void spill(List<PendingLoginAttempt> attempts, Counter reason) {
+        synchronized (spillLock) {
+            try {
+                Path parent = spillFile.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                StringBuilder lines = new StringBuilder();
+                for (PendingLoginAttempt attempt : attempts) {
+                    lines.append(objectMapper.writeValueAsString(attempt)).append('\n');
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                try (FileChannel channel = FileChannel.open(spillFile,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                }
+                reason.increment(attempts.size());
+            } catch (IOException e) {
+                dropped.increment(attempts.size());
+                release(attempts);
+                log.error("寫入登入嘗試暫存檔失敗，遺失 {} 筆紀錄，檔案: {}, 錯誤: {}",
+                        attempts.size(), spillFile, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 啟動時將暫存檔中尚未補寫的失敗計入 pendingFailures，補寫成功後再扣除
+     */
+    private void restoreSpilledFailures() {
+        int restored = 0;
+        for (Path file : List.of(replayFile, spillFile)) {
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    PendingLoginAttempt attempt = parse(line);
+                    if (attempt != null && !attempt.successful()) {
+                        pendingFailures.merge(attempt.email(), 1, Integer::sum);
+                        restored++;
+                    }
+                }
+            } catch (IOException e) {
+                log.error("讀取登入嘗試暫存檔失敗，檔案: {}, 錯誤: {}", file, e.getMessage());
+            }
+        }
+        if (restored > 0) {
+            log.info("暫存檔中有 {} 筆尚未補寫的登入失敗，補寫前計入鎖定判斷", restored);
+        }
+    }
+
+    /**
+     * 將暫存檔補寫回資料庫
+     *
+     * <p>先將暫存檔改名為 .replay 再讀取，補寫期間新的溢出紀錄寫入新的暫存檔；
+     * 資料庫仍無法寫入時，.replay 只保留尚未寫入的部分，下次再試。</p>
+     */
+    void replaySpill() {
+        try {
+            synchronized (spillLock) {
+                if (!Files.exists(replayFile)) {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+
+            Path remainingFile = replayFile.resolveSibling(replayFile.getFileName() + ".tmp");
+            long replayed = 0;
+            boolean complete = true;
+            try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+                List<PendingLoginAttempt> chunk = new ArrayList<>(batchSize);
+                String line;
+                while ((line = reader.readLine()) != null || !chunk.isEmpty()) {
+                    if (line != null) {
+                        PendingLoginAttempt attempt = parse(line);
+                        if (attempt != null) {
+                            chunk.add(attempt);
+                        }
+                        if (chunk.size() < batchSize) {
+                            continue;
+                        }
+                    }
+                    try {
+                        insert(chunk);
+                    } catch (RuntimeException e) {
+                        log.warn("補寫登入嘗試暫存檔失敗，稍後重試，已補寫: {}, 錯誤: {}", replayed, e.getMessage());
+                        keepRemaining(remainingFile, chunk, reader);
+                        complete = false;
+                        break;
+                    }
+                    replayed += chunk.size();
+                    writtenFromSpill.increment(chunk.size());
+                    release(chunk);
+                    chunk.clear();
+                    if (line == null) {
+                        break;
+                    }
+                }
+            }
+
+            if (complete) {
+                Files.delete(replayFile);
+            } else if (replayed > 0) {
+                Files.move(remainingFile, replayFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.deleteIfExists(remainingFile);
+            }
+            if (replayed > 0) {
+                log.info("登入嘗試暫存檔已補寫 {} 筆", replayed);
+            }
+        } catch (IOException e) {
+            log.error("讀取登入嘗試暫存檔失敗，檔案: {}, 錯誤: {}", replayFile, e.getMessage());
+        }
+    }
+
+    private void keepRemaining(Path remainingFile, List<PendingLoginAttempt> chunk, BufferedReader reader)
+            throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(remainingFile, StandardCharsets.UTF_8)) {
+            for (PendingLoginAttempt attempt : chunk) {
+                writer.write(objectMapper.writeValueAsString(attempt));
+                writer.newLine();
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    private PendingLoginAttempt parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(line, PendingLoginAttempt.class);
+        } catch (IOException e) {
+            log.warn("略過無法解析的登入嘗試暫存紀錄: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Timer flushTimer(String result, MeterRegistry meterRegistry) {
+        return Timer.builder("login_attempts.flush")
+                .tag("result", result)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join(config.getShutdownTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<PendingLoginAttempt> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        overflow.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.warn("關閉時仍有 {} 筆登入嘗試未寫入，改寫入暫存檔", remaining.size());
+            spill(remaining, spilledShutdown);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.denden.auth.service.loginattempt;
+
+import java.time.LocalDateTime;
+
+/**
+ * 尚未寫入資料庫的登入嘗試（佇列與暫存檔中的格式）
+ *
+ * @param email       登入 email
+ * @param ipAddress   客戶端 IP
+ * @param successful  是否成功
+ * @param attemptedAt 嘗試時間（記錄當下，而非寫入資料庫的時間）
+ * @author Timmy
+ * @since 1.1.0
+ */
+public record PendingLoginAttempt(String email, String ipAddress, boolean successful, LocalDateTime attemptedAt) {
+}
@@ -0,0 +1,343 @@
+package com.denden.auth.service.otp;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.model.OtpIssueResult;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import com.denden.auth.util.MaskingUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 無法使用時的 OTP 降級儲存
+ *
+ * <p>會話寫入本節點的 {@link InMemoryOtpSessionStore}（有容量上限），登入回應附上簽章的會話提示，
+ * 負載平衡器依提示 cookie 將驗證請求導回同一節點，發送與驗證都不需要同步存取資料庫：</p>
+ * <ul>
+ *   <li>寫入資料庫：快取的每次變更只記錄每個 email 的最新狀態，背景每 write-behind-interval-ms 以一個交易寫入，
+ *       間隔內同一個 email 的多次變更合併為一次。寫回的副本標記本節點 ID，驗證次數只增不減，
+ *       已使用的會話不會被較舊的寫回復活</li>
+ *   <li>驗證：先查本節點快取；未命中且提示由本節點簽發時，本節點即為權威來源，直接返回不存在；
+ *       否則查資料庫，但只驗證不屬於任何節點的會話（快取已滿時寫入資料庫的、或已釋放的），
+ *       同一個會話不會同時在快取與資料庫計算次數</li>
+ *   <li>快取驗證成功時同步在資料庫標記該會話已使用；資料庫中已有較新的會話或此會話已使用時視為不存在，
+ *       同一個會話只簽發一次 JWT。資料庫無法連線時仍接受快取的結果，資料庫副本屬於本節點，其他節點不會驗證</li>
+ *   <li>快取已滿時新的會話同步寫入資料庫，行為與未降級時相同</li>
+ *   <li>Redis 恢復（斷路器關閉）後，背景將快取中的會話連同已驗證次數與剩餘期限寫回 Redis，並刪除資料庫副本；
+ *       Redis 已有較新的會話時捨棄快取中的舊會話</li>
+ *   <li>關閉時寫入剩餘變更並釋放本節點持有的會話，改由其他節點以資料庫驗證；
+ *       節點異常終止時，它持有的會話在到期前無法在其他節點驗證，使用者需重新登入</li>
+ * </ul>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Slf4j
+public class DegradedOtpSessionStore implements OtpSessionStore, AutoCloseable {
+
+    private final SecurityProperties.Degraded config;
+    private final long expirationMillis;
+    private final RedisOtpSessionStore redisStore;
+    private final JpaOtpSessionStore databaseStore;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final InMemoryOtpSessionStore cache;
+    private final SessionHintSigner hintSigner = new SessionHintSigner();
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+
+    private final Counter issuedLocal;
+    private final Counter issuedDatabase;
+    private final Counter verifiedLocal;
+    private final Counter verifiedDatabase;
+    private final Counter cacheRejected;
+    private final Counter claimRejected;
+    private final Counter writesCoalesced;
+    private final Counter writesWritten;
+    private final Counter writesFailed;
+    private final Counter reconcileRestored;
+    private final Counter reconcileSuperseded;
+    private final Counter reconcileFailed;
+
+    public DegradedOtpSessionStore(SecurityProperties securityProperties,
+                                   RedisOtpSessionStore redisStore,
+                                   JpaOtpSessionStore databaseStore,
+                                   RedisCircuitBreaker redisCircuitBreaker,
+                                   MeterRegistry meterRegistry) {
+        this.config = securityProperties.getOtp().getDegraded();
+        this.expirationMillis = TimeUnit.SECONDS.toMillis(securityProperties.getOtp().getExpirationSeconds());
+        this.redisStore = redisStore;
+        this.databaseStore = databaseStore;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.cache = new InMemoryOtpSessionStore(securityProperties.getOtp(), config.getMaxSessions(), this::onCacheChange);
+
+        this.issuedLocal = requests(meterRegistry, "issue", "local");
+        this.issuedDatabase = requests(meterRegistry, "issue", "database");
+        this.verifiedLocal = requests(meterRegistry, "verify", "local");
+        this.verifiedDatabase = requests(meterRegistry, "verify", "database");
+        this.cacheRejected = Counter.builder("otp.degraded.cache.rejected")
+                .description("快取已滿而同步寫入資料庫的會話數")
+                .register(meterRegistry);
+        this.claimRejected = Counter.builder("otp.degraded.claim.rejected")
+                .description("快取驗證成功但資料庫中已有較新的會話或已使用，而拒絕的驗證數")
+                .register(meterRegistry);
+        this.writesCoalesced = dbWrites(meterRegistry, "coalesced");
+        this.writesWritten = dbWrites(meterRegistry, "written");
+        this.writesFailed = dbWrites(meterRegistry, "failed");
+        this.reconcileRestored = reconciled(meterRegistry, "restored");
+        this.reconcileSuperseded = reconciled(meterRegistry, "superseded");
+        this.reconcileFailed = reconciled(meterRegistry, "failed");
+        Gauge.builder("otp.degraded.cache.size", cache, InMemoryOtpSessionStore::size)
+                .register(meterRegistry);
+        Gauge.builder("otp.degraded.pending_writes", pendingWrites, Map::size)
+                .register(meterRegistry);
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("otp-degraded-"));
+        this.executor.scheduleWithFixedDelay(this::flushSafely,
+                config.getWriteBehindIntervalMs(), config.getWriteBehindIntervalMs(), TimeUnit.MILLISECONDS);
+        this.executor.scheduleWithFixedDelay(this::reconcileSafely,
+                config.getReconcileIntervalMs(), config.getReconcileIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public OtpIssueResult issue(String email, Long userId, String otp, boolean reissue) {
+        OtpIssueResult result;
+        try {
+            result = cache.issue(email, userId, otp, reissue);
+        } catch (DataAccessResourceFailureException e) {
+            cacheRejected.increment();
+            issuedDatabase.increment();
+            return databaseStore.issue(email, userId, otp, reissue);
+        }
+
+        if (result.status() == OtpIssueResult.Status.NO_ACTIVE_SESSION) {
+            issuedDatabase.increment();
+            return databaseStore.issue(email, userId, otp, true);
+        }
+        issuedLocal.increment();
+        return result;
+    }
+
+    @Override
+    public void save(String email, Long userId, String otp) {
+        try {
+            cache.save(email, userId, otp);
+            issuedLocal.increment();
+        } catch (DataAccessResourceFailureException e) {
+            cacheRejected.increment();
+            issuedDatabase.increment();
+            databaseStore.save(email, userId, otp);
+        }
+    }
+
+    @Override
+    public OtpVerification verify(String email, String otp) {
+        return verify(email, otp, null);
+    }
+
+    @Override
+    public OtpVerification verify(String email, String otp, String sessionHint) {
+        InMemoryOtpSessionStore.SessionVerification local = cache.verifySession(email, otp);
+        OtpVerification result = local.verification();
+        if (result.result() != OtpVerifyResult.NOT_FOUND || hintSigner.verify(sessionHint, email)) {
+            verifiedLocal.increment();
+            if (result.isVerified() && !claim(local.session())) {
+                claimRejected.increment();
+                return OtpVerification.of(OtpVerifyResult.NOT_FOUND);
+            }
+            return result;
+        }
+
+        verifiedDatabase.increment();
+        return databaseStore.verify(email, otp);
+    }
+
+    @Override
+    public boolean hasActiveSession(String email) {
+        return cache.hasActiveSession(email) || databaseStore.hasActiveSession(email);
+    }
+
+    @Override
+    public String sessionHint(String email) {
+        if (!cache.hasActiveSession(email)) {
+            return null;
+        }
+        return hintSigner.sign(email, System.currentTimeMillis() + expirationMillis);
+    }
+
+    /**
+     * 將待寫入的會話變更寫入資料庫，直到沒有待寫入的變更或寫入失敗
+     */
+    void flush() {
+        while (!pendingWrites.isEmpty()) {
+            Map<String, PendingWrite> batch = new HashMap<>();
+            Iterator<Map.Entry<String, PendingWrite>> iterator = pendingWrites.entrySet().iterator();
+            while (iterator.hasNext() && batch.size() < config.getWriteBatchSize()) {
+                Map.Entry<String, PendingWrite> entry = iterator.next();
+                if (pendingWrites.remove(entry.getKey(), entry.getValue())) {
+                    batch.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            long now = System.currentTimeMillis();
+            List<OtpSessionSnapshot> changed = new ArrayList<>();
+            List<OtpSessionSnapshot> consumed = new ArrayList<>();
+            List<OtpSessionSnapshot> drained = new ArrayList<>();
+            for (PendingWrite write : batch.values()) {
+                if (write.session().expiresAtMillis() <= now) {
+                    continue;
+                }
+                switch (write.change()) {
+                    case UPDATED -> changed.add(write.session());
+                    case CONSUMED -> consumed.add(write.session());
+                    case DRAINED -> drained.add(write.session());
+                }
+            }
+
+            try {
+                databaseStore.writeAll(nodeId, changed, consumed, drained);
+                writesWritten.increment(batch.size());
+            } catch (DataAccessException e) {
+                writesFailed.increment(batch.size());
+                batch.forEach(pendingWrites::putIfAbsent);
+                log.warn("OTP 會話寫入資料庫失敗，稍後重試，筆數: {}, 錯誤: {}", batch.size(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Redis 斷路器關閉時，將快取中的會話寫回 Redis
+     */
+    void reconcile() {
+        while (redisCircuitBreaker.getState() == RedisCircuitBreaker.State.CLOSED) {
+            List<OtpSessionSnapshot> sessions = cache.drain(config.getReconcileBatchSize());
+            if (sessions.isEmpty()) {
+                return;
+            }
+
+            for (int i = 0; i < sessions.size(); i++) {
+                OtpSessionSnapshot session = sessions.get(i);
+                try {
+                    if (redisStore.restore(session)) {
+                        reconcileRestored.increment();
+                    } else {
+                        reconcileSuperseded.increment();
+                    }
+                } catch (DataAccessException e) {
+                    List<OtpSessionSnapshot> remaining = sessions.subList(i, sessions.size());
+                    remaining.forEach(cache::restore);
+                    reconcileFailed.increment(remaining.size());
+                    log.warn("OTP 會話寫回 Redis 失敗，稍後重試，剩餘: {}, 錯誤: {}", remaining.size(), e.getMessage());
+                    return;
+                }
+            }
+            log.info("已將 {} 筆降級期間的 OTP 會話寫回 Redis", sessions.size());
+        }
+    }
+
+    /**
+     * 本節點快取中的會話數（含已過期但尚未回收的）
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        cache.close();
+        try {
+            executor.awaitTermination(config.getWriteBehindIntervalMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+            if (pendingWrites.isEmpty()) {
+                log.info("已釋放本節點持有的 OTP 會話: {}", databaseStore.release(nodeId));
+            }
+        } catch (RuntimeException e) {
+            log.warn("關閉時寫入 OTP 會話失敗，未寫入: {}, 錯誤: {}", pendingWrites.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 快取變更（在快取的段鎖內呼叫）：只保留每個 email 的最新狀態，取代尚未寫入的變更即為合併
+     */
+    private void onCacheChange(OtpSessionSnapshot session, InMemoryOtpSessionStore.Change change) {
+        if (pendingWrites.put(session.email(), new PendingWrite(session, change)) != null) {
+            writesCoalesced.increment();
+        }
+    }
+
+    /**
+     * 在資料庫標記快取中驗證成功的會話為已使用
+     *
+     * @return 是否可簽發 JWT
+     */
+    private boolean claim(OtpSessionSnapshot session) {
+        try {
+            return databaseStore.claim(nodeId, session);
+        } catch (DataAccessException e) {
+            log.warn("標記資料庫中的 OTP 會話失敗，接受快取的驗證結果，Email: {}, 錯誤: {}",
+                    MaskingUtils.maskEmail(session.email()), e.getMessage());
+            return true;
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("OTP 會話背景寫入發生錯誤: {}", e.getMessage(), e);
+        }
+    }
+
+    private void reconcileSafely() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("OTP 會話寫回 Redis 發生錯誤: {}", e.getMessage(), e);
+        }
+    }
+
+    private record PendingWrite(OtpSessionSnapshot session, InMemoryOtpSessionStore.Change change) {
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String operation, String served) {
+        return Counter.builder("otp.degraded.requests")
+                .description("降級期間的 OTP 操作，served=local 為未同步存取資料庫的操作")
+                .tag("operation", operation)
+                .tag("served", served)
+                .register(meterRegistry);
+    }
+
+    private static Counter dbWrites(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("otp.degraded.db_writes")
+                .description("背景寫入資料庫的會話變更，coalesced 為合併後省下的寫入")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Counter reconciled(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("otp.degraded.reconciled")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
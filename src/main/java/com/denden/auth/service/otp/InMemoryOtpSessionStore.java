@@ -0,0 +1,394 @@
+package com.denden.auth.service.otp;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.model.OtpIssueResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本節點記憶體中的 OTP 會話儲存
+ *
+ * <p>依 email 雜湊分為 {@value #STRIPES} 段，每段一把鎖保護自己的會話、發送額度與 {@link TimingWheel}；
+ * 發送、驗證（遞增次數、比對、刪除）都在段鎖內完成，與 Redis 腳本同樣是原子的。</p>
+ *
+ * <p>到期：讀取時一律比對到期時間，時間輪只負責回收記憶體。背景執行緒每 memory-tick-ms 推進各段的時間輪，
+ * 到期項目若仍是目前的會話或額度才刪除，被取代或已驗證的會話不需另外取消排程。</p>
+ *
+ * <p>會話不跨節點共享，只適用單節點部署、邊緣部署或壓力測試；另作為 {@link DegradedOtpSessionStore} 的本地快取，
+ * 此時設定容量上限（依段平均分配，滿時新的 email 拋出 {@link DataAccessResourceFailureException}），
+ * 並在段鎖內將每次變更通知 {@link SessionListener}，通知順序與變更順序一致。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Slf4j
+public class InMemoryOtpSessionStore implements OtpSessionStore, AutoCloseable {
+
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long expirationMillis;
+    private final int maxAttempts;
+    private final int maxIssuesPerWindow;
+    private final long issueWindowMillis;
+    private final int stripeCapacity;
+    private final SessionListener listener;
+    private final ScheduledExecutorService ticker;
+
+    public InMemoryOtpSessionStore(SecurityProperties.Otp config) {
+        this(config, 0, null);
+    }
+
+    /**
+     * @param maxSessions 會話數上限，0 表示不限制
+     * @param listener    會話變更通知，可為 null
+     */
+    public InMemoryOtpSessionStore(SecurityProperties.Otp config, int maxSessions, SessionListener listener) {
+        this.stripeCapacity = maxSessions > 0 ? (maxSessions + STRIPES - 1) / STRIPES : Integer.MAX_VALUE;
+        this.listener = listener;
+        this.expirationMillis = TimeUnit.SECONDS.toMillis(config.getExpirationSeconds());
+        this.maxAttempts = config.getMaxAttempts();
+        this.maxIssuesPerWindow = config.getMaxIssuesPerWindow();
+        this.issueWindowMillis = TimeUnit.SECONDS.toMillis(config.getIssueWindowSeconds());
+
+        long tickMillis = Math.max(1, config.getMemoryTickMs());
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(new TimingWheel<>(tickMillis, now));
+        }
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("otp-store-ticker-"));
+        this.ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        log.info("OTP 會話使用本節點記憶體儲存，tick: {} ms", tickMillis);
+    }
+
+    @Override
+    public OtpIssueResult issue(String email, Long userId, String otp, boolean reissue) {
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripe(email);
+        synchronized (stripe) {
+            Session current = stripe.activeSession(email, now);
+            if (reissue && current == null) {
+                return new OtpIssueResult(OtpIssueResult.Status.NO_ACTIVE_SESSION, 0);
+            }
+            stripe.ensureCapacity(email);
+
+            Quota quota = stripe.quotas.get(email);
+            if (quota == null || quota.expiresAt <= now) {
+                quota = new Quota(email, now + issueWindowMillis);
+                stripe.quotas.put(email, quota);
+                stripe.wheel.schedule(quota, quota.expiresAt);
+            }
+            if (++quota.issued > maxIssuesPerWindow) {
+                return new OtpIssueResult(OtpIssueResult.Status.QUOTA_EXCEEDED, quota.expiresAt - now);
+            }
+
+            stripe.put(new Session(email, userIdOrCurrent(userId, current), otp, now, now + expirationMillis));
+            return new OtpIssueResult(OtpIssueResult.Status.ISSUED, 0);
+        }
+    }
+
+    @Override
+    public void save(String email, Long userId, String otp) {
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripe(email);
+        synchronized (stripe) {
+            stripe.ensureCapacity(email);
+            Session current = stripe.activeSession(email, now);
+            stripe.put(new Session(email, userIdOrCurrent(userId, current), otp, now, now + expirationMillis));
+        }
+    }
+
+    @Override
+    public OtpVerification verify(String email, String otp) {
+        return verifySession(email, otp).verification();
+    }
+
+    /**
+     * 驗證 OTP，並返回驗證後的會話快照（不存在時為 null）
+     */
+    SessionVerification verifySession(String email, String otp) {
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripe(email);
+        synchronized (stripe) {
+            Session session = stripe.activeSession(email, now);
+            if (session == null) {
+                return new SessionVerification(OtpVerification.of(OtpVerifyResult.NOT_FOUND), null);
+            }
+
+            session.attempts++;
+            OtpVerification verification;
+            if (session.attempts > maxAttempts) {
+                stripe.remove(session);
+                verification = OtpVerification.of(OtpVerifyResult.EXHAUSTED);
+            } else if (otp != null && MessageDigest.isEqual(
+                    otp.getBytes(StandardCharsets.UTF_8), session.otp.getBytes(StandardCharsets.UTF_8))) {
+                stripe.remove(session);
+                verification = OtpVerification.verified(session.userId);
+            } else {
+                if (session.attempts == maxAttempts) {
+                    stripe.remove(session);
+                } else {
+                    stripe.notifyChanged(session);
+                }
+                verification = OtpVerification.of(OtpVerifyResult.MISMATCH);
+            }
+            return new SessionVerification(verification, session.snapshot());
+        }
+    }
+
+    @Override
+    public boolean hasActiveSession(String email) {
+        Stripe stripe = stripe(email);
+        synchronized (stripe) {
+            return stripe.activeSession(email, System.currentTimeMillis()) != null;
+        }
+    }
+
+    /**
+     * 取出最多 limit 個未過期的會話（自儲存中移除）
+     */
+    public List<OtpSessionSnapshot> drain(int limit) {
+        long now = System.currentTimeMillis();
+        List<OtpSessionSnapshot> drained = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Session> iterator = stripe.sessions.values().iterator();
+                while (iterator.hasNext() && drained.size() < limit) {
+                    Session session = iterator.next();
+                    iterator.remove();
+                    if (session.expiresAt > now) {
+                        drained.add(session.snapshot());
+                        stripe.publish(session, Change.DRAINED);
+                    }
+                }
+            }
+            if (drained.size() >= limit) {
+                break;
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * 放回先前取出的會話；該 email 已有新的會話、快照已過期或已達容量上限時略過
+     *
+     * @return 是否放回
+     */
+    public boolean restore(OtpSessionSnapshot snapshot) {
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripe(snapshot.email());
+        synchronized (stripe) {
+            if (snapshot.expiresAtMillis() <= now || stripe.activeSession(snapshot.email(), now) != null
+                    || stripe.sessions.size() >= stripeCapacity) {
+                return false;
+            }
+            Session session = new Session(snapshot.email(), snapshot.userId(), snapshot.otp(),
+                    snapshot.createdAtMillis(), snapshot.expiresAtMillis());
+            session.attempts = snapshot.attempts();
+            stripe.put(session);
+            return true;
+        }
+    }
+
+    /**
+     * 未過期的會話快照（不移除）
+     */
+    public List<OtpSessionSnapshot> snapshots() {
+        long now = System.currentTimeMillis();
+        List<OtpSessionSnapshot> snapshots = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (Session session : stripe.sessions.values()) {
+                    if (session.expiresAt > now) {
+                        snapshots.add(session.snapshot());
+                    }
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * 儲存中的會話數（含已過期但尚未回收的）
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.sessions.size();
+            }
+        }
+        return size;
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.wheel.advance(now, expiring -> stripe.expire(expiring, now));
+            }
+        }
+    }
+
+    private static Long userIdOrCurrent(Long userId, Session current) {
+        return userId != null || current == null ? userId : current.userId;
+    }
+
+    private Stripe stripe(String email) {
+        int h = email.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * 會話變更通知，在段鎖內呼叫，實作不可阻塞
+     */
+    @FunctionalInterface
+    public interface SessionListener {
+
+        /**
+         * @param session 變更後的會話
+         * @param change  變更種類（到期回收不通知）
+         */
+        void onChange(OtpSessionSnapshot session, Change change);
+    }
+
+    /**
+     * 會話變更種類
+     */
+    public enum Change {
+        /** 寫入或驗證失敗（次數遞增） */
+        UPDATED,
+        /** 已驗證或用完次數，已自儲存中移除 */
+        CONSUMED,
+        /** 被 {@link #drain(int)} 取出 */
+        DRAINED
+    }
+
+    /**
+     * 驗證結果與驗證後的會話快照
+     *
+     * @param verification 驗證結果
+     * @param session      驗證後的會話（已遞增次數），會話不存在時為 null
+     */
+    record SessionVerification(OtpVerification verification, OtpSessionSnapshot session) {
+    }
+
+    private final class Stripe {
+
+        private final Map<String, Session> sessions = new HashMap<>();
+        private final Map<String, Quota> quotas = new HashMap<>();
+        private final TimingWheel<Expiring> wheel;
+
+        private Stripe(TimingWheel<Expiring> wheel) {
+            this.wheel = wheel;
+        }
+
+        private void ensureCapacity(String email) {
+            if (sessions.size() >= stripeCapacity && !sessions.containsKey(email)) {
+                throw new DataAccessResourceFailureException("本節點 OTP 快取已滿");
+            }
+        }
+
+        private Session activeSession(String email, long now) {
+            Session session = sessions.get(email);
+            if (session != null && session.expiresAt <= now) {
+                sessions.remove(email);
+                return null;
+            }
+            return session;
+        }
+
+        private void put(Session session) {
+            sessions.put(session.email, session);
+            wheel.schedule(session, session.expiresAt);
+            notifyChanged(session);
+        }
+
+        private void remove(Session session) {
+            sessions.remove(session.email, session);
+            publish(session, Change.CONSUMED);
+        }
+
+        private void notifyChanged(Session session) {
+            publish(session, Change.UPDATED);
+        }
+
+        private void publish(Session session, Change change) {
+            if (listener != null) {
+                listener.onChange(session.snapshot(), change);
+            }
+        }
+
+        /**
+         * 只刪除仍是目前項目且確實已到期的會話或額度
+         */
+        private void expire(Expiring expiring, long now) {
+            if (expiring.expiresAt > now) {
+                wheel.schedule(expiring, expiring.expiresAt);
+                return;
+            }
+            if (expiring instanceof Session session) {
+                sessions.remove(session.email, session);
+            } else if (expiring instanceof Quota quota) {
+                quotas.remove(quota.email, quota);
+            }
+        }
+    }
+
+    private abstract static class Expiring {
+
+        final String email;
+        final long expiresAt;
+
+        Expiring(String email, long expiresAt) {
+            this.email = email;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Session extends Expiring {
+
+        private final Long userId;
+        private final String otp;
+        private final long createdAt;
+        private int attempts;
+
+        private Session(String email, Long userId, String otp, long createdAt, long expiresAt) {
+            super(email, expiresAt);
+            this.userId = userId;
+            this.otp = otp;
+            this.createdAt = createdAt;
+        }
+
+        private OtpSessionSnapshot snapshot() {
+            return new OtpSessionSnapshot(email, userId, otp, attempts, createdAt, expiresAt);
+        }
+    }
+
+    private static final class Quota extends Expiring {
+
+        private int issued;
+
+        private Quota(String email, long expiresAt) {
+            super(email, expiresAt);
+        }
+    }
+}
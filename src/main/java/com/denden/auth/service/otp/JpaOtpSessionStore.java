@@ -0,0 +1,143 @@
+package com.denden.auth.service.otp;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.model.OtpIssueResult;
+import com.denden.auth.repository.OtpSessionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+
+/**
+ * 資料庫 OTP 會話儲存（otp_sessions）
+ *
+ * <p>作為 Redis 無法使用時的備援，或以 app.security.otp.store=jpa 單獨使用。
+ * 不限制發送額度。</p>
+ *
+ * <p>每個 email 一列：寫入為一個 INSERT ... ON CONFLICT DO UPDATE；驗證與 Redis 腳本相同，
+ * 先以 UPDATE ... RETURNING 遞增次數並取得 OTP 再比對，並行的猜測由列鎖排序，總比對次數不超過上限。
+ * 驗證成功或用完次數的會話標記為已使用，到期後由清理排程刪除。</p>
+ *
+ * <p>{@link DegradedOtpSessionStore} 寫回的會話帶有節點 ID，由該節點的快取負責驗證，本類別的 {@link #verify}
+ * 不處理這些會話，同一個會話不會同時在兩處計算次數。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class JpaOtpSessionStore implements OtpSessionStore {
+
+    private final OtpSessionRepository otpSessionRepository;
+    private final SecurityProperties securityProperties;
+
+    @Override
+    @Transactional
+    public OtpIssueResult issue(String email, Long userId, String otp, boolean reissue) {
+        if (reissue && !hasActiveSession(email)) {
+            return new OtpIssueResult(OtpIssueResult.Status.NO_ACTIVE_SESSION, 0);
+        }
+        save(email, userId, otp);
+        return new OtpIssueResult(OtpIssueResult.Status.ISSUED, 0);
+    }
+
+    @Override
+    @Transactional
+    public void save(String email, Long userId, String otp) {
+        LocalDateTime now = LocalDateTime.now();
+        otpSessionRepository.upsert(email, userId, otp, 0, now,
+                now.plusSeconds(securityProperties.getOtp().getExpirationSeconds()));
+    }
+
+    @Override
+    @Transactional
+    public OtpVerification verify(String email, String otp) {
+        OtpSessionRepository.OtpAttempt attempt = otpSessionRepository
+                .incrementAttempts(email, LocalDateTime.now())
+                .orElse(null);
+
+        if (attempt == null) {
+            return OtpVerification.of(OtpVerifyResult.NOT_FOUND);
+        }
+
+        int maxAttempts = securityProperties.getOtp().getMaxAttempts();
+        if (attempt.getAttempts() > maxAttempts) {
+            otpSessionRepository.markUsed(email);
+            return OtpVerification.of(OtpVerifyResult.EXHAUSTED);
+        }
+
+        if (otp != null && MessageDigest.isEqual(
+                otp.getBytes(StandardCharsets.UTF_8), attempt.getOtp().getBytes(StandardCharsets.UTF_8))) {
+            otpSessionRepository.markUsed(email);
+            return OtpVerification.verified(attempt.getUserId());
+        }
+
+        if (attempt.getAttempts() == maxAttempts) {
+            otpSessionRepository.markUsed(email);
+        }
+        return OtpVerification.of(OtpVerifyResult.MISMATCH);
+    }
+
+    /**
+     * 以一個交易寫回節點快取中的一批會話變更
+     *
+     * @param owner    節點 ID
+     * @param changed  寫入或驗證失敗的會話，驗證次數不低於資料庫中的次數
+     * @param consumed 已驗證或用完次數的會話，標記為已使用
+     * @param drained  已搬移到 Redis 的會話，刪除該節點持有的副本
+     */
+    @Transactional
+    public void writeAll(String owner, Collection<OtpSessionSnapshot> changed,
+                         Collection<OtpSessionSnapshot> consumed, Collection<OtpSessionSnapshot> drained) {
+        for (OtpSessionSnapshot session : changed) {
+            otpSessionRepository.merge(session.email(), session.userId(), session.otp(), session.attempts(),
+                    toLocalDateTime(session.createdAtMillis()), toLocalDateTime(session.expiresAtMillis()), owner);
+        }
+        for (OtpSessionSnapshot session : consumed) {
+            otpSessionRepository.markUsed(session.email(), toLocalDateTime(session.createdAtMillis()),
+                    session.attempts());
+        }
+        for (OtpSessionSnapshot session : drained) {
+            otpSessionRepository.deleteOwned(session.email(), toLocalDateTime(session.createdAtMillis()), owner);
+        }
+    }
+
+    /**
+     * 確認節點快取中驗證成功的會話仍是該 email 目前且未使用的會話，並標記為已使用
+     *
+     * @param owner   節點 ID
+     * @param session 驗證後的會話快照
+     * @return false 表示資料庫中已有較新的會話，或此會話已在其他地方使用
+     */
+    @Transactional
+    public boolean claim(String owner, OtpSessionSnapshot session) {
+        return otpSessionRepository.claim(session.email(), session.userId(), session.otp(), session.attempts(),
+                toLocalDateTime(session.createdAtMillis()), toLocalDateTime(session.expiresAtMillis()), owner) > 0;
+    }
+
+    /**
+     * 釋放節點持有的會話，之後由任何節點以資料庫驗證
+     *
+     * @return 釋放的會話數
+     */
+    @Transactional
+    public int release(String owner) {
+        return otpSessionRepository.releaseOwner(owner);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasActiveSession(String email) {
+        return otpSessionRepository.existsByEmailAndUsedFalseAndExpiresAtAfter(email, LocalDateTime.now());
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
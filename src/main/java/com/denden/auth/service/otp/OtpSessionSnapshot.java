@@ -0,0 +1,23 @@
+package com.denden.auth.service.otp;
+
+/**
+ * OTP 會話快照，用於在儲存之間搬移會話（寫回資料庫、回補 Redis）
+ *
+ * @param email           使用者 Email
+ * @param userId          使用者 ID，可為 null
+ * @param otp             OTP 驗證碼
+ * @param attempts        已驗證次數
+ * @param createdAtMillis 建立時間（epoch 毫秒）
+ * @param expiresAtMillis 到期時間（epoch 毫秒）
+ * @author Timmy
+ * @since 1.1.0
+ */
+public record OtpSessionSnapshot(
+        String email,
+        Long userId,
+        String otp,
+        int attempts,
+        long createdAtMillis,
+        long expiresAtMillis
+) {
+}
@@ -0,0 +1,82 @@
+package com.denden.auth.service.otp;
+
+import com.denden.auth.model.OtpIssueResult;
+
+/**
+ * OTP 會話儲存 SPI
+ *
+ * <p>實作以 app.security.otp.store 選擇：</p>
+ * <ul>
+ *   <li>redis（預設）：{@link RedisOtpSessionStore}，各節點共用；Redis 無法使用時改用 {@link DegradedOtpSessionStore}</li>
+ *   <li>jpa：{@link JpaOtpSessionStore}，只使用資料庫</li>
+ *   <li>memory：{@link InMemoryOtpSessionStore}，存在本節點記憶體，無網路往返；適用單節點、邊緣部署與壓力測試</li>
+ * </ul>
+ *
+ * <p>每個 email 同時最多一個會話；驗證、遞增次數與刪除對同一個 email 必須是原子的，
+ * 並行的錯誤猜測不能超過驗證次數上限。</p>
+ *
+ * <p>會話記錄登入時的使用者 ID，驗證成功時一併返回，第二階段登入不需要再查詢使用者；
+ * 寫入時 userId 為 null（重新發送）則保留既有會話的使用者 ID。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public interface OtpSessionStore {
+
+    /**
+     * 檢查發送額度後寫入會話（取代既有會話）
+     *
+     * @param email   使用者 Email
+     * @param userId  使用者 ID；null 表示保留既有會話的使用者 ID
+     * @param otp     OTP 驗證碼
+     * @param reissue 是否為重新發送（會話必須仍存在）
+     * @return 發送結果；{@link #checksAccountLock()} 為 false 的實作不會返回 ACCOUNT_LOCKED
+     * @throws org.springframework.dao.DataAccessException 當儲存無法使用時
+     */
+    OtpIssueResult issue(String email, Long userId, String otp, boolean reissue);
+
+    /**
+     * 寫入會話（取代既有會話），不檢查額度
+     *
+     * @throws org.springframework.dao.DataAccessException 當儲存無法使用時
+     */
+    void save(String email, Long userId, String otp);
+
+    /**
+     * 驗證 OTP：遞增次數、比對，成功或用完次數時刪除會話
+     *
+     * @throws org.springframework.dao.DataAccessException 當儲存無法使用時
+     */
+    OtpVerification verify(String email, String otp);
+
+    /**
+     * 帶會話提示的驗證；提示由 {@link #sessionHint} 簽發，不使用提示的實作直接驗證
+     *
+     * @param sessionHint 登入時取得的會話提示，可為 null
+     * @throws org.springframework.dao.DataAccessException 當儲存無法使用時
+     */
+    default OtpVerification verify(String email, String otp, String sessionHint) {
+        return verify(email, otp);
+    }
+
+    /**
+     * 是否有未過期的會話
+     *
+     * @throws org.springframework.dao.DataAccessException 當儲存無法使用時
+     */
+    boolean hasActiveSession(String email);
+
+    /**
+     * 會話只存在本節點時，返回讓後續驗證回到本節點的簽章提示；否則返回 null
+     */
+    default String sessionHint(String email) {
+        return null;
+    }
+
+    /**
+     * {@link #issue} 是否在同一個原子操作中檢查帳號鎖定；為 false 時由呼叫端先行檢查
+     */
+    default boolean checksAccountLock() {
+        return false;
+    }
+}
@@ -0,0 +1,24 @@
+package com.denden.auth.service.otp;
+
+/**
+ * OTP 驗證結果與會話中的使用者 ID
+ *
+ * @param result 驗證結果
+ * @param userId 驗證成功時為登入時寫入會話的使用者 ID；其他結果或舊會話沒有記錄時為 null
+ * @author Timmy
+ * @since 1.1.0
+ */
+public record OtpVerification(OtpVerifyResult result, Long userId) {
+
+    public static OtpVerification of(OtpVerifyResult result) {
+        return new OtpVerification(result, null);
+    }
+
+    public static OtpVerification verified(Long userId) {
+        return new OtpVerification(OtpVerifyResult.VERIFIED, userId);
+    }
+
+    public boolean isVerified() {
+        return result == OtpVerifyResult.VERIFIED;
+    }
+}
@@ -0,0 +1,30 @@
+package com.denden.auth.service.otp;
+
+/**
+ * OTP 驗證結果
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public enum OtpVerifyResult {
+
+    /**
+     * 會話不存在或已過期
+     */
+    NOT_FOUND,
+
+    /**
+     * 驗證成功，會話已刪除
+     */
+    VERIFIED,
+
+    /**
+     * OTP 不符
+     */
+    MISMATCH,
+
+    /**
+     * 已超過驗證次數，會話已刪除
+     */
+    EXHAUSTED
+}
@@ -0,0 +1,174 @@
+package com.denden.auth.service.otp;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.model.OtpIssueResult;
+import com.denden.auth.service.lockout.AccountLockoutService;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis OTP 會話儲存
+ *
+ * <p>會話為 hash（otp、attempts、created_at、user_id），key 以 email 作為 hash tag，與帳號鎖定、發送額度位於同一個 slot。
+ * 發送（檢查鎖定與額度後寫入）與驗證（遞增次數、比對、刪除）各為一個 Lua 腳本，每次操作一次往返。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisOtpSessionStore implements OtpSessionStore {
+
+    private static final String OTP_EMAIL_KEY_PREFIX = "otp:email:";
+    private static final String OTP_QUOTA_KEY_PREFIX = "otp_quota:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ISSUE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/otp_issue.lua"), List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> VERIFY_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/otp_verify.lua"), List.class);
+    private static final RedisScript<Long> RESTORE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/otp_restore.lua"), Long.class);
+
+    private static final String FIELD_OTP = "otp";
+    private static final String FIELD_ATTEMPTS = "attempts";
+    private static final String FIELD_CREATED_AT = "created_at";
+    private static final String FIELD_USER_ID = "user_id";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final SecurityProperties securityProperties;
+
+    @Override
+    public OtpIssueResult issue(String email, Long userId, String otp, boolean reissue) {
+        SecurityProperties.Otp config = securityProperties.getOtp();
+        List<?> result = redisCircuitBreaker.execute(() -> redisTemplate.execute(ISSUE_SCRIPT,
+                List.of(AccountLockoutService.lockKey(email), quotaKey(email), otpKey(email)),
+                otp,
+                Long.toString(System.currentTimeMillis()),
+                Long.toString(TimeUnit.SECONDS.toMillis(config.getExpirationSeconds())),
+                Integer.toString(config.getMaxIssuesPerWindow()),
+                Long.toString(TimeUnit.SECONDS.toMillis(config.getIssueWindowSeconds())),
+                reissue ? "1" : "0",
+                userId != null ? userId.toString() : ""));
+
+        if (result == null || result.size() < 2) {
+            throw new IllegalStateException("OTP 發送腳本返回格式錯誤: " + result);
+        }
+
+        OtpIssueResult.Status status = switch ((int) toLong(result.get(0))) {
+            case 0 -> OtpIssueResult.Status.ISSUED;
+            case 1 -> OtpIssueResult.Status.ACCOUNT_LOCKED;
+            case 2 -> OtpIssueResult.Status.QUOTA_EXCEEDED;
+            case 3 -> OtpIssueResult.Status.NO_ACTIVE_SESSION;
+            default -> throw new IllegalStateException("OTP 發送腳本返回未知狀態: " + result);
+        };
+        return new OtpIssueResult(status, toLong(result.get(1)));
+    }
+
+    /**
+     * userId 為 null 時不刪除舊會話，只覆寫 otp、attempts 與 created_at，保留既有的 user_id
+     */
+    @Override
+    public void save(String email, Long userId, String otp) {
+        String redisKey = otpKey(email);
+        long expirationSeconds = securityProperties.getOtp().getExpirationSeconds();
+        Map<String, String> fields = new HashMap<>();
+        fields.put(FIELD_OTP, otp);
+        fields.put(FIELD_ATTEMPTS, "0");
+        fields.put(FIELD_CREATED_AT, Long.toString(System.currentTimeMillis()));
+        if (userId != null) {
+            fields.put(FIELD_USER_ID, userId.toString());
+        }
+
+        redisCircuitBreaker.run(() -> redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<Object> execute(RedisOperations operations) {
+                operations.multi();
+                if (userId != null) {
+                    operations.delete(redisKey);
+                }
+                operations.opsForHash().putAll(redisKey, fields);
+                operations.expire(redisKey, expirationSeconds, TimeUnit.SECONDS);
+                return operations.exec();
+            }
+        }));
+    }
+
+    @Override
+    public OtpVerification verify(String email, String otp) {
+        List<?> result = redisCircuitBreaker.execute(() -> redisTemplate.execute(VERIFY_SCRIPT,
+                List.of(otpKey(email)), otp != null ? otp : "",
+                Integer.toString(securityProperties.getOtp().getMaxAttempts())));
+
+        if (result == null || result.isEmpty()) {
+            throw new IllegalStateException("OTP 驗證腳本返回格式錯誤: " + result);
+        }
+        return switch ((int) toLong(result.get(0))) {
+            case 0 -> OtpVerification.of(OtpVerifyResult.NOT_FOUND);
+            case 1 -> OtpVerification.verified(result.size() > 1 ? toUserId(result.get(1)) : null);
+            case -1 -> OtpVerification.of(OtpVerifyResult.EXHAUSTED);
+            default -> OtpVerification.of(OtpVerifyResult.MISMATCH);
+        };
+    }
+
+    @Override
+    public boolean hasActiveSession(String email) {
+        return Boolean.TRUE.equals(redisCircuitBreaker.execute(() -> redisTemplate.hasKey(otpKey(email))));
+    }
+
+    /**
+     * 寫回降級期間的會話，保留已驗證次數與剩餘有效期限；Redis 已有該 email 的會話時不覆蓋
+     *
+     * @return false 表示 Redis 已有較新的會話或快照已過期
+     * @throws org.springframework.dao.DataAccessException 當 Redis 無法使用時
+     */
+    public boolean restore(OtpSessionSnapshot session) {
+        long ttlMillis = session.expiresAtMillis() - System.currentTimeMillis();
+        if (ttlMillis <= 0) {
+            return false;
+        }
+        Long result = redisCircuitBreaker.execute(() -> redisTemplate.execute(RESTORE_SCRIPT,
+                List.of(otpKey(session.email())),
+                session.otp(),
+                Integer.toString(session.attempts()),
+                Long.toString(session.createdAtMillis()),
+                Long.toString(ttlMillis),
+                session.userId() != null ? session.userId().toString() : ""));
+        return result != null && result == 1;
+    }
+
+    @Override
+    public boolean checksAccountLock() {
+        return true;
+    }
+
+    private static String otpKey(String email) {
+        return OTP_EMAIL_KEY_PREFIX + "{" + email + "}";
+    }
+
+    private static String quotaKey(String email) {
+        return OTP_QUOTA_KEY_PREFIX + "{" + email + "}";
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+    }
+
+    private static Long toUserId(Object value) {
+        return value == null || value.toString().isEmpty() ? null : toLong(value);
+    }
+}
@@ -0,0 +1,83 @@
+package com.denden.auth.service.otp;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OTP 會話提示的簽章
+ *
+ * <p>提示格式為 {@code <到期秒數(36 進位)>.<HMAC-SHA256(email|到期秒數)>}。金鑰在每個行程啟動時隨機產生且不外流，
+ * 簽章有效即代表提示由本行程發出，不需另外攜帶節點識別；其他節點或重新啟動後的行程一律視為無效。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+final class SessionHintSigner {
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ThreadLocal<Mac> mac;
+
+    SessionHintSigner() {
+        SecretKey key;
+        try {
+            key = KeyGenerator.getInstance(MAC_ALGORITHM).generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("無法產生 " + MAC_ALGORITHM + " 金鑰", e);
+        }
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(MAC_ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("無法初始化 " + MAC_ALGORITHM, e);
+            }
+        });
+    }
+
+    /**
+     * 為 email 簽發在 expiresAtMillis 失效的提示
+     */
+    String sign(String email, long expiresAtMillis) {
+        String expires = Long.toString(TimeUnit.MILLISECONDS.toSeconds(expiresAtMillis), Character.MAX_RADIX);
+        return expires + "." + ENCODER.encodeToString(digest(email, expires));
+    }
+
+    /**
+     * 提示是否由本行程為該 email 簽發且尚未失效
+     */
+    boolean verify(String hint, String email) {
+        if (hint == null || email == null) {
+            return false;
+        }
+        int dot = hint.indexOf('.');
+        if (dot <= 0) {
+            return false;
+        }
+
+        String expires = hint.substring(0, dot);
+        byte[] signature;
+        long expiresAtSeconds;
+        try {
+            expiresAtSeconds = Long.parseLong(expires, Character.MAX_RADIX);
+            signature = DECODER.decode(hint.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return TimeUnit.SECONDS.toMillis(expiresAtSeconds) > System.currentTimeMillis()
+                && MessageDigest.isEqual(signature, digest(email, expires));
+    }
+
+    private byte[] digest(String email, String expires) {
+        return mac.get().doFinal((email + "|" + expires).getBytes(StandardCharsets.UTF_8));
+    }
+}
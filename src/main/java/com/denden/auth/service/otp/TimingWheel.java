@@ -0,0 +1,111 @@
+package com.denden.auth.service.otp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 階層式時間輪
+ *
+ * <p>{@value #LEVELS} 層、每層 {@value #SLOTS} 格：第 0 層每格一個 tick，第 n 層每格 64<sup>n</sup> 個 tick。
+ * 排程依剩餘 tick 數放入對應層的格子，為 O(1)；時間推進到高層格子的起點時，將該格的項目
+ * 重新放入較低層（cascade），每個項目最多移動 {@value #LEVELS} - 1 次。
+ * tick 為 100 毫秒時，前三層涵蓋約 7 小時，更遠的到期時間放在最高層並在 cascade 時重新放回。</p>
+ *
+ * <p>不支援取消：項目到期時由呼叫端確認是否仍有效。非執行緒安全，由呼叫端加鎖。</p>
+ *
+ * @param <T> 項目型別
+ * @author Timmy
+ * @since 1.1.0
+ */
+final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final List<List<Timeout<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private long currentTick;
+
+    /**
+     * @param tickMillis  每個 tick 的毫秒數
+     * @param startMillis 起始時間（tick 0）
+     */
+    TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis 必須大於 0");
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * 排程項目在 deadlineMillis 之後到期（已過期的項目於下一個 tick 到期）
+     */
+    void schedule(T item, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis);
+        place(new Timeout<>(item, Math.max(deadlineTick, currentTick + 1)));
+    }
+
+    /**
+     * 推進到 nowMillis，依序交出到期的項目
+     */
+    void advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            for (Timeout<T> timeout : drain(0, (int) (currentTick & SLOT_MASK))) {
+                expired.accept(timeout.item);
+            }
+        }
+    }
+
+    /**
+     * 到達高層格子的起點時，由高至低將該格的項目重新放入較低層
+     */
+    private void cascade() {
+        int highest = 0;
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                break;
+            }
+            highest = level;
+        }
+        for (int level = highest; level >= 1; level--) {
+            int slot = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            for (Timeout<T> timeout : drain(level, slot)) {
+                place(timeout);
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long remaining = timeout.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && remaining >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((timeout.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        slots.get(level * SLOTS + slot).add(timeout);
+    }
+
+    private List<Timeout<T>> drain(int level, int slot) {
+        int index = level * SLOTS + slot;
+        List<Timeout<T>> drained = slots.get(index);
+        if (drained.isEmpty()) {
+            return drained;
+        }
+        slots.set(index, new ArrayList<>());
+        return drained;
+    }
+
+    private record Timeout<T>(T item, long deadlineTick) {
+    }
+}
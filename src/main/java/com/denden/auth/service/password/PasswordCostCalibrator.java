@@ -0,0 +1,113 @@
+package com.denden.auth.service.password;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+/**
+ * 密碼雜湊成本校準
+ *
+ * <p>啟動時在目前硬體上實測雜湊耗時，選出不超過目標耗時的最大成本參數，
+ * 讓每次登入的 CPU 預算隨節點規格調整，而不需修改已儲存的雜湊。
+ * 每個量測先預熱再取多次中的最小值，降低 JIT 與排程雜訊。</p>
+ *
+ * <p>結果只會往上調整：校準值低於下限時使用下限，不會因為機器較慢而降低安全性。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public final class PasswordCostCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "Calibration@2024";
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 3;
+
+    /**
+     * OWASP 建議的 Argon2id 最低迭代次數（memory 19 MiB 時）
+     */
+    public static final int MIN_ARGON2_ITERATIONS = 2;
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int PBKDF2_SALT_LENGTH = 16;
+    private static final int PBKDF2_SAMPLE_ITERATIONS = 50000;
+
+    private PasswordCostCalibrator() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * BCrypt 成本：每加 1 耗時加倍，以最低成本的實測耗時推算
+     *
+     * @param targetMillis 目標耗時（毫秒）
+     * @param minStrength  下限
+     * @param maxStrength  上限
+     * @return 成本參數
+     */
+    public static int bcryptStrength(long targetMillis, int minStrength, int maxStrength) {
+        double millis = measureMillis(new BCryptPasswordEncoder(minStrength));
+        int strength = minStrength;
+        while (strength < maxStrength && millis * 2 <= targetMillis) {
+            strength++;
+            millis *= 2;
+        }
+        return strength;
+    }
+
+    /**
+     * PBKDF2-HMAC-SHA256 迭代次數：耗時與迭代次數成正比，取整到千
+     *
+     * @param targetMillis  目標耗時（毫秒）
+     * @param minIterations 下限
+     * @return 迭代次數
+     */
+    public static int pbkdf2Iterations(long targetMillis, int minIterations) {
+        double millis = measureMillis(pbkdf2(PBKDF2_SAMPLE_ITERATIONS));
+        long iterations = (long) (PBKDF2_SAMPLE_ITERATIONS * targetMillis / Math.max(millis, 0.001));
+        iterations = iterations / 1000 * 1000;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(minIterations, iterations));
+    }
+
+    /**
+     * Argon2id 迭代次數：固定記憶體與平行度，耗時與迭代次數成正比
+     *
+     * @param targetMillis 目標耗時（毫秒）
+     * @param memoryKib    記憶體（KiB）
+     * @param parallelism  平行度
+     * @return 迭代次數
+     */
+    public static int argon2Iterations(long targetMillis, int memoryKib, int parallelism) {
+        double millis = measureMillis(argon2(memoryKib, 1, parallelism));
+        int iterations = (int) Math.min(100, targetMillis / Math.max(millis, 0.001));
+        return Math.max(MIN_ARGON2_ITERATIONS, iterations);
+    }
+
+    /**
+     * PBKDF2-HMAC-SHA256 編碼器（16 bytes salt，無 pepper）
+     */
+    public static Pbkdf2PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", PBKDF2_SALT_LENGTH, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    /**
+     * Argon2id 編碼器（16 bytes salt、32 bytes 雜湊）
+     */
+    public static Argon2PasswordEncoder argon2(int memoryKib, int iterations, int parallelism) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, parallelism, memoryKib, iterations);
+    }
+
+    private static double measureMillis(PasswordEncoder encoder) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            encoder.encode(SAMPLE_PASSWORD);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000.0;
+    }
+}
@@ -0,0 +1,201 @@
+package com.denden.auth.service.password;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.exception.ErrorCode;
+import com.denden.auth.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 有界的密碼雜湊執行器
+ *
+ * <p>BCrypt 每次約耗時數十毫秒的 CPU，直接在 Tomcat 請求執行緒上執行時，登入尖峰會佔滿所有請求執行緒，
+ * 連 /users/me 這類輕量端點也無法服務。此類別將雜湊移到固定大小（預設 CPU 核心數）的執行緒池：</p>
+ * <ul>
+ *   <li>等待佇列有上限，已滿時立即拋出 {@link ServiceOverloadedException}（HTTP 503 + Retry-After）</li>
+ *   <li>在佇列中等待超過 max-queue-wait-ms 的工作不再執行（客戶端多半已逾時），同樣回傳 503</li>
+ *   <li>同時等待雜湊的請求執行緒最多為執行緒數 + 佇列長度，其餘請求執行緒不受登入尖峰影響</li>
+ * </ul>
+ *
+ * <p>指標：password_hash.queue_wait、password_hash.duration（Timer，依 operation 區分）、
+ * password_hash.rejected（依 reason 區分 queue_full / deadline）、password_hash.queue.size、password_hash.active。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Slf4j
+@Component
+public class PasswordHasher implements DisposableBean {
+
+    private static final String OPERATION_ENCODE = "encode";
+    private static final String OPERATION_MATCHES = "matches";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long maxQueueWaitNanos;
+    private final long retryAfterSeconds;
+    private final OperationMetrics encodeMetrics;
+    private final OperationMetrics matchesMetrics;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          SecurityProperties securityProperties,
+                          MeterRegistry meterRegistry) {
+        SecurityProperties.PasswordHashing config = securityProperties.getPasswordHashing();
+        int threads = config.getThreads() > 0 ? config.getThreads() : Runtime.getRuntime().availableProcessors();
+
+        this.passwordEncoder = passwordEncoder;
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(config.getMaxQueueWaitMs());
+        this.retryAfterSeconds = config.getRetryAfterSeconds();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+
+        this.encodeMetrics = new OperationMetrics(OPERATION_ENCODE, meterRegistry);
+        this.matchesMetrics = new OperationMetrics(OPERATION_MATCHES, meterRegistry);
+        Gauge.builder("password_hash.queue.size", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("password_hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+
+        log.info("密碼雜湊執行緒池已建立，執行緒數: {}, 佇列上限: {}", threads, config.getQueueCapacity());
+    }
+
+    /**
+     * 雜湊密碼
+     *
+     * @param rawPassword 明文密碼
+     * @return 雜湊值
+     * @throws ServiceOverloadedException 當佇列已滿或等待逾時
+     */
+    public String encode(CharSequence rawPassword) {
+        return execute(encodeMetrics, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * 驗證密碼
+     *
+     * @param rawPassword     明文密碼
+     * @param encodedPassword 雜湊值
+     * @return 是否相符
+     * @throws ServiceOverloadedException 當佇列已滿或等待逾時
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(matchesMetrics, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 雜湊值是否應以目前的演算法與成本重新雜湊（只檢查前綴與參數，不執行雜湊）
+     *
+     * @param encodedPassword 雜湊值
+     * @return true 表示應重新雜湊
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(OperationMetrics metrics, Callable<T> hashing) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                long waited = startedAt - enqueuedAt;
+                metrics.queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxQueueWaitNanos) {
+                    throw new QueueDeadlineExceededException();
+                }
+                try {
+                    return hashing.call();
+                } finally {
+                    metrics.duration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            metrics.queueFull.increment();
+            throw new ServiceOverloadedException(ErrorCode.PASSWORD_HASHING_OVERLOADED, retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待密碼雜湊時被中斷", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof QueueDeadlineExceededException) {
+                metrics.deadline.increment();
+                throw new ServiceOverloadedException(ErrorCode.PASSWORD_HASHING_OVERLOADED, retryAfterSeconds);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("密碼雜湊失敗", cause);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 單一操作的指標
+     */
+    private static final class OperationMetrics {
+
+        private final Timer queueWait;
+        private final Timer duration;
+        private final Counter queueFull;
+        private final Counter deadline;
+
+        private OperationMetrics(String operation, MeterRegistry meterRegistry) {
+            this.queueWait = Timer.builder("password_hash.queue_wait")
+                    .tag("operation", operation)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            this.duration = Timer.builder("password_hash.duration")
+                    .tag("operation", operation)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            this.queueFull = Counter.builder("password_hash.rejected")
+                    .tag("operation", operation)
+                    .tag("reason", "queue_full")
+                    .register(meterRegistry);
+            this.deadline = Counter.builder("password_hash.rejected")
+                    .tag("operation", operation)
+                    .tag("reason", "deadline")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 工作在佇列中等待過久，不再執行雜湊
+     */
+    private static final class QueueDeadlineExceededException extends RuntimeException {
+
+        private QueueDeadlineExceededException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.denden.auth.service.ratelimit;
+
+import com.denden.auth.config.SecurityProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 本地 + Redis 雙層限流器
+ *
+ * <p>每個限流 key 在本地維護一個租借額度桶，額度以批次從 Redis GCRA 租借：</p>
+ * <ul>
+ *   <li>本地仍有租借額度時以 CAS 扣減，不需 Redis 往返</li>
+ *   <li>額度用盡時由單一執行緒向 Redis 補充，其他執行緒在補充期間直接走 Redis 單次判定</li>
+ *   <li>Redis 判定無額度時，本地記錄封鎖到期時間，期間內的請求直接拒絕</li>
+ *   <li>租出的額度在 Redis 端即視為已使用，全域上限在 N 個節點下仍成立；
+ *       租約到期未用完的額度會被丟棄（只會少放行、不會多放行），並計入偏差指標</li>
+ * </ul>
+ *
+ * <p>批次大小為 limit × lease-fraction（上限 max-lease-size），
+ * 額度很小的 key（例如登入端點）批次為 1，仍逐次向 Redis 判定，只有封鎖狀態在本地快取。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Slf4j
+@Component
+public class LeasedRateLimiter {
+
+    private final RedisRateLimiter redisRateLimiter;
+    private final SecurityProperties.LocalRateLimit config;
+    private final Map<String, LocalBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * 已租借但尚未在本地使用的額度總數，即本地與全域計數的偏差
+     */
+    private final LongAdder outstandingTokens = new LongAdder();
+
+    private final Counter localAllowed;
+    private final Counter localDenied;
+    private final Counter refillsGranted;
+    private final Counter refillsDenied;
+    private final Counter leasedTokens;
+    private final Counter expiredTokens;
+
+    public LeasedRateLimiter(RedisRateLimiter redisRateLimiter,
+                             SecurityProperties securityProperties,
+                             MeterRegistry meterRegistry) {
+        this.redisRateLimiter = redisRateLimiter;
+        this.config = securityProperties.getRateLimit().getLocal();
+
+        this.localAllowed = Counter.builder("rate_limit.local.decisions")
+                .tag("result", "allowed")
+                .register(meterRegistry);
+        this.localDenied = Counter.builder("rate_limit.local.decisions")
+                .tag("result", "denied")
+                .register(meterRegistry);
+        this.refillsGranted = Counter.builder("rate_limit.lease.refills")
+                .tag("result", "granted")
+                .register(meterRegistry);
+        this.refillsDenied = Counter.builder("rate_limit.lease.refills")
+                .tag("result", "denied")
+                .register(meterRegistry);
+        this.leasedTokens = Counter.builder("rate_limit.lease.tokens")
+                .tag("state", "leased")
+                .register(meterRegistry);
+        this.expiredTokens = Counter.builder("rate_limit.lease.tokens")
+                .tag("state", "expired")
+                .register(meterRegistry);
+        Gauge.builder("rate_limit.lease.tokens.outstanding", outstandingTokens, LongAdder::sum)
+                .register(meterRegistry);
+        Gauge.builder("rate_limit.local.buckets", buckets, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 嘗試取得一次請求額度
+     *
+     * @param key           限流 key
+     * @param limit         週期內允許的請求數
+     * @param windowSeconds 週期長度（秒）
+     * @return 判定結果；本地放行時 remaining 為近似值
+     * @throws org.springframework.dao.DataAccessException 當需要向 Redis 補充額度且 Redis 操作失敗時
+     */
+    public RateLimitDecision tryAcquire(String key, int limit, int windowSeconds) {
+        if (!config.isEnabled()) {
+            return redisRateLimiter.tryAcquire(key, limit, windowSeconds);
+        }
+
+        long now = System.currentTimeMillis();
+        LocalBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= config.getMaxKeys()) {
+                return redisRateLimiter.tryAcquire(key, limit, windowSeconds);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new LocalBucket());
+        }
+
+        long blockedUntil = bucket.blockedUntil;
+        if (now < blockedUntil) {
+            localDenied.increment();
+            return new RateLimitDecision(false, limit, 0, blockedUntil - now, Math.max(0, bucket.resetAt - now));
+        }
+
+        if (now < bucket.leaseExpiresAt) {
+            long left = bucket.take();
+            if (left >= 0) {
+                outstandingTokens.decrement();
+                localAllowed.increment();
+                return new RateLimitDecision(true, limit, left + bucket.globalRemaining, 0,
+                        Math.max(0, bucket.resetAt - now));
+            }
+        }
+
+        if (!bucket.refilling.compareAndSet(false, true)) {
+            return redisRateLimiter.tryAcquire(key, limit, windowSeconds);
+        }
+        try {
+            return refill(key, bucket, limit, windowSeconds, now);
+        } finally {
+            bucket.refilling.set(false);
+        }
+    }
+
+    private RateLimitDecision refill(String key, LocalBucket bucket, int limit, int windowSeconds, long now) {
+        discardLeftover(bucket);
+
+        RateLimitLease lease = redisRateLimiter.lease(key, limit, windowSeconds, leaseSize(limit));
+        bucket.globalRemaining = lease.remaining();
+        bucket.resetAt = now + lease.resetAfterMillis();
+
+        if (lease.granted() == 0) {
+            bucket.blockedUntil = now + lease.retryAfterMillis();
+            refillsDenied.increment();
+            return new RateLimitDecision(false, limit, 0, lease.retryAfterMillis(), lease.resetAfterMillis());
+        }
+
+        long localTokens = lease.granted() - 1;
+        bucket.tokens.set(localTokens);
+        bucket.leaseExpiresAt = now + config.getLeaseTtlMs();
+
+        refillsGranted.increment();
+        leasedTokens.increment(lease.granted());
+        outstandingTokens.add(localTokens);
+
+        return new RateLimitDecision(true, limit, localTokens + lease.remaining(), 0, lease.resetAfterMillis());
+    }
+
+    /**
+     * 清除閒置的本地額度桶，租約到期未用完的額度計入偏差指標
+     */
+    @Scheduled(fixedDelayString = "${app.security.rate-limit.local.cleanup-interval-ms:10000}")
+    public void evictIdleBuckets() {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+
+        for (Map.Entry<String, LocalBucket> entry : buckets.entrySet()) {
+            LocalBucket bucket = entry.getValue();
+            if (now >= bucket.leaseExpiresAt && now >= bucket.blockedUntil && !bucket.refilling.get()
+                    && buckets.remove(entry.getKey(), bucket)) {
+                discardLeftover(bucket);
+                evicted++;
+            }
+        }
+
+        if (evicted > 0) {
+            log.debug("清除閒置的本地限流桶: {}，剩餘: {}", evicted, buckets.size());
+        }
+    }
+
+    private void discardLeftover(LocalBucket bucket) {
+        long leftover = bucket.tokens.getAndSet(0);
+        if (leftover > 0) {
+            outstandingTokens.add(-leftover);
+            expiredTokens.increment(leftover);
+        }
+    }
+
+    private int leaseSize(int limit) {
+        int size = (int) Math.ceil(limit * config.getLeaseFraction());
+        return Math.max(1, Math.min(size, config.getMaxLeaseSize()));
+    }
+
+    /**
+     * 單一 key 的本地額度桶
+     */
+    private static final class LocalBucket {
+
+        private final AtomicLong tokens = new AtomicLong();
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        private volatile long leaseExpiresAt;
+        private volatile long blockedUntil;
+        private volatile long globalRemaining;
+        private volatile long resetAt;
+
+        /**
+         * 扣減一個本地額度
+         *
+         * @return 扣減後剩餘的本地額度；無額度時返回 -1
+         */
+        private long take() {
+            long current;
+            while ((current = tokens.get()) > 0) {
+                if (tokens.compareAndSet(current, current - 1)) {
+                    return current - 1;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.denden.auth.service.ratelimit;
+
+/**
+ * 限流判定結果
+ *
+ * @param allowed          是否放行
+ * @param limit            週期內允許的請求數
+ * @param remaining        剩餘額度
+ * @param retryAfterMillis 被拒絕時需等待的時間（毫秒），放行時為 0
+ * @param resetAfterMillis 額度完全恢復所需時間（毫秒）
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public record RateLimitDecision(
+        boolean allowed,
+        long limit,
+        long remaining,
+        long retryAfterMillis,
+        long resetAfterMillis
+) {
+
+    /**
+     * Retry-After 標頭值（秒，無條件進位）
+     */
+    public long retryAfterSeconds() {
+        return (retryAfterMillis + 999) / 1000;
+    }
+
+    /**
+     * 額度完全恢復所需秒數（無條件進位）
+     */
+    public long resetAfterSeconds() {
+        return (resetAfterMillis + 999) / 1000;
+    }
+}
@@ -0,0 +1,20 @@
+package com.denden.auth.service.ratelimit;
+
+/**
+ * 向 Redis 租借的限流額度
+ *
+ * @param granted          取得的額度，0 表示目前無可用額度
+ * @param remaining        租借後全域剩餘額度
+ * @param retryAfterMillis 無可用額度時需等待的時間（毫秒）
+ * @param resetAfterMillis 全域額度完全恢復所需時間（毫秒）
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public record RateLimitLease(
+        long granted,
+        long remaining,
+        long retryAfterMillis,
+        long resetAfterMillis
+) {
+}
@@ -0,0 +1,83 @@
+package com.denden.auth.service.ratelimit;
+
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Redis GCRA 限流器
+ *
+ * <p>判定、扣額與 TTL 設定在同一個 Lua 腳本中原子完成，每次請求只需一次 Redis 往返，
+ * key 不會因程序中斷而遺失 TTL。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisRateLimiter {
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GCRA_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/rate_limit_gcra.lua"), List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+
+    /**
+     * 嘗試取得一次請求額度
+     *
+     * @param key           限流 key
+     * @param limit         週期內允許的請求數
+     * @param windowSeconds 週期長度（秒）
+     * @return 判定結果
+     * @throws org.springframework.dao.DataAccessException 當 Redis 操作失敗時
+     */
+    public RateLimitDecision tryAcquire(String key, int limit, int windowSeconds) {
+        RateLimitLease lease = lease(key, limit, windowSeconds, 1);
+        return new RateLimitDecision(
+                lease.granted() > 0,
+                limit,
+                lease.remaining(),
+                lease.retryAfterMillis(),
+                lease.resetAfterMillis());
+    }
+
+    /**
+     * 租借額度
+     *
+     * <p>可用額度不足時只給部分額度，租出的額度在 Redis 端即視為已使用</p>
+     *
+     * @param key           限流 key
+     * @param limit         週期內允許的請求數
+     * @param windowSeconds 週期長度（秒）
+     * @param maxTokens     最多取得的額度
+     * @return 租借結果
+     * @throws org.springframework.dao.DataAccessException 當 Redis 操作失敗時
+     */
+    public RateLimitLease lease(String key, int limit, int windowSeconds, int maxTokens) {
+        List<?> result = redisCircuitBreaker.execute(() -> stringRedisTemplate.execute(GCRA_SCRIPT, List.of(key),
+                Integer.toString(limit),
+                Long.toString(windowSeconds * 1000L),
+                Integer.toString(maxTokens)));
+
+        if (result == null || result.size() < 4) {
+            throw new IllegalStateException("限流腳本返回格式錯誤: " + result);
+        }
+
+        return new RateLimitLease(
+                toLong(result.get(0)),
+                toLong(result.get(1)),
+                toLong(result.get(2)),
+                toLong(result.get(3)));
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+    }
+}
@@ -0,0 +1,217 @@
+package com.denden.auth.service.redis;
+
+import com.denden.auth.config.RedisResilienceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Redis 斷路器
+ *
+ * <p>所有 Redis 呼叫端共用同一個斷路器，Redis 變慢或斷線時能在毫秒內改走各自的備援邏輯：</p>
+ * <ul>
+ *   <li>CLOSED：正常呼叫，連續失敗達門檻後轉為 OPEN</li>
+ *   <li>OPEN：直接拋出 {@link RedisCircuitOpenException}，不呼叫 Redis；
+ *       經過 open-duration 後由下一個呼叫（或背景探測）轉為 HALF_OPEN</li>
+ *   <li>HALF_OPEN：只放行一個探測呼叫，成功轉回 CLOSED，失敗重新 OPEN</li>
+ * </ul>
+ *
+ * <p>只有 {@link DataAccessException} 計為失敗，其他例外代表 Redis 有正常回應。
+ * 半開探測因 {@link Error} 等非預期的 Throwable 中斷時，斷路器回到 OPEN，等待下一次探測，不會卡在 HALF_OPEN。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Slf4j
+@Component
+public class RedisCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisResilienceProperties config;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    private final Counter failures;
+    private final Counter rejections;
+
+    public RedisCircuitBreaker(StringRedisTemplate redisTemplate,
+                               RedisResilienceProperties config,
+                               MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+
+        this.failures = Counter.builder("redis.circuit_breaker.calls")
+                .tag("result", "failure")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("redis.circuit_breaker.calls")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("redis.circuit_breaker.state", state, ref -> ref.get().ordinal())
+                .description("0 = CLOSED, 1 = OPEN, 2 = HALF_OPEN")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 透過斷路器執行 Redis 呼叫
+     *
+     * @param action Redis 呼叫
+     * @return 呼叫結果
+     * @throws RedisCircuitOpenException 當斷路器開啟時
+     */
+    public <T> T execute(Supplier<T> action) {
+        State permission = acquirePermission();
+        if (permission == null) {
+            rejections.increment();
+            throw new RedisCircuitOpenException();
+        }
+
+        boolean recorded = false;
+        try {
+            T result = action.get();
+            recorded = true;
+            onSuccess();
+            return result;
+        } catch (DataAccessException e) {
+            recorded = true;
+            onFailure(e);
+            throw e;
+        } catch (RuntimeException e) {
+            recorded = true;
+            onSuccess();
+            throw e;
+        } finally {
+            if (!recorded && permission == State.HALF_OPEN) {
+                transition(State.HALF_OPEN, State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * 透過斷路器執行無返回值的 Redis 呼叫
+     *
+     * @param action Redis 呼叫
+     * @throws RedisCircuitOpenException 當斷路器開啟時
+     */
+    public void run(Runnable action) {
+        execute(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    /**
+     * 斷路器最近一次開啟的時間（epoch 毫秒），從未開啟時為 0
+     */
+    public long getOpenedAt() {
+        return openedAt;
+    }
+
+    /**
+     * 背景半開探測：斷路器開啟超過 open-duration 時以 PING 探測，沒有流量時也能自動恢復
+     */
+    @Scheduled(fixedDelayString = "${app.redis.circuit-breaker.probe-interval-ms:1000}")
+    public void probe() {
+        if (state.get() != State.OPEN || System.currentTimeMillis() - openedAt < config.getOpenDurationMs()) {
+            return;
+        }
+
+        try {
+            execute(() -> redisTemplate.execute((RedisCallback<String>) connection -> connection.ping()));
+        } catch (Exception e) {
+            log.debug("Redis 半開探測失敗: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 取得呼叫許可
+     *
+     * @return 放行時的狀態（CLOSED 或 HALF_OPEN，後者表示本次為探測呼叫）；拒絕時返回 null
+     */
+    private State acquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return State.CLOSED;
+        }
+        if (current == State.OPEN && System.currentTimeMillis() - openedAt >= config.getOpenDurationMs()
+                && transition(State.OPEN, State.HALF_OPEN)) {
+            return State.HALF_OPEN;
+        }
+        return null;
+    }
+
+    private void onSuccess() {
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+        if (state.get() == State.HALF_OPEN) {
+            transition(State.HALF_OPEN, State.CLOSED);
+        }
+    }
+
+    private void onFailure(DataAccessException e) {
+        failures.increment();
+        int count = consecutiveFailures.incrementAndGet();
+
+        if (state.get() == State.HALF_OPEN) {
+            transition(State.HALF_OPEN, State.OPEN);
+        } else if (count >= config.getFailureThreshold()) {
+            if (transition(State.CLOSED, State.OPEN)) {
+                log.error("Redis 連續失敗 {} 次，開啟斷路器，{} ms 後探測，最後錯誤: {}",
+                        count, config.getOpenDurationMs(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 狀態轉換很少發生，以同步確保 openedAt 先於狀態寫入，讀到 OPEN 時必定看到對應的開啟時間
+     */
+    private synchronized boolean transition(State from, State to) {
+        if (state.get() != from) {
+            return false;
+        }
+        if (to == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+        }
+        state.set(to);
+
+        if (to == State.CLOSED) {
+            log.info("Redis 已恢復，關閉斷路器");
+        } else if (to == State.HALF_OPEN) {
+            log.info("Redis 斷路器進入半開狀態，放行探測呼叫");
+        } else if (from == State.HALF_OPEN) {
+            log.warn("Redis 半開探測失敗，斷路器重新開啟，{} ms 後再次探測", config.getOpenDurationMs());
+        }
+
+        meterRegistry.counter("redis.circuit_breaker.transitions",
+                "from", from.name(), "to", to.name()).increment();
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.denden.auth.service.redis;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Redis 斷路器健康狀態（/actuator/health 中的 redisCircuitBreaker）
+ *
+ * <p>斷路器未關閉時回報 DEGRADED：服務仍以備援邏輯運作，
+ * DEGRADED 不在預設的狀態排序中，不會拉低整體健康狀態。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisCircuitBreakerHealthIndicator implements HealthIndicator {
+
+    static final Status DEGRADED = new Status("DEGRADED", "Redis 斷路器未關閉，使用備援邏輯");
+
+    private final RedisCircuitBreaker circuitBreaker;
+
+    @Override
+    public Health health() {
+        RedisCircuitBreaker.State state = circuitBreaker.getState();
+        Health.Builder builder = state == RedisCircuitBreaker.State.CLOSED
+                ? Health.up()
+                : Health.status(DEGRADED);
+
+        builder.withDetail("state", state)
+                .withDetail("consecutiveFailures", circuitBreaker.getConsecutiveFailures());
+        if (circuitBreaker.getOpenedAt() > 0) {
+            builder.withDetail("lastOpenedAt", Instant.ofEpochMilli(circuitBreaker.getOpenedAt()));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.denden.auth.service.redis;
+
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+/**
+ * Redis 斷路器開啟時拒絕呼叫的例外
+ *
+ * <p>繼承 {@link RedisConnectionFailureException}，呼叫端既有的 Redis 連線失敗處理（備援邏輯）可直接沿用。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public class RedisCircuitOpenException extends RedisConnectionFailureException {
+
+    public RedisCircuitOpenException() {
+        super("Redis 斷路器已開啟，暫停呼叫 Redis");
+    }
+}
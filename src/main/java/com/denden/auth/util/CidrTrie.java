@@ -0,0 +1,128 @@
+package com.denden.auth.util;
+
+import java.util.Arrays;
+
+/**
+ * IPv4 / IPv6 CIDR 二元前綴樹
+ *
+ * <p>節點以平行 int / byte 陣列保存（無物件配置，快取友善），IPv4 與 IPv6 各有一個根節點。
+ * 每個 CIDR 以位元標記記錄在前綴結尾的節點上，查詢時沿位址位元往下走，
+ * 最多 32 或 128 步，即 O(前綴長度)。</p>
+ *
+ * <p>查詢結果為路徑上所有命中前綴的標記聯集，但 {@link #ALLOW} 與 {@link #DENY} 互斥，
+ * 以較長（較精確）的前綴為準，例如 deny 10.0.0.0/8 且 allow 10.1.0.0/16 時，10.1.2.3 為 allow；
+ * 同一前綴同時在兩個清單時以 deny 為準。</p>
+ *
+ * <p>建構完成後只讀，可供多執行緒並行查詢；建構期間非執行緒安全。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+public final class CidrTrie {
+
+    public static final int TRUSTED_PROXY = 1;
+    public static final int ALLOW = 1 << 1;
+    public static final int DENY = 1 << 2;
+
+    private static final int IPV4_ROOT = 0;
+    private static final int IPV6_ROOT = 1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * children[2 * node + bit]，0 表示沒有子節點（根節點不會是任何節點的子節點）
+     */
+    private int[] children = new int[INITIAL_CAPACITY * 2];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private int size = 2;
+
+    /**
+     * 加入 CIDR（例如 10.0.0.0/8、2001:db8::/32；不帶前綴長度時視為單一位址）
+     *
+     * @param cidr CIDR 字串
+     * @param flag 標記
+     * @throws IllegalArgumentException 當 CIDR 格式不正確時
+     */
+    public void insert(String cidr, int flag) {
+        String text = cidr.trim();
+        int slash = text.indexOf('/');
+        IpAddress address = IpAddress.parse(slash >= 0 ? text.substring(0, slash) : text);
+        if (address == null) {
+            throw new IllegalArgumentException("無效的 CIDR: " + cidr);
+        }
+
+        int prefixLength;
+        try {
+            prefixLength = slash >= 0 ? Integer.parseInt(text.substring(slash + 1)) : address.bitLength();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("無效的 CIDR 前綴長度: " + cidr);
+        }
+        if (prefixLength < 0 || prefixLength > address.bitLength()) {
+            throw new IllegalArgumentException("無效的 CIDR 前綴長度: " + cidr);
+        }
+
+        int node = address.ipv6() ? IPV6_ROOT : IPV4_ROOT;
+        for (int i = 0; i < prefixLength; i++) {
+            int slot = 2 * node + address.bit(i);
+            int child = children[slot];
+            if (child == 0) {
+                child = newNode();
+                children[slot] = child;
+            }
+            node = child;
+        }
+        flags[node] |= (byte) flag;
+    }
+
+    /**
+     * 查詢位址命中的標記
+     *
+     * @param address 位址，可為 null
+     * @return 標記聯集（ALLOW / DENY 以最精確的前綴為準）；未命中返回 0
+     */
+    public int lookup(IpAddress address) {
+        if (address == null) {
+            return 0;
+        }
+
+        int node = address.ipv6() ? IPV6_ROOT : IPV4_ROOT;
+        int result = flags[node];
+        int bits = address.bitLength();
+        for (int i = 0; i < bits; i++) {
+            node = children[2 * node + address.bit(i)];
+            if (node == 0) {
+                break;
+            }
+            int nodeFlags = flags[node];
+            if ((nodeFlags & (ALLOW | DENY)) != 0) {
+                result &= ~(ALLOW | DENY);
+            }
+            result |= nodeFlags;
+        }
+        if ((result & (ALLOW | DENY)) == (ALLOW | DENY)) {
+            result &= ~ALLOW;
+        }
+        return result;
+    }
+
+    /**
+     * 是否沒有任何 CIDR
+     */
+    public boolean isEmpty() {
+        return size == 2 && flags[IPV4_ROOT] == 0 && flags[IPV6_ROOT] == 0;
+    }
+
+    /**
+     * 節點數（含兩個根節點）
+     */
+    public int nodeCount() {
+        return size;
+    }
+
+    private int newNode() {
+        if (size == flags.length) {
+            flags = Arrays.copyOf(flags, size * 2);
+            children = Arrays.copyOf(children, size * 4);
+        }
+        return size++;
+    }
+}
@@ -0,0 +1,262 @@
+package com.denden.auth.util;
+
+/**
+ * IPv4 / IPv6 位址
+ *
+ * <p>以兩個 long 保存 128 位元位址（IPv4 只使用 low 的低 32 位元），解析時不做 DNS 查詢，
+ * 可安全處理 X-Forwarded-For 等由客戶端提供的字串。IPv4-mapped IPv6（::ffff:a.b.c.d）會轉為 IPv4。</p>
+ *
+ * @param ipv6 是否為 IPv6
+ * @param high 前 64 位元（IPv4 為 0）
+ * @param low  後 64 位元（IPv4 只使用低 32 位元）
+ * @author Timmy
+ * @since 1.1.0
+ */
+public record IpAddress(boolean ipv6, long high, long low) {
+
+    private static final long IPV4_MAPPED_PREFIX = 0xFFFFL << 32;
+
+    /**
+     * 位址位元數
+     */
+    public int bitLength() {
+        return ipv6 ? 128 : 32;
+    }
+
+    /**
+     * 取得第 index 個位元（0 為最高位）
+     */
+    public int bit(int index) {
+        if (!ipv6) {
+            return (int) (low >>> (31 - index)) & 1;
+        }
+        return index < 64
+                ? (int) (high >>> (63 - index)) & 1
+                : (int) (low >>> (127 - index)) & 1;
+    }
+
+    /**
+     * 只保留前 prefixLength 個位元
+     */
+    public IpAddress mask(int prefixLength) {
+        if (prefixLength < 0 || prefixLength > bitLength()) {
+            throw new IllegalArgumentException("前綴長度超出範圍: " + prefixLength);
+        }
+        if (!ipv6) {
+            long mask = prefixLength == 0 ? 0 : (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+            return new IpAddress(false, 0, low & mask);
+        }
+        long highMask = prefixLength >= 64 ? -1L : prefixLength == 0 ? 0 : -1L << (64 - prefixLength);
+        long lowMask = prefixLength <= 64 ? 0 : prefixLength == 128 ? -1L : -1L << (128 - prefixLength);
+        return new IpAddress(true, high & highMask, low & lowMask);
+    }
+
+    /**
+     * 解析 IP 位址字串
+     *
+     * <p>接受 IPv4、IPv6（含 :: 縮寫與結尾內嵌 IPv4）、[IPv6]、[IPv6]:port、IPv4:port 與 %zone 後綴</p>
+     *
+     * @param value 位址字串
+     * @return 位址；格式不正確時返回 null
+     */
+    public static IpAddress parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.trim();
+        if (text.isEmpty() || text.length() > 64) {
+            return null;
+        }
+
+        if (text.charAt(0) == '[') {
+            int end = text.indexOf(']');
+            if (end < 0) {
+                return null;
+            }
+            text = text.substring(1, end);
+        } else if (text.indexOf(':') != text.lastIndexOf(':')) {
+            // 兩個以上冒號：IPv6
+        } else if (text.indexOf(':') > 0) {
+            text = text.substring(0, text.indexOf(':'));
+        }
+
+        int zone = text.indexOf('%');
+        if (zone >= 0) {
+            text = text.substring(0, zone);
+        }
+
+        if (text.indexOf(':') < 0) {
+            long ipv4 = parseIpv4(text, 0, text.length());
+            return ipv4 < 0 ? null : new IpAddress(false, 0, ipv4);
+        }
+        return parseIpv6(text);
+    }
+
+    private static long parseIpv4(String text, int start, int end) {
+        long result = 0;
+        int octets = 0;
+        int i = start;
+        while (i < end) {
+            int octetStart = i;
+            int octet = 0;
+            while (i < end && text.charAt(i) != '.') {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9' || i - octetStart >= 3) {
+                    return -1;
+                }
+                octet = octet * 10 + (c - '0');
+                i++;
+            }
+            if (i == octetStart || octet > 255 || (text.charAt(octetStart) == '0' && i - octetStart > 1)) {
+                return -1;
+            }
+            result = (result << 8) | octet;
+            octets++;
+            if (i < end) {
+                i++;
+                if (i == end) {
+                    return -1;
+                }
+            }
+        }
+        return octets == 4 ? result : -1;
+    }
+
+    private static IpAddress parseIpv6(String text) {
+        int[] groups = new int[8];
+        int count = 0;
+        int compressAt = -1;
+        int i = 0;
+        int length = text.length();
+
+        if (text.startsWith("::")) {
+            compressAt = 0;
+            i = 2;
+        } else if (text.charAt(0) == ':') {
+            return null;
+        }
+
+        while (i < length) {
+            if (count == 8) {
+                return null;
+            }
+            int groupStart = i;
+            int value = 0;
+            while (i < length && text.charAt(i) != ':') {
+                char c = text.charAt(i);
+                if (c == '.') {
+                    // 結尾內嵌的 IPv4
+                    long ipv4 = parseIpv4(text, groupStart, length);
+                    if (ipv4 < 0 || count > 6) {
+                        return null;
+                    }
+                    groups[count++] = (int) (ipv4 >>> 16);
+                    groups[count++] = (int) (ipv4 & 0xFFFF);
+                    i = length;
+                    value = -1;
+                    break;
+                }
+                int digit = Character.digit(c, 16);
+                if (digit < 0 || i - groupStart >= 4) {
+                    return null;
+                }
+                value = (value << 4) | digit;
+                i++;
+            }
+            if (value == -1) {
+                break;
+            }
+            if (i == groupStart) {
+                return null;
+            }
+            groups[count++] = value;
+
+            if (i < length) {
+                i++;
+                if (i < length && text.charAt(i) == ':') {
+                    if (compressAt >= 0) {
+                        return null;
+                    }
+                    compressAt = count;
+                    i++;
+                } else if (i == length) {
+                    return null;
+                }
+            }
+        }
+
+        if (compressAt >= 0) {
+            if (count == 8) {
+                return null;
+            }
+            int shift = 8 - count;
+            for (int g = count - 1; g >= compressAt; g--) {
+                groups[g + shift] = groups[g];
+            }
+            for (int g = compressAt; g < compressAt + shift; g++) {
+                groups[g] = 0;
+            }
+        } else if (count != 8) {
+            return null;
+        }
+
+        long high = 0;
+        long low = 0;
+        for (int g = 0; g < 4; g++) {
+            high = (high << 16) | groups[g];
+            low = (low << 16) | groups[g + 4];
+        }
+
+        if (high == 0 && (low >>> 32) == (IPV4_MAPPED_PREFIX >>> 32)) {
+            return new IpAddress(false, 0, low & 0xFFFFFFFFL);
+        }
+        return new IpAddress(true, high, low);
+    }
+
+    /**
+     * 標準文字格式（IPv6 依 RFC 5952 以小寫並壓縮最長的連續 0 群組）
+     */
+    @Override
+    public String toString() {
+        if (!ipv6) {
+            return ((low >>> 24) & 0xFF) + "." + ((low >>> 16) & 0xFF) + "." + ((low >>> 8) & 0xFF) + "." + (low & 0xFF);
+        }
+
+        int[] groups = new int[8];
+        for (int g = 0; g < 4; g++) {
+            groups[g] = (int) (high >>> (48 - 16 * g)) & 0xFFFF;
+            groups[g + 4] = (int) (low >>> (48 - 16 * g)) & 0xFFFF;
+        }
+
+        int bestStart = -1;
+        int bestLength = 1;
+        for (int g = 0; g < 8; ) {
+            if (groups[g] != 0) {
+                g++;
+                continue;
+            }
+            int start = g;
+            while (g < 8 && groups[g] == 0) {
+                g++;
+            }
+            if (g - start > bestLength) {
+                bestStart = start;
+                bestLength = g - start;
+            }
+        }
+
+        StringBuilder sb = new StringBuilder(39);
+        for (int g = 0; g < 8; g++) {
+            if (g == bestStart) {
+                sb.append("::");
+                g += bestLength - 1;
+                continue;
+            }
+            if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ':') {
+                sb.append(':');
+            }
+            sb.append(Integer.toHexString(groups[g]));
+        }
+        return sb.toString();
+    }
+}
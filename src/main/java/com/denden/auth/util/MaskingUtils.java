@@ -43,6 +43,30 @@ public final class MaskingUtils {
         return localPart.charAt(0) + MASK_SYMBOL + domain;
     }
     
+    /**
+     * 遮罩 IP 位址
+     * 
+     * <p>截斷為網段：IPv4 保留前 24 位元，IPv6（含已合併的前綴，例如 2001:db8:1:2::/64）保留前 48 位元，
+     * 例如 198.51.100.7 輸出 198.51.100.0/24；無法解析時返回 ***</p>
+     * 
+     * @param ip 原始 IP 位址或 IPv6 前綴
+     * @return 截斷後的網段
+     */
+    public static String maskIp(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return "";
+        }
+        
+        int slash = ip.indexOf('/');
+        IpAddress address = IpAddress.parse(slash >= 0 ? ip.substring(0, slash) : ip);
+        if (address == null) {
+            return MASK_SYMBOL;
+        }
+        
+        int prefixLength = address.ipv6() ? 48 : 24;
+        return address.mask(prefixLength) + "/" + prefixLength;
+    }
+    
     /**
      * 遮罩 Token 字串
      * 
@@ -12,9 +12,17 @@ public final class RequestUtils {
         throw new UnsupportedOperationException("Utility class cannot be instantiated");
     }
 
+    /**
+     * {@link com.denden.auth.filter.RateLimitFilter} 解析出的客戶端 IP，存放於 request attribute
+     */
+    public static final String CLIENT_IP_ATTRIBUTE = RequestUtils.class.getName() + ".CLIENT_IP";
+
     /**
      * 取得客戶端真實 IP 地址
      * 
+     * <p>優先使用 {@link com.denden.auth.filter.ClientIpResolver} 依受信任代理解析的結果；
+     * 未經過解析時直接使用連線對端位址，不採信可由客戶端偽造的轉發標頭</p>
+     * 
      * @param request HTTP 請求
      * @return 客戶端 IP 地址，如果無法取得則返回 "unknown"
      */
@@ -23,42 +31,12 @@ public final class RequestUtils {
             return "unknown";
         }
         
-        String ip = request.getHeader("X-Forwarded-For");
-        
-        if (isInvalidIp(ip)) {
-            ip = request.getHeader("X-Real-IP");
-        }
-        if (isInvalidIp(ip)) {
-            ip = request.getHeader("Proxy-Client-IP");
-        }
-        if (isInvalidIp(ip)) {
-            ip = request.getHeader("WL-Proxy-Client-IP");
-        }
-        if (isInvalidIp(ip)) {
-            ip = request.getHeader("HTTP_CLIENT_IP");
-        }
-        if (isInvalidIp(ip)) {
-            ip = request.getHeader("HTTP_X_FORWARDED_FOR");
-        }
-        if (isInvalidIp(ip)) {
-            ip = request.getRemoteAddr();
-        }
-        
-        if (ip != null && ip.contains(",")) {
-            ip = ip.split(",")[0].trim();
+        if (request.getAttribute(CLIENT_IP_ATTRIBUTE) instanceof String resolved) {
+            return resolved;
         }
         
-        return ip != null ? ip : "unknown";
-    }
-    
-    /**
-     * 判斷 IP 是否無效
-     * 
-     * @param ip IP 地址
-     * @return true 如果 IP 無效，否則 false
-     */
-    private static boolean isInvalidIp(String ip) {
-        return ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip);
+        String ip = request.getRemoteAddr();
+        return ip != null && !ip.isEmpty() ? ip : "unknown";
     }
     
     /**
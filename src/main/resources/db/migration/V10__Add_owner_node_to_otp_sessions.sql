@@ -0,0 +1,7 @@
+-- Redis 降級期間，節點以本地快取驗證 OTP 並在背景寫回 otp_sessions。
+-- owner_node 記錄持有快取副本的節點，其他節點不以資料庫驗證這些會話，避免兩邊各自計算驗證次數；
+-- 節點恢復或關閉時清除 owner_node，會話才交由其他節點驗證。
+
+ALTER TABLE otp_sessions ADD COLUMN owner_node VARCHAR(36);
+
+COMMENT ON COLUMN otp_sessions.owner_node IS '持有本地快取副本的節點 ID（降級期間寫入，NULL 表示任何節點都可驗證）';
@@ -0,0 +1,15 @@
+-- otp_sessions 只存放數分鐘內有效的 Redis 備援資料：
+-- 每個 email 最多一筆（以 INSERT ... ON CONFLICT 寫入），並改為 UNLOGGED 不寫 WAL。
+-- UNLOGGED 資料表在資料庫崩潰後會被清空、也不會複寫到備援節點，使用者重新登入即可。
+
+DELETE FROM otp_sessions o
+USING otp_sessions newer
+WHERE o.email = newer.email
+  AND (o.created_at, o.id) < (newer.created_at, newer.id);
+
+DROP INDEX IF EXISTS idx_otp_email;
+ALTER TABLE otp_sessions ADD CONSTRAINT uk_otp_sessions_email UNIQUE (email);
+
+ALTER TABLE otp_sessions SET UNLOGGED;
+
+COMMENT ON TABLE otp_sessions IS 'OTP 會話表（Redis 備援，UNLOGGED，每個 Email 一筆）';
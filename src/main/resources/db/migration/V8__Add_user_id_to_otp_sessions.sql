@@ -0,0 +1,6 @@
+-- OTP 會話記錄登入時的使用者 ID，驗證成功後直接以 ID 更新最後登入時間並簽發 JWT，不再依 Email 查詢 users
+-- otp_sessions 為 UNLOGGED，只存放數分鐘內的資料，不建立外鍵
+
+ALTER TABLE otp_sessions ADD COLUMN user_id BIGINT;
+
+COMMENT ON COLUMN otp_sessions.user_id IS '使用者 ID（登入時寫入，重新發送時保留）';
@@ -0,0 +1,27 @@
+-- 待發送郵件（transactional outbox）：與業務資料在同一個交易寫入，由背景排程以 SKIP LOCKED 認領後發送
+-- 發送成功即刪除；失敗以指數退避重新排程，超過次數上限標記為 FAILED 保留供檢查
+
+CREATE TABLE email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    email_type VARCHAR(32) NOT NULL,
+    payload VARCHAR(512),
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(512),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_email_outbox_pending ON email_outbox(next_attempt_at) WHERE status = 'PENDING';
+
+COMMENT ON TABLE email_outbox IS '待發送郵件資料表';
+COMMENT ON COLUMN email_outbox.id IS '記錄唯一識別碼';
+COMMENT ON COLUMN email_outbox.recipient IS '收件者 Email';
+COMMENT ON COLUMN email_outbox.email_type IS '郵件類型（VERIFICATION, OTP, ACCOUNT_LOCKED, WELCOME）';
+COMMENT ON COLUMN email_outbox.payload IS '郵件內容參數（驗證 Token、OTP 或使用者名稱）';
+COMMENT ON COLUMN email_outbox.status IS '狀態（PENDING 待發送, FAILED 超過重試次數）';
+COMMENT ON COLUMN email_outbox.attempts IS '已認領發送的次數';
+COMMENT ON COLUMN email_outbox.next_attempt_at IS '下次可發送時間（認領後延後為認領逾時時間）';
+COMMENT ON COLUMN email_outbox.last_error IS '最後一次發送失敗的錯誤訊息';
+COMMENT ON COLUMN email_outbox.created_at IS '建立時間';
@@ -0,0 +1,48 @@
+-- 記錄一次登入失敗並判斷是否鎖定帳號
+--
+-- KEYS[1]  失敗計數 hash，field 為時間桶編號，value 為該桶的失敗次數
+-- KEYS[2]  帳號鎖定 key
+-- ARGV[1]  時間桶大小（毫秒）
+-- ARGV[2]  滑動視窗長度（毫秒）
+-- ARGV[3]  視窗內允許的失敗次數上限
+-- ARGV[4]  鎖定時間（毫秒）
+--
+-- 返回 { failures, locked }：視窗內失敗次數（含本次），locked 為 1 表示本次觸發鎖定，
+-- 2 表示帳號已在鎖定中（不計數，鎖定時間不延長）
+-- 計數與鎖定在同一腳本中原子完成；hash 最多保留 視窗 / 桶 + 1 個 field，成本與歷史紀錄量無關
+-- 鎖定後清除計數，解鎖後重新累計
+
+local bucket_ms = tonumber(ARGV[1])
+local window_ms = tonumber(ARGV[2])
+local max_failures = tonumber(ARGV[3])
+local lock_ms = tonumber(ARGV[4])
+
+if redis.call('EXISTS', KEYS[2]) == 1 then
+    return { 0, 2 }
+end
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local current = math.floor(now / bucket_ms)
+local oldest = current - math.ceil(window_ms / bucket_ms) + 1
+
+redis.call('HINCRBY', KEYS[1], current, 1)
+
+local failures = 0
+local buckets = redis.call('HGETALL', KEYS[1])
+for i = 1, #buckets, 2 do
+    if tonumber(buckets[i]) < oldest then
+        redis.call('HDEL', KEYS[1], buckets[i])
+    else
+        failures = failures + tonumber(buckets[i + 1])
+    end
+end
+
+if failures >= max_failures then
+    redis.call('SET', KEYS[2], 'locked', 'PX', lock_ms)
+    redis.call('DEL', KEYS[1])
+    return { failures, 1 }
+end
+
+redis.call('PEXPIRE', KEYS[1], window_ms + bucket_ms)
+return { failures, 0 }
@@ -0,0 +1,46 @@
+-- 登入第二階段的 OTP 發送：檢查鎖定、檢查發送額度並寫入 OTP 會話
+--
+-- KEYS[1]  帳號鎖定 key
+-- KEYS[2]  OTP 發送額度 key（固定視窗計數）
+-- KEYS[3]  OTP 會話 key
+-- ARGV[1]  OTP 驗證碼
+-- ARGV[2]  建立時間（epoch 毫秒）
+-- ARGV[3]  OTP 有效時間（毫秒）
+-- ARGV[4]  視窗內允許的發送次數
+-- ARGV[5]  額度視窗長度（毫秒）
+-- ARGV[6]  1 表示重新發送，會話必須仍存在
+-- ARGV[7]  使用者 ID；空字串表示保留既有會話的使用者 ID
+--
+-- 返回 { status, retry_after_ms }
+--   0 已發送；1 帳號鎖定中；2 超過發送額度；3 無有效的 OTP 會話
+-- 鎖定檢查與寫入會話在同一腳本中原子完成，檢查後才被鎖定的帳號不會取得 OTP
+-- 會話為 hash（otp、attempts、created_at、user_id），重新發送時整個取代，錯誤次數歸零
+
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return { 1, math.max(redis.call('PTTL', KEYS[1]), 0) }
+end
+
+if ARGV[6] == '1' and redis.call('EXISTS', KEYS[3]) == 0 then
+    return { 3, 0 }
+end
+
+local issued = redis.call('INCR', KEYS[2])
+if redis.call('PTTL', KEYS[2]) < 0 then
+    redis.call('PEXPIRE', KEYS[2], ARGV[5])
+end
+if issued > tonumber(ARGV[4]) then
+    return { 2, math.max(redis.call('PTTL', KEYS[2]), 0) }
+end
+
+local user_id = ARGV[7]
+if user_id == '' then
+    user_id = redis.call('HGET', KEYS[3], 'user_id')
+end
+
+redis.call('DEL', KEYS[3])
+redis.call('HSET', KEYS[3], 'otp', ARGV[1], 'attempts', 0, 'created_at', ARGV[2])
+if user_id then
+    redis.call('HSET', KEYS[3], 'user_id', user_id)
+end
+redis.call('PEXPIRE', KEYS[3], ARGV[3])
+return { 0, 0 }
@@ -0,0 +1,21 @@
+-- OTP 會話回補（Redis 恢復後將降級期間的會話寫回）
+--
+-- KEYS[1]  OTP 會話 hash（otp、attempts、created_at、user_id）
+-- ARGV[1]  OTP
+-- ARGV[2]  已驗證次數
+-- ARGV[3]  建立時間（epoch 毫秒）
+-- ARGV[4]  剩餘有效期限（毫秒）
+-- ARGV[5]  使用者 ID，空字串表示沒有記錄
+--
+-- 返回 1 已寫入；0 Redis 已有較新的會話，不覆蓋
+
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return 0
+end
+
+redis.call('HSET', KEYS[1], 'otp', ARGV[1], 'attempts', ARGV[2], 'created_at', ARGV[3])
+if ARGV[5] ~= '' then
+    redis.call('HSET', KEYS[1], 'user_id', ARGV[5])
+end
+redis.call('PEXPIRE', KEYS[1], ARGV[4])
+return 1
@@ -0,0 +1,32 @@
+-- OTP 驗證
+--
+-- KEYS[1]  OTP 會話 hash（otp、attempts、created_at、user_id）
+-- ARGV[1]  使用者輸入的 OTP
+-- ARGV[2]  允許的驗證次數
+--
+-- 返回 { status, user_id }：status 0 會話不存在或已過期；1 驗證成功；-1 已超過驗證次數；-2 OTP 不符
+-- user_id 只在驗證成功時返回，會話沒有記錄時為空字串
+-- 先遞增 attempts 再比對，同時送出的多個猜測各自取得不同的次數，總比對次數不會超過上限；
+-- 驗證成功或用完次數時刪除會話，同一個 OTP 只能成功一次
+
+local fields = redis.call('HMGET', KEYS[1], 'otp', 'user_id')
+local stored = fields[1]
+if not stored then
+    return { 0 }
+end
+
+local attempts = redis.call('HINCRBY', KEYS[1], 'attempts', 1)
+if attempts > tonumber(ARGV[2]) then
+    redis.call('DEL', KEYS[1])
+    return { -1 }
+end
+
+if stored == ARGV[1] then
+    redis.call('DEL', KEYS[1])
+    return { 1, fields[2] or '' }
+end
+
+if attempts == tonumber(ARGV[2]) then
+    redis.call('DEL', KEYS[1])
+end
+return { -2 }
@@ -0,0 +1,39 @@
+-- GCRA（Generic Cell Rate Algorithm）限流與額度租借
+--
+-- KEYS[1]  限流 key，值為理論到達時間 TAT（毫秒）
+-- ARGV[1]  週期內允許的請求數 limit
+-- ARGV[2]  週期長度（毫秒）
+-- ARGV[3]  本次最多取得的額度（單次判定為 1，本地批次租借時為批次大小）
+--
+-- 返回 { granted, remaining, retry_after_ms, reset_after_ms }
+-- 可用額度不足時只給部分額度；完全無額度時 granted 為 0
+-- 時間取自 Redis TIME，各節點時鐘誤差不影響結果；key 永遠帶有 TTL
+
+local limit = tonumber(ARGV[1])
+local period = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local interval = period / limit
+local tat = tonumber(redis.call('GET', KEYS[1]))
+if tat == nil or tat < now then
+    tat = now
+end
+
+local available = math.floor((now - tat + period) * limit / period)
+if available > limit then
+    available = limit
+end
+
+if available < 1 then
+    return { 0, 0, math.ceil(tat - period + interval - now), math.ceil(tat - now) }
+end
+
+local granted = math.min(requested, available)
+local new_tat = math.ceil(tat + interval * granted)
+local ttl = new_tat - now
+redis.call('SET', KEYS[1], new_tat, 'PX', ttl)
+
+return { granted, available - granted, 0, ttl }
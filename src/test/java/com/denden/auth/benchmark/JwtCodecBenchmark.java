@@ -0,0 +1,108 @@
+package com.denden.auth.benchmark;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.service.jwt.FastHs256JwtCodec;
+import com.denden.auth.service.jwt.JwtKeySet;
+import com.denden.auth.service.jwt.JwtPrincipal;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 編解碼基準測試：jjwt 與 HS256 快速路徑
+ *
+ * <p>執行方式（需先 {@code mvn test-compile}）：</p>
+ * <pre>
+ * mvn -q dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.denden.auth.benchmark.JwtCodecBenchmark
+ * </pre>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtCodecBenchmark {
+
+    private static final long USER_ID = 12345L;
+    private static final String EMAIL = "benchmark.user@example.com";
+    private static final String ISSUER = "member-auth-system";
+    private static final long TTL_MS = 86_400_000L;
+
+    private JwtKeySet keySet;
+    private FastHs256JwtCodec fastCodec;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        SecurityProperties.Jwt jwt = new SecurityProperties.Jwt();
+        jwt.setSecret("benchmark-secret-key-with-at-least-256-bits-0123456789");
+        jwt.setIssuer(ISSUER);
+        jwt.setCodec("fast");
+
+        keySet = JwtKeySet.from(jwt);
+        fastCodec = keySet.getFastCodec();
+        token = jjwtEncode();
+    }
+
+    @Benchmark
+    public String jjwtEncode() {
+        Date now = new Date();
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", USER_ID);
+
+        return keySet.sign(Jwts.builder()
+                        .claims(claims)
+                        .subject(EMAIL)
+                        .issuedAt(now)
+                        .expiration(new Date(now.getTime() + TTL_MS))
+                        .issuer(ISSUER)
+                        .id(UUID.randomUUID().toString()))
+                .compact();
+    }
+
+    @Benchmark
+    public String fastEncode() {
+        long now = System.currentTimeMillis();
+        return fastCodec.encode(USER_ID, EMAIL, UUID.randomUUID().toString(), now, now + TTL_MS);
+    }
+
+    @Benchmark
+    public JwtPrincipal jjwtDecode() {
+        return JwtPrincipal.from(keySet.getParser().parseSignedClaims(token).getPayload());
+    }
+
+    @Benchmark
+    public JwtPrincipal fastDecode() {
+        return fastCodec.decode(token, System.currentTimeMillis());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtCodecBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,144 @@
+package com.denden.auth.benchmark;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.exception.ErrorCode;
+import com.denden.auth.filter.ClientIpResolver;
+import com.denden.auth.filter.RateLimitFilter;
+import com.denden.auth.filter.RateLimitRejectionWriter;
+import com.denden.auth.service.abuse.HeavyHitterTracker;
+import com.denden.auth.service.ratelimit.LeasedRateLimiter;
+import com.denden.auth.service.ratelimit.RateLimitLease;
+import com.denden.auth.service.ratelimit.RedisRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流拒絕路徑基準測試
+ *
+ * <ul>
+ *   <li>legacyBody：改版前的 429 body 產生方式（HashMap + LocalDateTime.now() + ObjectMapper）</li>
+ *   <li>preEncodedBody：預先編碼的 429 body，只寫入時間戳記</li>
+ *   <li>filterRejection：完整經過 {@link RateLimitFilter}，由本地封鎖狀態直接拒絕（不需 Redis），
+ *       包含 MockHttpServletResponse 本身的成本</li>
+ *   <li>servedLogin：放行後登入端點的主要成本（BCrypt 驗證），作為對照</li>
+ * </ul>
+ *
+ * <p>執行方式同 {@link JwtCodecBenchmark}，main 方法預設加上 {@code -prof gc} 比較每次操作的配置量。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitRejectionBenchmark {
+
+    private static final String PASSWORD = "Benchmark@123";
+
+    private ObjectMapper objectMapper;
+    private RateLimitRejectionWriter rejectionWriter;
+    private RateLimitFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private BCryptPasswordEncoder passwordEncoder;
+    private String passwordHash;
+
+    @Setup
+    public void setUp() throws ServletException, IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        rejectionWriter = new RateLimitRejectionWriter(ErrorCode.RATE_LIMIT_EXCEEDED);
+
+        SecurityProperties securityProperties = new SecurityProperties();
+        securityProperties.getRateLimit().setMaxRequests(10);
+        securityProperties.getRateLimit().setWindowSeconds(60);
+
+        RedisRateLimiter exhausted = new RedisRateLimiter(null, null) {
+            @Override
+            public RateLimitLease lease(String key, int limit, int windowSeconds, int maxTokens) {
+                return new RateLimitLease(0, 0, TimeUnit.HOURS.toMillis(1), TimeUnit.HOURS.toMillis(1));
+            }
+        };
+        LeasedRateLimiter rateLimiter = new LeasedRateLimiter(exhausted, securityProperties, new SimpleMeterRegistry());
+        filter = new RateLimitFilter(rateLimiter, securityProperties, objectMapper, null, null,
+                new ClientIpResolver(securityProperties),
+                new HeavyHitterTracker(securityProperties, null, null, new SimpleMeterRegistry()));
+
+        request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setRemoteAddr("203.0.113.7");
+        response = new MockHttpServletResponse();
+
+        passwordEncoder = new BCryptPasswordEncoder();
+        passwordHash = passwordEncoder.encode(PASSWORD);
+
+        filterRejection();
+    }
+
+    @Benchmark
+    public byte[] legacyBody() throws IOException {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("code", ErrorCode.RATE_LIMIT_EXCEEDED.getCode());
+        errorResponse.put("message", ErrorCode.RATE_LIMIT_EXCEEDED.getMessage());
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("path", null);
+
+        return objectMapper.writeValueAsString(errorResponse).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] preEncodedBody() {
+        return rejectionWriter.render(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public int filterRejection() throws ServletException, IOException {
+        response.reset();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean servedLogin() {
+        return passwordEncoder.matches(PASSWORD, passwordHash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitRejectionBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,84 @@
+package com.denden.auth.benchmark;
+
+import com.denden.auth.service.token.SecureTokenFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 安全亂數 Token 產生基準測試：共用 SecureRandom 與 {@link SecureTokenFactory} 在多執行緒下的吞吐量
+ *
+ * <ul>
+ *   <li>sharedSecureRandomOtp：改版前的 OTP 產生方式（共用的 static SecureRandom，每個數字 nextInt(10)）</li>
+ *   <li>randomUuid：改版前的驗證 Token 與 jti（{@link UUID#randomUUID()}，共用全域 SecureRandom）</li>
+ *   <li>factoryOtp、factoryUuid：每個執行緒各自的 DRBG 與亂數緩衝區</li>
+ * </ul>
+ *
+ * <p>執行方式同 {@link JwtCodecBenchmark}；main 方法依序以 1、4 與 CPU 核心數個執行緒執行，
+ * 比較吞吐量是否隨執行緒數增加。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecureTokenBenchmark {
+
+    private static final int OTP_LENGTH = 6;
+
+    private final SecureRandom sharedRandom = new SecureRandom();
+    private final SecureTokenFactory factory = new SecureTokenFactory();
+
+    @Benchmark
+    public String sharedSecureRandomOtp() {
+        StringBuilder otp = new StringBuilder();
+        for (int i = 0; i < OTP_LENGTH; i++) {
+            otp.append(sharedRandom.nextInt(10));
+        }
+        return otp.toString();
+    }
+
+    @Benchmark
+    public String factoryOtp() {
+        return factory.digits(OTP_LENGTH);
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String factoryUuid() {
+        return factory.uuid();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new TreeSet<>(List.of(1, 4, Runtime.getRuntime().availableProcessors()))) {
+            new Runner(new OptionsBuilder()
+                    .include(SecureTokenBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build())
+                    .run();
+        }
+    }
+}
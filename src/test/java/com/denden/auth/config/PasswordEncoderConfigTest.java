@@ -0,0 +1,119 @@
+package com.denden.auth.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PasswordEncoderConfig 測試
+ *
+ * <p>以低成本參數建立編碼器，驗證前綴、舊格式雜湊與重新雜湊判斷。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("PasswordEncoderConfig 測試")
+class PasswordEncoderConfigTest {
+
+    private static final String PASSWORD = "Secret123!";
+
+    private SecurityProperties securityProperties;
+
+    @BeforeEach
+    void setUp() {
+        securityProperties = new SecurityProperties();
+        SecurityProperties.PasswordHashing config = securityProperties.getPasswordHashing();
+        config.setBcryptStrength(5);
+        config.setMinBcryptStrength(4);
+        config.setMaxBcryptStrength(6);
+        config.setPbkdf2Iterations(1000);
+        config.setArgon2MemoryKib(1024);
+        config.setArgon2Iterations(2);
+    }
+
+    @Test
+    @DisplayName("編碼 - 以目前演算法與成本雜湊並加上前綴")
+    void testEncodesWithPrefix() {
+        PasswordEncoder encoder = encoder();
+
+        String hash = encoder.encode(PASSWORD);
+
+        assertTrue(hash.startsWith("{bcrypt}$2a$05$"), hash);
+        assertTrue(encoder.matches(PASSWORD, hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    @DisplayName("舊格式雜湊 - 沒有前綴的 BCrypt 雜湊仍可驗證，成本高於目前設定時不重新雜湊")
+    void testLegacyUnprefixedBcrypt() {
+        PasswordEncoder encoder = encoder();
+        String cheaper = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        String sameCost = new BCryptPasswordEncoder(5).encode(PASSWORD);
+        String stronger = new BCryptPasswordEncoder(6).encode(PASSWORD);
+
+        assertTrue(encoder.matches(PASSWORD, cheaper));
+        assertTrue(encoder.matches(PASSWORD, stronger));
+        assertFalse(encoder.matches("Secret124!", cheaper));
+
+        assertTrue(encoder.upgradeEncoding(cheaper));
+        assertTrue(encoder.upgradeEncoding(sameCost));
+        assertFalse(encoder.upgradeEncoding(stronger));
+    }
+
+    @Test
+    @DisplayName("重新雜湊 - 同演算法的成本高於目前設定時不降低")
+    void testUpgradeNeverLowersCost() {
+        PasswordEncoder encoder = encoder();
+
+        assertTrue(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD)));
+        assertFalse(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(6).encode(PASSWORD)));
+    }
+
+    @Test
+    @DisplayName("切換演算法 - 舊演算法的雜湊仍可驗證並改用目前演算法")
+    void testSwitchingAlgorithm() {
+        String bcryptHash = encoder().encode(PASSWORD);
+        String legacyHash = new BCryptPasswordEncoder(6).encode(PASSWORD);
+        securityProperties.getPasswordHashing().setAlgorithm("argon2");
+        PasswordEncoder encoder = encoder();
+
+        String argon2Hash = encoder.encode(PASSWORD);
+
+        assertTrue(argon2Hash.startsWith("{argon2}"), argon2Hash);
+        assertTrue(encoder.matches(PASSWORD, argon2Hash));
+        assertTrue(encoder.matches(PASSWORD, bcryptHash));
+        assertTrue(encoder.matches(PASSWORD, legacyHash));
+        assertTrue(encoder.upgradeEncoding(bcryptHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+        assertFalse(encoder.upgradeEncoding(argon2Hash));
+    }
+
+    @Test
+    @DisplayName("校準 - 未設定 BCrypt 成本時依目標耗時校準，結果介於上下限之間")
+    void testCalibratedStrengthWithinBounds() {
+        SecurityProperties.PasswordHashing config = securityProperties.getPasswordHashing();
+        config.setBcryptStrength(0);
+
+        config.setTargetMillis(60_000);
+        assertTrue(encoder().encode(PASSWORD).startsWith("{bcrypt}$2a$06$"));
+
+        config.setTargetMillis(0);
+        assertTrue(encoder().encode(PASSWORD).startsWith("{bcrypt}$2a$04$"));
+    }
+
+    @Test
+    @DisplayName("不支援的演算法 - 啟動時拋出例外")
+    void testRejectsUnknownAlgorithm() {
+        securityProperties.getPasswordHashing().setAlgorithm("md5");
+
+        assertThrows(IllegalStateException.class, this::encoder);
+    }
+
+    private PasswordEncoder encoder() {
+        return new PasswordEncoderConfig().passwordEncoder(securityProperties);
+    }
+}
@@ -1,5 +1,6 @@
 package com.denden.auth.controller;
 
+import com.denden.auth.config.SecurityProperties;
 import com.denden.auth.dto.AuthResponse;
 import com.denden.auth.dto.LoginRequest;
 import com.denden.auth.dto.OtpResponse;
@@ -12,6 +13,7 @@ import com.denden.auth.exception.BusinessException;
 import com.denden.auth.exception.ErrorCode;
 import com.denden.auth.exception.ResourceNotFoundException;
 import com.denden.auth.service.AuthService;
+import com.denden.auth.service.jwt.JwtPrincipal;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -20,11 +22,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.test.context.TestSecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Collections;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -36,7 +45,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @WebMvcTest(controllers = AuthController.class)
 @AutoConfigureMockMvc(addFilters = false)
-@Import(com.denden.auth.config.TestSecurityConfig.class)
+@Import({com.denden.auth.config.TestSecurityConfig.class, SecurityProperties.class})
 @DisplayName("AuthController 單元測試")
 class AuthControllerTest {
 
@@ -49,6 +58,9 @@ class AuthControllerTest {
     @MockBean
     private AuthService authService;
 
+    @Autowired
+    private SecurityProperties securityProperties;
+
     @Test
     @DisplayName("註冊成功 - 應返回 201 Created")
     void testRegisterSuccess() throws Exception {
@@ -178,6 +190,33 @@ class AuthControllerTest {
         verify(authService, times(1)).login(any(LoginRequest.class), anyString());
     }
 
+    @Test
+    @DisplayName("登入成功 - 會話提示 cookie 依設定決定是否帶 Secure 屬性")
+    void testLoginSessionHintCookieSecureFlag() throws Exception {
+        LoginRequest request = new LoginRequest("test@example.com", "SecurePass123!");
+        OtpResponse otpResponse = new OtpResponse("OTP 已發送", 300L, "t***@example.com", "node-1");
+        when(authService.login(any(LoginRequest.class), anyString())).thenReturn(otpResponse);
+
+        try {
+            securityProperties.getOtp().setSessionHintCookieSecure(true);
+            mockMvc.perform(post("/api/v1/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.SET_COOKIE, containsString("Secure")));
+
+            securityProperties.getOtp().setSessionHintCookieSecure(false);
+            mockMvc.perform(post("/api/v1/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.SET_COOKIE, containsString("otp_session_hint=node-1")))
+                    .andExpect(header().string(HttpHeaders.SET_COOKIE, not(containsString("Secure"))));
+        } finally {
+            securityProperties.getOtp().setSessionHintCookieSecure(true);
+        }
+    }
+
     @Test
     @DisplayName("登入失敗 - 密碼錯誤")
     void testLoginInvalidCredentials() throws Exception {
@@ -236,7 +275,7 @@ class AuthControllerTest {
         UserInfo userInfo = new UserInfo(1L, "test@example.com", LocalDateTime.now());
         AuthResponse authResponse = AuthResponse.bearer("jwt-token-123", 86400L, userInfo);
         
-        when(authService.verifyOtp(any(VerifyOtpRequest.class))).thenReturn(authResponse);
+        when(authService.verifyOtp(any(VerifyOtpRequest.class), any())).thenReturn(authResponse);
         
         mockMvc.perform(post("/api/v1/auth/verify-otp")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -248,7 +287,7 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.user.id").value(1))
                 .andExpect(jsonPath("$.user.email").value("test@example.com"));
         
-        verify(authService, times(1)).verifyOtp(any(VerifyOtpRequest.class));
+        verify(authService, times(1)).verifyOtp(any(VerifyOtpRequest.class), any());
     }
 
     @Test
@@ -262,7 +301,7 @@ class AuthControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.code").value(ErrorCode.VALIDATION_ERROR.getCode()));
         
-        verify(authService, times(0)).verifyOtp(any(VerifyOtpRequest.class));
+        verify(authService, times(0)).verifyOtp(any(VerifyOtpRequest.class), any());
     }
 
     @Test
@@ -270,7 +309,7 @@ class AuthControllerTest {
     void testVerifyOtpInvalidOrExpired() throws Exception {
         VerifyOtpRequest request = new VerifyOtpRequest("test@example.com", "123456");
         
-        when(authService.verifyOtp(any(VerifyOtpRequest.class)))
+        when(authService.verifyOtp(any(VerifyOtpRequest.class), any()))
                 .thenThrow(new BusinessException(ErrorCode.INVALID_OTP));
         
         mockMvc.perform(post("/api/v1/auth/verify-otp")
@@ -279,7 +318,7 @@ class AuthControllerTest {
                 .andExpect(status().isUnauthorized())
                 .andExpect(jsonPath("$.code").value(ErrorCode.INVALID_OTP.getCode()));
         
-        verify(authService, times(1)).verifyOtp(any(VerifyOtpRequest.class));
+        verify(authService, times(1)).verifyOtp(any(VerifyOtpRequest.class), any());
     }
 
     @Test
@@ -315,4 +354,28 @@ class AuthControllerTest {
         
         verify(authService, times(1)).resendOtp(email);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("登出成功 - 應返回 204 並撤銷目前的 Token")
+    void testLogoutSuccess() throws Exception {
+        JwtPrincipal principal = new JwtPrincipal(1L, "test@example.com",
+                Instant.now().plusSeconds(3600), "member-auth-system", "test-token-id");
+        TestSecurityContextHolder.setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList()));
+        
+        mockMvc.perform(post("/api/v1/auth/logout"))
+                .andExpect(status().isNoContent());
+        
+        verify(authService, times(1)).logout(principal);
+    }
+
+    @Test
+    @DisplayName("登出失敗 - 未認證")
+    void testLogoutUnauthenticated() throws Exception {
+        mockMvc.perform(post("/api/v1/auth/logout"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.code").value(ErrorCode.UNAUTHORIZED.getCode()));
+        
+        verify(authService, never()).logout(any());
+    }
+}
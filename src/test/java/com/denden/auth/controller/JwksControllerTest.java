@@ -0,0 +1,59 @@
+package com.denden.auth.controller;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.service.TokenService;
+import com.denden.auth.service.jwt.PublicJwkSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * JwksController 單元測試
+ *
+ */
+@WebMvcTest(controllers = JwksController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import({com.denden.auth.config.TestSecurityConfig.class, SecurityProperties.class})
+@DisplayName("JwksController 單元測試")
+class JwksControllerTest {
+
+    private static final PublicJwkSet JWK_SET = new PublicJwkSet(
+            "{\"keys\":[{\"kty\":\"EC\",\"kid\":\"k1\",\"alg\":\"ES256\"}]}", "\"abc123\"");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Test
+    @DisplayName("取得 JWKS - 應返回 200 並帶有 ETag 與 Cache-Control")
+    void testGetJwks() throws Exception {
+        when(tokenService.getPublicJwkSet()).thenReturn(JWK_SET);
+
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, public"))
+                .andExpect(jsonPath("$.keys[0].kid").value("k1"));
+    }
+
+    @Test
+    @DisplayName("取得 JWKS - ETag 相符時應返回 304")
+    void testGetJwksNotModified() throws Exception {
+        when(tokenService.getPublicJwkSet()).thenReturn(JWK_SET);
+
+        mockMvc.perform(get("/.well-known/jwks.json")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                .andExpect(status().isNotModified());
+    }
+}
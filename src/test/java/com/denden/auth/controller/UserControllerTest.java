@@ -4,6 +4,7 @@ import com.denden.auth.dto.UserInfo;
 import com.denden.auth.exception.BusinessException;
 import com.denden.auth.exception.ErrorCode;
 import com.denden.auth.service.UserService;
+import com.denden.auth.service.jwt.JwtPrincipal;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,12 +12,15 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
-import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.test.context.TestSecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Collections;
 
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,12 +43,13 @@ class UserControllerTest {
 
     @Test
     @DisplayName("取得當前使用者資訊成功 - 應返回 200 OK")
-    @WithMockUser(username = "test@example.com")
     void testGetCurrentUserSuccess() throws Exception {
+        authenticate(1L, "test@example.com");
+
         LocalDateTime lastLoginAt = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
         UserInfo userInfo = new UserInfo(1L, "test@example.com", lastLoginAt);
         
-        when(userService.getCurrentUserInfo(anyString())).thenReturn(userInfo);
+        when(userService.getCurrentUserInfo(anyLong())).thenReturn(userInfo);
         
         mockMvc.perform(get("/api/v1/users/me"))
                 .andExpect(status().isOk())
@@ -52,62 +57,73 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email").value("test@example.com"))
                 .andExpect(jsonPath("$.lastLoginAt").exists());
         
-        verify(userService, times(1)).getCurrentUserInfo("test@example.com");
+        verify(userService, times(1)).getCurrentUserInfo(1L);
     }
 
     @Test
     @DisplayName("取得當前使用者資訊失敗 - 使用者不存在")
-    @WithMockUser(username = "notfound@example.com")
     void testGetCurrentUserNotFound() throws Exception {
-        when(userService.getCurrentUserInfo(anyString()))
+        authenticate(99L, "notfound@example.com");
+
+        when(userService.getCurrentUserInfo(anyLong()))
                 .thenThrow(new BusinessException(ErrorCode.USER_NOT_FOUND));
         
         mockMvc.perform(get("/api/v1/users/me"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.code").value(ErrorCode.USER_NOT_FOUND.getCode()));
         
-        verify(userService, times(1)).getCurrentUserInfo("notfound@example.com");
+        verify(userService, times(1)).getCurrentUserInfo(99L);
     }
 
     @Test
     @DisplayName("取得最後登入時間成功 - 應返回 200 OK")
-    @WithMockUser(username = "test@example.com")
     void testGetLastLoginTimeSuccess() throws Exception {
+        authenticate(1L, "test@example.com");
+
         LocalDateTime lastLoginAt = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
         
-        when(userService.getLastLoginTime(anyString())).thenReturn(lastLoginAt);
+        when(userService.getLastLoginTime(anyLong())).thenReturn(lastLoginAt);
         
         mockMvc.perform(get("/api/v1/users/me/last-login"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.lastLoginAt").exists());
         
-        verify(userService, times(1)).getLastLoginTime("test@example.com");
+        verify(userService, times(1)).getLastLoginTime(1L);
     }
 
     @Test
     @DisplayName("取得最後登入時間 - 從未登入過")
-    @WithMockUser(username = "test@example.com")
     void testGetLastLoginTimeNeverLoggedIn() throws Exception {
-        when(userService.getLastLoginTime(anyString())).thenReturn(null);
+        authenticate(1L, "test@example.com");
+
+        when(userService.getLastLoginTime(anyLong())).thenReturn(null);
         
         mockMvc.perform(get("/api/v1/users/me/last-login"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.lastLoginAt").isEmpty());
         
-        verify(userService, times(1)).getLastLoginTime("test@example.com");
+        verify(userService, times(1)).getLastLoginTime(1L);
     }
 
     @Test
     @DisplayName("取得最後登入時間失敗 - 使用者不存在")
-    @WithMockUser(username = "notfound@example.com")
     void testGetLastLoginTimeUserNotFound() throws Exception {
-        when(userService.getLastLoginTime(anyString()))
+        authenticate(99L, "notfound@example.com");
+
+        when(userService.getLastLoginTime(anyLong()))
                 .thenThrow(new BusinessException(ErrorCode.USER_NOT_FOUND));
         
         mockMvc.perform(get("/api/v1/users/me/last-login"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.code").value(ErrorCode.USER_NOT_FOUND.getCode()));
         
-        verify(userService, times(1)).getLastLoginTime("notfound@example.com");
+        verify(userService, times(1)).getLastLoginTime(99L);
+    }
+
+    private static void authenticate(Long userId, String email) {
+        JwtPrincipal principal = new JwtPrincipal(userId, email, Instant.now().plusSeconds(3600), "denden-auth",
+                "test-token-id");
+        TestSecurityContextHolder.setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList()));
     }
 }
@@ -0,0 +1,151 @@
+package com.denden.auth.filter;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CachedBodyHttpServletRequest 測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("CachedBodyHttpServletRequest 測試")
+class CachedBodyHttpServletRequestTest {
+
+    private static final String JSON = "{\"email\":\"user@example.com\",\"password\":\"Secret123!\"}";
+
+    @Test
+    @DisplayName("完整讀入 - 可重複讀取 body")
+    void testRepeatedReads() throws IOException {
+        CachedBodyHttpServletRequest request = new CachedBodyHttpServletRequest(request(JSON), 1024);
+
+        assertTrue(request.isComplete());
+        assertEquals(JSON, new String(request.getCachedBody(), StandardCharsets.UTF_8));
+        assertEquals(JSON, new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(JSON, new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(JSON, request.getReader().readLine());
+    }
+
+    @Test
+    @DisplayName("超過上限 - 應保留已讀部分並接續原始串流，不遺失任何內容")
+    void testBodyOverLimit() throws IOException {
+        byte[] body = new byte[4096];
+        Arrays.fill(body, (byte) 'x');
+        body[body.length - 1] = 'y';
+
+        CachedBodyHttpServletRequest request = new CachedBodyHttpServletRequest(request(body), 16);
+
+        assertFalse(request.isComplete());
+        assertEquals(17, request.getCachedBody().length);
+        assertArrayEquals(body, request.getInputStream().readAllBytes());
+        assertTrue(request.getInputStream().isFinished());
+    }
+
+    @Test
+    @DisplayName("超過上限 - 重複呼叫 getInputStream 應返回同一個串流，從上次讀取處接續")
+    void testBodyOverLimitRepeatedCalls() throws IOException {
+        byte[] body = new byte[4096];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) i;
+        }
+
+        CachedBodyHttpServletRequest request = new CachedBodyHttpServletRequest(request(body), 16);
+
+        ServletInputStream first = request.getInputStream();
+        byte[] head = first.readNBytes(100);
+        ServletInputStream second = request.getInputStream();
+        byte[] tail = second.readAllBytes();
+
+        assertSame(first, second);
+        ByteArrayOutputStream combined = new ByteArrayOutputStream();
+        combined.write(head);
+        combined.write(tail);
+        assertArrayEquals(body, combined.toByteArray());
+    }
+
+    @Test
+    @DisplayName("非同步讀取 - 應立即通知可讀，讀完後通知結束")
+    void testReadListener() throws IOException {
+        CachedBodyHttpServletRequest request = new CachedBodyHttpServletRequest(request(JSON), 1024);
+        ServletInputStream inputStream = request.getInputStream();
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+
+        inputStream.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data");
+                byte[] buffer = new byte[8];
+                while (inputStream.isReady() && !inputStream.isFinished()) {
+                    int n = inputStream.read(buffer);
+                    if (n > 0) {
+                        received.write(buffer, 0, n);
+                    }
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertEquals(List.of("data", "done"), events);
+        assertEquals(JSON, received.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("非同步讀取 - 空 body 應直接通知結束")
+    void testReadListenerEmptyBody() throws IOException {
+        CachedBodyHttpServletRequest request = new CachedBodyHttpServletRequest(request(new byte[0]), 1024);
+        List<String> events = new ArrayList<>();
+
+        request.getInputStream().setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() {
+                events.add("data");
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertEquals(List.of("done"), events);
+    }
+
+    private static MockHttpServletRequest request(String body) {
+        return request(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MockHttpServletRequest request(byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setContentType("application/json");
+        request.setCharacterEncoding("UTF-8");
+        request.setContent(body);
+        return request;
+    }
+}
@@ -0,0 +1,169 @@
+package com.denden.auth.filter;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.util.IpAddress;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ClientIpResolver 測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("ClientIpResolver 測試")
+class ClientIpResolverTest {
+
+    private static final String PROXY = "10.20.0.5";
+    private static final String CLIENT = "198.51.100.7";
+
+    private SecurityProperties securityProperties;
+    private ClientIpResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        securityProperties = new SecurityProperties();
+        securityProperties.getClientIp().setTrustedProxies(List.of("127.0.0.1/32", "::1/128", "10.20.0.0/16"));
+        securityProperties.getClientIp().setAllow(List.of("192.0.2.0/24"));
+        securityProperties.getClientIp().setDeny(List.of("203.0.113.0/24"));
+        resolver = new ClientIpResolver(securityProperties);
+    }
+
+    @Test
+    @DisplayName("不受信任的對端 - 應忽略所有轉發標頭")
+    void testUntrustedPeerIgnoresHeaders() {
+        MockHttpServletRequest request = request(CLIENT);
+        request.addHeader("X-Forwarded-For", "1.2.3.4");
+        request.addHeader("X-Real-IP", "5.6.7.8");
+
+        assertEquals(CLIENT, resolve(request));
+    }
+
+    @Test
+    @DisplayName("預設設定 - 私有網段的對端不受信任，無法偽造 X-Forwarded-For")
+    void testDefaultTrustsLoopbackOnly() {
+        securityProperties.getClientIp().setTrustedProxies(List.of("127.0.0.1/32", "::1/128"));
+        resolver = new ClientIpResolver(securityProperties);
+
+        MockHttpServletRequest fromPod = request("10.0.3.4");
+        fromPod.addHeader("X-Forwarded-For", "1.2.3.4");
+        MockHttpServletRequest fromLoopback = request("127.0.0.1");
+        fromLoopback.addHeader("X-Forwarded-For", CLIENT);
+
+        assertEquals("10.0.3.4", resolve(fromPod));
+        assertEquals(CLIENT, resolve(fromLoopback));
+    }
+
+    @Test
+    @DisplayName("受信任的對端 - 由右往左跳過受信任代理，取第一個不受信任的位址")
+    void testRightToLeftThroughTrustedProxies() {
+        MockHttpServletRequest request = request(PROXY);
+        request.addHeader("X-Forwarded-For", "6.6.6.6, " + CLIENT + ", 10.20.1.1");
+
+        assertEquals(CLIENT, resolve(request));
+    }
+
+    @Test
+    @DisplayName("多個 X-Forwarded-For 標頭 - 應視為同一條鏈，最後一個標頭最靠近本服務")
+    void testMultipleHeaders() {
+        MockHttpServletRequest request = request(PROXY);
+        request.addHeader("X-Forwarded-For", "6.6.6.6");
+        request.addHeader("X-Forwarded-For", CLIENT + ",10.20.1.1");
+
+        assertEquals(CLIENT, resolve(request));
+    }
+
+    @Test
+    @DisplayName("無法解析的項目 - 應停止並採用最後一個受信任代理回報的位址")
+    void testUnparsableHopStops() {
+        MockHttpServletRequest request = request(PROXY);
+        request.addHeader("X-Forwarded-For", CLIENT + ", unknown, 10.20.1.1");
+
+        assertEquals("10.20.1.1", resolve(request));
+    }
+
+    @Test
+    @DisplayName("整條鏈都受信任 - 應採用最左邊的位址")
+    void testAllHopsTrusted() {
+        MockHttpServletRequest request = request(PROXY);
+        request.addHeader("X-Forwarded-For", "10.20.9.9, 10.20.1.1");
+
+        assertEquals("10.20.9.9", resolve(request));
+    }
+
+    @Test
+    @DisplayName("沒有 X-Forwarded-For - 應採用 X-Real-IP，無效時採用對端位址")
+    void testXRealIp() {
+        MockHttpServletRequest request = request(PROXY);
+        request.addHeader("X-Real-IP", CLIENT);
+        MockHttpServletRequest invalid = request(PROXY);
+        invalid.addHeader("X-Real-IP", "not-an-ip");
+
+        assertEquals(CLIENT, resolve(request));
+        assertEquals(PROXY, resolve(invalid));
+    }
+
+    @Test
+    @DisplayName("IPv6 - 應接受 [v6]:port 形式的項目")
+    void testIpv6Hops() {
+        MockHttpServletRequest request = request("::1");
+        request.addHeader("X-Forwarded-For", "[2001:db8::7]:51234");
+
+        assertEquals("2001:db8::7", resolve(request));
+    }
+
+    @Test
+    @DisplayName("對端位址無法解析 - 應返回 null")
+    void testUnparsablePeer() {
+        assertNull(resolver.resolve(request("unix-socket")));
+    }
+
+    @Test
+    @DisplayName("限流身分 - IPv6 應依前綴合併，IPv4 保持原樣")
+    void testRateLimitKey() {
+        assertEquals("2001:db8:1:2::/64", resolver.rateLimitKey(IpAddress.parse("2001:db8:1:2:aaaa:bbbb:cccc:dddd")));
+        assertEquals("2001:db8:1:2::/64", resolver.rateLimitKey(IpAddress.parse("2001:db8:1:2::1")));
+        assertEquals(CLIENT, resolver.rateLimitKey(IpAddress.parse(CLIENT)));
+
+        securityProperties.getClientIp().setIpv6PrefixLength(128);
+        ClientIpResolver exact = new ClientIpResolver(securityProperties);
+        assertEquals("2001:db8::1", exact.rateLimitKey(IpAddress.parse("2001:db8::1")));
+    }
+
+    @Test
+    @DisplayName("網段判定 - allow / deny")
+    void testAccess() {
+        assertEquals(ClientIpResolver.NetworkAccess.ALLOW, resolver.access(IpAddress.parse("192.0.2.44")));
+        assertEquals(ClientIpResolver.NetworkAccess.DENY, resolver.access(IpAddress.parse("203.0.113.44")));
+        assertEquals(ClientIpResolver.NetworkAccess.NONE, resolver.access(IpAddress.parse(CLIENT)));
+        assertEquals(ClientIpResolver.NetworkAccess.NONE, resolver.access(IpAddress.parse(PROXY)));
+    }
+
+    @Test
+    @DisplayName("設定錯誤 - 應在啟動時拋出 IllegalStateException")
+    void testInvalidConfig() {
+        securityProperties.getClientIp().setTrustedProxies(List.of("10.0.0.0/40"));
+        assertThrows(IllegalStateException.class, () -> new ClientIpResolver(securityProperties));
+
+        securityProperties.getClientIp().setTrustedProxies(List.of());
+        securityProperties.getClientIp().setIpv6PrefixLength(0);
+        assertThrows(IllegalStateException.class, () -> new ClientIpResolver(securityProperties));
+    }
+
+    private String resolve(MockHttpServletRequest request) {
+        IpAddress address = resolver.resolve(request);
+        return address != null ? address.toString() : null;
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
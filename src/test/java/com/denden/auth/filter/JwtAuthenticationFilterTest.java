@@ -0,0 +1,79 @@
+package com.denden.auth.filter;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.service.TokenRevocationService;
+import com.denden.auth.service.TokenService;
+import com.denden.auth.service.jwt.JwtPrincipal;
+import com.denden.auth.service.jwt.JwtPrincipalCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JwtAuthenticationFilter 權限測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("JwtAuthenticationFilter 權限測試")
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private TokenService tokenService;
+    private SecurityProperties securityProperties;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = mock(TokenService.class);
+        securityProperties = new SecurityProperties();
+        securityProperties.setAdminEmails(List.of(" Ops@Example.com "));
+        filter = new JwtAuthenticationFilter(tokenService, mock(JwtPrincipalCache.class),
+                mock(TokenRevocationService.class), securityProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("管理者 email - 應授予 ROLE_ADMIN（不分大小寫）")
+    void testAdminEmailGetsAdminRole() throws Exception {
+        assertEquals(List.of("ROLE_ADMIN"), authenticate("ops@example.com"));
+    }
+
+    @Test
+    @DisplayName("一般會員 - 不應有任何權限")
+    void testMemberHasNoAuthorities() throws Exception {
+        assertEquals(List.of(), authenticate("member@example.com"));
+    }
+
+    private List<String> authenticate(String email) throws Exception {
+        when(tokenService.parsePrincipal(TOKEN)).thenReturn(
+                new JwtPrincipal(1L, email, Instant.now().plusSeconds(60), "member-auth-system", "jti"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/heavyhitters");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
@@ -0,0 +1,207 @@
+package com.denden.auth.filter;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.config.SecurityProperties.RateLimitIdentity;
+import com.denden.auth.config.SecurityProperties.RateLimitPolicy;
+import com.denden.auth.service.TokenService;
+import com.denden.auth.service.abuse.HeavyHitterTracker;
+import com.denden.auth.service.jwt.JwtPrincipal;
+import com.denden.auth.service.jwt.JwtPrincipalCache;
+import com.denden.auth.service.ratelimit.LeasedRateLimiter;
+import com.denden.auth.service.ratelimit.RateLimitDecision;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RateLimitFilter 測試
+ *
+ * <p>限流器以記錄 key 的替身取代，驗證規則比對、身分解析與回應標頭。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("RateLimitFilter 測試")
+class RateLimitFilterTest {
+
+    private static final String CLIENT = "198.51.100.7";
+    private static final String GLOBAL_KEY = "rate_limit:" + CLIENT;
+    private static final String TOKEN = "header.payload.signature";
+
+    private SecurityProperties securityProperties;
+    private TokenService tokenService;
+    private JwtPrincipalCache jwtPrincipalCache;
+    private List<String> acquiredKeys;
+    private Map<String, RateLimitDecision> decisions;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        securityProperties = new SecurityProperties();
+        securityProperties.getRateLimit().setMaxRequests(100);
+        securityProperties.getRateLimit().setWindowSeconds(60);
+        securityProperties.getRateLimit().setPolicies(List.of(
+                policy("login", List.of("/api/auth/login"), List.of("post"), RateLimitIdentity.EMAIL, 5),
+                policy("auth", List.of("/api/auth/**"), List.of(), RateLimitIdentity.IP, 20),
+                policy("profile", List.of("/api/users/**"), List.of(), RateLimitIdentity.USER_ID, 30)));
+
+        tokenService = mock(TokenService.class);
+        jwtPrincipalCache = mock(JwtPrincipalCache.class);
+        acquiredKeys = new ArrayList<>();
+        decisions = new HashMap<>();
+
+        LeasedRateLimiter rateLimiter = mock(LeasedRateLimiter.class);
+        when(rateLimiter.tryAcquire(anyString(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            acquiredKeys.add(key);
+            return decisions.getOrDefault(key, new RateLimitDecision(true, limit, limit - 1, 0, 1000));
+        });
+
+        filter = new RateLimitFilter(rateLimiter, securityProperties, new ObjectMapper(), tokenService,
+                jwtPrincipalCache, new ClientIpResolver(securityProperties), mock(HeavyHitterTracker.class));
+    }
+
+    @Test
+    @DisplayName("email 規則 - 依路徑與方法套用，從 JSON body 取得 email，body 仍可由後續讀取")
+    void testEmailPolicyReadsJsonBody() throws Exception {
+        String body = "{\"password\":\"secret\",\"meta\":{\"email\":\"nested@example.com\"},"
+                + "\"email\":\" Alice@Example.com \"}";
+        MockHttpServletRequest request = request("POST", "/api/auth/login");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertEquals(List.of(GLOBAL_KEY, "rate_limit:login:email:alice@example.com", "rate_limit:auth:ip:" + CLIENT),
+                acquiredKeys);
+        assertNotNull(chain.getRequest());
+        assertEquals(body, StreamUtils.copyToString(chain.getRequest().getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("方法不符 - 只套用不限方法的規則")
+    void testMethodMismatchSkipsPolicy() throws Exception {
+        MockHttpServletRequest request = request("GET", "/api/auth/login");
+        request.setParameter("email", "alice@example.com");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(List.of(GLOBAL_KEY, "rate_limit:auth:ip:" + CLIENT), acquiredKeys);
+    }
+
+    @Test
+    @DisplayName("userId 規則 - 由 Bearer Token 解析使用者 ID 並寫入共用快取")
+    void testUserIdPolicyParsesBearerToken() throws Exception {
+        JwtPrincipal principal = new JwtPrincipal(42L, "alice@example.com", Instant.now().plusSeconds(60),
+                "member-auth-system", "jti");
+        when(tokenService.parsePrincipal(TOKEN)).thenReturn(principal);
+        MockHttpServletRequest request = request("GET", "/api/users/me");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(List.of(GLOBAL_KEY, "rate_limit:profile:user_id:42"), acquiredKeys);
+        verify(jwtPrincipalCache).put(TOKEN, principal);
+    }
+
+    @Test
+    @DisplayName("缺少身分 - 沒有 email、沒有或無效的 Token 時略過該規則，仍放行")
+    void testMissingIdentitySkipsPolicy() throws Exception {
+        when(tokenService.parsePrincipal(eq("invalid"))).thenThrow(new MalformedJwtException("invalid"));
+
+        MockHttpServletRequest noEmail = request("POST", "/api/auth/login");
+        noEmail.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        noEmail.setContent("{\"email\":\"   \"}".getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(noEmail, new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest());
+
+        filter.doFilter(request("GET", "/api/users/me"), new MockHttpServletResponse(), new MockFilterChain());
+
+        MockHttpServletRequest invalidToken = request("GET", "/api/users/me");
+        invalidToken.addHeader(HttpHeaders.AUTHORIZATION, "Bearer invalid");
+        filter.doFilter(invalidToken, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(List.of(GLOBAL_KEY, "rate_limit:auth:ip:" + CLIENT, GLOBAL_KEY, GLOBAL_KEY), acquiredKeys);
+    }
+
+    @Test
+    @DisplayName("多條規則 - 回應標頭取剩餘額度最少的規則")
+    void testHeadersUseTightestDecision() throws Exception {
+        decisions.put(GLOBAL_KEY, new RateLimitDecision(true, 100, 90, 0, 6000));
+        decisions.put("rate_limit:login:email:alice@example.com", new RateLimitDecision(true, 5, 2, 0, 36_000));
+        decisions.put("rate_limit:auth:ip:" + CLIENT, new RateLimitDecision(true, 20, 10, 0, 30_000));
+        MockHttpServletRequest request = request("POST", "/api/auth/login");
+        request.setParameter("email", "alice@example.com");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("5", response.getHeader("X-RateLimit-Limit"));
+        assertEquals("2", response.getHeader("X-RateLimit-Remaining"));
+        assertEquals("36", response.getHeader("X-RateLimit-Reset"));
+    }
+
+    @Test
+    @DisplayName("規則拒絕 - 回傳 429 與 Retry-After，後續規則不再扣額度")
+    void testRejectingPolicyStopsChain() throws Exception {
+        decisions.put("rate_limit:login:email:alice@example.com", new RateLimitDecision(false, 5, 0, 1500, 36_000));
+        MockHttpServletRequest request = request("POST", "/api/auth/login");
+        request.setParameter("email", "alice@example.com");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("0", response.getHeader("X-RateLimit-Remaining"));
+        assertEquals(List.of(GLOBAL_KEY, "rate_limit:login:email:alice@example.com"), acquiredKeys);
+        assertNull(chain.getRequest());
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(CLIENT);
+        return request;
+    }
+
+    private static RateLimitPolicy policy(String name, List<String> paths, List<String> methods,
+                                          RateLimitIdentity identity, int maxRequests) {
+        RateLimitPolicy policy = new RateLimitPolicy();
+        policy.setName(name);
+        policy.setPaths(paths);
+        policy.setMethods(methods);
+        policy.setIdentity(identity);
+        policy.setMaxRequests(maxRequests);
+        policy.setWindowSeconds(60);
+        return policy;
+    }
+}
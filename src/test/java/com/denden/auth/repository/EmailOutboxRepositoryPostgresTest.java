@@ -0,0 +1,146 @@
+package com.denden.auth.repository;
+
+import com.denden.auth.entity.EmailOutbox;
+import com.denden.auth.entity.EmailOutboxStatus;
+import com.denden.auth.entity.EmailType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EmailOutboxRepository 測試（PostgreSQL）
+ *
+ * <p>以 Flyway 建立結構，驗證 FOR UPDATE SKIP LOCKED ... RETURNING * 認領與 FAILED 標記。
+ * 需要 Docker，無法使用時略過。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=true", "spring.jpa.hibernate.ddl-auto=none"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("EmailOutboxRepository 測試")
+class EmailOutboxRepositoryPostgresTest {
+
+    private static final String EMAIL = "outbox@example.com";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("認領 - 只認領到期的 PENDING 郵件，返回遞增後的次數並延後下次可發送時間")
+    void testClaimMapsReturnedRows() {
+        EmailOutbox otp = emailOutboxRepository.save(new EmailOutbox(EmailType.OTP, EMAIL, "123456"));
+        emailOutboxRepository.save(new EmailOutbox(EmailType.WELCOME, EMAIL, "user"));
+        EmailOutbox later = new EmailOutbox(EmailType.VERIFICATION, EMAIL, "token");
+        later.setNextAttemptAt(LocalDateTime.now().plusMinutes(5));
+        emailOutboxRepository.save(later);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusSeconds(30);
+        List<EmailOutbox> first = emailOutboxRepository.claim(now, leaseUntil, 1);
+        List<EmailOutbox> second = emailOutboxRepository.claim(now, leaseUntil, 10);
+
+        assertEquals(1, first.size());
+        EmailOutbox claimed = first.get(0);
+        assertEquals(otp.getId(), claimed.getId());
+        assertEquals(EmailType.OTP, claimed.getType());
+        assertEquals(EMAIL, claimed.getRecipient());
+        assertEquals("123456", claimed.getPayload());
+        assertEquals(EmailOutboxStatus.PENDING, claimed.getStatus());
+        assertEquals(1, claimed.getAttempts());
+        assertNotNull(claimed.getCreatedAt());
+        assertTrue(claimed.getNextAttemptAt().isAfter(now));
+
+        assertEquals(1, second.size());
+        assertEquals(EmailType.WELCOME, second.get(0).getType());
+        assertTrue(emailOutboxRepository.claim(now, leaseUntil, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("認領 - 並行認領時各自取得不同的郵件")
+    void testConcurrentClaimsAreDisjoint() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            emailOutboxRepository.save(new EmailOutbox(EmailType.WELCOME, EMAIL, "user" + i));
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<EmailOutbox>>> futures = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return emailOutboxRepository.claim(now, now.plusSeconds(30), 10);
+                }));
+            }
+            start.countDown();
+
+            Set<Long> ids = new HashSet<>();
+            int claimed = 0;
+            for (Future<List<EmailOutbox>> future : futures) {
+                for (EmailOutbox email : future.get(10, TimeUnit.SECONDS)) {
+                    ids.add(email.getId());
+                    claimed++;
+                }
+            }
+            for (EmailOutbox email : emailOutboxRepository.claim(now, now.plusSeconds(30), 20)) {
+                ids.add(email.getId());
+                claimed++;
+            }
+
+            assertEquals(20, claimed);
+            assertEquals(20, ids.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("標記失敗 - 應清除內容參數，保留收件者與錯誤訊息，且不再被認領")
+    void testMarkFailedClearsPayload() {
+        EmailOutbox email = emailOutboxRepository.save(new EmailOutbox(EmailType.VERIFICATION, EMAIL, "token"));
+
+        assertEquals(1, emailOutboxRepository.markFailed(email.getId(), "SMTP 無法連線"));
+
+        EmailOutbox failed = emailOutboxRepository.findById(email.getId()).orElseThrow();
+        assertEquals(EmailOutboxStatus.FAILED, failed.getStatus());
+        assertNull(failed.getPayload());
+        assertEquals(EMAIL, failed.getRecipient());
+        assertEquals("SMTP 無法連線", failed.getLastError());
+        assertTrue(emailOutboxRepository.claim(LocalDateTime.now(), LocalDateTime.now().plusSeconds(30), 10).isEmpty());
+    }
+}
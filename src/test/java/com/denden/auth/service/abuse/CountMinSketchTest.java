@@ -0,0 +1,112 @@
+package com.denden.auth.service.abuse;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CountMinSketch 測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("CountMinSketch 測試")
+class CountMinSketchTest {
+
+    @Test
+    @DisplayName("大小 - width 向上取整為 2 的次方")
+    void testWidthIsRoundedUpToPowerOfTwo() {
+        assertEquals(4L * 1024 * Long.BYTES, new CountMinSketch(4, 1000).sizeInBytes());
+        assertEquals(2L * 1024 * Long.BYTES, new CountMinSketch(2, 1024).sizeInBytes());
+        assertEquals(Long.BYTES, new CountMinSketch(1, 1).sizeInBytes());
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 16));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(4, 0));
+    }
+
+    @Test
+    @DisplayName("估計值 - 不低估，且大多數 key 的高估不超過 e × 總計數 / width")
+    void testEstimateErrorBound() {
+        int width = 256;
+        CountMinSketch sketch = new CountMinSketch(4, width);
+        Map<String, Long> actual = new HashMap<>();
+        Random random = new Random(42);
+        int total = 20_000;
+
+        for (int i = 0; i < total; i++) {
+            String key = "10.0." + (int) Math.abs(random.nextGaussian() * 40) + "." + random.nextInt(8);
+            actual.merge(key, 1L, Long::sum);
+            long added = sketch.add(key);
+            assertEquals(added, sketch.estimate(key));
+        }
+
+        double bound = Math.E * total / width;
+        int exceeded = 0;
+        for (Map.Entry<String, Long> entry : actual.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue(), entry.getKey());
+            if (estimate - entry.getValue() > bound) {
+                exceeded++;
+            }
+        }
+        assertTrue(exceeded <= actual.size() * 0.05, "超過誤差上限的 key: " + exceeded + " / " + actual.size());
+    }
+
+    @Test
+    @DisplayName("衰減 - 所有計數器減半")
+    void testHalve() {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        for (int i = 0; i < 10; i++) {
+            sketch.add("203.0.113.7");
+        }
+
+        sketch.halve();
+        assertEquals(5, sketch.estimate("203.0.113.7"));
+
+        sketch.halve();
+        sketch.halve();
+        sketch.halve();
+        assertEquals(0, sketch.estimate("203.0.113.7"));
+    }
+
+    @Test
+    @DisplayName("並行更新 - 單一 key 的計數不遺失")
+    void testConcurrentAdds() throws Exception {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < perThread; j++) {
+                        sketch.add("198.51.100.1");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals((long) threads * perThread, sketch.estimate("198.51.100.1"));
+    }
+}
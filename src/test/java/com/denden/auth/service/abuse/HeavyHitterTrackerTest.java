@@ -0,0 +1,109 @@
+package com.denden.auth.service.abuse;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * HeavyHitterTracker 跨節點合併測試
+ *
+ * <p>其他節點的摘要以模擬的 Redis 讀取結果提供（欄位為 &lt;count&gt;:&lt;error&gt;，@floor 為節點最小計數）。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("HeavyHitterTracker 測試")
+class HeavyHitterTrackerTest {
+
+    private RedisCircuitBreaker redisCircuitBreaker;
+    private HeavyHitterTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        redisCircuitBreaker = mock(RedisCircuitBreaker.class);
+        tracker = new HeavyHitterTracker(new SecurityProperties(), mock(StringRedisTemplate.class),
+                redisCircuitBreaker, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("合併 - 計數與誤差為各節點之和，節點摘要中沒有的 key 以該節點的 floor 計")
+    void testMergeAddsFloorForMissingKeys() {
+        record("10.0.0.1", 5);
+        record("10.0.0.2", 2);
+        when(redisCircuitBreaker.execute(any())).thenReturn(Map.of("node-b", Map.<Object, Object>of(
+                "10.0.0.1", "4:1",
+                "10.0.0.3", "6:0",
+                "@floor", "3")));
+
+        HeavyHitterReport report = tracker.clusterTop(HeavyHitterStream.REQUEST_IP, 10);
+
+        assertEquals(HeavyHitterReport.SCOPE_CLUSTER, report.scope());
+        assertEquals(2, report.nodes());
+        assertEquals(3, report.floor());
+        assertEquals(List.of(
+                new HeavyHitter("10.0.0.1", 9, 1),
+                new HeavyHitter("10.0.0.3", 6, 0),
+                new HeavyHitter("10.0.0.2", 5, 3)), report.entries());
+    }
+
+    @Test
+    @DisplayName("合併 - 計數相同時保證下限高的排前面，並依 limit 截斷")
+    void testMergeOrdersByGuaranteedAndLimits() {
+        record("10.0.0.1", 4);
+        when(redisCircuitBreaker.execute(any())).thenReturn(Map.of(
+                "node-b", Map.<Object, Object>of("10.0.0.2", "4:2", "@floor", "0"),
+                "node-c", Map.<Object, Object>of("10.0.0.3", "3:3", "@floor", "1")));
+
+        HeavyHitterReport report = tracker.clusterTop(HeavyHitterStream.REQUEST_IP, 2);
+
+        assertEquals(3, report.nodes());
+        assertEquals(1, report.floor());
+        assertEquals(List.of(
+                new HeavyHitter("10.0.0.1", 5, 1),
+                new HeavyHitter("10.0.0.2", 5, 3)), report.entries());
+    }
+
+    @Test
+    @DisplayName("Redis 無法使用 - 返回本節點結果")
+    void testFallsBackToLocalWhenRedisFails() {
+        record("10.0.0.1", 3);
+        when(redisCircuitBreaker.execute(any())).thenThrow(new DataAccessResourceFailureException("Redis 無法連線"));
+
+        HeavyHitterReport report = tracker.clusterTop(HeavyHitterStream.REQUEST_IP, 10);
+
+        assertEquals(HeavyHitterReport.SCOPE_LOCAL, report.scope());
+        assertEquals(1, report.nodes());
+        assertEquals(List.of(new HeavyHitter("10.0.0.1", 3, 0)), report.entries());
+    }
+
+    @Test
+    @DisplayName("衰減 - 本節點計數減半")
+    void testDecay() {
+        record("10.0.0.1", 6);
+
+        tracker.decay();
+
+        assertEquals(3, tracker.estimate(HeavyHitterStream.REQUEST_IP, "10.0.0.1"));
+        assertEquals(List.of(new HeavyHitter("10.0.0.1", 3, 0)),
+                tracker.localTop(HeavyHitterStream.REQUEST_IP, 10).entries());
+    }
+
+    private void record(String ip, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.recordRequest(ip);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.denden.auth.service.abuse;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SpaceSavingSummary 測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("SpaceSavingSummary 測試")
+class SpaceSavingSummaryTest {
+
+    @Test
+    @DisplayName("遞增 - key 移到相鄰的 bucket，計數相同時併入既有 bucket")
+    void testIncrementRelinksBuckets() {
+        SpaceSavingSummary summary = new SpaceSavingSummary(3);
+        summary.offer("a", 1);
+        summary.offer("b", 1);
+        summary.offer("c", 1);
+        summary.offer("a", 2);
+        summary.offer("a", 3);
+        assertCounts(summary, Map.of("a", 3L, "b", 1L, "c", 1L));
+
+        summary.offer("b", 2);
+        assertEquals(List.of(entry("a", 3, 0), entry("b", 2, 0), entry("c", 1, 0)), summary.entries());
+
+        summary.offer("b", 3);
+        assertCounts(summary, Map.of("a", 3L, "b", 3L, "c", 1L));
+        assertEquals(1, summary.floor());
+
+        summary.offer("c", 2);
+        assertCounts(summary, Map.of("a", 3L, "b", 3L, "c", 2L));
+        assertEquals(2, summary.floor());
+        assertEquals("c", summary.entries().get(2).key());
+    }
+
+    @Test
+    @DisplayName("替換 - 估計值不高於最小計數時不替換，替換時繼承最小計數並記錄誤差")
+    void testReplacement() {
+        SpaceSavingSummary summary = new SpaceSavingSummary(2);
+        offer(summary, "a", 3);
+        summary.offer("b", 1);
+        assertEquals(1, summary.floor());
+
+        summary.offer("c", 1);
+        assertCounts(summary, Map.of("a", 3L, "b", 1L));
+
+        summary.offer("c", 2);
+        assertEquals(List.of(entry("a", 3, 0), entry("c", 2, 1)), summary.entries());
+        assertEquals(2, summary.floor());
+
+        summary.offer("b", 3);
+        assertCounts(summary, Map.of("a", 3L, "b", 3L));
+        assertTrue(summary.entries().contains(entry("b", 3, 2)));
+        assertEquals(3, summary.floor());
+    }
+
+    @Test
+    @DisplayName("誤差上限 - 追蹤中的 key 計數不低估、保證下限不高估，高頻 key 一定在摘要中")
+    void testErrorBounds() {
+        int capacity = 16;
+        SpaceSavingSummary summary = new SpaceSavingSummary(capacity);
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        Map<String, Long> actual = new HashMap<>();
+        Random random = new Random(7);
+        int total = 20_000;
+
+        for (int i = 0; i < total; i++) {
+            String key = random.nextInt(4) == 0
+                    ? "hot-" + random.nextInt(4)
+                    : "cold-" + random.nextInt(2_000);
+            actual.merge(key, 1L, Long::sum);
+            summary.offer(key, sketch.add(key));
+        }
+
+        for (HeavyHitter entry : summary.entries()) {
+            long count = actual.get(entry.key());
+            assertTrue(entry.count() >= count, entry.toString());
+            assertTrue(entry.guaranteed() <= count, entry.toString());
+        }
+        long threshold = total / capacity;
+        Map<String, HeavyHitter> tracked = new HashMap<>();
+        summary.entries().forEach(entry -> tracked.put(entry.key(), entry));
+        actual.forEach((key, count) -> {
+            if (count > threshold) {
+                assertTrue(tracked.containsKey(key), key + ": " + count);
+            }
+        });
+        assertTrue(summary.floor() <= threshold);
+    }
+
+    @Test
+    @DisplayName("衰減 - 計數與誤差減半，歸零的 key 移除，計數相同的 bucket 合併")
+    void testHalve() {
+        SpaceSavingSummary summary = new SpaceSavingSummary(3);
+        offer(summary, "a", 5);
+        offer(summary, "b", 3);
+        offer(summary, "c", 2);
+
+        summary.halve();
+
+        assertCounts(summary, Map.of("a", 2L, "b", 1L, "c", 1L));
+        assertEquals(1, summary.floor());
+
+        summary.halve();
+
+        assertCounts(summary, Map.of("a", 1L));
+        assertEquals(0, summary.floor());
+
+        summary.offer("b", 1);
+        summary.offer("b", 2);
+        assertEquals(List.of(entry("b", 2, 0), entry("a", 1, 0)), summary.entries());
+    }
+
+    @Test
+    @DisplayName("衰減 - 替換帶入的誤差一併減半")
+    void testHalveScalesError() {
+        SpaceSavingSummary summary = new SpaceSavingSummary(1);
+        offer(summary, "a", 4);
+        summary.offer("b", 5);
+        assertEquals(List.of(entry("b", 5, 4)), summary.entries());
+
+        summary.halve();
+
+        assertEquals(List.of(entry("b", 2, 2)), summary.entries());
+    }
+
+    private static void offer(SpaceSavingSummary summary, String key, int times) {
+        for (int i = 1; i <= times; i++) {
+            summary.offer(key, i);
+        }
+    }
+
+    private static void assertCounts(SpaceSavingSummary summary, Map<String, Long> expected) {
+        Map<String, Long> counts = new HashMap<>();
+        List<HeavyHitter> entries = summary.entries();
+        for (HeavyHitter entry : entries) {
+            counts.put(entry.key(), entry.count());
+        }
+        assertEquals(expected, counts);
+        assertEquals(expected.size(), summary.size());
+        for (int i = 1; i < entries.size(); i++) {
+            assertTrue(entries.get(i - 1).count() >= entries.get(i).count(), entries.toString());
+        }
+    }
+
+    private static HeavyHitter entry(String key, long count, long error) {
+        return new HeavyHitter(key, count, error);
+    }
+}
@@ -0,0 +1,125 @@
+package com.denden.auth.service.email;
+
+import com.denden.auth.config.EmailOutboxProperties;
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.entity.EmailOutbox;
+import com.denden.auth.entity.EmailType;
+import com.denden.auth.repository.EmailOutboxRepository;
+import com.denden.auth.service.EmailTemplateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * EmailOutboxDispatcher 測試
+ *
+ * <p>認領與標記陳述式在 PostgreSQL 上的行為見 {@link com.denden.auth.repository.EmailOutboxRepositoryPostgresTest}。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("EmailOutboxDispatcher 測試")
+class EmailOutboxDispatcherTest {
+
+    private static final String EMAIL = "outbox@example.com";
+
+    private final EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+    private final EmailSender sender = mock(EmailSender.class);
+    private final EmailTemplateService templateService = mock(EmailTemplateService.class);
+    private final EmailOutboxProperties config = new EmailOutboxProperties();
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        config.setDispatcherEnabled(false);
+        config.setBatchSize(2);
+        config.setMaxAttempts(3);
+        config.setInitialBackoffMs(1000);
+        config.setMaxBackoffMs(3000);
+        SecurityProperties securityProperties = new SecurityProperties();
+        securityProperties.getOtp().setExpirationSeconds(300);
+        when(templateService.buildOtpEmail(anyString())).thenReturn("<p>otp</p>");
+        when(templateService.buildWelcomeEmail(anyString())).thenReturn("<p>welcome</p>");
+        dispatcher = new EmailOutboxDispatcher(config, repository, new EmailSenderFactory(List.of(sender)),
+                templateService, securityProperties, new SimpleMeterRegistry(), "http://localhost:8080");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.destroy();
+    }
+
+    @Test
+    @DisplayName("批次發送 - 成功的郵件以一次刪除，滿批時繼續認領")
+    void testSentEmailsAreDeletedInBatch() throws Exception {
+        EmailOutbox first = claimed(1L, EmailType.OTP, "123456", 1);
+        EmailOutbox second = claimed(2L, EmailType.WELCOME, EMAIL, 1);
+        EmailOutbox third = claimed(3L, EmailType.OTP, "654321", 1);
+        when(repository.claim(any(), any(), eq(2)))
+                .thenReturn(List.of(first, second), List.of(third));
+
+        assertEquals(3, dispatcher.dispatch());
+
+        verify(sender, times(3)).send(eq(EMAIL), anyString(), anyString());
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(repository).deleteAllByIdInBatch(List.of(3L));
+        verify(repository, times(2)).claim(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("發送失敗 - 以指數退避重新排程，超過次數標記為 FAILED")
+    void testFailuresBackOffThenFail() throws Exception {
+        doThrow(new EmailSendException("SMTP 無法連線")).when(sender).send(anyString(), anyString(), anyString());
+        when(repository.claim(any(), any(), anyInt()))
+                .thenReturn(List.of(claimed(1L, EmailType.OTP, "123456", 2), claimed(2L, EmailType.OTP, "123456", 3)),
+                        List.of());
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).reschedule(eq(1L), nextAttempt.capture(), eq("SMTP 無法連線"));
+        assertFalse(nextAttempt.getValue().isBefore(before.plusSeconds(2)));
+        verify(repository).markFailed(2L, "SMTP 無法連線");
+        verify(repository, never()).deleteAllByIdInBatch(any());
+
+        assertEquals(1000, dispatcher.backoffMillis(1));
+        assertEquals(2000, dispatcher.backoffMillis(2));
+        assertEquals(3000, dispatcher.backoffMillis(3));
+        assertEquals(3000, dispatcher.backoffMillis(64));
+    }
+
+    @Test
+    @DisplayName("過期 OTP - 不發送直接刪除")
+    void testExpiredOtpIsDiscarded() throws Exception {
+        EmailOutbox stale = claimed(1L, EmailType.OTP, "123456", 1);
+        ReflectionTestUtils.setField(stale, "createdAt", LocalDateTime.now().minusMinutes(10));
+        when(repository.claim(any(), any(), anyInt())).thenReturn(List.of(stale));
+
+        dispatcher.dispatch();
+
+        verify(sender, never()).send(anyString(), anyString(), anyString());
+        verify(repository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    private static EmailOutbox claimed(Long id, EmailType type, String payload, int attempts) {
+        EmailOutbox email = new EmailOutbox(type, EMAIL, payload);
+        email.setId(id);
+        email.setAttempts(attempts);
+        return email;
+    }
+}
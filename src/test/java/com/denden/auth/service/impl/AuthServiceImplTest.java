@@ -0,0 +1,312 @@
+package com.denden.auth.service.impl;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.dto.AuthResponse;
+import com.denden.auth.dto.LoginRequest;
+import com.denden.auth.dto.RegisterRequest;
+import com.denden.auth.dto.VerifyOtpRequest;
+import com.denden.auth.entity.User;
+import com.denden.auth.exception.BusinessException;
+import com.denden.auth.exception.ErrorCode;
+import com.denden.auth.model.OtpIssueResult;
+import com.denden.auth.repository.LoginAttemptRepository;
+import com.denden.auth.repository.UserRepository;
+import com.denden.auth.repository.VerificationTokenRepository;
+import com.denden.auth.service.EmailService;
+import com.denden.auth.service.LoginHistoryService;
+import com.denden.auth.service.OtpService;
+import com.denden.auth.service.TokenRevocationService;
+import com.denden.auth.service.TokenService;
+import com.denden.auth.service.abuse.HeavyHitterTracker;
+import com.denden.auth.service.lockout.AccountLockoutService;
+import com.denden.auth.service.otp.OtpVerification;
+import com.denden.auth.service.otp.OtpVerifyResult;
+import com.denden.auth.service.loginattempt.LoginAttemptRecorder;
+import com.denden.auth.service.password.PasswordHasher;
+import com.denden.auth.service.token.SecureTokenFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * AuthServiceImpl 測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("AuthServiceImpl 測試")
+class AuthServiceImplTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final String PASSWORD = "Secret123!";
+    private static final String PASSWORD_HASH = "$2a$12$hash";
+    private static final String IP = "203.0.113.7";
+    private static final String OTP = "123456";
+    private static final long USER_ID = 42L;
+
+    private UserRepository userRepository;
+    private VerificationTokenRepository verificationTokenRepository;
+    private PasswordHasher passwordHasher;
+    private EmailService emailService;
+    private SecureTokenFactory secureTokenFactory;
+    private AccountLockoutService accountLockoutService;
+    private LoginAttemptRecorder loginAttemptRecorder;
+    private OtpService otpService;
+    private TokenService tokenService;
+    private LoginHistoryService loginHistoryService;
+    private SecurityProperties securityProperties;
+    private RecordingTransactionManager transactionManager;
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        verificationTokenRepository = mock(VerificationTokenRepository.class);
+        passwordHasher = mock(PasswordHasher.class);
+        emailService = mock(EmailService.class);
+        secureTokenFactory = mock(SecureTokenFactory.class);
+        accountLockoutService = mock(AccountLockoutService.class);
+        loginAttemptRecorder = mock(LoginAttemptRecorder.class);
+        otpService = mock(OtpService.class);
+        tokenService = mock(TokenService.class);
+        loginHistoryService = mock(LoginHistoryService.class);
+        transactionManager = new RecordingTransactionManager();
+
+        securityProperties = new SecurityProperties();
+        securityProperties.getOtp().setExpirationSeconds(300);
+        securityProperties.getJwt().setExpirationMs(3_600_000L);
+        securityProperties.getAccountLock().setMaxFailedAttempts(5);
+        securityProperties.getAccountLock().setLockDurationMinutes(30);
+
+        when(secureTokenFactory.uuid()).thenReturn("0f8fad5b-d9cb-469f-a165-70867728950e");
+        when(verificationTokenRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        authService = new AuthServiceImpl(
+                userRepository,
+                verificationTokenRepository,
+                mock(LoginAttemptRepository.class),
+                loginAttemptRecorder,
+                accountLockoutService,
+                passwordHasher,
+                emailService,
+                otpService,
+                tokenService,
+                mock(TokenRevocationService.class),
+                loginHistoryService,
+                securityProperties,
+                mock(HeavyHitterTracker.class),
+                secureTokenFactory,
+                new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("註冊 - 密碼雜湊時不應有進行中的交易，寫入時才開啟交易")
+    void testRegisterHashesOutsideTransaction() {
+        List<Boolean> transactionActiveDuringHash = new ArrayList<>();
+        List<Boolean> transactionActiveDuringSave = new ArrayList<>();
+        when(passwordHasher.encode(PASSWORD)).thenAnswer(invocation -> {
+            transactionActiveDuringHash.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return PASSWORD_HASH;
+        });
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
+            transactionActiveDuringSave.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.getArgument(0);
+        });
+
+        authService.register(new RegisterRequest(EMAIL, PASSWORD));
+
+        assertEquals(List.of(false), transactionActiveDuringHash);
+        assertEquals(List.of(true), transactionActiveDuringSave);
+        assertEquals(1, transactionManager.commits);
+        verify(emailService).sendVerificationEmail(eq(EMAIL), anyString());
+    }
+
+    @Test
+    @DisplayName("註冊 - Email 已存在時不應執行雜湊")
+    void testRegisterExistingEmailSkipsHash() {
+        when(userRepository.existsByEmail(EMAIL)).thenReturn(true);
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> authService.register(new RegisterRequest(EMAIL, PASSWORD)));
+
+        assertEquals(ErrorCode.EMAIL_ALREADY_EXISTS, exception.getErrorCode());
+        verify(passwordHasher, never()).encode(any());
+        assertEquals(0, transactionManager.commits);
+    }
+
+    @Test
+    @DisplayName("註冊 - 雜湊期間被搶先註冊時應回滾並返回 EMAIL_ALREADY_EXISTS")
+    void testRegisterRaceOnUniqueEmail() {
+        when(passwordHasher.encode(PASSWORD)).thenReturn(PASSWORD_HASH);
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> authService.register(new RegisterRequest(EMAIL, PASSWORD)));
+
+        assertEquals(ErrorCode.EMAIL_ALREADY_EXISTS, exception.getErrorCode());
+        assertEquals(1, transactionManager.rollbacks);
+        verify(emailService, never()).sendVerificationEmail(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("登入 - 帳號鎖定中應在密碼驗證前拒絕，不執行 BCrypt")
+    void testLoginLockedAccountSkipsHash() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(activeUser()));
+        when(accountLockoutService.isLocked(EMAIL)).thenReturn(true);
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> authService.login(new LoginRequest(EMAIL, PASSWORD), IP));
+
+        assertEquals(ErrorCode.ACCOUNT_LOCKED, exception.getErrorCode());
+        verify(passwordHasher, never()).matches(any(), any());
+        verify(otpService, never()).issueOtpSession(anyString(), any(), anyString(), anyBoolean());
+        verify(loginAttemptRecorder).record(EMAIL, IP, false);
+    }
+
+    @Test
+    @DisplayName("登入 - 鎖定檢查時 Redis 無法使用，應繼續驗證密碼並由 OTP 發送判斷")
+    void testLoginLockCheckUnavailable() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(activeUser()));
+        when(accountLockoutService.isLocked(EMAIL)).thenThrow(new QueryTimeoutException("Redis command timed out"));
+        when(passwordHasher.matches(PASSWORD, PASSWORD_HASH)).thenReturn(true);
+        when(otpService.generateOtp()).thenReturn(OTP);
+        when(otpService.issueOtpSession(EMAIL, USER_ID, OTP, false))
+                .thenReturn(new OtpIssueResult(OtpIssueResult.Status.ISSUED, 0));
+
+        authService.login(new LoginRequest(EMAIL, PASSWORD), IP);
+
+        verify(passwordHasher).matches(PASSWORD, PASSWORD_HASH);
+        verify(emailService).sendOtpEmail(EMAIL, OTP);
+        verify(loginAttemptRecorder).record(EMAIL, IP, true);
+    }
+
+    @Test
+    @DisplayName("登入 - 檢查後才被鎖定時，OTP 發送腳本應拒絕")
+    void testLoginLockedBetweenCheckAndIssue() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(activeUser()));
+        when(accountLockoutService.isLocked(EMAIL)).thenReturn(false);
+        when(passwordHasher.matches(PASSWORD, PASSWORD_HASH)).thenReturn(true);
+        when(otpService.generateOtp()).thenReturn(OTP);
+        when(otpService.issueOtpSession(EMAIL, USER_ID, OTP, false))
+                .thenReturn(new OtpIssueResult(OtpIssueResult.Status.ACCOUNT_LOCKED, 60_000));
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> authService.login(new LoginRequest(EMAIL, PASSWORD), IP));
+
+        assertEquals(ErrorCode.ACCOUNT_LOCKED, exception.getErrorCode());
+        verify(emailService, never()).sendOtpEmail(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("OTP 驗證 - 會話帶有使用者 ID 時，不應查詢 users 即簽發 JWT")
+    void testVerifyOtpUsesUserIdFromSession() {
+        when(otpService.verifyOtpSession(EMAIL, OTP, null)).thenReturn(OtpVerification.verified(USER_ID));
+        when(userRepository.updateLastLoginAt(eq(USER_ID), any(LocalDateTime.class))).thenReturn(1);
+        when(tokenService.generateJwtToken(USER_ID, EMAIL)).thenReturn("jwt");
+
+        AuthResponse response = authService.verifyOtp(new VerifyOtpRequest(EMAIL, OTP), null);
+
+        assertEquals("jwt", response.token());
+        assertEquals(3600L, response.expiresIn());
+        assertEquals(USER_ID, response.user().id());
+        verify(userRepository, never()).findIdByEmail(anyString());
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(loginHistoryService).recordLoginTime(USER_ID, response.user().lastLoginAt());
+    }
+
+    @Test
+    @DisplayName("OTP 驗證 - 會話沒有使用者 ID 時，應以 Email 查詢主鍵")
+    void testVerifyOtpFallsBackToEmailLookup() {
+        when(otpService.verifyOtpSession(EMAIL, OTP, null)).thenReturn(OtpVerification.verified(null));
+        when(userRepository.findIdByEmail(EMAIL)).thenReturn(Optional.of(USER_ID));
+        when(userRepository.updateLastLoginAt(eq(USER_ID), any(LocalDateTime.class))).thenReturn(1);
+        when(tokenService.generateJwtToken(USER_ID, EMAIL)).thenReturn("jwt");
+
+        AuthResponse response = authService.verifyOtp(new VerifyOtpRequest(EMAIL, OTP), null);
+
+        assertEquals(USER_ID, response.user().id());
+        verify(userRepository).findIdByEmail(EMAIL);
+    }
+
+    @Test
+    @DisplayName("OTP 驗證 - 使用者已不存在時應返回 USER_NOT_FOUND，不簽發 JWT")
+    void testVerifyOtpUserGone() {
+        when(otpService.verifyOtpSession(EMAIL, OTP, null)).thenReturn(OtpVerification.verified(USER_ID));
+        when(userRepository.updateLastLoginAt(eq(USER_ID), any(LocalDateTime.class))).thenReturn(0);
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> authService.verifyOtp(new VerifyOtpRequest(EMAIL, OTP), null));
+
+        assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
+        verify(tokenService, never()).generateJwtToken(anyLong(), anyString());
+    }
+
+    @Test
+    @DisplayName("OTP 驗證 - 驗證失敗時應返回 INVALID_OTP，不更新最後登入時間")
+    void testVerifyOtpMismatch() {
+        when(otpService.verifyOtpSession(EMAIL, OTP, null)).thenReturn(OtpVerification.of(OtpVerifyResult.MISMATCH));
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> authService.verifyOtp(new VerifyOtpRequest(EMAIL, OTP), null));
+
+        assertEquals(ErrorCode.INVALID_OTP, exception.getErrorCode());
+        verify(userRepository, never()).updateLastLoginAt(any(), any());
+    }
+
+    private static User activeUser() {
+        User user = new User(EMAIL, PASSWORD_HASH);
+        user.activate();
+        ReflectionTestUtils.setField(user, "id", USER_ID);
+        return user;
+    }
+
+    /**
+     * 只記錄 commit / rollback 次數的交易管理器，讓 TransactionSynchronizationManager 反映交易狀態
+     */
+    private static final class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+
+        private int commits;
+        private int rollbacks;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits++;
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks++;
+        }
+    }
+}
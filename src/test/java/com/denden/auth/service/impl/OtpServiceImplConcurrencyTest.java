@@ -0,0 +1,205 @@
+package com.denden.auth.service.impl;
+
+import com.denden.auth.config.RedisResilienceProperties;
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.repository.OtpSessionRepository;
+import com.denden.auth.service.lockout.AccountLockoutService;
+import com.denden.auth.service.otp.DegradedOtpSessionStore;
+import com.denden.auth.service.otp.InMemoryOtpSessionStore;
+import com.denden.auth.service.otp.JpaOtpSessionStore;
+import com.denden.auth.service.otp.OtpSessionStore;
+import com.denden.auth.service.otp.RedisOtpSessionStore;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import com.denden.auth.service.token.SecureTokenFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * OtpServiceImpl 並行驗證測試
+ *
+ * <p>redis 參數需要可連線的 Redis（REDIS_HOST / REDIS_PORT，預設 localhost:6379），無法連線時略過；
+ * memory 與 degraded（主要儲存無法使用，改用降級儲存）參數不需要外部服務。</p>
+ */
+@DisplayName("OtpServiceImpl 並行驗證測試")
+class OtpServiceImplConcurrencyTest {
+
+    private static final String EMAIL = "otp-concurrency@example.com";
+    private static final String OTP = "123456";
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int THREADS = 32;
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+    private static boolean redisReachable;
+
+    private OtpServiceImpl otpService;
+    private OtpSessionStore store;
+
+    @BeforeAll
+    static void connect() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+        connectionFactory = new LettuceConnectionFactory(host, port);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+
+        try {
+            redisReachable = "PONG".equals(redisTemplate.execute(connection -> connection.ping(), true));
+        } catch (RuntimeException e) {
+            redisReachable = false;
+        }
+    }
+
+    @AfterAll
+    static void disconnect() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (store instanceof InMemoryOtpSessionStore memoryStore) {
+            memoryStore.close();
+        } else if (store instanceof DegradedOtpSessionStore degradedStore) {
+            degradedStore.close();
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"redis", "memory", "degraded"})
+    @DisplayName("並行錯誤猜測 - 用完次數後正確 OTP 也應失敗")
+    void testParallelWrongGuessesExhaustSession(String storeType) throws Exception {
+        setUp(storeType);
+
+        List<Boolean> results = guessInParallel(i -> String.format("%06d", 900000 + i));
+
+        assertTrue(results.stream().noneMatch(Boolean::booleanValue));
+        assertFalse(store.hasActiveSession(EMAIL));
+        assertFalse(otpService.verifyOtpByEmail(EMAIL, OTP));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"redis", "memory", "degraded"})
+    @DisplayName("並行正確猜測 - 同一個 OTP 只能成功一次")
+    void testParallelCorrectGuessesSucceedOnce(String storeType) throws Exception {
+        setUp(storeType);
+
+        List<Boolean> results = guessInParallel(i -> OTP);
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"redis", "memory", "degraded"})
+    @DisplayName("混合猜測 - 比對次數不超過上限")
+    void testAttemptCapHoldsUnderMixedGuesses(String storeType) throws Exception {
+        setUp(storeType);
+        for (int i = 0; i < MAX_ATTEMPTS - 1; i++) {
+            assertFalse(otpService.verifyOtpByEmail(EMAIL, "000000"));
+        }
+
+        List<Boolean> results = guessInParallel(i -> i % 2 == 0 ? OTP : "000000");
+
+        assertTrue(results.stream().filter(Boolean::booleanValue).count() <= 1);
+        assertFalse(store.hasActiveSession(EMAIL));
+    }
+
+    private void setUp(String storeType) {
+        SecurityProperties securityProperties = new SecurityProperties();
+        securityProperties.getOtp().setExpirationSeconds(300);
+        securityProperties.getOtp().setMaxAttempts(MAX_ATTEMPTS);
+        securityProperties.getOtp().setMaxIssuesPerWindow(100);
+        securityProperties.getAccountLock().setMaxFailedAttempts(5);
+        securityProperties.getAccountLock().setLockDurationMinutes(30);
+
+        RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(
+                redisTemplate, new RedisResilienceProperties(), new SimpleMeterRegistry());
+        OtpSessionRepository otpSessionRepository = mock(OtpSessionRepository.class);
+        when(otpSessionRepository.claim(anyString(), any(), anyString(), anyInt(), any(), any(), anyString()))
+                .thenReturn(1);
+        JpaOtpSessionStore databaseStore = new JpaOtpSessionStore(otpSessionRepository, securityProperties);
+        AccountLockoutService accountLockoutService = mock(AccountLockoutService.class);
+
+        if ("degraded".equals(storeType)) {
+            OtpSessionStore unavailable = mock(OtpSessionStore.class);
+            DataAccessResourceFailureException down = new DataAccessResourceFailureException("Redis 無法連線");
+            when(unavailable.verify(anyString(), any())).thenThrow(down);
+            when(unavailable.hasActiveSession(anyString())).thenThrow(down);
+            store = new DegradedOtpSessionStore(securityProperties,
+                    mock(RedisOtpSessionStore.class), databaseStore, mock(RedisCircuitBreaker.class),
+                    new SimpleMeterRegistry());
+            otpService = new OtpServiceImpl(unavailable, store, accountLockoutService, new SecureTokenFactory());
+            ReflectionTestUtils.setField(otpService, "otpLength", 6);
+            store.save(EMAIL, 1L, OTP);
+            return;
+        }
+
+        if ("redis".equals(storeType)) {
+            assumeTrue(redisReachable, "Redis 無法連線，略過測試");
+            redisTemplate.delete(List.of("otp:email:{" + EMAIL + "}", "otp_quota:{" + EMAIL + "}",
+                    "account_lock:{" + EMAIL + "}"));
+            store = new RedisOtpSessionStore(redisTemplate, circuitBreaker, securityProperties);
+        } else {
+            store = new InMemoryOtpSessionStore(securityProperties.getOtp());
+        }
+
+        OtpSessionStore fallbackStore = "memory".equals(storeType) ? store : databaseStore;
+        otpService = new OtpServiceImpl(store, fallbackStore, accountLockoutService, new SecureTokenFactory());
+        ReflectionTestUtils.setField(otpService, "otpLength", 6);
+
+        assertTrue(otpService.issueOtpSession(EMAIL, 1L, OTP, false).issued());
+    }
+
+    private List<Boolean> guessInParallel(IntFunction<String> guess) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                String otp = guess.apply(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return otpService.verifyOtpByEmail(EMAIL, otp);
+                }));
+            }
+            start.countDown();
+
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
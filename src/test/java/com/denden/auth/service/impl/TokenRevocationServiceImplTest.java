@@ -0,0 +1,151 @@
+package com.denden.auth.service.impl;
+
+import com.denden.auth.config.RedisResilienceProperties;
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TokenRevocationServiceImpl 測試
+ *
+ * <p>Redis 以模擬的 {@link StringRedisTemplate} 取代，經由實際的 {@link RedisCircuitBreaker} 呼叫。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("TokenRevocationServiceImpl 測試")
+class TokenRevocationServiceImplTest {
+
+    private static final String REVOKED_TOKENS_KEY = "jwt:revoked";
+
+    private ZSetOperations<String, String> zSet;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationServiceImpl revocationService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        zSet = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+
+        SecurityProperties securityProperties = new SecurityProperties();
+        securityProperties.getJwt().setExpirationMs(3_600_000L);
+        securityProperties.getJwt().getRevocation().setExpectedInsertions(1000);
+        meterRegistry = new SimpleMeterRegistry();
+
+        revocationService = new TokenRevocationServiceImpl(redisTemplate,
+                new RedisCircuitBreaker(redisTemplate, new RedisResilienceProperties(), meterRegistry),
+                mock(RedisMessageListenerContainer.class), securityProperties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Bloom filter 未命中 - 直接返回未撤銷，不存取 Redis")
+    void testBloomMissSkipsRedis() {
+        assertFalse(revocationService.isRevoked("active-jti"));
+
+        verify(zSet, never()).score(anyString(), any());
+        assertEquals(1, checks("bloom_miss"));
+    }
+
+    @Test
+    @DisplayName("撤銷廣播 - 加入本地 Bloom filter，命中後以 ZSCORE 精確確認")
+    void testBroadcastAddsToBloomFilterAndHitsAreConfirmed() {
+        revocationService.onMessage(message("revoked-jti"), null);
+        revocationService.onMessage(message("expired-jti"), null);
+        when(zSet.score(REVOKED_TOKENS_KEY, "revoked-jti")).thenReturn(1_900_000_000d);
+        when(zSet.score(REVOKED_TOKENS_KEY, "expired-jti")).thenReturn(null);
+
+        assertTrue(revocationService.isRevoked("revoked-jti"));
+        assertFalse(revocationService.isRevoked("expired-jti"));
+
+        verify(zSet).score(REVOKED_TOKENS_KEY, "revoked-jti");
+        verify(zSet).score(REVOKED_TOKENS_KEY, "expired-jti");
+        assertEquals(1, checks("revoked"));
+        assertEquals(1, checks("false_positive"));
+    }
+
+    @Test
+    @DisplayName("Redis 錯誤 - Bloom filter 命中但無法確認時視為已撤銷")
+    void testFailsClosedOnRedisError() {
+        revocationService.onMessage(message("revoked-jti"), null);
+        when(zSet.score(REVOKED_TOKENS_KEY, "revoked-jti"))
+                .thenThrow(new RedisConnectionFailureException("Redis 無法連線"));
+
+        assertTrue(revocationService.isRevoked("revoked-jti"));
+        assertEquals(1, checks("error"));
+    }
+
+    @Test
+    @DisplayName("重建 - 只保留 ZSet 中的紀錄，重建期間收到的廣播寫入新的 Bloom filter")
+    @SuppressWarnings("unchecked")
+    void testRebuildKeepsBroadcastsReceivedDuringScan() {
+        revocationService.onMessage(message("purged-jti"), null);
+        when(zSet.removeRangeByScore(eq(REVOKED_TOKENS_KEY), anyDouble(), anyDouble())).thenReturn(1L);
+        when(zSet.zCard(REVOKED_TOKENS_KEY)).thenReturn(1L);
+
+        Cursor<ZSetOperations.TypedTuple<String>> cursor = mock(Cursor.class);
+        doCallRealMethod().when(cursor).forEachRemaining(any());
+        when(cursor.hasNext()).thenAnswer(invocation -> {
+            revocationService.onMessage(message("late-jti"), null);
+            return true;
+        }).thenReturn(false);
+        when(cursor.next()).thenReturn(new DefaultTypedTuple<>("kept-jti", 1_900_000_000d));
+        when(zSet.scan(eq(REVOKED_TOKENS_KEY), any())).thenReturn(cursor);
+        when(zSet.score(eq(REVOKED_TOKENS_KEY), anyString())).thenReturn(1_900_000_000d);
+
+        revocationService.rebuild();
+
+        assertTrue(revocationService.isRevoked("kept-jti"));
+        assertTrue(revocationService.isRevoked("late-jti"));
+        assertFalse(revocationService.isRevoked("purged-jti"));
+        verify(zSet, never()).score(REVOKED_TOKENS_KEY, "purged-jti");
+        verify(cursor).close();
+    }
+
+    @Test
+    @DisplayName("重建失敗 - 沿用現有的 Bloom filter")
+    void testRebuildFailureKeepsCurrentFilter() {
+        revocationService.onMessage(message("revoked-jti"), null);
+        when(zSet.removeRangeByScore(eq(REVOKED_TOKENS_KEY), anyDouble(), anyDouble()))
+                .thenThrow(new RedisConnectionFailureException("Redis 無法連線"));
+        when(zSet.score(REVOKED_TOKENS_KEY, "revoked-jti")).thenReturn(1_900_000_000d);
+
+        revocationService.rebuild();
+
+        assertTrue(revocationService.isRevoked("revoked-jti"));
+        assertEquals(1, checks("revoked"));
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get("jwt.revocation.checks").tag("result", result).counter().count();
+    }
+
+    private static DefaultMessage message(String tokenId) {
+        return new DefaultMessage("jwt:revoked:events".getBytes(StandardCharsets.UTF_8),
+                tokenId.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,163 @@
+package com.denden.auth.service.jwt;
+
+import com.denden.auth.config.SecurityProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FastHs256JwtCodec 與 jjwt 互通性測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("FastHs256JwtCodec 互通性測試")
+class FastHs256JwtCodecTest {
+
+    private static final String SECRET = "test-secret-key-for-fast-codec-interop-0123456789";
+    private static final String OLD_SECRET = "old-secret-key-for-fast-codec-interop-9876543210";
+    private static final String ISSUER = "member-auth-system";
+    private static final String JTI = "0f8fad5b-d9cb-469f-a165-70867728950e";
+    private static final long ISSUED_AT = 1_700_000_000_123L;
+    private static final long EXPIRATION = ISSUED_AT + 86_400_000L;
+
+    private JwtKeySet keySet;
+    private FastHs256JwtCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        SecurityProperties.VerificationKey oldKey = new SecurityProperties.VerificationKey();
+        oldKey.setKeyId("old");
+        oldKey.setSecret(OLD_SECRET);
+
+        SecurityProperties.Jwt jwt = new SecurityProperties.Jwt();
+        jwt.setSecret(SECRET);
+        jwt.setIssuer(ISSUER);
+        jwt.setCodec("fast");
+        jwt.setVerificationKeys(List.of(oldKey));
+
+        keySet = JwtKeySet.from(jwt);
+        codec = keySet.getFastCodec();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"user@example.com", "a/b+tag@example.com", "使用者@例子.台灣"})
+    @DisplayName("產生 Token - 應與 jjwt 逐位元組相同")
+    void testEncodeMatchesJjwt(String email) {
+        String expected = jjwtToken(keySet, 42L, email, EXPIRATION);
+
+        assertEquals(expected, codec.encode(42L, email, JTI, ISSUED_AT, EXPIRATION));
+    }
+
+    @Test
+    @DisplayName("產生 Token - jjwt 應可驗證快速路徑產生的 Token")
+    void testJjwtParsesFastToken() {
+        String token = codec.encode(7L, "user@example.com", JTI, System.currentTimeMillis(),
+                System.currentTimeMillis() + 60_000);
+
+        Claims claims = keySet.getParser().parseSignedClaims(token).getPayload();
+
+        assertEquals("user@example.com", claims.getSubject());
+        assertEquals(7, ((Number) claims.get("userId")).intValue());
+        assertEquals(ISSUER, claims.getIssuer());
+    }
+
+    @Test
+    @DisplayName("解析 Token - 應解析 jjwt 產生的 Token")
+    void testDecodeJjwtToken() {
+        long expiration = System.currentTimeMillis() + 60_000;
+        String token = jjwtToken(keySet, 42L, "使用者@例子.台灣", expiration);
+
+        JwtPrincipal principal = codec.decode(token, System.currentTimeMillis());
+
+        assertNotNull(principal);
+        assertEquals(42L, principal.userId());
+        assertEquals("使用者@例子.台灣", principal.email());
+        assertEquals(Instant.ofEpochSecond(expiration / 1000), principal.expiresAt());
+        assertEquals(ISSUER, principal.issuer());
+        assertEquals(JTI, principal.tokenId());
+    }
+
+    @Test
+    @DisplayName("解析 Token - 應以 kid 選擇驗證金鑰，並接受未帶 kid 的舊 Token")
+    void testDecodeByKeyId() {
+        long expiration = System.currentTimeMillis() + 60_000;
+        String oldKeyToken = Jwts.builder()
+                .header().keyId("old").and()
+                .claims(Map.of("userId", 1L))
+                .subject("old@example.com")
+                .expiration(new Date(expiration))
+                .signWith(Keys.hmacShaKeyFor(OLD_SECRET.getBytes(StandardCharsets.UTF_8)), Jwts.SIG.HS256)
+                .compact();
+        String legacyToken = Jwts.builder()
+                .claims(Map.of("userId", 2L))
+                .subject("legacy@example.com")
+                .expiration(new Date(expiration))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), Jwts.SIG.HS256)
+                .compact();
+
+        assertEquals("old@example.com", codec.decode(oldKeyToken, System.currentTimeMillis()).email());
+        assertEquals("legacy@example.com", codec.decode(legacyToken, System.currentTimeMillis()).email());
+    }
+
+    @Test
+    @DisplayName("解析 Token - 簽章遭竄改時應拋出 SignatureException")
+    void testDecodeTamperedSignature() {
+        String token = codec.encode(42L, "user@example.com", JTI, System.currentTimeMillis(),
+                System.currentTimeMillis() + 60_000);
+        String forged = codec.encode(1L, "admin@example.com", JTI, System.currentTimeMillis(),
+                System.currentTimeMillis() + 60_000);
+        String tampered = forged.substring(0, forged.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+
+        assertThrows(SignatureException.class, () -> codec.decode(tampered, System.currentTimeMillis()));
+    }
+
+    @Test
+    @DisplayName("非固定格式 - 應返回 null 交由 jjwt 處理")
+    void testFallbackToJjwt() {
+        long now = System.currentTimeMillis();
+        String expired = codec.encode(42L, "user@example.com", JTI, now - 120_000, now - 60_000);
+        String withExtraClaim = keySet.sign(Jwts.builder()
+                        .claims(Map.of("userId", 42L))
+                        .subject("user@example.com")
+                        .notBefore(new Date(now + 60_000))
+                        .expiration(new Date(now + 120_000)))
+                .compact();
+        String hs512 = Jwts.builder()
+                .subject("user@example.com")
+                .signWith(Keys.hmacShaKeyFor((SECRET + SECRET).getBytes(StandardCharsets.UTF_8)), Jwts.SIG.HS512)
+                .compact();
+
+        assertNull(codec.encode(42L, "quoted\"local@example.com", JTI, now, now + 60_000));
+        assertNull(codec.encode(42L, "emoji😀@example.com", JTI, now, now + 60_000));
+        assertNull(codec.decode(expired, now));
+        assertNull(codec.decode(withExtraClaim, now));
+        assertNull(codec.decode(hs512, now));
+        assertNull(codec.decode("not-a-jwt", now));
+    }
+
+    private static String jjwtToken(JwtKeySet keySet, Long userId, String email, long expiration) {
+        return keySet.sign(Jwts.builder()
+                        .claims(Map.of("userId", userId))
+                        .subject(email)
+                        .issuedAt(new Date(ISSUED_AT))
+                        .expiration(new Date(expiration))
+                        .issuer(ISSUER)
+                        .id(JTI))
+                .compact();
+    }
+}
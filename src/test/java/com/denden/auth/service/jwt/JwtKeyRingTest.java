@@ -0,0 +1,133 @@
+package com.denden.auth.service.jwt;
+
+import com.denden.auth.config.SecurityProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JwtKeyRing 金鑰輪替測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("JwtKeyRing 金鑰輪替測試")
+class JwtKeyRingTest {
+
+    private static final String OLD_SECRET = "old-secret-key-for-key-ring-rotation-0123456789";
+    private static final String NEW_SECRET = "new-secret-key-for-key-ring-rotation-9876543210";
+
+    @TempDir
+    Path tempDir;
+
+    private Path keyRingFile;
+    private JwtKeyRing keyRing;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        keyRingFile = tempDir.resolve("jwt-key-ring.yml");
+        writeKeyRing("""
+                app:
+                  security:
+                    jwt:
+                      issuer: member-auth-system
+                      key-id: old
+                      secret: %s
+                """.formatted(OLD_SECRET));
+
+        SecurityProperties securityProperties = new SecurityProperties();
+        securityProperties.getJwt().setKeyRingFile(keyRingFile.toString());
+
+        keyRing = new JwtKeyRing(securityProperties, new StandardEnvironment());
+    }
+
+    @Test
+    @DisplayName("啟動時 - 應以金鑰環檔案的設定建立金鑰組")
+    void testLoadFromFile() {
+        assertEquals("old", keyRing.current().getPrimaryKeyId());
+    }
+
+    @Test
+    @DisplayName("檔案變更 - 應輪替主要金鑰，舊 kid 簽發的 Token 仍可驗證")
+    void testRotationKeepsOldTokensValid() throws IOException {
+        String oldToken = sign(keyRing.current(), "old@example.com");
+
+        writeKeyRing("""
+                app:
+                  security:
+                    jwt:
+                      issuer: member-auth-system
+                      key-id: new
+                      secret: %s
+                      verification-keys:
+                        - key-id: old
+                          secret: %s
+                """.formatted(NEW_SECRET, OLD_SECRET));
+        keyRing.reloadIfChanged();
+
+        JwtKeySet rotated = keyRing.current();
+        String newToken = sign(rotated, "new@example.com");
+        Jws<Claims> oldJws = rotated.getParser().parseSignedClaims(oldToken);
+        Jws<Claims> newJws = rotated.getParser().parseSignedClaims(newToken);
+
+        assertEquals("new", rotated.getPrimaryKeyId());
+        assertEquals("old", oldJws.getHeader().getKeyId());
+        assertEquals("old@example.com", oldJws.getPayload().getSubject());
+        assertEquals("new", newJws.getHeader().getKeyId());
+        assertEquals("new@example.com", newJws.getPayload().getSubject());
+    }
+
+    @Test
+    @DisplayName("檔案未變更 - 不應重建金鑰組")
+    void testUnchangedFileKeepsKeySet() {
+        JwtKeySet before = keyRing.current();
+
+        keyRing.reloadIfChanged();
+
+        assertSame(before, keyRing.current());
+    }
+
+    @Test
+    @DisplayName("檔案內容無效 - 應保留原金鑰組")
+    void testInvalidFileKeepsKeySet() throws IOException {
+        JwtKeySet before = keyRing.current();
+
+        writeKeyRing("""
+                app:
+                  security:
+                    jwt:
+                      key-id: old
+                      secret: %s
+                      verification-keys:
+                        - key-id: old
+                          secret: %s
+                """.formatted(NEW_SECRET, OLD_SECRET));
+        keyRing.reloadIfChanged();
+
+        assertSame(before, keyRing.current());
+    }
+
+    private void writeKeyRing(String content) throws IOException {
+        Files.writeString(keyRingFile, content, StandardCharsets.UTF_8);
+    }
+
+    private static String sign(JwtKeySet keySet, String email) {
+        return keySet.sign(Jwts.builder()
+                        .subject(email)
+                        .expiration(new Date(System.currentTimeMillis() + 60_000)))
+                .compact();
+    }
+}
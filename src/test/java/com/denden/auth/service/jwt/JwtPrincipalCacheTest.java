@@ -0,0 +1,144 @@
+package com.denden.auth.service.jwt;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.filter.JwtAuthenticationFilter;
+import com.denden.auth.service.TokenRevocationService;
+import com.denden.auth.service.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * JwtPrincipalCache 測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("JwtPrincipalCache 測試")
+class JwtPrincipalCacheTest {
+
+    private static final String SECRET = "test-secret-key-for-principal-cache-0123456789";
+    private static final String TOKEN = "header.payload.signature";
+
+    private SecurityProperties securityProperties;
+    private JwtKeyRing keyRing;
+    private JwtPrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        securityProperties = new SecurityProperties();
+        securityProperties.getJwt().setSecret(SECRET);
+        securityProperties.getJwt().setIssuer("member-auth-system");
+
+        keyRing = new JwtKeyRing(securityProperties, new StandardEnvironment());
+        cache = newCache();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("命中 - 同一個 Token 應返回快取的主體")
+    void testHit() {
+        JwtPrincipal principal = principal("user@example.com", Instant.now().plusSeconds(60));
+
+        assertNull(cache.get(TOKEN));
+        cache.put(TOKEN, principal);
+
+        assertSame(principal, cache.get(TOKEN));
+        assertNull(cache.get(TOKEN + "x"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("過期 - Token 過期後應視為未命中並移除")
+    void testExpiry() {
+        cache.put(TOKEN, principal("user@example.com", Instant.now().minusMillis(1)));
+
+        assertNull(cache.get(TOKEN));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.estimatedBytes());
+    }
+
+    @Test
+    @DisplayName("金鑰輪替 - 輪替前的項目應視為未命中")
+    void testKeyRotationInvalidates() {
+        cache.put(TOKEN, principal("user@example.com", Instant.now().plusSeconds(60)));
+
+        keyRing.reload();
+
+        assertNull(cache.get(TOKEN));
+    }
+
+    @Test
+    @DisplayName("記憶體上限 - 應依主體大小計算並淘汰最舊項目")
+    void testMemoryBoundWeighsPrincipal() {
+        JwtPrincipal shortPrincipal = principal("a@example.com", Instant.now().plusSeconds(60));
+        JwtPrincipal longPrincipal = principal("a".repeat(200) + "@example.com", Instant.now().plusSeconds(60));
+        assertTrue(JwtPrincipalCache.weigh(longPrincipal) > JwtPrincipalCache.weigh(shortPrincipal));
+
+        long maxBytes = 16 * JwtPrincipalCache.weigh(longPrincipal) * 2;
+        securityProperties.getJwt().getClaimsCache().setMaxMemoryBytes(maxBytes);
+        cache = newCache();
+
+        for (int i = 0; i < 500; i++) {
+            cache.put(TOKEN + i, longPrincipal);
+        }
+
+        assertTrue(cache.estimatedBytes() <= maxBytes);
+        assertTrue(cache.size() < 500);
+    }
+
+    @Test
+    @DisplayName("撤銷 - 快取命中的 Token 撤銷後不應通過認證")
+    void testRevokedTokenIsRejectedOnCacheHit() throws Exception {
+        TokenService tokenService = mock(TokenService.class);
+        TokenRevocationService revocationService = mock(TokenRevocationService.class);
+        JwtPrincipal principal = principal("user@example.com", Instant.now().plusSeconds(60));
+        when(tokenService.parsePrincipal(TOKEN)).thenReturn(principal);
+
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(tokenService, cache, revocationService,
+                securityProperties);
+
+        filter.doFilter(bearerRequest(), new MockHttpServletResponse(), new MockFilterChain());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        assertSame(principal, cache.get(TOKEN));
+
+        SecurityContextHolder.clearContext();
+        when(revocationService.isRevoked(anyString())).thenReturn(true);
+
+        filter.doFilter(bearerRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(tokenService, times(1)).parsePrincipal(TOKEN);
+    }
+
+    private JwtPrincipalCache newCache() {
+        return new JwtPrincipalCache(keyRing, securityProperties, new SimpleMeterRegistry());
+    }
+
+    private static JwtPrincipal principal(String email, Instant expiresAt) {
+        return new JwtPrincipal(42L, email, expiresAt, "member-auth-system", "0f8fad5b-d9cb-469f-a165-70867728950e");
+    }
+
+    private static MockHttpServletRequest bearerRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        return request;
+    }
+}
@@ -0,0 +1,97 @@
+package com.denden.auth.service.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RevokedTokenBloomFilter 測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("RevokedTokenBloomFilter 測試")
+class RevokedTokenBloomFilterTest {
+
+    @Test
+    @DisplayName("大小 - 依預期數量與偽陽性率計算位元數（取整為 64 位元）與雜湊數")
+    void testSizing() {
+        RevokedTokenBloomFilter filter = new RevokedTokenBloomFilter(1000, 0.01);
+
+        assertEquals(1200, filter.sizeInBytes());
+        assertEquals(7, filter.getHashCount());
+        assertEquals(8, new RevokedTokenBloomFilter(1, 0.5).sizeInBytes());
+        assertEquals(1, new RevokedTokenBloomFilter(1000, 0.9).getHashCount());
+    }
+
+    @Test
+    @DisplayName("參數驗證 - 預期數量與偽陽性率超出範圍時拋出例外")
+    void testRejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new RevokedTokenBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new RevokedTokenBloomFilter(1000, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RevokedTokenBloomFilter(1000, 1));
+    }
+
+    @Test
+    @DisplayName("查詢 - 已加入的 jti 一定命中，未加入的偽陽性率接近目標值")
+    void testNoFalseNegatives() {
+        int insertions = 10_000;
+        RevokedTokenBloomFilter filter = new RevokedTokenBloomFilter(insertions, 0.01);
+        for (int i = 0; i < insertions; i++) {
+            filter.put("revoked-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < insertions; i++) {
+            assertTrue(filter.mightContain("revoked-" + i));
+            if (filter.mightContain("active-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < insertions * 0.02, "偽陽性: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("並行寫入 - 同一個 word 的位元設定不互相覆蓋")
+    void testConcurrentPut() throws Exception {
+        int threads = 8;
+        int perThread = 5_000;
+        RevokedTokenBloomFilter filter = new RevokedTokenBloomFilter((long) threads * perThread, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        filter.put("jti-" + thread + "-" + i);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < perThread; i++) {
+                assertTrue(filter.mightContain("jti-" + t + "-" + i));
+            }
+        }
+    }
+}
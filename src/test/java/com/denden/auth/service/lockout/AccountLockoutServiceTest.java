@@ -0,0 +1,188 @@
+package com.denden.auth.service.lockout;
+
+import com.denden.auth.config.RedisResilienceProperties;
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * AccountLockoutService（login_failure_record.lua）測試
+ *
+ * <p>需要可連線的 Redis（REDIS_HOST / REDIS_PORT，預設 localhost:6379），無法連線時略過。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("AccountLockoutService 測試")
+class AccountLockoutServiceTest {
+
+    private static final int MAX_FAILED_ATTEMPTS = 3;
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+    private static boolean redisReachable;
+
+    private SecurityProperties securityProperties;
+    private AccountLockoutService lockoutService;
+    private String email;
+
+    @BeforeAll
+    static void connect() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+        connectionFactory = new LettuceConnectionFactory(host, port);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+
+        try {
+            redisReachable = "PONG".equals(redisTemplate.execute(connection -> connection.ping(), true));
+        } catch (RuntimeException e) {
+            redisReachable = false;
+        }
+    }
+
+    @AfterAll
+    static void disconnect() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(redisReachable, "Redis 無法連線，略過測試");
+        email = "lockout-" + UUID.randomUUID() + "@example.com";
+
+        securityProperties = new SecurityProperties();
+        SecurityProperties.AccountLock config = securityProperties.getAccountLock();
+        config.setMaxFailedAttempts(MAX_FAILED_ATTEMPTS);
+        config.setLockDurationMinutes(30);
+        config.setFailureWindowMinutes(30);
+        config.setBucketSeconds(60);
+
+        lockoutService = new AccountLockoutService(redisTemplate, new RedisCircuitBreaker(
+                redisTemplate, new RedisResilienceProperties(), new SimpleMeterRegistry()), securityProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (redisReachable) {
+            redisTemplate.delete(List.of(AccountLockoutService.lockKey(email), failuresKey(), "account_lock:" + email));
+        }
+    }
+
+    @Test
+    @DisplayName("記錄失敗 - 未達上限時累計次數，計數 key 帶有 TTL")
+    void testCountsFailuresBelowLimit() {
+        LoginFailureOutcome first = lockoutService.recordFailure(email);
+        LoginFailureOutcome second = lockoutService.recordFailure(email);
+
+        assertEquals(1, first.failures());
+        assertEquals(2, second.failures());
+        assertFalse(second.lockedNow());
+        assertFalse(second.alreadyLocked());
+        assertFalse(lockoutService.isLocked(email));
+
+        Long ttl = redisTemplate.getExpire(failuresKey(), TimeUnit.MILLISECONDS);
+        assertNotNull(ttl);
+        assertTrue(ttl > TimeUnit.MINUTES.toMillis(30) && ttl <= TimeUnit.MINUTES.toMillis(31), "TTL: " + ttl);
+    }
+
+    @Test
+    @DisplayName("達到上限 - 本次觸發鎖定並清除計數，鎖定期間不再計數")
+    void testLocksAtLimit() {
+        for (int i = 1; i < MAX_FAILED_ATTEMPTS; i++) {
+            lockoutService.recordFailure(email);
+        }
+
+        LoginFailureOutcome locking = lockoutService.recordFailure(email);
+
+        assertEquals(MAX_FAILED_ATTEMPTS, locking.failures());
+        assertTrue(locking.lockedNow());
+        assertTrue(lockoutService.isLocked(email));
+        assertFalse(redisTemplate.hasKey(failuresKey()));
+        Long lockTtl = redisTemplate.getExpire(AccountLockoutService.lockKey(email), TimeUnit.MINUTES);
+        assertTrue(lockTtl != null && lockTtl > 28 && lockTtl <= 30, "鎖定 TTL: " + lockTtl);
+
+        LoginFailureOutcome whileLocked = lockoutService.recordFailure(email);
+
+        assertEquals(0, whileLocked.failures());
+        assertTrue(whileLocked.alreadyLocked());
+        assertFalse(whileLocked.lockedNow());
+        assertFalse(redisTemplate.hasKey(failuresKey()));
+    }
+
+    @Test
+    @DisplayName("滑動視窗 - 視窗外的時間桶應被移除且不計入")
+    void testExpiredBucketsArePruned() {
+        long currentBucket = System.currentTimeMillis() / TimeUnit.SECONDS.toMillis(60);
+        redisTemplate.opsForHash().put(failuresKey(), Long.toString(currentBucket - 31), "10");
+        redisTemplate.opsForHash().put(failuresKey(), Long.toString(currentBucket - 5), "1");
+
+        LoginFailureOutcome outcome = lockoutService.recordFailure(email);
+
+        assertEquals(2, outcome.failures());
+        assertFalse(outcome.lockedNow());
+        assertFalse(redisTemplate.opsForHash().hasKey(failuresKey(), Long.toString(currentBucket - 31)));
+    }
+
+    @Test
+    @DisplayName("舊格式鎖定 key - 查詢鎖定時應改寫為新格式並保留剩餘鎖定時間")
+    void testMigratesLegacyLockKeyOnLookup() {
+        String legacyKey = "account_lock:" + email;
+        redisTemplate.opsForValue().set(legacyKey, "locked", 10, TimeUnit.MINUTES);
+
+        assertTrue(lockoutService.isLocked(email));
+
+        assertFalse(redisTemplate.hasKey(legacyKey));
+        Long ttl = redisTemplate.getExpire(AccountLockoutService.lockKey(email), TimeUnit.SECONDS);
+        assertTrue(ttl != null && ttl > 590 && ttl <= 600, "TTL: " + ttl);
+        assertTrue(lockoutService.recordFailure(email).alreadyLocked());
+    }
+
+    @Test
+    @DisplayName("舊格式鎖定 key - 記錄失敗時應視為已鎖定且不計數")
+    void testLegacyLockKeyBlocksFailureCount() {
+        String legacyKey = "account_lock:" + email;
+        redisTemplate.opsForValue().set(legacyKey, "locked", 10, TimeUnit.MINUTES);
+
+        LoginFailureOutcome outcome = lockoutService.recordFailure(email);
+
+        assertTrue(outcome.alreadyLocked());
+        assertEquals(0, outcome.failures());
+        assertFalse(redisTemplate.hasKey(legacyKey));
+        assertTrue(redisTemplate.hasKey(AccountLockoutService.lockKey(email)));
+    }
+
+    @Test
+    @DisplayName("舊格式鎖定 key - 檢查期限設為 0 時不再讀取舊格式")
+    void testLegacyFallbackDisabled() {
+        String legacyKey = "account_lock:" + email;
+        redisTemplate.opsForValue().set(legacyKey, "locked", 10, TimeUnit.MINUTES);
+        securityProperties.getAccountLock().setLegacyKeyFallbackMinutes(0);
+
+        assertFalse(lockoutService.isLocked(email));
+        assertTrue(redisTemplate.hasKey(legacyKey));
+    }
+
+    private String failuresKey() {
+        return "login_failures:{" + email + "}";
+    }
+}
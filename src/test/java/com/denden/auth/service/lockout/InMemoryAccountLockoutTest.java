@@ -0,0 +1,112 @@
+package com.denden.auth.service.lockout;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * AccountLockoutService 本節點記憶體模式（app.security.otp.store=memory）測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("InMemoryAccountLockout 測試")
+class InMemoryAccountLockoutTest {
+
+    private static final String EMAIL = "local-lockout@example.com";
+    private static final int MAX_FAILED_ATTEMPTS = 3;
+
+    private StringRedisTemplate redisTemplate;
+    private RedisCircuitBreaker redisCircuitBreaker;
+    private SecurityProperties securityProperties;
+    private AccountLockoutService lockoutService;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        redisCircuitBreaker = mock(RedisCircuitBreaker.class);
+
+        securityProperties = new SecurityProperties();
+        securityProperties.getOtp().setStore("memory");
+        SecurityProperties.AccountLock config = securityProperties.getAccountLock();
+        config.setMaxFailedAttempts(MAX_FAILED_ATTEMPTS);
+        config.setLockDurationMinutes(30);
+        config.setFailureWindowMinutes(30);
+        config.setBucketSeconds(60);
+
+        lockoutService = new AccountLockoutService(redisTemplate, redisCircuitBreaker, securityProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoInteractions(redisTemplate, redisCircuitBreaker);
+    }
+
+    @Test
+    @DisplayName("記錄失敗 - 達上限時鎖定，鎖定中不計數")
+    void testLocksAtLimit() {
+        assertEquals(new LoginFailureOutcome(1, false, false), lockoutService.recordFailure(EMAIL));
+        assertEquals(new LoginFailureOutcome(2, false, false), lockoutService.recordFailure(EMAIL));
+        assertFalse(lockoutService.isLocked(EMAIL));
+
+        assertEquals(new LoginFailureOutcome(3, true, false), lockoutService.recordFailure(EMAIL));
+        assertTrue(lockoutService.isLocked(EMAIL));
+        assertEquals(new LoginFailureOutcome(0, false, true), lockoutService.recordFailure(EMAIL));
+        assertFalse(lockoutService.isLocked("other@example.com"));
+    }
+
+    @Test
+    @DisplayName("直接鎖定 - 鎖定到期後解鎖並重新計數")
+    void testLockExpires() {
+        lockoutService.lock(EMAIL, 30);
+        assertTrue(lockoutService.isLocked(EMAIL));
+        assertTrue(lockoutService.recordFailure(EMAIL).alreadyLocked());
+
+        lockoutService.lock(EMAIL, 0);
+
+        assertFalse(lockoutService.isLocked(EMAIL));
+        assertEquals(new LoginFailureOutcome(1, false, false), lockoutService.recordFailure(EMAIL));
+    }
+
+    @Test
+    @DisplayName("時間桶 - 視窗外的失敗不計入，且回收後不保留項目")
+    void testExpiredBucketsArePrunedAndEvicted() {
+        InMemoryAccountLockout lockout = new InMemoryAccountLockout();
+        long bucketMillis = TimeUnit.SECONDS.toMillis(60);
+        long windowMillis = TimeUnit.MINUTES.toMillis(30);
+        long lockMillis = TimeUnit.MINUTES.toMillis(30);
+        long start = 1_000 * bucketMillis;
+
+        lockout.recordFailure(EMAIL, start, bucketMillis, windowMillis, MAX_FAILED_ATTEMPTS, lockMillis);
+        lockout.recordFailure(EMAIL, start, bucketMillis, windowMillis, MAX_FAILED_ATTEMPTS, lockMillis);
+        LoginFailureOutcome later = lockout.recordFailure(EMAIL, start + windowMillis, bucketMillis, windowMillis,
+                MAX_FAILED_ATTEMPTS, lockMillis);
+
+        assertEquals(new LoginFailureOutcome(1, false, false), later);
+        assertEquals(0, lockout.evictExpired(start + windowMillis, (start + windowMillis) / bucketMillis));
+        assertEquals(1, lockout.evictExpired(start + 2 * windowMillis, (start + 2 * windowMillis) / bucketMillis));
+        assertEquals(0, lockout.size());
+    }
+
+    @Test
+    @DisplayName("回收 - 鎖定中的項目不回收")
+    void testLockedEntriesAreKept() {
+        for (int i = 0; i < MAX_FAILED_ATTEMPTS; i++) {
+            lockoutService.recordFailure(EMAIL);
+        }
+
+        lockoutService.evictExpiredLocalEntries();
+
+        assertTrue(lockoutService.isLocked(EMAIL));
+    }
+}
@@ -0,0 +1,229 @@
+package com.denden.auth.service.loginattempt;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.repository.LoginAttemptRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * LoginAttemptRecorder 溢出、暫存檔與補寫測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("LoginAttemptRecorder 測試")
+class LoginAttemptRecorderTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final String IP = "203.0.113.7";
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SecurityProperties securityProperties;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private Path spillFile;
+    private LoginAttemptRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        spillFile = tempDir.resolve("login-attempts.spill");
+        securityProperties = new SecurityProperties();
+        SecurityProperties.LoginAttempts config = securityProperties.getLoginAttempts();
+        config.setBatchSize(1);
+        config.setFlushIntervalMs(10);
+        config.setSpillFile(spillFile.toString());
+        config.setSpillReplayIntervalMs(60_000);
+        config.setShutdownTimeoutMs(1000);
+
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (recorder != null) {
+            recorder.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("佇列已滿 - 請求執行緒不寫檔，溢出紀錄由背景執行緒整批寫入暫存檔，失敗次數保留到補寫")
+    void testOverflowIsSpilledByFlusher() throws Exception {
+        securityProperties.getLoginAttempts().setQueueCapacity(2);
+        AtomicInteger inserts = new AtomicInteger();
+        doAnswer(invocation -> inserts.incrementAndGet())
+                .when(jdbcTemplate).update(anyString(), any(PreparedStatementSetter.class));
+        recorder = newRecorder(false);
+
+        for (int i = 0; i < 5; i++) {
+            recorder.record(EMAIL, IP, false);
+        }
+
+        assertFalse(Files.exists(spillFile), "請求執行緒不應寫入暫存檔");
+        assertEquals(2, gauge("login_attempts.queue.size"));
+        assertEquals(2, gauge("login_attempts.overflow.size"));
+        assertEquals(1, meterRegistry.get("login_attempts.dropped").counter().count());
+        assertEquals(4, recorder.pendingFailures(EMAIL));
+
+        recorder.spillOverflow();
+        assertEquals(2, spillLines());
+        assertEquals(2, spilled("queue_full"));
+        assertEquals(0, gauge("login_attempts.overflow.size"));
+
+        assertEquals(1, recorder.flushQueued(0));
+        assertEquals(1, recorder.flushQueued(0));
+        assertEquals(0, recorder.flushQueued(0));
+
+        assertEquals(2, inserts.get());
+        assertEquals(2, recorder.pendingFailures(EMAIL));
+    }
+
+    @Test
+    @DisplayName("資料庫無法寫入 - 失敗次數保留到補寫成功才扣除")
+    void testSpilledFailuresCountedUntilReplayed() throws Exception {
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        AtomicInteger replayedRows = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (databaseDown.get()) {
+                throw new DataAccessResourceFailureException("Connection refused");
+            }
+            replayedRows.incrementAndGet();
+            return 1;
+        }).when(jdbcTemplate).update(anyString(), any(PreparedStatementSetter.class));
+        recorder = newRecorder(false);
+
+        recorder.record(EMAIL, IP, false);
+        recorder.record(EMAIL, IP, false);
+        recorder.record(EMAIL, IP, false);
+        recorder.record(EMAIL, IP, true);
+        while (recorder.flushQueued(0) > 0) {
+            // 逐筆寫入失敗，改寫入暫存檔
+        }
+        assertEquals(4, spilled("db_unavailable"));
+
+        recorder.replaySpill();
+        assertEquals(3, recorder.pendingFailures(EMAIL));
+        assertTrue(Files.exists(replayFile()));
+
+        databaseDown.set(false);
+        recorder.replaySpill();
+
+        assertEquals(0, recorder.pendingFailures(EMAIL));
+        assertFalse(Files.exists(spillFile));
+        assertFalse(Files.exists(replayFile()));
+        assertEquals(4, replayedRows.get());
+        assertEquals(4, meterRegistry.get("login_attempts.written").tag("source", "spill").counter().count());
+    }
+
+    @Test
+    @DisplayName("重新啟動 - 暫存檔中尚未補寫的失敗應計入鎖定判斷")
+    void testRestoresSpilledFailuresOnStartup() throws Exception {
+        writeSpill(spillFile, new PendingLoginAttempt(EMAIL, IP, false, LocalDateTime.now()),
+                new PendingLoginAttempt(EMAIL, IP, true, LocalDateTime.now()));
+        writeSpill(replayFile(), new PendingLoginAttempt(EMAIL, IP, false, LocalDateTime.now()),
+                new PendingLoginAttempt("other@example.com", IP, false, LocalDateTime.now()));
+
+        recorder = newRecorder(false);
+
+        assertEquals(2, recorder.pendingFailures(EMAIL));
+        assertEquals(1, recorder.pendingFailures("other@example.com"));
+    }
+
+    @Test
+    @DisplayName("關閉 - 佇列中的紀錄與關閉後的紀錄應寫入暫存檔")
+    void testShutdownSpillsQueue() throws Exception {
+        doAnswer(invocation -> {
+            throw new DataAccessResourceFailureException("Connection refused");
+        }).when(jdbcTemplate).update(anyString(), any(PreparedStatementSetter.class));
+        recorder = newRecorder(false);
+
+        recorder.record(EMAIL, IP, false);
+        recorder.record(EMAIL, IP, false);
+        assertEquals(1, recorder.flushQueued(0));
+        recorder.destroy();
+        recorder.record(EMAIL, IP, false);
+
+        assertEquals(3, spillLines());
+        assertEquals(1, spilled("db_unavailable"));
+        assertEquals(2, spilled("shutdown"));
+        assertEquals(3, recorder.pendingFailures(EMAIL));
+    }
+
+    @Test
+    @DisplayName("背景執行緒 - 應寫入佇列中的紀錄，關閉時等待寫完")
+    void testFlusherWritesQueue() {
+        AtomicInteger inserts = new AtomicInteger();
+        doAnswer(invocation -> inserts.incrementAndGet())
+                .when(jdbcTemplate).update(anyString(), any(PreparedStatementSetter.class));
+        recorder = newRecorder(true);
+
+        recorder.record(EMAIL, IP, false);
+        recorder.record(EMAIL, IP, true);
+        recorder.destroy();
+
+        assertEquals(2, inserts.get());
+        assertEquals(0, recorder.pendingFailures(EMAIL));
+        assertFalse(Files.exists(spillFile));
+    }
+
+    /**
+     * @param startFlusher false 時不啟動背景執行緒，由測試依序呼叫 flushQueued / spillOverflow / replaySpill
+     */
+    private LoginAttemptRecorder newRecorder(boolean startFlusher) {
+        return new LoginAttemptRecorder(securityProperties, mock(LoginAttemptRepository.class), jdbcTemplate,
+                objectMapper, meterRegistry, "", startFlusher);
+    }
+
+    private Path replayFile() {
+        return spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+    }
+
+    private void writeSpill(Path file, PendingLoginAttempt... attempts) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (PendingLoginAttempt attempt : attempts) {
+            lines.append(objectMapper.writeValueAsString(attempt)).append('\n');
+        }
+        Files.writeString(file, lines, StandardCharsets.UTF_8);
+    }
+
+    private long spillLines() {
+        try {
+            return Files.exists(spillFile) ? Files.readAllLines(spillFile).size() : 0;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private double spilled(String reason) {
+        return meterRegistry.get("login_attempts.spilled").tag("reason", reason).counter().count();
+    }
+}
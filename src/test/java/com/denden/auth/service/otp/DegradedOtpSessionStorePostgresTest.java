@@ -0,0 +1,183 @@
+package com.denden.auth.service.otp;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.entity.OtpSession;
+import com.denden.auth.repository.OtpSessionRepository;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * DegradedOtpSessionStore 跨節點測試（PostgreSQL）
+ *
+ * <p>兩個降級儲存共用同一個資料庫，模擬 Redis 中斷期間的兩個節點；以 Flyway 建立結構，
+ * 驗證 otp_sessions 的寫回、標記與驗證陳述式。需要 Docker，無法使用時略過。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=true", "spring.jpa.hibernate.ddl-auto=none"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({JpaOtpSessionStore.class, SecurityProperties.class})
+@DisplayName("DegradedOtpSessionStore 跨節點測試")
+class DegradedOtpSessionStorePostgresTest {
+
+    private static final String EMAIL = "degraded@example.com";
+    private static final String OTP = "123456";
+    private static final String WRONG = "000000";
+    private static final int MAX_ATTEMPTS = 5;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private JpaOtpSessionStore databaseStore;
+
+    @Autowired
+    private OtpSessionRepository otpSessionRepository;
+
+    @Autowired
+    private SecurityProperties securityProperties;
+
+    private DegradedOtpSessionStore nodeA;
+    private DegradedOtpSessionStore nodeB;
+
+    @BeforeEach
+    void setUp() {
+        otpSessionRepository.deleteAll();
+        securityProperties.getOtp().setExpirationSeconds(300);
+        securityProperties.getOtp().setMaxAttempts(MAX_ATTEMPTS);
+        securityProperties.getOtp().getDegraded().setWriteBehindIntervalMs(60_000);
+        securityProperties.getOtp().getDegraded().setReconcileIntervalMs(60_000);
+        nodeA = newNode();
+        nodeB = newNode();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    @DisplayName("交替驗證 - 快取持有的會話不在資料庫計算次數，釋放後接續次數，總次數不超過上限")
+    void testAlternatingLocalAndDatabaseVerifies() {
+        nodeA.save(EMAIL, 7L, OTP);
+        nodeA.flush();
+
+        assertEquals(OtpVerifyResult.MISMATCH, nodeA.verify(EMAIL, WRONG).result());
+        assertEquals(OtpVerifyResult.NOT_FOUND, nodeB.verify(EMAIL, WRONG).result());
+        assertEquals(OtpVerifyResult.MISMATCH, nodeA.verify(EMAIL, WRONG).result());
+        nodeA.flush();
+        assertEquals(OtpVerifyResult.NOT_FOUND, nodeB.verify(EMAIL, OTP).result());
+        assertEquals(OtpVerifyResult.MISMATCH, nodeA.verify(EMAIL, WRONG).result());
+        assertEquals(2, session().getAttempts());
+
+        nodeA.close();
+
+        assertNull(session().getOwnerNode());
+        assertEquals(3, session().getAttempts());
+        assertEquals(OtpVerifyResult.MISMATCH, nodeB.verify(EMAIL, WRONG).result());
+        assertEquals(OtpVerifyResult.MISMATCH, nodeB.verify(EMAIL, WRONG).result());
+        assertEquals(OtpVerifyResult.NOT_FOUND, nodeB.verify(EMAIL, OTP).result());
+        assertEquals(MAX_ATTEMPTS, session().getAttempts());
+        assertTrue(session().getUsed());
+    }
+
+    @Test
+    @DisplayName("資料庫驗證成功後重放 - 本節點快取中的同一個會話不應再通過")
+    void testLocalReplayAfterDatabaseSuccess() {
+        nodeA.save(EMAIL, 7L, OTP);
+        String hint = nodeA.sessionHint(EMAIL);
+        nodeA.flush();
+        assertEquals(OtpVerifyResult.NOT_FOUND, nodeB.verify(EMAIL, OTP).result());
+
+        databaseStore.release(session().getOwnerNode());
+        assertEquals(OtpVerification.verified(7L), nodeB.verify(EMAIL, OTP));
+
+        assertEquals(OtpVerifyResult.NOT_FOUND, nodeA.verify(EMAIL, OTP, hint).result());
+        nodeA.flush();
+        assertTrue(session().getUsed());
+    }
+
+    @Test
+    @DisplayName("寫回 - 較舊的快照不降低次數，也不復活已使用的會話")
+    void testStaleWriteBackNeverRegresses() {
+        nodeA.save(EMAIL, 7L, OTP);
+        assertEquals(OtpVerifyResult.MISMATCH, nodeA.verify(EMAIL, WRONG).result());
+        assertEquals(OtpVerifyResult.MISMATCH, nodeA.verify(EMAIL, WRONG).result());
+        nodeA.flush();
+        OtpSession written = session();
+        String owner = written.getOwnerNode();
+        OtpSessionSnapshot stale = new OtpSessionSnapshot(EMAIL, 7L, OTP, 0,
+                toEpochMillis(written.getCreatedAt()), toEpochMillis(written.getExpiresAt()));
+
+        databaseStore.writeAll(owner, List.of(stale), List.of(), List.of());
+        assertEquals(2, session().getAttempts());
+
+        assertEquals(OtpVerification.verified(7L), nodeA.verify(EMAIL, OTP));
+        databaseStore.writeAll(owner, List.of(stale), List.of(), List.of());
+
+        assertTrue(session().getUsed());
+        assertEquals(3, session().getAttempts());
+        assertEquals(OtpVerifyResult.NOT_FOUND, nodeB.verify(EMAIL, OTP).result());
+    }
+
+    @Test
+    @DisplayName("較新的會話 - 資料庫中已有較新的會話時，快取中的舊會話不應通過，也不覆寫新的會話")
+    void testSupersededSessionIsRejected() throws InterruptedException {
+        nodeA.save(EMAIL, 7L, OTP);
+        TimeUnit.MILLISECONDS.sleep(5);
+        databaseStore.save(EMAIL, 7L, "654321");
+
+        assertEquals(OtpVerifyResult.NOT_FOUND, nodeA.verify(EMAIL, OTP).result());
+        nodeA.flush();
+
+        assertFalse(session().getUsed());
+        assertEquals("654321", session().getOtp());
+        assertEquals(OtpVerification.verified(7L), nodeB.verify(EMAIL, "654321"));
+    }
+
+    private DegradedOtpSessionStore newNode() {
+        RedisCircuitBreaker circuitBreaker = mock(RedisCircuitBreaker.class);
+        when(circuitBreaker.getState()).thenReturn(RedisCircuitBreaker.State.OPEN);
+        return new DegradedOtpSessionStore(securityProperties, mock(RedisOtpSessionStore.class), databaseStore,
+                circuitBreaker, new SimpleMeterRegistry());
+    }
+
+    private OtpSession session() {
+        return otpSessionRepository.findAll().stream()
+                .filter(session -> session.getEmail().equals(EMAIL))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,171 @@
+package com.denden.auth.service.otp;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * DegradedOtpSessionStore 測試
+ *
+ * <p>資料庫以 mock 取代；實際的寫回與跨節點驗證見 {@link DegradedOtpSessionStorePostgresTest}。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("DegradedOtpSessionStore 測試")
+class DegradedOtpSessionStoreTest {
+
+    private static final String EMAIL = "degraded@example.com";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RedisOtpSessionStore redisStore = mock(RedisOtpSessionStore.class);
+    private final JpaOtpSessionStore databaseStore = mock(JpaOtpSessionStore.class);
+    private final RedisCircuitBreaker circuitBreaker = mock(RedisCircuitBreaker.class);
+    private DegradedOtpSessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        SecurityProperties securityProperties = new SecurityProperties();
+        securityProperties.getOtp().setExpirationSeconds(300);
+        securityProperties.getOtp().setMaxAttempts(3);
+        securityProperties.getOtp().getDegraded().setWriteBehindIntervalMs(60_000);
+        securityProperties.getOtp().getDegraded().setReconcileIntervalMs(60_000);
+        when(circuitBreaker.getState()).thenReturn(RedisCircuitBreaker.State.OPEN);
+        when(databaseStore.claim(anyString(), any())).thenReturn(true);
+        store = new DegradedOtpSessionStore(securityProperties, redisStore, databaseStore, circuitBreaker, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    @DisplayName("背景寫入 - 同一個 email 的多次變更合併為一次寫入")
+    @SuppressWarnings("unchecked")
+    void testWritesAreCoalescedPerEmail() {
+        store.save(EMAIL, 7L, "111111");
+        store.save(EMAIL, 7L, "222222");
+        assertEquals(OtpVerifyResult.MISMATCH, store.verify(EMAIL, "000000").result());
+        verifyNoInteractions(databaseStore);
+
+        store.flush();
+
+        ArgumentCaptor<Collection<OtpSessionSnapshot>> changed = ArgumentCaptor.forClass(Collection.class);
+        verify(databaseStore, times(1)).writeAll(anyString(), changed.capture(), eq(List.of()), eq(List.of()));
+        OtpSessionSnapshot written = changed.getValue().iterator().next();
+        assertEquals(1, changed.getValue().size());
+        assertEquals("222222", written.otp());
+        assertEquals(1, written.attempts());
+        assertEquals(2.0, meterRegistry.get("otp.degraded.db_writes").tag("result", "coalesced").counter().count());
+    }
+
+    @Test
+    @DisplayName("背景寫入 - 用完次數的會話標記為已使用，不再寫入會話")
+    @SuppressWarnings("unchecked")
+    void testExhaustedSessionIsWrittenAsConsumed() {
+        store.save(EMAIL, 7L, "123456");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(OtpVerifyResult.MISMATCH, store.verify(EMAIL, "000000").result());
+        }
+
+        store.flush();
+
+        ArgumentCaptor<Collection<OtpSessionSnapshot>> consumed = ArgumentCaptor.forClass(Collection.class);
+        verify(databaseStore).writeAll(anyString(), eq(List.of()), consumed.capture(), eq(List.of()));
+        assertEquals(3, consumed.getValue().iterator().next().attempts());
+    }
+
+    @Test
+    @DisplayName("會話提示 - 本節點簽發的提示不查資料庫，沒有提示才查資料庫")
+    void testSessionHintKeepsVerifyOnThisNode() {
+        store.save(EMAIL, 7L, "123456");
+        String hint = store.sessionHint(EMAIL);
+        assertNotNull(hint);
+        assertNull(store.sessionHint("other@example.com"));
+
+        assertEquals(OtpVerification.verified(7L), store.verify(EMAIL, "123456", hint));
+        verify(databaseStore).claim(anyString(), argThat(session -> session.otp().equals("123456")
+                && session.attempts() == 1));
+
+        assertEquals(OtpVerifyResult.NOT_FOUND, store.verify(EMAIL, "123456", hint).result());
+        verify(databaseStore, never()).verify(anyString(), any());
+
+        when(databaseStore.verify(EMAIL, "123456")).thenReturn(OtpVerification.of(OtpVerifyResult.NOT_FOUND));
+        assertEquals(OtpVerifyResult.NOT_FOUND, store.verify(EMAIL, "123456", hint + "x").result());
+        verify(databaseStore).verify(EMAIL, "123456");
+    }
+
+    @Test
+    @DisplayName("驗證成功 - 資料庫中已有較新或已使用的會話時不應通過")
+    void testRejectedClaimIsNotVerified() {
+        when(databaseStore.claim(anyString(), any())).thenReturn(false);
+        store.save(EMAIL, 7L, "123456");
+
+        assertEquals(OtpVerifyResult.NOT_FOUND, store.verify(EMAIL, "123456").result());
+        assertEquals(1.0, meterRegistry.get("otp.degraded.claim.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("驗證成功 - 資料庫無法連線時接受快取的結果")
+    void testClaimFailureAcceptsLocalResult() {
+        when(databaseStore.claim(anyString(), any())).thenThrow(new DataAccessResourceFailureException("down"));
+        store.save(EMAIL, 7L, "123456");
+
+        assertEquals(OtpVerification.verified(7L), store.verify(EMAIL, "123456"));
+    }
+
+    @Test
+    @DisplayName("寫回 Redis - 斷路器關閉後寫回，失敗時留在本節點")
+    @SuppressWarnings("unchecked")
+    void testReconcileRestoresSessionsToRedis() {
+        store.save(EMAIL, 7L, "123456");
+        store.reconcile();
+        assertEquals(1, store.size());
+
+        when(circuitBreaker.getState()).thenReturn(RedisCircuitBreaker.State.CLOSED);
+        when(redisStore.restore(any())).thenThrow(new QueryTimeoutException("timeout"));
+        store.reconcile();
+        assertEquals(1, store.size());
+
+        reset(redisStore);
+        when(redisStore.restore(any())).thenReturn(true);
+        store.reconcile();
+        assertEquals(0, store.size());
+        verify(redisStore).restore(argThat(session -> session.otp().equals("123456") && session.userId() == 7L));
+
+        store.flush();
+        ArgumentCaptor<Collection<OtpSessionSnapshot>> drained = ArgumentCaptor.forClass(Collection.class);
+        verify(databaseStore).writeAll(anyString(), eq(List.of()), eq(List.of()), drained.capture());
+        assertEquals(EMAIL, drained.getValue().iterator().next().email());
+    }
+
+    @Test
+    @DisplayName("關閉 - 寫入剩餘變更後釋放本節點持有的會話")
+    void testCloseReleasesOwnedSessions() {
+        store.save(EMAIL, 7L, "123456");
+
+        store.close();
+
+        InOrder order = inOrder(databaseStore);
+        order.verify(databaseStore).writeAll(anyString(), any(), any(), any());
+        order.verify(databaseStore).release(anyString());
+    }
+}
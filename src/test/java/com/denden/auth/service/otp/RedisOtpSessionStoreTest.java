@@ -0,0 +1,155 @@
+package com.denden.auth.service.otp;
+
+import com.denden.auth.config.RedisResilienceProperties;
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.model.OtpIssueResult;
+import com.denden.auth.service.lockout.AccountLockoutService;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * RedisOtpSessionStore（otp_issue.lua）測試
+ *
+ * <p>需要可連線的 Redis（REDIS_HOST / REDIS_PORT，預設 localhost:6379），無法連線時略過。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("RedisOtpSessionStore 發送測試")
+class RedisOtpSessionStoreTest {
+
+    private static final long USER_ID = 42L;
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+    private static boolean redisReachable;
+
+    private RedisOtpSessionStore store;
+    private String email;
+
+    @BeforeAll
+    static void connect() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+        connectionFactory = new LettuceConnectionFactory(host, port);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+
+        try {
+            redisReachable = "PONG".equals(redisTemplate.execute(connection -> connection.ping(), true));
+        } catch (RuntimeException e) {
+            redisReachable = false;
+        }
+    }
+
+    @AfterAll
+    static void disconnect() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(redisReachable, "Redis 無法連線，略過測試");
+        email = "otp-issue-" + UUID.randomUUID() + "@example.com";
+
+        SecurityProperties securityProperties = new SecurityProperties();
+        SecurityProperties.Otp otp = securityProperties.getOtp();
+        otp.setExpirationSeconds(300);
+        otp.setMaxAttempts(3);
+        otp.setMaxIssuesPerWindow(2);
+        otp.setIssueWindowSeconds(900);
+
+        store = new RedisOtpSessionStore(redisTemplate, new RedisCircuitBreaker(
+                redisTemplate, new RedisResilienceProperties(), new SimpleMeterRegistry()), securityProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (redisReachable) {
+            redisTemplate.delete(List.of(AccountLockoutService.lockKey(email), otpKey(), "otp_quota:{" + email + "}"));
+        }
+    }
+
+    @Test
+    @DisplayName("發送 - 應寫入含使用者 ID 的會話並設定有效時間")
+    void testIssueWritesSession() {
+        OtpIssueResult result = store.issue(email, USER_ID, "123456", false);
+
+        assertTrue(result.issued());
+        assertEquals("123456", redisTemplate.opsForHash().get(otpKey(), "otp"));
+        assertEquals("0", redisTemplate.opsForHash().get(otpKey(), "attempts"));
+        assertEquals(Long.toString(USER_ID), redisTemplate.opsForHash().get(otpKey(), "user_id"));
+        Long ttl = redisTemplate.getExpire(otpKey(), TimeUnit.SECONDS);
+        assertTrue(ttl != null && ttl > 290 && ttl <= 300, "TTL: " + ttl);
+
+        OtpVerification verification = store.verify(email, "123456");
+        assertTrue(verification.isVerified());
+        assertEquals(USER_ID, verification.userId());
+    }
+
+    @Test
+    @DisplayName("鎖定中 - 應返回 ACCOUNT_LOCKED 與剩餘鎖定時間，不寫入會話也不消耗額度")
+    void testIssueRejectedWhileLocked() {
+        redisTemplate.opsForValue().set(AccountLockoutService.lockKey(email), "locked", 10, TimeUnit.MINUTES);
+
+        OtpIssueResult result = store.issue(email, USER_ID, "123456", false);
+
+        assertEquals(OtpIssueResult.Status.ACCOUNT_LOCKED, result.status());
+        assertTrue(result.retryAfterMillis() > 590_000 && result.retryAfterMillis() <= 600_000);
+        assertFalse(redisTemplate.hasKey(otpKey()));
+        assertFalse(redisTemplate.hasKey("otp_quota:{" + email + "}"));
+    }
+
+    @Test
+    @DisplayName("發送額度 - 超過視窗內的發送次數應拒絕並保留既有會話")
+    void testIssueQuotaExceeded() {
+        assertTrue(store.issue(email, USER_ID, "111111", false).issued());
+        assertTrue(store.issue(email, USER_ID, "222222", false).issued());
+
+        OtpIssueResult result = store.issue(email, USER_ID, "333333", false);
+
+        assertEquals(OtpIssueResult.Status.QUOTA_EXCEEDED, result.status());
+        assertTrue(result.retryAfterMillis() > 0);
+        assertEquals("222222", redisTemplate.opsForHash().get(otpKey(), "otp"));
+    }
+
+    @Test
+    @DisplayName("重新發送 - 無會話時返回 NO_ACTIVE_SESSION；有會話時保留使用者 ID 並歸零錯誤次數")
+    void testReissue() {
+        assertEquals(OtpIssueResult.Status.NO_ACTIVE_SESSION,
+                store.issue(email, null, "111111", true).status());
+
+        store.issue(email, USER_ID, "111111", false);
+        store.verify(email, "000000");
+        assertEquals("1", redisTemplate.opsForHash().get(otpKey(), "attempts"));
+
+        assertTrue(store.issue(email, null, "222222", true).issued());
+
+        assertEquals("0", redisTemplate.opsForHash().get(otpKey(), "attempts"));
+        assertEquals(Long.toString(USER_ID), redisTemplate.opsForHash().get(otpKey(), "user_id"));
+        assertEquals(USER_ID, store.verify(email, "222222").userId());
+    }
+
+    private String otpKey() {
+        return "otp:email:{" + email + "}";
+    }
+}
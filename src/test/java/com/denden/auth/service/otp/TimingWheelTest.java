@@ -0,0 +1,79 @@
+package com.denden.auth.service.otp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TimingWheel 測試
+ */
+@DisplayName("TimingWheel 測試")
+class TimingWheelTest {
+
+    private static final long TICK = 100;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("到期時間 - 各層的項目都在到期的 tick 交出，不提早也不延遲")
+    void testItemsExpireAtTheirDeadlineAcrossLevels() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, START);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long deadline = START + 1 + (long) (random.nextDouble() * TICK * 300_000);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+        wheel.schedule(START + 5 * TICK, START + 5 * TICK);
+        deadlines.add(START + 5 * TICK);
+
+        List<Long> expired = new ArrayList<>();
+        for (long now = START; expired.size() < deadlines.size(); now += TICK) {
+            long current = now;
+            wheel.advance(now, deadline -> {
+                assertTrue(deadline <= current, "提早到期");
+                assertTrue(deadline > current - TICK, "延遲到期");
+                expired.add(deadline);
+            });
+        }
+
+        assertEquals(deadlines.size(), expired.size());
+    }
+
+    @Test
+    @DisplayName("已過期 - 於下一個 tick 交出")
+    void testPastDeadlineExpiresOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        wheel.advance(START + 10 * TICK, item -> fail("不應有項目"));
+
+        wheel.schedule("late", START);
+        List<String> expired = new ArrayList<>();
+        wheel.advance(START + 10 * TICK, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(START + 11 * TICK, expired::add);
+        assertEquals(List.of("late"), expired);
+    }
+
+    @Test
+    @DisplayName("跳躍推進 - 一次推進多個 tick 也交出所有到期項目")
+    void testAdvanceOverManyTicks() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, START);
+        for (int i = 1; i <= 5000; i++) {
+            wheel.schedule(i, START + i * 37L * TICK);
+        }
+
+        List<Integer> expired = new ArrayList<>();
+        wheel.advance(START + 5000L * 37 * TICK, expired::add);
+
+        assertEquals(5000, expired.size());
+        for (int i = 0; i < expired.size(); i++) {
+            assertEquals(i + 1, expired.get(i));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.denden.auth.service.password;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PasswordCostCalibrator 測試
+ *
+ * <p>以極小與極大的目標耗時驗證上下限，不依賴實際硬體速度。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("PasswordCostCalibrator 測試")
+class PasswordCostCalibratorTest {
+
+    @Test
+    @DisplayName("BCrypt - 目標耗時低於下限成本的耗時時使用下限")
+    void testBcryptFloor() {
+        assertEquals(4, PasswordCostCalibrator.bcryptStrength(0, 4, 31));
+    }
+
+    @Test
+    @DisplayName("BCrypt - 目標耗時很長時不超過上限")
+    void testBcryptCeiling() {
+        assertEquals(6, PasswordCostCalibrator.bcryptStrength(Long.MAX_VALUE, 4, 6));
+        assertEquals(4, PasswordCostCalibrator.bcryptStrength(Long.MAX_VALUE, 4, 4));
+    }
+
+    @Test
+    @DisplayName("PBKDF2 - 不低於下限，且取整到千")
+    void testPbkdf2Floor() {
+        assertEquals(310_000, PasswordCostCalibrator.pbkdf2Iterations(0, 310_000));
+
+        int iterations = PasswordCostCalibrator.pbkdf2Iterations(60_000, 1000);
+        assertTrue(iterations >= 1000);
+        assertEquals(0, iterations % 1000);
+    }
+
+    @Test
+    @DisplayName("Argon2 - 不低於建議的最低迭代次數，且不超過 100")
+    void testArgon2Bounds() {
+        assertEquals(PasswordCostCalibrator.MIN_ARGON2_ITERATIONS, PasswordCostCalibrator.argon2Iterations(0, 1024, 1));
+        assertEquals(100, PasswordCostCalibrator.argon2Iterations(Long.MAX_VALUE, 1024, 1));
+    }
+}
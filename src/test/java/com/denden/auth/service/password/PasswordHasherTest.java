@@ -0,0 +1,153 @@
+package com.denden.auth.service.password;
+
+import com.denden.auth.config.SecurityProperties;
+import com.denden.auth.exception.ErrorCode;
+import com.denden.auth.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PasswordHasher 測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("PasswordHasher 測試")
+class PasswordHasherTest {
+
+    private SecurityProperties securityProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHasher hasher;
+
+    @BeforeEach
+    void setUp() {
+        securityProperties = new SecurityProperties();
+        SecurityProperties.PasswordHashing config = securityProperties.getPasswordHashing();
+        config.setThreads(1);
+        config.setQueueCapacity(1);
+        config.setRetryAfterSeconds(3);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) {
+            hasher.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("雜湊與驗證 - 應在執行緒池中完成並返回結果")
+    void testEncodeAndMatches() {
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(4), securityProperties, meterRegistry);
+
+        String hash = hasher.encode("Secret123!");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(hasher.matches("Secret123!", hash));
+        assertFalse(hasher.matches("Secret124!", hash));
+        assertFalse(hasher.upgradeEncoding(hash));
+        assertEquals(1, meterRegistry.get("password_hash.duration").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("password_hash.duration").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("佇列已滿 - 應立即拋出 ServiceOverloadedException")
+    void testQueueFullRejects() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        hasher = new PasswordHasher(new BlockingPasswordEncoder(release), securityProperties, meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.encode("running"));
+        awaitGauge("password_hash.active", 1);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.encode("queued"));
+        awaitGauge("password_hash.queue.size", 1);
+
+        ServiceOverloadedException exception = assertThrows(ServiceOverloadedException.class,
+                () -> hasher.encode("rejected"));
+
+        assertEquals(ErrorCode.PASSWORD_HASHING_OVERLOADED, exception.getErrorCode());
+        assertEquals(3, exception.getRetryAfterSeconds());
+        assertEquals(1, rejected("queue_full"));
+
+        release.countDown();
+        assertEquals("hash:running", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:queued", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("等待逾時 - 在佇列中等待超過 max-queue-wait-ms 的工作不應執行")
+    void testQueueDeadline() throws Exception {
+        securityProperties.getPasswordHashing().setMaxQueueWaitMs(50);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingPasswordEncoder encoder = new BlockingPasswordEncoder(release);
+        hasher = new PasswordHasher(encoder, securityProperties, meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.encode("running"));
+        awaitGauge("password_hash.active", 1);
+        CompletableFuture<Boolean> late = CompletableFuture.supplyAsync(() -> hasher.matches("late", "hash:late"));
+        awaitGauge("password_hash.queue.size", 1);
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        release.countDown();
+
+        assertEquals("hash:running", running.get(5, TimeUnit.SECONDS));
+        Exception exception = assertThrows(Exception.class, () -> late.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ServiceOverloadedException.class, exception.getCause());
+        assertEquals(1, encoder.calls);
+        assertEquals(1, meterRegistry.get("password_hash.rejected")
+                .tag("operation", "matches").tag("reason", "deadline").counter().count());
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("password_hash.rejected")
+                .tag("operation", "encode").tag("reason", reason).counter().count();
+    }
+
+    private void awaitGauge(String name, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(name).gauge().value() != expected) {
+            assertTrue(System.nanoTime() < deadline, name + " 未達到 " + expected);
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    /**
+     * 在 release 之前阻塞的 PasswordEncoder，用來佔住唯一的雜湊執行緒
+     */
+    private static final class BlockingPasswordEncoder implements PasswordEncoder {
+
+        private final CountDownLatch release;
+        private volatile int calls;
+
+        private BlockingPasswordEncoder(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            calls++;
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
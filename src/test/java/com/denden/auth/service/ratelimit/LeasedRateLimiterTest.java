@@ -0,0 +1,151 @@
+package com.denden.auth.service.ratelimit;
+
+import com.denden.auth.config.SecurityProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * LeasedRateLimiter 測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("LeasedRateLimiter 測試")
+class LeasedRateLimiterTest {
+
+    private static final String KEY = "rate_limit:ip:203.0.113.7";
+    private static final int LIMIT = 100;
+    private static final int WINDOW = 60;
+    private static final int LEASE_SIZE = 10;
+
+    private RedisRateLimiter redisRateLimiter;
+    private SecurityProperties securityProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private LeasedRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        redisRateLimiter = mock(RedisRateLimiter.class);
+        securityProperties = new SecurityProperties();
+        SecurityProperties.LocalRateLimit local = securityProperties.getRateLimit().getLocal();
+        local.setLeaseFraction(0.1);
+        local.setMaxLeaseSize(50);
+        local.setLeaseTtlMs(60_000);
+
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new LeasedRateLimiter(redisRateLimiter, securityProperties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("突發流量 - 一次租借的額度應在本地扣減，用完才再向 Redis 租借")
+    void testBurstServedFromLease() {
+        when(redisRateLimiter.lease(KEY, LIMIT, WINDOW, LEASE_SIZE))
+                .thenReturn(new RateLimitLease(LEASE_SIZE, 90, 0, 6000))
+                .thenReturn(new RateLimitLease(LEASE_SIZE, 80, 0, 12000));
+
+        for (int i = 0; i < LEASE_SIZE; i++) {
+            RateLimitDecision decision = limiter.tryAcquire(KEY, LIMIT, WINDOW);
+            assertTrue(decision.allowed());
+            assertEquals(99 - i, decision.remaining());
+        }
+        verify(redisRateLimiter, times(1)).lease(KEY, LIMIT, WINDOW, LEASE_SIZE);
+
+        assertTrue(limiter.tryAcquire(KEY, LIMIT, WINDOW).allowed());
+
+        verify(redisRateLimiter, times(2)).lease(KEY, LIMIT, WINDOW, LEASE_SIZE);
+        assertEquals(LEASE_SIZE - 1, outstandingTokens());
+    }
+
+    @Test
+    @DisplayName("額度用盡 - Redis 拒絕後，封鎖期間內應在本地直接拒絕")
+    void testDeniedWhileBlocked() {
+        when(redisRateLimiter.lease(KEY, LIMIT, WINDOW, LEASE_SIZE))
+                .thenReturn(new RateLimitLease(0, 0, 5000, 60000));
+
+        RateLimitDecision first = limiter.tryAcquire(KEY, LIMIT, WINDOW);
+        RateLimitDecision second = limiter.tryAcquire(KEY, LIMIT, WINDOW);
+
+        assertFalse(first.allowed());
+        assertEquals(5000, first.retryAfterMillis());
+        assertFalse(second.allowed());
+        assertTrue(second.retryAfterMillis() > 0 && second.retryAfterMillis() <= 5000);
+        verify(redisRateLimiter, times(1)).lease(anyString(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("小額度 key - 批次大小為 1，每次都向 Redis 判定")
+    void testSmallLimitLeasesOneAtATime() {
+        when(redisRateLimiter.lease(eq(KEY), eq(5), eq(WINDOW), eq(1)))
+                .thenReturn(new RateLimitLease(1, 4, 0, 12000));
+
+        limiter.tryAcquire(KEY, 5, WINDOW);
+        limiter.tryAcquire(KEY, 5, WINDOW);
+
+        verify(redisRateLimiter, times(2)).lease(KEY, 5, WINDOW, 1);
+        assertEquals(0, outstandingTokens());
+    }
+
+    @Test
+    @DisplayName("租約到期 - 未用完的額度應丟棄並計入偏差指標，下一次請求重新租借")
+    void testExpiredLeaseIsDiscarded() throws InterruptedException {
+        securityProperties.getRateLimit().getLocal().setLeaseTtlMs(50);
+        when(redisRateLimiter.lease(KEY, LIMIT, WINDOW, LEASE_SIZE))
+                .thenReturn(new RateLimitLease(LEASE_SIZE, 90, 0, 6000));
+
+        limiter.tryAcquire(KEY, LIMIT, WINDOW);
+        limiter.tryAcquire(KEY, LIMIT, WINDOW);
+        assertEquals(LEASE_SIZE - 2, outstandingTokens());
+
+        TimeUnit.MILLISECONDS.sleep(80);
+        assertTrue(limiter.tryAcquire(KEY, LIMIT, WINDOW).allowed());
+
+        verify(redisRateLimiter, times(2)).lease(KEY, LIMIT, WINDOW, LEASE_SIZE);
+        assertEquals(LEASE_SIZE - 1, outstandingTokens());
+        assertEquals(LEASE_SIZE - 2, expiredTokens());
+    }
+
+    @Test
+    @DisplayName("閒置清除 - 租約到期的桶應移除，剩餘額度計入偏差指標")
+    void testEvictIdleBucketReturnsLeftover() throws InterruptedException {
+        securityProperties.getRateLimit().getLocal().setLeaseTtlMs(50);
+        when(redisRateLimiter.lease(KEY, LIMIT, WINDOW, LEASE_SIZE))
+                .thenReturn(new RateLimitLease(LEASE_SIZE, 90, 0, 6000));
+
+        limiter.tryAcquire(KEY, LIMIT, WINDOW);
+        TimeUnit.MILLISECONDS.sleep(80);
+        limiter.evictIdleBuckets();
+
+        assertEquals(0, outstandingTokens());
+        assertEquals(LEASE_SIZE - 1, expiredTokens());
+        assertEquals(0, meterRegistry.get("rate_limit.local.buckets").gauge().value());
+    }
+
+    @Test
+    @DisplayName("停用本地層 - 應直接向 Redis 單次判定")
+    void testDisabledDelegatesToRedis() {
+        securityProperties.getRateLimit().getLocal().setEnabled(false);
+        RateLimitDecision expected = new RateLimitDecision(true, LIMIT, 99, 0, 600);
+        when(redisRateLimiter.tryAcquire(KEY, LIMIT, WINDOW)).thenReturn(expected);
+
+        assertSame(expected, limiter.tryAcquire(KEY, LIMIT, WINDOW));
+        verify(redisRateLimiter, never()).lease(anyString(), anyInt(), anyInt(), anyInt());
+    }
+
+    private long outstandingTokens() {
+        return (long) meterRegistry.get("rate_limit.lease.tokens.outstanding").gauge().value();
+    }
+
+    private long expiredTokens() {
+        return (long) meterRegistry.get("rate_limit.lease.tokens").tag("state", "expired").counter().count();
+    }
+}
@@ -0,0 +1,136 @@
+package com.denden.auth.service.ratelimit;
+
+import com.denden.auth.config.RedisResilienceProperties;
+import com.denden.auth.service.redis.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * RedisRateLimiter（rate_limit_gcra.lua）測試
+ *
+ * <p>需要可連線的 Redis（REDIS_HOST / REDIS_PORT，預設 localhost:6379），無法連線時略過。</p>
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("RedisRateLimiter GCRA 測試")
+class RedisRateLimiterTest {
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+    private static boolean redisReachable;
+
+    private RedisRateLimiter rateLimiter;
+    private String key;
+
+    @BeforeAll
+    static void connect() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+        connectionFactory = new LettuceConnectionFactory(host, port);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+
+        try {
+            redisReachable = "PONG".equals(redisTemplate.execute(connection -> connection.ping(), true));
+        } catch (RuntimeException e) {
+            redisReachable = false;
+        }
+    }
+
+    @AfterAll
+    static void disconnect() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(redisReachable, "Redis 無法連線，略過測試");
+        key = "rate_limit:test:" + UUID.randomUUID();
+        rateLimiter = new RedisRateLimiter(redisTemplate, new RedisCircuitBreaker(
+                redisTemplate, new RedisResilienceProperties(), new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (redisReachable) {
+            redisTemplate.delete(key);
+        }
+    }
+
+    @Test
+    @DisplayName("突發流量 - 應放行 limit 次，之後拒絕並返回單一間隔的等待時間")
+    void testBurstUpToLimit() {
+        for (int i = 0; i < 10; i++) {
+            RateLimitDecision decision = rateLimiter.tryAcquire(key, 10, 60);
+            assertTrue(decision.allowed(), "第 " + (i + 1) + " 次應放行");
+            assertEquals(9 - i, decision.remaining());
+        }
+
+        RateLimitDecision denied = rateLimiter.tryAcquire(key, 10, 60);
+
+        assertFalse(denied.allowed());
+        assertEquals(0, denied.remaining());
+        assertTrue(denied.retryAfterMillis() > 0 && denied.retryAfterMillis() <= 6000,
+                "retryAfter 應不超過一個間隔: " + denied.retryAfterMillis());
+        assertTrue(denied.resetAfterMillis() > 54_000 && denied.resetAfterMillis() <= 60_000);
+    }
+
+    @Test
+    @DisplayName("穩定速率 - 額度用盡後每經過一個間隔恢復一次額度")
+    void testSteadyRate() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimiter.tryAcquire(key, 5, 1).allowed());
+        }
+        RateLimitDecision denied = rateLimiter.tryAcquire(key, 5, 1);
+        assertFalse(denied.allowed());
+
+        TimeUnit.MILLISECONDS.sleep(denied.retryAfterMillis() + 20);
+
+        assertTrue(rateLimiter.tryAcquire(key, 5, 1).allowed());
+        assertFalse(rateLimiter.tryAcquire(key, 5, 1).allowed());
+    }
+
+    @Test
+    @DisplayName("租借 - 額度不足時只給部分額度，無額度時 granted 為 0")
+    void testPartialLease() {
+        RateLimitLease first = rateLimiter.lease(key, 10, 60, 4);
+        RateLimitLease second = rateLimiter.lease(key, 10, 60, 10);
+        RateLimitLease third = rateLimiter.lease(key, 10, 60, 10);
+
+        assertEquals(4, first.granted());
+        assertEquals(6, first.remaining());
+        assertEquals(6, second.granted());
+        assertEquals(0, second.remaining());
+        assertEquals(0, third.granted());
+        assertTrue(third.retryAfterMillis() > 0);
+    }
+
+    @Test
+    @DisplayName("TTL - key 應永遠帶有不超過週期的 TTL")
+    void testKeyAlwaysHasTtl() {
+        rateLimiter.tryAcquire(key, 10, 60);
+
+        Long ttl = redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+
+        assertNotNull(ttl);
+        assertTrue(ttl > 0 && ttl <= 6000, "TTL 應為一個間隔: " + ttl);
+    }
+}
@@ -0,0 +1,167 @@
+package com.denden.auth.service.redis;
+
+import com.denden.auth.config.RedisResilienceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * RedisCircuitBreaker 狀態機測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("RedisCircuitBreaker 狀態機測試")
+class RedisCircuitBreakerTest {
+
+    private static final int THRESHOLD = 3;
+    private static final long OPEN_DURATION_MS = 50;
+
+    private StringRedisTemplate redisTemplate;
+    private RedisCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        RedisResilienceProperties properties = new RedisResilienceProperties();
+        properties.setFailureThreshold(THRESHOLD);
+        properties.setOpenDurationMs(OPEN_DURATION_MS);
+
+        redisTemplate = mock(StringRedisTemplate.class);
+        breaker = new RedisCircuitBreaker(redisTemplate, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("CLOSED - 連續失敗達門檻後應開啟，成功會重設計數")
+    void testOpensAfterConsecutiveFailures() {
+        failTimes(THRESHOLD - 1);
+        assertEquals("ok", breaker.execute(() -> "ok"));
+        assertEquals(0, breaker.getConsecutiveFailures());
+
+        failTimes(THRESHOLD - 1);
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+        failTimes(1);
+
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.getOpenedAt() > 0);
+    }
+
+    @Test
+    @DisplayName("CLOSED - 非 DataAccessException 不應計為失敗")
+    void testNonRedisExceptionIsNotFailure() {
+        for (int i = 0; i < THRESHOLD * 2; i++) {
+            assertThrows(IllegalStateException.class, () -> breaker.execute(() -> {
+                throw new IllegalStateException("腳本返回格式錯誤");
+            }));
+        }
+
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("OPEN - 應直接拒絕且不呼叫 Redis")
+    void testOpenRejectsWithoutCalling() {
+        open();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(RedisCircuitOpenException.class, () -> breaker.execute(calls::incrementAndGet));
+
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    @DisplayName("HALF_OPEN - 只放行一個探測，成功後關閉")
+    void testHalfOpenProbeSuccessCloses() throws InterruptedException {
+        open();
+        TimeUnit.MILLISECONDS.sleep(OPEN_DURATION_MS + 20);
+
+        String result = breaker.execute(() -> {
+            assertEquals(RedisCircuitBreaker.State.HALF_OPEN, breaker.getState());
+            assertThrows(RedisCircuitOpenException.class, () -> breaker.execute(() -> "concurrent"));
+            return "probe";
+        });
+
+        assertEquals("probe", result);
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("HALF_OPEN - 探測失敗應重新開啟")
+    void testHalfOpenProbeFailureReopens() throws InterruptedException {
+        open();
+        long firstOpenedAt = breaker.getOpenedAt();
+        TimeUnit.MILLISECONDS.sleep(OPEN_DURATION_MS + 20);
+
+        failTimes(1);
+
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.getOpenedAt() > firstOpenedAt);
+    }
+
+    @Test
+    @DisplayName("HALF_OPEN - 探測拋出 Error 時應回到 OPEN，之後可再次探測")
+    void testHalfOpenProbeErrorReleasesProbe() throws InterruptedException {
+        open();
+        TimeUnit.MILLISECONDS.sleep(OPEN_DURATION_MS + 20);
+
+        assertThrows(StackOverflowError.class, () -> breaker.execute(() -> {
+            throw new StackOverflowError();
+        }));
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+
+        TimeUnit.MILLISECONDS.sleep(OPEN_DURATION_MS + 20);
+        assertEquals("ok", breaker.execute(() -> "ok"));
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("CLOSED - Error 不應改變狀態")
+    void testErrorWhileClosedKeepsState() {
+        assertThrows(AssertionError.class, () -> breaker.execute(() -> {
+            throw new AssertionError();
+        }));
+
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getConsecutiveFailures());
+    }
+
+    @Test
+    @DisplayName("背景探測 - 開啟超過 open-duration 後以 PING 恢復")
+    @SuppressWarnings("unchecked")
+    void testBackgroundProbeCloses() throws InterruptedException {
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn("PONG");
+        open();
+
+        breaker.probe();
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+
+        TimeUnit.MILLISECONDS.sleep(OPEN_DURATION_MS + 20);
+        breaker.probe();
+
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private void open() {
+        failTimes(THRESHOLD);
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private void failTimes(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThrows(DataAccessResourceFailureException.class, () -> breaker.execute(() -> {
+                throw new DataAccessResourceFailureException("Redis 無法連線");
+            }));
+        }
+    }
+}
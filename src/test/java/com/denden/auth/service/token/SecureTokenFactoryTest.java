@@ -0,0 +1,65 @@
+package com.denden.auth.service.token;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SecureTokenFactory 測試
+ */
+@DisplayName("SecureTokenFactory 測試")
+class SecureTokenFactoryTest {
+
+    private final SecureTokenFactory factory = new SecureTokenFactory();
+
+    @Test
+    @DisplayName("數字 - 長度正確且各數字出現頻率接近均勻")
+    void testDigitsAreUniform() {
+        int[] counts = new int[10];
+        int samples = 20_000;
+        for (int i = 0; i < samples; i++) {
+            String otp = factory.digits(6);
+            assertTrue(otp.matches("\\d{6}"));
+            for (char c : otp.toCharArray()) {
+                counts[c - '0']++;
+            }
+        }
+
+        double expected = samples * 6 / 10.0;
+        double chiSquare = 0;
+        for (int count : counts) {
+            chiSquare += (count - expected) * (count - expected) / expected;
+        }
+        // 自由度 9，p = 0.001 的臨界值為 27.88
+        assertTrue(chiSquare < 27.88, "卡方值過大: " + chiSquare);
+    }
+
+    @Test
+    @DisplayName("UUID - 第 4 版格式，多執行緒下不重複")
+    void testUuidsAreVersion4AndUniqueAcrossThreads() throws InterruptedException {
+        Set<String> uuids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    uuids.add(factory.uuid());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(40_000, uuids.size());
+        UUID uuid = UUID.fromString(uuids.iterator().next());
+        assertEquals(4, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+}
@@ -0,0 +1,129 @@
+package com.denden.auth.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CidrTrie 測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("CidrTrie 測試")
+class CidrTrieTest {
+
+    private CidrTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new CidrTrie();
+    }
+
+    @Test
+    @DisplayName("前綴比對 - 網段內的位址應命中，網段外不應命中")
+    void testPrefixMatch() {
+        trie.insert("10.0.0.0/8", CidrTrie.TRUSTED_PROXY);
+        trie.insert("2001:db8::/32", CidrTrie.TRUSTED_PROXY);
+
+        assertEquals(CidrTrie.TRUSTED_PROXY, lookup("10.255.1.2"));
+        assertEquals(0, lookup("11.0.0.1"));
+        assertEquals(0, lookup("9.255.255.255"));
+        assertEquals(CidrTrie.TRUSTED_PROXY, lookup("2001:db8:ffff::1"));
+        assertEquals(0, lookup("2001:db9::1"));
+    }
+
+    @Test
+    @DisplayName("單一位址 - 未帶前綴長度時只比對該位址")
+    void testSingleAddress() {
+        trie.insert("192.0.2.1", CidrTrie.DENY);
+        trie.insert("::1", CidrTrie.TRUSTED_PROXY);
+
+        assertEquals(CidrTrie.DENY, lookup("192.0.2.1"));
+        assertEquals(0, lookup("192.0.2.2"));
+        assertEquals(CidrTrie.TRUSTED_PROXY, lookup("::1"));
+        assertEquals(0, lookup("::2"));
+    }
+
+    @Test
+    @DisplayName("IPv4 與 IPv6 - 各自獨立，0.0.0.0/0 不應命中 IPv6")
+    void testFamiliesAreSeparate() {
+        trie.insert("0.0.0.0/0", CidrTrie.ALLOW);
+
+        assertEquals(CidrTrie.ALLOW, lookup("203.0.113.9"));
+        assertEquals(0, lookup("2001:db8::1"));
+        assertEquals(CidrTrie.ALLOW, lookup("::ffff:203.0.113.9"));
+    }
+
+    @Test
+    @DisplayName("allow / deny - 應以最精確的前綴為準")
+    void testMostSpecificAllowDenyWins() {
+        trie.insert("10.0.0.0/8", CidrTrie.DENY);
+        trie.insert("10.1.0.0/16", CidrTrie.ALLOW);
+        trie.insert("10.1.2.0/24", CidrTrie.DENY);
+
+        assertEquals(CidrTrie.DENY, lookup("10.2.0.1"));
+        assertEquals(CidrTrie.ALLOW, lookup("10.1.9.9"));
+        assertEquals(CidrTrie.DENY, lookup("10.1.2.3"));
+    }
+
+    @Test
+    @DisplayName("allow / deny - 同一前綴同時設定時以 deny 為準")
+    void testSamePrefixDenyWins() {
+        trie.insert("198.51.100.0/24", CidrTrie.ALLOW);
+        trie.insert("198.51.100.0/24", CidrTrie.DENY);
+
+        assertEquals(CidrTrie.DENY, lookup("198.51.100.7"));
+    }
+
+    @Test
+    @DisplayName("標記聯集 - 受信任代理標記應與 allow / deny 並存")
+    void testFlagsAreCombined() {
+        trie.insert("10.0.0.0/8", CidrTrie.TRUSTED_PROXY);
+        trie.insert("10.0.0.0/24", CidrTrie.ALLOW);
+
+        assertEquals(CidrTrie.TRUSTED_PROXY | CidrTrie.ALLOW, lookup("10.0.0.5"));
+        assertEquals(CidrTrie.TRUSTED_PROXY, lookup("10.0.1.5"));
+    }
+
+    @Test
+    @DisplayName("擴充容量 - 大量網段仍應正確查詢")
+    void testGrowsBeyondInitialCapacity() {
+        for (int i = 0; i < 256; i++) {
+            trie.insert("172.16." + i + ".0/24", CidrTrie.DENY);
+        }
+
+        assertTrue(trie.nodeCount() > 256);
+        assertEquals(CidrTrie.DENY, lookup("172.16.0.1"));
+        assertEquals(CidrTrie.DENY, lookup("172.16.255.254"));
+        assertEquals(0, lookup("172.17.0.1"));
+    }
+
+    @Test
+    @DisplayName("空樹 - isEmpty 應為 true，查詢返回 0")
+    void testEmpty() {
+        assertTrue(trie.isEmpty());
+        assertEquals(0, lookup("10.0.0.1"));
+        assertEquals(0, trie.lookup(null));
+
+        trie.insert("::/0", CidrTrie.ALLOW);
+
+        assertFalse(trie.isEmpty());
+        assertEquals(CidrTrie.ALLOW, lookup("2001:db8::1"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"10.0.0.0/33", "10.0.0.0/-1", "10.0.0.0/x", "10.0.0.0/", "::/129", "not-an-ip/8", "10.0.0/8"})
+    @DisplayName("格式錯誤 - 應拋出 IllegalArgumentException")
+    void testInvalidCidr(String cidr) {
+        assertThrows(IllegalArgumentException.class, () -> trie.insert(cidr, CidrTrie.ALLOW));
+    }
+
+    private int lookup(String address) {
+        return trie.lookup(IpAddress.parse(address));
+    }
+}
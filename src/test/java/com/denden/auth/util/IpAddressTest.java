@@ -0,0 +1,141 @@
+package com.denden.auth.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * IpAddress 解析測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("IpAddress 解析測試")
+class IpAddressTest {
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+            "192.0.2.1, 192.0.2.1",
+            "0.0.0.0, 0.0.0.0",
+            "255.255.255.255, 255.255.255.255",
+            "' 203.0.113.9 ', 203.0.113.9",
+            "192.0.2.1:8080, 192.0.2.1"
+    })
+    @DisplayName("IPv4 - 應解析為標準格式")
+    void testParseIpv4(String input, String expected) {
+        IpAddress address = IpAddress.parse(input);
+
+        assertNotNull(address);
+        assertFalse(address.ipv6());
+        assertEquals(32, address.bitLength());
+        assertEquals(expected, address.toString());
+    }
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+            "::, ::",
+            "::1, ::1",
+            "1::, 1::",
+            "2001:db8::1, 2001:db8::1",
+            "2001:DB8:0:0:0:0:0:1, 2001:db8::1",
+            "2001:0db8:0000:0000:0000:0000:0000:0001, 2001:db8::1",
+            "2001:db8:0:0:1:0:0:1, 2001:db8::1:0:0:1",
+            "1:2:3:4:5:6:7::, 1:2:3:4:5:6:7:0",
+            "::2:3:4:5:6:7:8, 0:2:3:4:5:6:7:8",
+            "fe80::1%eth0, fe80::1",
+            "[2001:db8::1], 2001:db8::1",
+            "[2001:db8::1]:8443, 2001:db8::1",
+            "[fe80::1%25en0]:80, fe80::1",
+            "64:ff9b::192.0.2.1, 64:ff9b::c000:201",
+            "::192.0.2.1, ::c000:201"
+    })
+    @DisplayName("IPv6 - 應處理 :: 縮寫、內嵌 IPv4、[v6]:port 與 zone，並輸出 RFC 5952 格式")
+    void testParseIpv6(String input, String expected) {
+        IpAddress address = IpAddress.parse(input);
+
+        assertNotNull(address, input);
+        assertTrue(address.ipv6());
+        assertEquals(128, address.bitLength());
+        assertEquals(expected, address.toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"::ffff:192.0.2.1", "[::ffff:192.0.2.1]:443", "::FFFF:c000:0201"})
+    @DisplayName("IPv4-mapped IPv6 - 應轉為 IPv4")
+    void testIpv4MappedIpv6(String input) {
+        IpAddress address = IpAddress.parse(input);
+
+        assertNotNull(address);
+        assertFalse(address.ipv6());
+        assertEquals("192.0.2.1", address.toString());
+        assertEquals(IpAddress.parse("192.0.2.1"), address);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {
+            " ",
+            "localhost",
+            "256.0.0.1",
+            "1.2.3",
+            "1.2.3.4.5",
+            "1.2.3.4.",
+            ".1.2.3",
+            "1..2.3",
+            "010.0.0.1",
+            "01.2.3.4",
+            "1.2.3.0004",
+            "1.2.3.-4",
+            ":",
+            ":::",
+            ":1::2",
+            "1::2::3",
+            "1:2:3:4:5:6:7:8:9",
+            "1:2:3:4:5:6:7::8",
+            "1:2:3:4:5:6:7",
+            "1:2:3:4:5:6:7:",
+            "12345::1",
+            "g::1",
+            "1:2:3:4:5:6:7:1.2.3.4",
+            "::1.2.3",
+            "::256.1.1.1",
+            "[::1",
+            "1111:2222:3333:4444:5555:6666:7777:8888:9999:aaaa:bbbb:cccc:dddd"
+    })
+    @DisplayName("格式錯誤 - 應返回 null")
+    void testParseInvalid(String input) {
+        assertNull(IpAddress.parse(input));
+    }
+
+    @Test
+    @DisplayName("bit - 應由最高位開始取位元")
+    void testBit() {
+        IpAddress ipv4 = IpAddress.parse("128.0.0.1");
+        IpAddress ipv6 = IpAddress.parse("8000::1");
+
+        assertEquals(1, ipv4.bit(0));
+        assertEquals(0, ipv4.bit(1));
+        assertEquals(1, ipv4.bit(31));
+        assertEquals(1, ipv6.bit(0));
+        assertEquals(0, ipv6.bit(64));
+        assertEquals(1, ipv6.bit(127));
+    }
+
+    @Test
+    @DisplayName("mask - 應只保留前綴位元")
+    void testMask() {
+        assertEquals("192.168.1.0", IpAddress.parse("192.168.1.77").mask(24).toString());
+        assertEquals("0.0.0.0", IpAddress.parse("192.168.1.77").mask(0).toString());
+        assertEquals("192.168.1.77", IpAddress.parse("192.168.1.77").mask(32).toString());
+        assertEquals("2001:db8:1:2::", IpAddress.parse("2001:db8:1:2:3:4:5:6").mask(64).toString());
+        assertEquals("2001:db8:1:2:3:4:5:0", IpAddress.parse("2001:db8:1:2:3:4:5:6").mask(112).toString());
+        assertEquals("2001:db8::", IpAddress.parse("2001:db8:1:2:3:4:5:6").mask(32).toString());
+        assertThrows(IllegalArgumentException.class, () -> IpAddress.parse("192.0.2.1").mask(33));
+        assertThrows(IllegalArgumentException.class, () -> IpAddress.parse("::1").mask(-1));
+    }
+}
@@ -0,0 +1,42 @@
+package com.denden.auth.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * MaskingUtils 測試
+ *
+ * @author Timmy
+ * @since 1.1.0
+ */
+@DisplayName("MaskingUtils 測試")
+class MaskingUtilsTest {
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+            "198.51.100.7, 198.51.100.0/24",
+            "10.0.0.255, 10.0.0.0/24",
+            "2001:db8:1:2::/64, 2001:db8:1::/48",
+            "2001:db8:abcd:12:3:4:5:6, 2001:db8:abcd::/48",
+            "not-an-ip, ***",
+            "'', ''"
+    })
+    @DisplayName("maskIp - 應截斷為網段")
+    void testMaskIp(String ip, String expected) {
+        assertEquals(expected, MaskingUtils.maskIp(ip));
+    }
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+            "user@example.com, u***@example.com",
+            "a@example.com, a***@example.com",
+            "no-at-sign, no-at-sign"
+    })
+    @DisplayName("maskEmail - 應保留第一個字元與網域")
+    void testMaskEmail(String email, String expected) {
+        assertEquals(expected, MaskingUtils.maskEmail(email));
+    }
+}